@@ -0,0 +1,106 @@
+package org.fintech.wallet.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one authenticated request spends on its token. {@code perRequestBeforeCache} is what the
+ * filter did before {@link JwtTokenProvider#parse}: four full parses, each deriving the key and
+ * building a parser. The others call {@code parse}/{@code verify} with the claims cache on and
+ * off, over a rotating set of tokens as a busy instance sees them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final int TOKENS = 1000;
+
+    private JwtTokenProvider cached;
+    private JwtTokenProvider uncached;
+    private final String[] tokens = new String[TOKENS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        cached = provider(10000);
+        uncached = provider(0);
+        User user = (User) User.withUsername("user@test.local").password("not-a-hash").authorities(List.of()).build();
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(user, null, List.of());
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = cached.generateAccessToken(authentication, UUID.randomUUID().toString(), UUID.randomUUID());
+        }
+    }
+
+    @Benchmark
+    public void perRequestBeforeCache(Blackhole blackhole) {
+        String token = nextToken();
+        for (int i = 0; i < 4; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            blackhole.consume(claims);
+        }
+    }
+
+    @Benchmark
+    public JwtClaims parseUncached() {
+        return uncached.parse(nextToken());
+    }
+
+    @Benchmark
+    public JwtClaims parseCached() {
+        return cached.parse(nextToken());
+    }
+
+    @Benchmark
+    public JwtClaims verifyUncached() {
+        return uncached.verify(nextToken());
+    }
+
+    @Benchmark
+    public JwtClaims verifyCached() {
+        return cached.verify(nextToken());
+    }
+
+    private String nextToken() {
+        next = (next + 1) % TOKENS;
+        return tokens[next];
+    }
+
+    private static JwtTokenProvider provider(int cacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "claimsCacheSize", cacheSize);
+        provider.validateSecret();
+        return provider;
+    }
+}
@@ -0,0 +1,92 @@
+package org.fintech.wallet.service.impl;
+
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.repository.WalletRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link IdServiceImpl} against the generators it replaced: {@code String.format} of the clock
+ * and {@code Math.random()} for references, and random wallet numbers retried until
+ * {@code existsByWalletNumber} finds no match.
+ * <p>
+ * The existence check runs against an in-memory set of {@code existingWallets} numbers, and the
+ * new block reservation against a counter, so neither side pays a database round trip here. In
+ * production every random attempt costs one query while a block costs one per hundred numbers:
+ * the gap measured here is the smallest it gets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    @Param({"0", "1000000"})
+    int existingWallets;
+
+    private IdServiceImpl ids;
+    private final Random random = new Random();
+    private final Set<String> walletNumbers = new HashSet<>();
+
+    @Setup
+    public void setUp() {
+        AtomicLong blocks = new AtomicLong();
+        WalletRepository walletRepository = (WalletRepository) Proxy.newProxyInstance(
+                WalletRepository.class.getClassLoader(), new Class<?>[]{WalletRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("nextWalletNumberBlock")) {
+                        return blocks.getAndAdd(IdServiceImpl.WALLET_NUMBER_BLOCK_SIZE);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        AppProperties appProperties = new AppProperties();
+        appProperties.getIds().setNodeId(1);
+        ids = new IdServiceImpl(walletRepository, null, appProperties);
+
+        while (walletNumbers.size() < existingWallets) {
+            walletNumbers.add(String.format("WLT%010d", random.nextInt(1000000000)));
+        }
+    }
+
+    @Benchmark
+    public String formattedReference() {
+        return String.format("%s%d%06d", "TXN", System.currentTimeMillis(), (int) (Math.random() * 1000000));
+    }
+
+    @Benchmark
+    public String snowflakeReference() {
+        return ids.nextReference("TXN");
+    }
+
+    @Benchmark
+    public String randomWalletNumberWithExistsCheck() {
+        String walletNumber;
+        do {
+            walletNumber = String.format("WLT%010d", random.nextInt(1000000000));
+        } while (walletNumbers.contains(walletNumber));
+        return walletNumber;
+    }
+
+    @Benchmark
+    public String blockWalletNumber() {
+        return ids.nextWalletNumber();
+    }
+}
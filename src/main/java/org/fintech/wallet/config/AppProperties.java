@@ -1,10 +1,14 @@
 package org.fintech.wallet.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = "app")
@@ -14,17 +18,66 @@ public class AppProperties {
     private RateLimit rateLimit = new RateLimit();
     private Transaction transaction = new Transaction();
     private Kyc kyc = new Kyc();
+    private Outbox outbox = new Outbox();
+    private Ids ids = new Ids();
+    private ReadReplica readReplica = new ReadReplica();
+    private KafkaRetry kafkaRetry = new KafkaRetry();
+    private Fraud fraud = new Fraud();
+    private Audit audit = new Audit();
+    private NotificationDispatch notificationDispatch = new NotificationDispatch();
+    private WebSocket websocket = new WebSocket();
+    private PrincipalCache principalCache = new PrincipalCache();
+    private Revocation revocation = new Revocation();
+    private DashboardStats dashboardStats = new DashboardStats();
+    private ReportJobs reportJobs = new ReportJobs();
 
     @Data
     public static class RateLimit {
         private boolean enabled = true;
+        // Default policy for any /api/** request no route policy matches
         private int requestsPerMinute = 60;
+        private String keyPrefix = "ratelimit:";
+        private int localCacheSize = 100000;
+        private long localCacheTtlSeconds = 300;
+        private List<Policy> policies = new ArrayList<>(List.of(
+                new Policy("login", "POST", "/api/v1/auth/login", 5, 60, KeyBy.IP),
+                new Policy("transfer", "POST", "/api/v1/transactions/transfer", 20, 60, KeyBy.USER)));
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Policy {
+            private String name;
+            // Null or blank matches any method
+            private String method;
+            private String pattern;
+            private int capacity;
+            private long periodSeconds = 60;
+            private KeyBy keyBy = KeyBy.USER;
+        }
+
+        public enum KeyBy {
+            // User id from a valid access token, otherwise the client IP
+            USER,
+            IP
+        }
     }
 
     @Data
     public static class Transaction {
         private BigDecimal maxAmount = new BigDecimal("1000000");
         private BigDecimal minAmount = new BigDecimal("100");
+        // serializable: FOR UPDATE + SERIALIZABLE; read-committed: guarded atomic UPDATEs
+        private String engine = "serializable";
+        private int batchMaxItems = 500;
+        // Withdrawal holds not settled within this window are checked against the gateway by the sweeper
+        private long holdTtlMinutes = 1440;
+        // Gateway that pays out withdrawals: PAYSTACK or FLUTTERWAVE
+        private String payoutGateway = "PAYSTACK";
+        // A payout the gateway has never seen is only abandoned once its hold is older than this
+        private long payoutNotFoundGraceMinutes = 15;
+        // Zone whose calendar days, weeks and months the spend limits reset on
+        private String limitZone = "UTC";
     }
 
     @Data
@@ -32,4 +85,159 @@ public class AppProperties {
         private boolean requiredForWithdrawal = true;
         private BigDecimal maxUnverifiedBalance = new BigDecimal("50000");
     }
+
+    @Data
+    public static class Outbox {
+        // Message keys are hashed into lanes; each lane is drained by one relay at a time
+        private int lanes = 4;
+        private int batchSize = 200;
+        private int maxAttempts = 10;
+        private long sendTimeoutMs = 10000;
+        private int retentionDays = 3;
+        private long pollIntervalMs = 500;
+    }
+
+    @Data
+    public static class Ids {
+        // 0-1023, unique per running instance; leased through Redis when unset
+        private Integer nodeId;
+    }
+
+    @Data
+    public static class ReadReplica {
+        // Route @Transactional(readOnly = true) to the read pool
+        private boolean enabled = true;
+        // Blank: the read pool connects to the primary database
+        private String url;
+        private String username;
+        private String password;
+        private String poolName = "WalletReadPool";
+        private int maximumPoolSize = 5;
+        private int minimumIdle = 1;
+        private long connectionTimeoutMs = 30000;
+        // Reads fall back to the primary while the replica is further behind than this
+        private long maxLagMs = 5000;
+        private long lagCheckIntervalMs = 5000;
+    }
+
+    @Data
+    public static class KafkaRetry {
+        // Deliveries through <topic>-<group>-retry before a record is parked in <topic>-dlt
+        private int maxAttempts = 4;
+        private long initialBackoffMs = 2000;
+        private double multiplier = 5.0;
+        // Must stay below max.poll.interval.ms: the retry listener pauses for this long at most
+        private long maxBackoffMs = 120000;
+    }
+
+    @Data
+    public static class Fraud {
+        private boolean enabled = true;
+        // Window sizes; changing them discards existing Redis checkpoints
+        private int velocityWindowMinutes = 15;
+        private int baselineHours = 24;
+        private int fanoutWindowMinutes = 60;
+        private int velocityThreshold = 5;
+        private int ipVelocityThreshold = 20;
+        private double zScoreThreshold = 3.0;
+        private int minBaselineCount = 5;
+        private int fanoutThreshold = 3;
+        private int failureThreshold = 3;
+        // Scores below this are counted in metrics but not published
+        private int publishMinScore = 30;
+        private long checkpointIntervalMs = 30000;
+        private int idleEvictMinutes = 60;
+    }
+
+    @Data
+    public static class Audit {
+        // The consumer writes a poll once it holds batch-size events or flush-interval-ms has passed
+        private int batchSize = 2000;
+        private long flushIntervalMs = 500;
+        // Monthly partitions kept created beyond the current month
+        private int partitionsAhead = 2;
+        private int maxQueryRangeDays = 92;
+    }
+
+    @Data
+    public static class NotificationDispatch {
+        // concurrency = the provider's limit on parallel requests
+        private Channel email = new Channel(8, 1000);
+        private Channel sms = new Channel(4, 1000);
+        private Channel push = new Channel(8, 2000);
+        private int maxRetries = 3;
+        private long initialBackoffMs = 30000;
+        private double multiplier = 4.0;
+        private long maxBackoffMs = 3600000;
+        private int retryBatchSize = 200;
+        private long retryIntervalMs = 60000;
+        // A claimed retry is not picked up again for this long, even if its result never arrives
+        private long retryLeaseMs = 300000;
+        // Never-attempted notifications older than this (lost to a crash or a full queue) are swept too
+        private long pendingGraceMs = 300000;
+        private long shutdownTimeoutMs = 10000;
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Channel {
+            private int concurrency;
+            private int queueCapacity;
+        }
+    }
+
+    @Data
+    public static class WebSocket {
+        // simple: one node only; redis: pub/sub relay between nodes; stomp: external broker relay
+        private String relay = "simple";
+        // Blank means a random id per start, which is what a restarted node should get anyway
+        private String nodeId = "";
+        private long flushIntervalMs = 20;
+        private int maxPending = 50000;
+        private long sessionTtlHours = 24;
+        private String brokerHost = "localhost";
+        private int brokerPort = 61613;
+        private String brokerLogin = "guest";
+        private String brokerPasscode = "guest";
+    }
+
+    @Data
+    public static class PrincipalCache {
+        private int maxSize = 50000;
+        // Upper bound on staleness if an invalidation message is lost
+        private long ttlSeconds = 300;
+    }
+
+    @Data
+    public static class Revocation {
+        private long expectedRevocations = 1000000;
+        private double falsePositiveRate = 0.001;
+        private long rebuildIntervalMs = 60000;
+        // How long a logout-all keeps mattering: the longest lifetime of a token issued before it
+        private long userEntryTtlHours = 168;
+    }
+
+    @Data
+    public static class DashboardStats {
+        private long foldIntervalMs = 5000;
+        private int foldBatchSize = 10000;
+        // Batches per run; the rest waits for the next run
+        private int maxFoldBatches = 20;
+        // Hourly series older than this are dropped; the dashboard looks back 30 days
+        private int windowDays = 32;
+    }
+
+    @Data
+    public static class ReportJobs {
+        private int workers = 2;
+        // Jobs beyond this stay QUEUED in the database until the sweep hands them out again
+        private int queueCapacity = 20;
+        // Downloads are served from here, so with several nodes it must be a shared volume
+        private String storageDir = System.getProperty("java.io.tmpdir") + "/wallet-reports";
+        private long resultTtlHours = 24;
+        private int progressEvery = 10000;
+        private long sweepIntervalMs = 30000;
+        // A running job without progress for this long is taken as lost with its node
+        private long staleAfterMinutes = 15;
+    }
 }
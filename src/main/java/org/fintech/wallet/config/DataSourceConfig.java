@@ -0,0 +1,116 @@
+package org.fintech.wallet.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Two Hikari pools behind one DataSource: read-write transactions use the primary pool
+ * (spring.datasource.*), {@code @Transactional(readOnly = true)} ones use the read pool
+ * (app.read-replica.*) while {@link ReplicaLagMonitor} reports the replica as caught up.
+ * Without a replica URL the read pool points at the primary database, which still keeps
+ * dashboard and history reads from taking connections the write path needs.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final String REPLICA = "replica";
+    private static final String PRIMARY = "primary";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties, AppProperties appProperties,
+                                           MeterRegistry meterRegistry) {
+        AppProperties.ReadReplica replica = appProperties.getReadReplica();
+        boolean separateHost = StringUtils.hasText(replica.getUrl());
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(replica.getPoolName());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        pool.setJdbcUrl(separateHost ? replica.getUrl() : properties.determineUrl());
+        pool.setUsername(separateHost && StringUtils.hasText(replica.getUsername())
+                ? replica.getUsername() : properties.determineUsername());
+        pool.setPassword(separateHost && StringUtils.hasText(replica.getPassword())
+                ? replica.getPassword() : properties.determinePassword());
+        pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+        pool.setMinimumIdle(replica.getMinimumIdle());
+        pool.setConnectionTimeout(replica.getConnectionTimeoutMs());
+        pool.setReadOnly(true);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("readDataSource") DataSource readDataSource,
+                                               AppProperties appProperties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(readDataSource, appProperties, meterRegistry);
+    }
+
+    /**
+     * The lazy proxy defers taking a physical connection until the transaction manager has
+     * marked it read-only, which is what lets it pick the read side at all.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource,
+                                 ReplicaLagMonitor lagMonitor,
+                                 AppProperties appProperties,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(writeDataSource);
+        if (appProperties.getReadReplica().isEnabled()) {
+            proxy.setReadOnlyDataSource(readOnlyRouter(writeDataSource, readDataSource, lagMonitor, meterRegistry));
+        }
+        return proxy;
+    }
+
+    private DataSource readOnlyRouter(DataSource writeDataSource, DataSource readDataSource,
+                                      ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        Counter toReplica = routedCounter(meterRegistry, REPLICA);
+        Counter toPrimary = routedCounter(meterRegistry, PRIMARY);
+
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                if (lagMonitor.isReplicaUsable()) {
+                    toReplica.increment();
+                    return REPLICA;
+                }
+                toPrimary.increment();
+                return PRIMARY;
+            }
+        };
+        router.setTargetDataSources(Map.of(REPLICA, readDataSource, PRIMARY, writeDataSource));
+        router.setDefaultTargetDataSource(writeDataSource);
+        router.afterPropertiesSet();
+        return router;
+    }
+
+    private Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("wallet.datasource.readonly.routed")
+                .description("Read-only transactions by the pool they were routed to")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -3,6 +3,8 @@ package org.fintech.wallet.config;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.fintech.wallet.dto.event.*;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
+import org.fintech.wallet.kafka.RetryRoutingErrorHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,10 +15,12 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
 import org.springframework.kafka.support.mapping.DefaultJackson2JavaTypeMapper;
 import org.springframework.kafka.support.mapping.Jackson2JavaTypeMapper;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
@@ -27,12 +31,40 @@ import java.util.Map;
 @Configuration
 public class KafkaConsumerConfigDev {
 
+    // Rough serialized size of an AuditLogEvent, to turn the batch size into fetch.min.bytes
+    private static final int AUDIT_EVENT_BYTES = 300;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${spring.kafka.consumer.group-id:wallet-service-group}")
     private String groupId;
 
+    /**
+     * A failing record is moved to its retry topic by the listener itself. This handler covers
+     * whole-poll failures (e.g. the database is down): the poll is retried in place a few times,
+     * then each of its records goes to the retry topic and is committed as soon as it is there.
+     */
+    @Bean
+    public DefaultErrorHandler notificationBatchErrorHandler(ConsumerRetryRouter retryRouter) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(3);
+        backOff.setInitialInterval(1000);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(10000);
+        return new RetryRoutingErrorHandler(retryRouter, backOff);
+    }
+
+    /**
+     * Audit rows are never skipped: a failed batch insert is retried until the database takes
+     * it, and the consumer lag shows how far the audit table is behind.
+     */
+    @Bean
+    public DefaultErrorHandler auditBatchErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2.0);
+        backOff.setMaxInterval(30000);
+        return new DefaultErrorHandler(backOff);
+    }
+
     @Bean
     public ConsumerFactory<String, WalletEvent> walletEventConsumerFactory() {
         return new DefaultKafkaConsumerFactory<>(
@@ -43,10 +75,14 @@ public class KafkaConsumerConfigDev {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, WalletEvent> walletEventKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, WalletEvent> walletEventKafkaListenerContainerFactory(
+            DefaultErrorHandler notificationBatchErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, WalletEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(walletEventConsumerFactory());
+        // Whole poll per call, acknowledged once after the notification batch commits
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(notificationBatchErrorHandler);
         return factory;
     }
 
@@ -60,10 +96,13 @@ public class KafkaConsumerConfigDev {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> transactionEventKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> transactionEventKafkaListenerContainerFactory(
+            DefaultErrorHandler notificationBatchErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(transactionEventConsumerFactory());
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(notificationBatchErrorHandler);
         return factory;
     }
     @Bean
@@ -76,10 +115,13 @@ public class KafkaConsumerConfigDev {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, KycEvent> kycEventKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, KycEvent> kycEventKafkaListenerContainerFactory(
+            DefaultErrorHandler notificationBatchErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, KycEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(kycEventConsumerFactory());
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(notificationBatchErrorHandler);
         return factory;
     }
     @Bean
@@ -92,26 +134,40 @@ public class KafkaConsumerConfigDev {
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, FraudDetectionEvent> fraudDetectionEventConcurrentKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, FraudDetectionEvent> fraudDetectionEventConcurrentKafkaListenerContainerFactory(
+            DefaultErrorHandler notificationBatchErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, FraudDetectionEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(fraudDetectionEventConsumerFactory());
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(notificationBatchErrorHandler);
         return factory;
     }
     @Bean
-    public ConsumerFactory<String, AuditLogEvent> auditLogEventConsumerFactory() {
+    public ConsumerFactory<String, AuditLogEvent> auditLogEventConsumerFactory(AppProperties appProperties) {
+        AppProperties.Audit audit = appProperties.getAudit();
+        Map<String, Object> props = consumerProps();
+        // The broker is the write buffer: a poll returns once it holds about batch-size
+        // events or flush-interval-ms has passed, and becomes one insert
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, audit.getBatchSize());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, audit.getBatchSize() * AUDIT_EVENT_BYTES);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) audit.getFlushIntervalMs());
         return new DefaultKafkaConsumerFactory<>(
-                consumerProps(),
+                props,
                 new StringDeserializer(),
                 new JsonDeserializer<>(AuditLogEvent.class)
         );
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, AuditLogEvent> auditLogEventConcurrentKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, AuditLogEvent> auditLogEventConcurrentKafkaListenerContainerFactory(
+            ConsumerFactory<String, AuditLogEvent> auditLogEventConsumerFactory,
+            DefaultErrorHandler auditBatchErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, AuditLogEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(auditLogEventConsumerFactory());
+        factory.setConsumerFactory(auditLogEventConsumerFactory);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(auditBatchErrorHandler);
         return factory;
     }
 
@@ -121,6 +177,7 @@ public class KafkaConsumerConfigDev {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId); // will be overridden per consumer if needed
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "org.fintech.wallet.dto.event");
         return props;
     }
@@ -4,6 +4,12 @@ import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.common.config.SslConfigs;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.kafka.consumer.FraudDetectionConsumer;
+import org.fintech.wallet.kafka.consumer.KycEventConsumer;
+import org.fintech.wallet.kafka.consumer.TransactionEventConsumer;
+import org.fintech.wallet.kafka.consumer.WalletEventConsumer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +18,7 @@ import org.springframework.kafka.core.KafkaAdmin;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Configuration
 public class KafkaTopicConfig {
@@ -65,4 +72,28 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    // <topic>-<group>-retry for every consumer group routing through ConsumerRetryRouter
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics() {
+        return new KafkaAdmin.NewTopics(Stream.of(
+                        TransactionEventConsumer.RETRY_TOPIC,
+                        WalletEventConsumer.RETRY_TOPIC,
+                        KycEventConsumer.RETRY_TOPIC,
+                        FraudDetectionConsumer.RETRY_TOPIC)
+                .map(topic -> TopicBuilder.name(topic).partitions(2).replicas(1).build())
+                .toArray(NewTopic[]::new));
+    }
+
+    // <topic>-dlt for every topic consumed through ConsumerRetryRouter
+    @Bean
+    public KafkaAdmin.NewTopics deadLetterTopics() {
+        return new KafkaAdmin.NewTopics(Stream.of(
+                        KafkaProducerService.TOPIC_TRANSACTION_EVENTS,
+                        KafkaProducerService.TOPIC_WALLET_EVENTS,
+                        KafkaProducerService.TOPIC_KYC_EVENTS,
+                        KafkaProducerService.TOPIC_FRAUD_DETECTION)
+                .map(topic -> TopicBuilder.name(topic + ConsumerRetryRouter.DLT_SUFFIX).partitions(1).replicas(1).build())
+                .toArray(NewTopic[]::new));
+    }
 }
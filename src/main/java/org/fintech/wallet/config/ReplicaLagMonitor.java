@@ -0,0 +1,78 @@
+package org.fintech.wallet.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the read pool for its replication lag. Read-only transactions are only routed to the
+ * replica while the last measured lag is within {@code app.read-replica.max-lag-ms}; a failed
+ * check counts as too far behind. Until the first check succeeds, reads stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // 0 on a primary or a caught-up standby, otherwise time since the last replayed commit
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            END
+            """;
+
+    private static final long UNKNOWN = -1;
+
+    private final JdbcTemplate replicaJdbc;
+    private final boolean enabled;
+    private final long maxLagMs;
+    private final AtomicLong lagMs = new AtomicLong(UNKNOWN);
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.replicaJdbc = new JdbcTemplate(replicaDataSource);
+        this.enabled = appProperties.getReadReplica().isEnabled();
+        this.maxLagMs = appProperties.getReadReplica().getMaxLagMs();
+
+        Gauge.builder("wallet.datasource.replica.lag", lagMs, AtomicLong::get)
+                .description("Last measured replica lag in ms, -1 when the check failed")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("wallet.datasource.replica.usable", this, m -> m.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.read-replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Number lag = replicaJdbc.queryForObject(LAG_SQL, Number.class);
+            long measured = lag != null ? lag.longValue() : UNKNOWN;
+            long previous = lagMs.getAndSet(measured);
+            if (exceeds(measured) && !exceeds(previous)) {
+                log.warn("Replica lag {}ms exceeds {}ms, routing reads to the primary", measured, maxLagMs);
+            } else if (!exceeds(measured) && exceeds(previous)) {
+                log.info("Replica lag back to {}ms, routing reads to the replica", measured);
+            }
+        } catch (Exception e) {
+            if (lagMs.getAndSet(UNKNOWN) != UNKNOWN) {
+                log.warn("Replica lag check failed, routing reads to the primary", e);
+            }
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return enabled && !exceeds(lagMs.get());
+    }
+
+    private boolean exceeds(long lag) {
+        return lag == UNKNOWN || lag > maxLagMs;
+    }
+}
@@ -0,0 +1,45 @@
+package org.fintech.wallet.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers of the @Scheduled jobs. Most jobs share the {@code spring.task.scheduling} pool.
+ * The outbox relay and the WebSocket flush run every few milliseconds and get a thread each,
+ * so a slow sweep, checkpoint or export never holds back an event or a push.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String OUTBOX_RELAY_SCHEDULER = "outboxRelayScheduler";
+    public static final String WEBSOCKET_FLUSH_SCHEDULER = "websocketFlushScheduler";
+
+    // Declaring the dedicated schedulers turns off Boot's default one, so it is declared here
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(OUTBOX_RELAY_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxRelayScheduler() {
+        return dedicated("outbox-relay-");
+    }
+
+    @Bean(WEBSOCKET_FLUSH_SCHEDULER)
+    @ConditionalOnProperty(prefix = "app.websocket", name = "relay", havingValue = "redis")
+    public ThreadPoolTaskScheduler websocketFlushScheduler() {
+        return dedicated("ws-flush-");
+    }
+
+    private static ThreadPoolTaskScheduler dedicated(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(10);
+        return scheduler;
+    }
+}
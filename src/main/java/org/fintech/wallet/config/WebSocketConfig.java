@@ -8,12 +8,19 @@ import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
+/**
+ * The simple broker only reaches sessions on this JVM. With more than one node, either
+ * {@code app.websocket.relay=redis} routes user messages between nodes (see
+ * {@code RedisUserMessageRelay}), or {@code stomp} hands all destinations to an external
+ * STOMP broker and lets it do the fan-out.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthChannelInterceptor authInterceptor;
+    private final AppProperties appProperties;
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -24,7 +31,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        AppProperties.WebSocket websocket = appProperties.getWebsocket();
+        if ("stomp".equals(websocket.getRelay())) {
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(websocket.getBrokerHost())
+                    .setRelayPort(websocket.getBrokerPort())
+                    .setClientLogin(websocket.getBrokerLogin())
+                    .setClientPasscode(websocket.getBrokerPasscode())
+                    .setSystemLogin(websocket.getBrokerLogin())
+                    .setSystemPasscode(websocket.getBrokerPasscode())
+                    // Nodes share their user sessions through the broker, so user destinations resolve on any node
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
@@ -34,4 +55,3 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registration.interceptors(authInterceptor);
     }
 }
-
@@ -2,20 +2,26 @@ package org.fintech.wallet.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
 import org.fintech.wallet.domain.enums.KycStatus;
 import org.fintech.wallet.domain.enums.TransactionStatus;
 import org.fintech.wallet.domain.enums.TransactionType;
 import org.fintech.wallet.domain.enums.UserStatus;
 import org.fintech.wallet.dto.request.AdminActionRequest;
 import org.fintech.wallet.dto.request.AdminKycApprovalRequest;
+import org.fintech.wallet.dto.request.AuditLogSearchRequest;
 import org.fintech.wallet.dto.request.KycReviewRequest;
 import org.fintech.wallet.dto.response.*;
 import org.fintech.wallet.security.CurrentUser;
 import org.fintech.wallet.service.AdminService;
+import org.fintech.wallet.service.AuditService;
+import org.fintech.wallet.service.DeadLetterService;
 import org.fintech.wallet.service.KycService;
+import org.fintech.wallet.service.ReportJobService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,6 +44,9 @@ public class AdminController {
 
     private final AdminService adminService;
     private final KycService kycService;
+    private final DeadLetterService deadLetterService;
+    private final AuditService auditService;
+    private final ReportJobService reportJobService;
 
     @Operation(
             summary = "Get all users",
@@ -285,4 +294,104 @@ public class AdminController {
         TransactionReportResponse report = adminService.generateTransactionReport(startDate, endDate);
         return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success(report));
     }
+
+    @Operation(
+            summary = "Export transactions",
+            description = "Queue a CSV export of every transaction in a date range; poll /api/v1/reports/jobs/{jobId} for the file"
+    )
+    @PostMapping("/reports/transactions/jobs")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<ReportJobResponse>> exportTransactions(
+            @Parameter(hidden = true) @CurrentUser UUID adminId,
+            @Parameter(description = "Start date (ISO)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (ISO)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        ReportJobResponse job = reportJobService.submitTransactionReport(adminId, startDate, endDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(org.fintech.wallet.dto.response.ApiResponse.success("Transaction export queued", job));
+    }
+
+    @Operation(
+            summary = "List dead-lettered Kafka records",
+            description = "Records that failed all consumer retries, optionally filtered by original topic"
+    )
+    @GetMapping("/kafka/dead-letters")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<Page<DeadLetterResponse>>> getDeadLetters(
+            @Parameter(description = "Original topic") @RequestParam(required = false) String topic,
+            @Parameter(description = "Status") @RequestParam(defaultValue = "PENDING") DeadLetterStatus status,
+            @Parameter(hidden = true) Pageable pageable) {
+
+        Page<DeadLetterResponse> deadLetters = deadLetterService.getDeadLetters(topic, status, pageable);
+        return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success(deadLetters));
+    }
+
+    @Operation(
+            summary = "Get dead-lettered Kafka record",
+            description = "Payload and failure details of a dead-lettered record"
+    )
+    @GetMapping("/kafka/dead-letters/{id}")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<DeadLetterResponse>> getDeadLetter(
+            @Parameter(description = "Dead letter ID") @PathVariable UUID id) {
+
+        DeadLetterResponse deadLetter = deadLetterService.getDeadLetter(id);
+        return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success(deadLetter));
+    }
+
+    @Operation(
+            summary = "Replay dead-lettered Kafka record",
+            description = "Re-publish the record to its original topic"
+    )
+    @PostMapping("/kafka/dead-letters/{id}/replay")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<DeadLetterResponse>> replayDeadLetter(
+            @Parameter(description = "Dead letter ID") @PathVariable UUID id,
+            @Parameter(hidden = true) @CurrentUser UUID adminId) {
+
+        DeadLetterResponse deadLetter = deadLetterService.replay(id, adminId);
+        return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success("Dead letter replayed", deadLetter));
+    }
+
+    @Operation(
+            summary = "Discard dead-lettered Kafka record",
+            description = "Mark the record as handled without replaying it"
+    )
+    @PostMapping("/kafka/dead-letters/{id}/discard")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<DeadLetterResponse>> discardDeadLetter(
+            @Parameter(description = "Dead letter ID") @PathVariable UUID id,
+            @Parameter(hidden = true) @CurrentUser UUID adminId) {
+
+        DeadLetterResponse deadLetter = deadLetterService.discard(id, adminId);
+        return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success("Dead letter discarded", deadLetter));
+    }
+
+    @Operation(
+            summary = "Search audit logs",
+            description = "Keyset-paginated audit records in a time range, newest first"
+    )
+    @GetMapping("/audit-logs")
+    public ResponseEntity<org.fintech.wallet.dto.response.ApiResponse<CursorPageResponse<AuditLogResponse>>> searchAuditLogs(
+            @Parameter(description = "Start (ISO, inclusive)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End (ISO, exclusive)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "User ID") @RequestParam(required = false) UUID userId,
+            @Parameter(description = "Admin ID") @RequestParam(required = false) UUID adminId,
+            @Parameter(description = "Action") @RequestParam(required = false) String action,
+            @Parameter(description = "Entity type") @RequestParam(required = false) String entityType,
+            @Parameter(description = "Entity ID") @RequestParam(required = false) String entityId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "100") int size) {
+
+        AuditLogSearchRequest request = AuditLogSearchRequest.builder()
+                .from(from)
+                .to(to)
+                .userId(userId)
+                .adminId(adminId)
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .build();
+        CursorPageResponse<AuditLogResponse> logs = auditService.search(request, cursor, size);
+        return ResponseEntity.ok(org.fintech.wallet.dto.response.ApiResponse.success(logs));
+    }
 }
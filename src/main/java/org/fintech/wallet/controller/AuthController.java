@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.fintech.wallet.dto.request.*;
 import org.fintech.wallet.dto.response.ApiResponse;
 import org.fintech.wallet.dto.response.AuthResponse;
+import org.fintech.wallet.dto.response.SessionResponse;
 import org.fintech.wallet.dto.response.UserResponse;
 import org.fintech.wallet.security.CurrentUser;
 import org.fintech.wallet.service.AuthService;
@@ -16,6 +17,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -113,6 +115,19 @@ public class AuthController {
         );
     }
 
+    @Operation(
+            summary = "List active sessions",
+            description = "Sessions of the authenticated user, most recently used first"
+    )
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/sessions")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<List<SessionResponse>>> getActiveSessions(
+            @Parameter(hidden = true) @CurrentUser UUID userId) {
+
+        return ResponseEntity.ok(ApiResponse.success(authService.getActiveSessions(userId)));
+    }
+
     @Operation(
             summary = "Get current user",
             description = "Retrieve details of the authenticated user"
@@ -254,11 +269,8 @@ public class AuthController {
         return null;
     }
 
+    // Tomcat resolves X-Forwarded-For against the trusted proxies (server.tomcat.remoteip)
     private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
-        }
-        return ip;
+        return request.getRemoteAddr();
     }
 }
\ No newline at end of file
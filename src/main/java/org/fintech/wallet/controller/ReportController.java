@@ -0,0 +1,119 @@
+package org.fintech.wallet.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.fintech.wallet.domain.enums.UserRole;
+import org.fintech.wallet.dto.response.ApiResponse;
+import org.fintech.wallet.dto.response.ReportJobResponse;
+import org.fintech.wallet.security.CurrentUser;
+import org.fintech.wallet.service.ReportJobService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Background report exports")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportController {
+
+    // Request attributes of Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ReportJobService reportJobService;
+
+    @Operation(
+            summary = "Request wallet statement",
+            description = "Queue a CSV export of a wallet's ledger entries; poll the returned job for the file"
+    )
+    @PostMapping("/statements")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> requestStatement(
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Parameter(description = "Wallet ID") @RequestParam UUID walletId,
+            @Parameter(description = "Start date (ISO)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (ISO)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        ReportJobResponse job = reportJobService.submitStatement(userId, walletId, startDate, endDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Statement queued", job));
+    }
+
+    @Operation(
+            summary = "Get report job",
+            description = "Status and progress of a report job"
+    )
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ReportJobResponse>> getJob(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId,
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Parameter(hidden = true) Authentication authentication) {
+
+        ReportJobResponse job = reportJobService.getJob(jobId, userId, isAdmin(authentication));
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
+    @Operation(
+            summary = "Download report",
+            description = "The gzip CSV file of a completed report job"
+    )
+    @GetMapping("/jobs/{jobId}/download")
+    public void download(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId,
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Parameter(hidden = true) Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        ReportJobService.ReportDownload download = reportJobService.getDownload(jobId, userId, isAdmin(authentication));
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(download.fileName()).build().toString());
+        response.setContentLengthLong(download.size());
+
+        // Tomcat sends the file with sendfile(2) after the handler returns: no copy through user space
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, download.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, download.size());
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(download.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < download.size()) {
+                position += file.transferTo(position, download.size() - position, out);
+            }
+        }
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> UserRole.ROLE_ADMIN.name().equals(authority.getAuthority()));
+    }
+}
@@ -4,10 +4,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.InvalidTransactionException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.fintech.wallet.dto.request.BatchTransferRequest;
 import org.fintech.wallet.dto.request.DepositRequest;
 import org.fintech.wallet.dto.request.TransferRequest;
 import org.fintech.wallet.dto.request.WithdrawalRequest;
 import org.fintech.wallet.dto.response.ApiResponse;
+import org.fintech.wallet.dto.response.BatchTransferResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
 import org.fintech.wallet.dto.response.TransactionResponse;
 import org.fintech.wallet.security.CurrentUser;
 import org.fintech.wallet.service.TransactionService;
@@ -53,6 +56,26 @@ public class TransactionController {
         );
     }
 
+    @Operation(
+            summary = "Batch transfer",
+            description = "Pay out from one wallet to many wallets in a single request"
+    )
+    @PostMapping("/transfers/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<BatchTransferResponse>> batchTransfer(
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Valid @RequestBody BatchTransferRequest request,
+            @Parameter(hidden = true) HttpServletRequest httpRequest)
+            throws InvalidTransactionException {
+
+        request.setIpAddress(getClientIp(httpRequest));
+        BatchTransferResponse response = transactionService.batchTransfer(request, userId);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Batch transfer processed", response)
+        );
+    }
+
     @Operation(
             summary = "Deposit funds",
             description = "Deposit funds into a wallet via payment gateway"
@@ -89,7 +112,8 @@ public class TransactionController {
         TransactionResponse transaction = transactionService.withdraw(
                 request.getWalletId(),
                 request.getAmount(),
-                request.getBankAccount()
+                request.getBankAccount(),
+                request.getBankCode()
         );
 
         return ResponseEntity.ok(
@@ -113,6 +137,23 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(transactions));
     }
 
+    @Operation(
+            summary = "Get my transaction history",
+            description = "Cursor-paginated transactions for the authenticated user, newest first"
+    )
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<TransactionResponse>>> getMyTransactionHistory(
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Parameter(description = "nextCursor from the previous response") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Items per slice (max 100)") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<TransactionResponse> history =
+                transactionService.getUserTransactionHistory(userId, cursor, size);
+
+        return ResponseEntity.ok(ApiResponse.success(history));
+    }
+
     @Operation(
             summary = "Get transaction by reference",
             description = "Retrieve transaction details using transaction reference"
@@ -128,11 +169,8 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.success(transaction));
     }
 
+    // Tomcat resolves X-Forwarded-For against the trusted proxies (server.tomcat.remoteip)
     private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
-        }
-        return ip;
+        return request.getRemoteAddr();
     }
 }
\ No newline at end of file
@@ -4,8 +4,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.fintech.wallet.dto.request.CreateWalletRequest;
 import org.fintech.wallet.dto.response.ApiResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+import org.fintech.wallet.dto.response.LedgerResponse;
 import org.fintech.wallet.dto.response.WalletResponse;
 import org.fintech.wallet.security.CurrentUser;
+import org.fintech.wallet.service.LedgerService;
 import org.fintech.wallet.service.WalletService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,6 +31,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class WalletController {
 
     private final WalletService walletService;
+    private final LedgerService ledgerService;
 
     @Operation(
             summary = "Create wallet",
@@ -71,6 +75,23 @@ public class WalletController {
         return ResponseEntity.ok(ApiResponse.success(wallet));
     }
 
+    @Operation(
+            summary = "Get wallet ledger history",
+            description = "Cursor-paginated ledger entries of one of the authenticated user's wallets, newest first"
+    )
+    @GetMapping("/{walletId}/ledger")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<LedgerResponse>>> getLedgerHistory(
+            @Parameter(hidden = true) @CurrentUser UUID userId,
+            @Parameter(description = "Wallet ID") @PathVariable UUID walletId,
+            @Parameter(description = "nextCursor from the previous response") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Items per slice (max 100)") @RequestParam(defaultValue = "20") int size) {
+
+        CursorPageResponse<LedgerResponse> ledger =
+                ledgerService.getWalletLedgerHistory(walletId, userId, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(ledger));
+    }
+
     @Operation(
             summary = "Freeze wallet (Admin)",
             description = "Freeze a wallet to prevent transactions"
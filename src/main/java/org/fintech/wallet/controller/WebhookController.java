@@ -1,11 +1,17 @@
 package org.fintech.wallet.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fintech.wallet.service.PaymentService;
+import org.fintech.wallet.service.payment.FlutterwaveService;
+import org.fintech.wallet.service.payment.PaystackService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
 import java.util.Map;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,6 +26,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class WebhookController {
 
     private final PaymentService paymentService;
+    private final PaystackService paystackService;
+    private final FlutterwaveService flutterwaveService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Paystack payment webhook",
@@ -27,13 +36,21 @@ public class WebhookController {
     )
     @PostMapping("/payment/paystack")
     public ResponseEntity<Void> handlePaystackWebhook(
+            @Parameter(hidden = true) @RequestHeader(value = "x-paystack-signature", required = false) String signature,
             @Parameter(description = "Paystack webhook payload")
-            @RequestBody Map<String, Object> payload) {
+            @RequestBody String body) throws JsonProcessingException {
 
         log.info("Received Paystack webhook");
 
-        Map<String, Object> data = (Map<String, Object>) payload.get("data");
-        String reference = (String) data.get("reference");
+        // The signature covers the exact bytes sent, so it is checked before the body is parsed
+        if (!paystackService.isValidSignature(body, signature)) {
+            log.warn("Rejected Paystack webhook with an invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Map<String, Object> data = (Map<String, Object>) objectMapper.readValue(body, Map.class).get("data");
+        // Transfer references go to Paystack lowercased; ours are upper-case prefixes and digits
+        String reference = ((String) data.get("reference")).toUpperCase(Locale.ROOT);
         String status = (String) data.get("status");
 
         paymentService.handlePaymentWebhook("PAYSTACK", reference, status);
@@ -47,13 +64,20 @@ public class WebhookController {
     )
     @PostMapping("/payment/flutterwave")
     public ResponseEntity<Void> handleFlutterwaveWebhook(
+            @Parameter(hidden = true) @RequestHeader(value = "verif-hash", required = false) String signature,
             @Parameter(description = "Flutterwave webhook payload")
-            @RequestBody Map<String, Object> payload) {
+            @RequestBody String body) throws JsonProcessingException {
 
         log.info("Received Flutterwave webhook");
 
-        Map<String, Object> data = (Map<String, Object>) payload.get("data");
-        String reference = (String) data.get("tx_ref");
+        if (!flutterwaveService.isValidSignature(signature)) {
+            log.warn("Rejected Flutterwave webhook with an invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Map<String, Object> data = (Map<String, Object>) objectMapper.readValue(body, Map.class).get("data");
+        // Payments carry tx_ref, transfers (withdrawal payouts) carry reference
+        String reference = (String) (data.get("tx_ref") != null ? data.get("tx_ref") : data.get("reference"));
         String status = (String) data.get("status");
 
         paymentService.handlePaymentWebhook("FLUTTERWAVE", reference, status);
@@ -0,0 +1,62 @@
+package org.fintech.wallet.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "dead_letter_records", indexes = {
+        @Index(name = "idx_dead_letter_position", columnList = "original_topic, dlt_partition, dlt_offset", unique = true),
+        @Index(name = "idx_dead_letter_status", columnList = "status, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeadLetterRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 100)
+    private String originalTopic;
+
+    @Column(nullable = false)
+    private int dltPartition;
+
+    @Column(nullable = false)
+    private long dltOffset;
+
+    @Column(length = 100)
+    private String messageKey;
+
+    @Column(nullable = false, length = 200)
+    private String payloadType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DeadLetterStatus status;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resolvedAt;
+
+    private UUID resolvedBy;
+}
@@ -0,0 +1,53 @@
+package org.fintech.wallet.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "fund_holds", indexes = {
+        @Index(name = "idx_hold_reference", columnList = "transaction_reference", unique = true),
+        @Index(name = "idx_hold_status_expiry", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FundHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", nullable = false)
+    private Wallet wallet;
+
+    @Column(nullable = false, length = 50)
+    private String transactionReference;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private HoldStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime settledAt;
+
+    @Column(length = 500)
+    private String settlementNote;
+}
@@ -70,6 +70,9 @@ public class Notification {
     @Column(length = 500)
     private String errorMessage;
 
+    // Earliest time the retry job may send a failed notification again
+    private LocalDateTime nextRetryAt;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
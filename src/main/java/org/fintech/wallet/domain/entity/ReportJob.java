@@ -0,0 +1,74 @@
+package org.fintech.wallet.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.fintech.wallet.domain.enums.ReportJobStatus;
+import org.fintech.wallet.domain.enums.ReportType;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "report_jobs", indexes = {
+        @Index(name = "idx_report_jobs_params", columnList = "params_hash, created_at"),
+        @Index(name = "idx_report_jobs_status", columnList = "status, created_at"),
+        @Index(name = "idx_report_jobs_expires", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportJobStatus status;
+
+    // SHA-256 of type and parameters; jobs with the same hash produce the same file
+    @Column(nullable = false, length = 64)
+    private String paramsHash;
+
+    @Column(nullable = false)
+    private UUID requestedBy;
+
+    private UUID walletId;
+
+    @Column(nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(nullable = false)
+    private LocalDateTime endDate;
+
+    private Long totalRows;
+
+    @Column(nullable = false)
+    private long rowsWritten;
+
+    private Long fileSize;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    // Moved with every progress update while running
+    private LocalDateTime heartbeatAt;
+
+    private LocalDateTime completedAt;
+
+    private LocalDateTime expiresAt;
+}
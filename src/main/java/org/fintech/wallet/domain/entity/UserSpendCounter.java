@@ -0,0 +1,56 @@
+package org.fintech.wallet.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running total of a user's outgoing spend for one day, week or month.
+ * Rows are only written through the atomic upserts in UserSpendCounterRepository.
+ */
+@Entity
+@Table(name = "user_spend_counters")
+@IdClass(UserSpendCounter.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSpendCounter {
+
+    @Id
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private SpendPeriod period;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private long txCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private SpendPeriod period;
+        private LocalDate periodStart;
+    }
+}
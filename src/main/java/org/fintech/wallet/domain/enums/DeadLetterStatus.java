@@ -0,0 +1,7 @@
+package org.fintech.wallet.domain.enums;
+
+public enum DeadLetterStatus {
+    PENDING,    // stored from the DLT, waiting for an admin
+    REPLAYED,   // re-published to the original topic
+    DISCARDED   // reviewed and dropped
+}
@@ -2,5 +2,7 @@ package org.fintech.wallet.domain.enums;
 
 public enum EntryType {
     DEBIT,
-    CREDIT
+    CREDIT,
+    HOLD,          // pending: funds reserved, balance unchanged
+    HOLD_RELEASE   // pending reservation cancelled, balance unchanged
 }
@@ -0,0 +1,8 @@
+package org.fintech.wallet.domain.enums;
+
+public enum HoldStatus {
+    ACTIVE,     // availableBalance reduced, balance untouched
+    CAPTURED,   // settled: balance debited
+    RELEASED,   // cancelled: availableBalance restored
+    EXPIRED     // released by the sweeper after expiresAt
+}
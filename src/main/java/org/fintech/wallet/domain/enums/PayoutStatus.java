@@ -0,0 +1,8 @@
+package org.fintech.wallet.domain.enums;
+
+public enum PayoutStatus {
+    PENDING,    // accepted by the gateway, not settled yet (or the outcome is unknown)
+    SUCCESS,    // money left the gateway balance: capture the hold
+    FAILED,     // rejected, failed or reversed: release the hold
+    NOT_FOUND   // the gateway has no transfer with this reference
+}
@@ -0,0 +1,8 @@
+package org.fintech.wallet.domain.enums;
+
+public enum ReportJobStatus {
+    QUEUED,     // waiting for a worker
+    RUNNING,    // being written by a worker
+    COMPLETED,  // file ready for download until the job expires
+    FAILED
+}
@@ -0,0 +1,6 @@
+package org.fintech.wallet.domain.enums;
+
+public enum ReportType {
+    TRANSACTIONS,   // every transaction in a date range, for admins
+    STATEMENT       // ledger entries of one wallet in a date range, for its owner
+}
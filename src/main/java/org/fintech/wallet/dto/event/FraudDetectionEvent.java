@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -23,5 +24,6 @@ public class FraudDetectionEvent {
     private String deviceFingerprint;
     private Integer riskScore;
     private String riskLevel; // LOW, MEDIUM, HIGH, CRITICAL
+    private List<String> reasons;
     private LocalDateTime timestamp;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.fintech.wallet.dto.request;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Audit log filters. The time range is required so a query only reads the monthly
+ * partitions it overlaps; the other fields are optional.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogSearchRequest {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private UUID userId;
+    private UUID adminId;
+    private String action;
+    private String entityType;
+    private String entityId;
+}
@@ -0,0 +1,28 @@
+package org.fintech.wallet.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItem {
+
+    @NotBlank(message = "Destination wallet number is required")
+    @Size(min = 10, max = 20)
+    private String destinationWalletNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @DecimalMax(value = "1000000.00", message = "Amount exceeds maximum limit")
+    private BigDecimal amount;
+
+    @Size(max = 500, message = "Description too long")
+    private String description;
+}
@@ -0,0 +1,41 @@
+package org.fintech.wallet.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferRequest {
+
+    @NotNull(message = "Source wallet is required")
+    private UUID sourceWalletId;
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Valid
+    private List<BatchTransferItem> items;
+
+    /**
+     * When true, a single failing item rejects the whole batch and nothing is transferred.
+     * Otherwise every item succeeds or fails on its own.
+     */
+    @Builder.Default
+    private Boolean allOrNothing = false;
+
+    @NotBlank(message = "Transaction PIN is required")
+    @Size(min = 4, max = 4, message = "PIN must be 4 digits")
+    private String pin;
+
+    private String ipAddress;
+}
@@ -22,4 +22,10 @@ public class LedgerEntryRequest {
     private String description;
     private String externalReference;
     private String ipAddress;
+    // Set when the balance was already changed in the database before the entry is written;
+    // otherwise the wallet's current balance is used
+    private BigDecimal balanceBefore;
+    // False for entries whose spend was already counted, e.g. the debit that captures a hold
+    @Builder.Default
+    private boolean countsTowardSpend = true;
 }
@@ -27,6 +27,10 @@ public class WithdrawalRequest {
     @NotBlank
     private String bankAccount;
 
+    // Bank code of the receiving account, as listed by the payout gateway
+    @NotBlank
+    private String bankCode;
+
     @NotBlank
     private String pin;
 }
\ No newline at end of file
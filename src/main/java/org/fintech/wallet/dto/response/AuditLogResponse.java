@@ -0,0 +1,25 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogResponse {
+    private UUID id;
+    private LocalDateTime occurredAt;
+    private UUID userId;
+    private UUID adminId;
+    private String action;
+    private String entityType;
+    private String entityId;
+    private String details;
+    private String ipAddress;
+}
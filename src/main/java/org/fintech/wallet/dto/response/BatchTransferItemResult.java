@@ -0,0 +1,24 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferItemResult {
+    private int index;
+    private String destinationWalletNumber;
+    private BigDecimal amount;
+    private TransactionStatus status;
+    private UUID transactionId;
+    private String reference;
+    private String failureReason;
+}
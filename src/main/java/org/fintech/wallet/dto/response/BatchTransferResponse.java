@@ -0,0 +1,26 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.fintech.wallet.domain.enums.Currency;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTransferResponse {
+    private String batchReference;
+    private String sourceWalletNumber;
+    private Currency currency;
+    private boolean allOrNothing;
+    private int totalCount;
+    private int successCount;
+    private int failedCount;
+    private BigDecimal totalAmount;
+    private List<BatchTransferItemResult> results;
+}
@@ -0,0 +1,30 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterResponse {
+    private UUID id;
+    private String originalTopic;
+    private int dltPartition;
+    private long dltOffset;
+    private String messageKey;
+    private String payloadType;
+    private String payload;
+    private int attempts;
+    private String errorMessage;
+    private DeadLetterStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+    private UUID resolvedBy;
+}
@@ -0,0 +1,34 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.fintech.wallet.domain.enums.ReportJobStatus;
+import org.fintech.wallet.domain.enums.ReportType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    private UUID id;
+    private ReportType type;
+    private ReportJobStatus status;
+    private UUID walletId;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private long rowsWritten;
+    // Known once the job has started
+    private Long totalRows;
+    private Integer progressPercent;
+    private Long fileSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,21 @@
+package org.fintech.wallet.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionResponse {
+    private String sessionId;
+    private String device;
+    private String ipAddress;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastSeenAt;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,208 @@
+package org.fintech.wallet.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.fintech.wallet.config.AppProperties;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking retries for consumers: a record that fails is re-published to
+ * {@code <topic>-<group>-retry} with an attempt counter and a not-before time, so the source
+ * partition keeps moving. Each consumer group has its own retry topic, so a retry is seen only
+ * by the group that failed it. The group's retry listener waits for that time and processes
+ * the record again; after {@code app.kafka-retry.max-attempts} the record goes to
+ * {@code <topic>-dlt}, where it is stored for inspection and replay.
+ */
+@Component
+@Slf4j
+public class ConsumerRetryRouter {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+
+    public static final String HEADER_ATTEMPT = "x-retry-attempt";
+    public static final String HEADER_NOT_BEFORE = "x-retry-not-before";
+    public static final String HEADER_ORIGINAL_TOPIC = "x-original-topic";
+    public static final String HEADER_ORIGINAL_PARTITION = "x-original-partition";
+    public static final String HEADER_ORIGINAL_OFFSET = "x-original-offset";
+    public static final String HEADER_ERROR = "x-exception-message";
+
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final AppProperties appProperties;
+    private final MeterRegistry meterRegistry;
+
+    public ConsumerRetryRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                               AppProperties appProperties,
+                               MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.appProperties = appProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Routes the records a listener failed one by one, once the rest of its poll is done.
+     */
+    public void retryOrDeadLetter(Map<? extends ConsumerRecord<?, ?>, Exception> failures) {
+        failures.forEach(this::retryOrDeadLetter);
+    }
+
+    /**
+     * Sends the record to the retry topic of the consumer group on this listener thread, or
+     * to the DLT once its attempts are used up.
+     */
+    public void retryOrDeadLetter(ConsumerRecord<?, ?> record, Exception cause) {
+        retryOrDeadLetter(record, KafkaUtils.getConsumerGroupId(), cause);
+    }
+
+    /**
+     * Sends the record to the retry topic of {@code groupId}, or to the DLT once its attempts
+     * are used up. A record read from a retry topic goes back to that topic. A retry record whose
+     * backoff has not elapsed was never processed, so it is re-published as it is, without using
+     * up an attempt. Blocks until the broker has the copy, so the caller may commit the original
+     * afterwards.
+     */
+    public void retryOrDeadLetter(ConsumerRecord<?, ?> record, String groupId, Exception cause) {
+        if (record.topic().endsWith(DLT_SUFFIX)) {
+            throw new IllegalStateException("Cannot route a dead-letter record: " + record.topic(), cause);
+        }
+        AppProperties.KafkaRetry config = appProperties.getKafkaRetry();
+        String originalTopic = originalTopic(record);
+        boolean processed = notBefore(record) <= System.currentTimeMillis();
+        int attempt = processed ? attempt(record) + 1 : attempt(record);
+        boolean deadLetter = attempt > config.getMaxAttempts();
+        String target = deadLetter ? originalTopic + DLT_SUFFIX : retryTarget(record, groupId);
+
+        ProducerRecord<String, Object> copy = new ProducerRecord<>(
+                target, null, record.key() != null ? record.key().toString() : null, record.value());
+        Headers headers = copy.headers();
+        headers.add(HEADER_ATTEMPT, bytes(String.valueOf(attempt)));
+        headers.add(HEADER_ORIGINAL_TOPIC, bytes(originalTopic));
+        headers.add(HEADER_ORIGINAL_PARTITION, bytes(header(record, HEADER_ORIGINAL_PARTITION,
+                String.valueOf(record.partition()))));
+        headers.add(HEADER_ORIGINAL_OFFSET, bytes(header(record, HEADER_ORIGINAL_OFFSET,
+                String.valueOf(record.offset()))));
+        String error = processed ? errorMessage(cause) : header(record, HEADER_ERROR, errorMessage(cause));
+        headers.add(HEADER_ERROR, bytes(error));
+        if (!deadLetter) {
+            long notBefore = processed ? System.currentTimeMillis() + backoffMs(attempt, config) : notBefore(record);
+            headers.add(HEADER_NOT_BEFORE, bytes(String.valueOf(notBefore)));
+        }
+
+        try {
+            kafkaTemplate.send(copy).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to route record to " + target, e);
+        }
+
+        if (!processed) {
+            log.debug("Unprocessed retry record returned to {}: key={}, offset={}", target, record.key(), record.offset());
+            return;
+        }
+
+        DistributionSummary.builder("wallet.kafka.retry.depth")
+                .description("Attempt number at which failed records were routed")
+                .tag("topic", originalTopic)
+                .register(meterRegistry)
+                .record(attempt);
+        Counter.builder("wallet.kafka.retry.routed")
+                .description("Failed records routed to a retry topic or DLT")
+                .tag("topic", originalTopic)
+                .tag("target", deadLetter ? "dlt" : "retry")
+                .register(meterRegistry)
+                .increment();
+
+        if (deadLetter) {
+            log.error("Record dead-lettered after {} attempts: topic={}, key={}, offset={}",
+                    attempt - 1, originalTopic, record.key(), record.offset(), cause);
+        } else {
+            log.warn("Record scheduled for retry {}: topic={}, key={}, offset={}, error={}",
+                    attempt, target, record.key(), record.offset(), errorMessage(cause));
+        }
+    }
+
+    /**
+     * Number of leading records of a retry batch whose backoff has elapsed. Backoff grows with
+     * the attempt, so the rest of the batch waits for the first record that is not yet due.
+     */
+    public int dueCount(List<? extends ConsumerRecord<?, ?>> records) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < records.size(); i++) {
+            if (notBefore(records.get(i)) > now) {
+                return i;
+            }
+        }
+        return records.size();
+    }
+
+    public Duration untilDue(ConsumerRecord<?, ?> record) {
+        long waitMs = notBefore(record) - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, Math.min(waitMs, appProperties.getKafkaRetry().getMaxBackoffMs())));
+    }
+
+    public static String retryTopic(String topic, String groupId) {
+        return topic + "-" + groupId + RETRY_SUFFIX;
+    }
+
+    // Copies on a retry or dead-letter topic always carry the original topic header
+    public static String originalTopic(ConsumerRecord<?, ?> record) {
+        String topic = header(record, HEADER_ORIGINAL_TOPIC, record.topic());
+        if (topic.endsWith(DLT_SUFFIX)) {
+            return topic.substring(0, topic.length() - DLT_SUFFIX.length());
+        }
+        return topic;
+    }
+
+    public static int attempt(ConsumerRecord<?, ?> record) {
+        return Integer.parseInt(header(record, HEADER_ATTEMPT, "0"));
+    }
+
+    public static String header(ConsumerRecord<?, ?> record, String name, String fallback) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : fallback;
+    }
+
+    private static String retryTarget(ConsumerRecord<?, ?> record, String groupId) {
+        if (record.topic().endsWith(RETRY_SUFFIX)) {
+            return record.topic();
+        }
+        if (groupId == null) {
+            throw new IllegalStateException("No consumer group to route a record of " + record.topic());
+        }
+        return retryTopic(record.topic(), groupId);
+    }
+
+    private long notBefore(ConsumerRecord<?, ?> record) {
+        return Long.parseLong(header(record, HEADER_NOT_BEFORE, "0"));
+    }
+
+    private long backoffMs(int attempt, AppProperties.KafkaRetry config) {
+        double backoff = config.getInitialBackoffMs() * Math.pow(config.getMultiplier(), attempt - 1);
+        return (long) Math.min(backoff, config.getMaxBackoffMs());
+    }
+
+    private static String errorMessage(Exception cause) {
+        Throwable root = cause.getCause() != null ? cause.getCause() : cause;
+        String message = root.getClass().getSimpleName() + ": " + root.getMessage();
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
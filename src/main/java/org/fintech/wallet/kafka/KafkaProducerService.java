@@ -1,19 +1,46 @@
 package org.fintech.wallet.kafka;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.OutboxEvent;
 import org.fintech.wallet.dto.event.*;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.fintech.wallet.repository.OutboxEventRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Publishes domain events through the transactional outbox: each event is stored in
+ * outbox_events as part of the caller's transaction and sent to Kafka by {@link OutboxRelay}
+ * after commit. Events of a rolled-back transaction are never sent.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+    private final TransactionTemplate requiresNewTemplate;
+
+    public KafkaProducerService(OutboxEventRepository outboxRepository,
+                                ObjectMapper objectMapper,
+                                AppProperties appProperties,
+                                PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     // =========================
     // Topics (single source)
@@ -31,24 +58,57 @@ public class KafkaProducerService {
 
     public void publishTransactionEvent(TransactionEvent event) {
         require(event, "TransactionEvent");
-        String key = firstNonBlank(
-                safeUuid(event.getTransactionId()),
-                nullSafe(event.getReference())
-        );
+        enqueue(TOPIC_TRANSACTION_EVENTS, transactionKey(event), event, "transactionEvent");
+    }
 
-        sendAsync(TOPIC_TRANSACTION_EVENTS, key, event, "transactionEvent");
+    /**
+     * Stores a group of transaction events (e.g. one batch payout) with a single batched insert;
+     * the relay sends them together and flushes the producer once.
+     */
+    public void publishTransactionEvents(List<TransactionEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = events.stream()
+                .map(event -> {
+                    require(event, "TransactionEvent");
+                    return toOutboxEvent(TOPIC_TRANSACTION_EVENTS, transactionKey(event), event);
+                })
+                .toList();
+        outboxRepository.saveAll(rows);
+        log.info("Outbox enqueue [transactionEvents]: topic={}, count={}", TOPIC_TRANSACTION_EVENTS, rows.size());
+    }
+
+    /**
+     * For failure events raised inside a transaction that is about to roll back: the event
+     * is stored in its own transaction once the rollback has happened, so it is not lost
+     * with the rest of the unit of work.
+     */
+    public void publishTransactionEventOnRollback(TransactionEvent event) {
+        require(event, "TransactionEvent");
+        afterRollback(() -> publishTransactionEvent(event));
     }
 
     public void publishNotificationEvent(NotificationEvent event) {
         require(event, "NotificationEvent");
+        enqueue(TOPIC_NOTIFICATION_EVENTS, notificationKey(event), event, "notificationEvent");
+    }
 
-        // Key by userId so all notifications for same user partition together (ordering)
-        String key = firstNonBlank(
-                safeUuid(event.getUserId()),
-                nullSafe(event.getTitle())
-        );
-
-        sendAsync(TOPIC_NOTIFICATION_EVENTS, key, event, "notificationEvent");
+    /**
+     * Stores the events of a group of delivered notifications with a single batched insert.
+     */
+    public void publishNotificationEvents(List<NotificationEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = events.stream()
+                .map(event -> {
+                    require(event, "NotificationEvent");
+                    return toOutboxEvent(TOPIC_NOTIFICATION_EVENTS, notificationKey(event), event);
+                })
+                .toList();
+        outboxRepository.saveAll(rows);
+        log.info("Outbox enqueue [notificationEvents]: topic={}, count={}", TOPIC_NOTIFICATION_EVENTS, rows.size());
     }
 
     public void publishKycEvent(KycEvent event) {
@@ -59,29 +119,58 @@ public class KafkaProducerService {
                 safeUuid(event.getUserId())
         );
 
-        sendAsync(TOPIC_KYC_EVENTS, key, event, "kycEvent");
+        enqueue(TOPIC_KYC_EVENTS, key, event, "kycEvent");
     }
 
     public void publishAuditLog(AuditLogEvent event) {
         require(event, "AuditLogEvent");
+        enqueue(TOPIC_AUDIT_LOGS, auditKey(event), event, "auditLogEvent");
+    }
 
-        String key = firstNonBlank(
-                safeUuid(event.getId()),
-                nullSafe(event.getEntityType())
-        );
+    public void publishAuditLogs(List<AuditLogEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = events.stream()
+                .map(event -> {
+                    require(event, "AuditLogEvent");
+                    return toOutboxEvent(TOPIC_AUDIT_LOGS, auditKey(event), event);
+                })
+                .toList();
+        outboxRepository.saveAll(rows);
+        log.info("Outbox enqueue [auditLogEvents]: topic={}, count={}", TOPIC_AUDIT_LOGS, rows.size());
+    }
 
-        sendAsync(TOPIC_AUDIT_LOGS, key, event, "auditLogEvent");
+    /**
+     * For audit records of a failed operation, e.g. a rejected login: see
+     * {@link #publishTransactionEventOnRollback}.
+     */
+    public void publishAuditLogOnRollback(AuditLogEvent event) {
+        require(event, "AuditLogEvent");
+        afterRollback(() -> publishAuditLog(event));
     }
 
     public void publishFraudDetectionEvent(FraudDetectionEvent event) {
         require(event, "FraudDetectionEvent");
 
-        String key = firstNonBlank(
-                safeUuid(event.getTransactionId()),
-                nullSafe(event.getRiskLevel() != null ? event.getRiskLevel() : null)
-        );
+        enqueue(TOPIC_FRAUD_DETECTION, fraudKey(event), event, "fraudDetectionEvent");
+    }
 
-        sendAsync(TOPIC_FRAUD_DETECTION, key, event, "fraudDetectionEvent");
+    /**
+     * Stores the fraud events of one scored batch with a single batched insert.
+     */
+    public void publishFraudDetectionEvents(List<FraudDetectionEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = events.stream()
+                .map(event -> {
+                    require(event, "FraudDetectionEvent");
+                    return toOutboxEvent(TOPIC_FRAUD_DETECTION, fraudKey(event), event);
+                })
+                .toList();
+        outboxRepository.saveAll(rows);
+        log.info("Outbox enqueue [fraudDetectionEvents]: topic={}, count={}", TOPIC_FRAUD_DETECTION, rows.size());
     }
 
     public void publishWalletEvent(WalletEvent event) {
@@ -93,44 +182,102 @@ public class KafkaProducerService {
                 nullSafe(event.getAction())
         );
 
-        sendAsync(TOPIC_WALLET_EVENTS, key, event, "walletEvent");
+        enqueue(TOPIC_WALLET_EVENTS, key, event, "walletEvent");
+    }
+
+    /**
+     * Re-sends an already serialized payload, e.g. a dead-lettered record replayed by an admin.
+     * The payload goes out unchanged, so consumers see it as a new first attempt.
+     */
+    public void republish(String topic, String key, String payloadType, String payloadJson) {
+        require(payloadJson, "Payload");
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Kafka key must not be null or blank for topic: " + topic);
+        }
+        OutboxEvent row = outboxRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payloadType(payloadType)
+                .payload(payloadJson)
+                .lane(Math.floorMod(key.hashCode(), appProperties.getOutbox().getLanes()))
+                .build());
+        log.info("Outbox enqueue [republish]: topic={}, key={}, id={}", topic, key, row.getId());
     }
 
     // =========================
-    // Internal send helper
+    // Outbox helpers
     // =========================
 
-    private void sendAsync(String topic, String key, Object payload, String label) {
+    private void enqueue(String topic, String key, Object payload, String label) {
+        OutboxEvent row = outboxRepository.save(toOutboxEvent(topic, key, payload));
+        log.info("Outbox enqueue [{}]: topic={}, key={}, id={}", label, topic, key, row.getId());
+    }
 
+    private OutboxEvent toOutboxEvent(String topic, String key, Object payload) {
         if (key == null || key.isBlank()) {
             throw new IllegalArgumentException(
                     "Kafka key must not be null or blank for topic: " + topic
             );
         }
 
-        log.info("Kafka publish [{}]: topic={}, key={}", label, topic, key);
-
-        kafkaTemplate.send(topic, key, payload)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info(
-                                "Kafka publish OK [{}]: topic={}, key={}, partition={}, offset={}",
-                                label,
-                                topic,
-                                key,
-                                result.getRecordMetadata().partition(),
-                                result.getRecordMetadata().offset()
-                        );
-                    } else {
-                        log.error(
-                                "Kafka publish FAILED [{}]: topic={}, key={}",
-                                label,
-                                topic,
-                                key,
-                                ex
-                        );
-                    }
-                });
+        try {
+            return OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .lane(Math.floorMod(key.hashCode(), appProperties.getOutbox().getLanes()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event for topic: " + topic, e);
+        }
+    }
+
+    private void afterRollback(Runnable publish) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    requiresNewTemplate.executeWithoutResult(tx -> publish.run());
+                }
+            }
+        });
+    }
+
+    // Key by userId so all notifications for same user partition together (ordering)
+    private static String notificationKey(NotificationEvent event) {
+        return firstNonBlank(
+                safeUuid(event.getUserId()),
+                nullSafe(event.getTitle())
+        );
+    }
+
+    private static String auditKey(AuditLogEvent event) {
+        return firstNonBlank(
+                safeUuid(event.getId()),
+                nullSafe(event.getEntityType())
+        );
+    }
+
+    private static String fraudKey(FraudDetectionEvent event) {
+        return firstNonBlank(
+                safeUuid(event.getTransactionId()),
+                nullSafe(event.getRiskLevel())
+        );
+    }
+
+    // Keyed by user: one consumer sees all of a user's events, in order, which the fraud
+    // scoring windows depend on
+    private static String transactionKey(TransactionEvent event) {
+        return firstNonBlank(
+                safeUuid(event.getUserId()),
+                safeUuid(event.getTransactionId()),
+                nullSafe(event.getReference())
+        );
     }
 
     // =========================
@@ -0,0 +1,201 @@
+package org.fintech.wallet.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.config.SchedulingConfig;
+import org.fintech.wallet.domain.entity.OutboxEvent;
+import org.fintech.wallet.repository.OutboxEventRepository;
+import org.fintech.wallet.repository.projection.OutboxBacklog;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains outbox_events to Kafka. Each lane is claimed with a transaction-scoped advisory
+ * lock and its oldest rows are read, sent in id order, and marked published in the same
+ * transaction. The lane lock is the only lock held while Kafka is called: the rows are read
+ * without row locks and updated only after the sends. Several instances can run the relay;
+ * they simply end up draining different lanes.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    // Advisory lock keys for lanes are LANE_LOCK_BASE + lane
+    private static final long LANE_LOCK_BASE = 7_340_000L;
+    private static final int MAX_ROUNDS_PER_TICK = 20;
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer publishDelay;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       AppProperties appProperties,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.appProperties = appProperties;
+        this.transactionTemplate = transactionTemplate;
+
+        this.publishedCounter = Counter.builder("wallet.outbox.published")
+                .description("Outbox events sent to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("wallet.outbox.failed")
+                .description("Outbox send attempts that failed")
+                .register(meterRegistry);
+        this.publishDelay = Timer.builder("wallet.outbox.publish.delay")
+                .description("Time from outbox insert to Kafka acknowledgement")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("wallet.outbox.batch")
+                .description("Time to send and mark one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("wallet.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet sent")
+                .register(meterRegistry);
+        Gauge.builder("wallet.outbox.lag.seconds", oldestPendingAgeMs, v -> v.get() / 1000.0)
+                .description("Age of the oldest unsent outbox event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}", scheduler = SchedulingConfig.OUTBOX_RELAY_SCHEDULER)
+    public void relay() {
+        AppProperties.Outbox config = appProperties.getOutbox();
+        try {
+            // Keep draining while some lane returns a full batch, bounded so one tick cannot run forever
+            for (int round = 0; round < MAX_ROUNDS_PER_TICK; round++) {
+                boolean backlog = false;
+                for (int lane = 0; lane < config.getLanes(); lane++) {
+                    int lanePicked = lane;
+                    Integer drained = transactionTemplate.execute(tx -> drainLane(lanePicked, config));
+                    backlog |= drained != null && drained >= config.getBatchSize();
+                }
+                if (!backlog) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay run failed", e);
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    /**
+     * Delete sent events every day at 2:30 AM
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    public void cleanupPublished() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(appProperties.getOutbox().getRetentionDays());
+            Integer deleted = transactionTemplate.execute(tx -> outboxRepository.deletePublishedBefore(cutoff));
+            log.info("Outbox cleanup completed. Deleted {} published events", deleted);
+        } catch (Exception e) {
+            log.error("Error during outbox cleanup", e);
+        }
+    }
+
+    private int drainLane(int lane, AppProperties.Outbox config) {
+        if (!outboxRepository.tryLockLane(LANE_LOCK_BASE + lane)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxRepository.claimBatch(lane, config.getMaxAttempts(), config.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(send(event));
+        }
+        kafkaTemplate.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(config.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                recordFailure(event, e, config);
+                failedKeys.add(event.getMessageKey());
+                continue;
+            }
+            // A later event of a key whose earlier event failed stays pending and is re-sent
+            // after it, so the last message a consumer sees per key is still the newest one
+            if (failedKeys.contains(event.getMessageKey())) {
+                continue;
+            }
+            event.setPublishedAt(now);
+            publishedCounter.increment();
+            publishDelay.record(Duration.between(event.getCreatedAt(), now));
+        }
+
+        sample.stop(batchTimer);
+        log.debug("Outbox lane {}: sent {} events, {} keys failed", lane, batch.size(), failedKeys.size());
+        return batch.size();
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), Class.forName(event.getPayloadType()));
+            return kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e, AppProperties.Outbox config) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        String message = String.valueOf(cause.getMessage());
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        failedCounter.increment();
+
+        if (event.getAttempts() >= config.getMaxAttempts()) {
+            log.error("Outbox event {} parked after {} attempts: topic={}, key={}",
+                    event.getId(), event.getAttempts(), event.getTopic(), event.getMessageKey(), cause);
+        } else {
+            log.warn("Outbox send failed: id={}, topic={}, key={}, attempt={}",
+                    event.getId(), event.getTopic(), event.getMessageKey(), event.getAttempts());
+        }
+    }
+
+    private void refreshBacklog() {
+        try {
+            OutboxBacklog backlog = outboxRepository.findBacklog();
+            pending.set(backlog.getPending());
+            oldestPendingAgeMs.set(backlog.getOldestCreatedAt() == null
+                    ? 0
+                    : Duration.between(backlog.getOldestCreatedAt(), LocalDateTime.now()).toMillis());
+        } catch (Exception e) {
+            log.warn("Failed to refresh outbox backlog metrics", e);
+        }
+    }
+}
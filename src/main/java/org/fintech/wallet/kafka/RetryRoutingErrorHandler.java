@@ -0,0 +1,70 @@
+package org.fintech.wallet.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.util.backoff.BackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Error handler of the consumers that use ConsumerRetryRouter. A poll that fails as a whole
+ * (e.g. the database is down) is retried in place with {@code backOff}; after that each of its
+ * records is routed and its offset committed at once. If routing stops part way through, the
+ * poll is redelivered from the first record not yet routed, so no record is routed twice.
+ */
+public class RetryRoutingErrorHandler extends DefaultErrorHandler {
+
+    // Consumer and routed positions of the poll being recovered on this listener thread
+    private final ThreadLocal<Recovery> recovery;
+
+    public RetryRoutingErrorHandler(ConsumerRetryRouter retryRouter, BackOff backOff) {
+        this(retryRouter, backOff, new ThreadLocal<>());
+    }
+
+    private RetryRoutingErrorHandler(ConsumerRetryRouter retryRouter, BackOff backOff, ThreadLocal<Recovery> recovery) {
+        super((record, e) -> {
+            retryRouter.retryOrDeadLetter(record, e);
+            Recovery current = recovery.get();
+            if (current != null) {
+                current.commit(record);
+            }
+        }, backOff);
+        this.recovery = recovery;
+    }
+
+    @Override
+    public void handleBatch(Exception thrownException, ConsumerRecords<?, ?> data, Consumer<?, ?> consumer,
+                            MessageListenerContainer container, Runnable invokeListener) {
+        Recovery current = new Recovery(consumer);
+        recovery.set(current);
+        try {
+            super.handleBatch(thrownException, data, consumer, container, invokeListener);
+        } catch (RuntimeException e) {
+            // The fallback seeks back to the start of the poll; skip what is already routed
+            current.routed.forEach(consumer::seek);
+            throw e;
+        } finally {
+            recovery.remove();
+        }
+    }
+
+    private record Recovery(Consumer<?, ?> consumer, Map<TopicPartition, OffsetAndMetadata> routed) {
+
+        Recovery(Consumer<?, ?> consumer) {
+            this(consumer, new HashMap<>());
+        }
+
+        void commit(ConsumerRecord<?, ?> record) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            OffsetAndMetadata next = new OffsetAndMetadata(record.offset() + 1);
+            consumer.commitSync(Map.of(partition, next));
+            routed.put(partition, next);
+        }
+    }
+}
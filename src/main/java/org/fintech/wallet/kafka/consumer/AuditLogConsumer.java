@@ -2,53 +2,53 @@ package org.fintech.wallet.kafka.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fintech.wallet.dto.event.AuditLogEvent;
+import org.fintech.wallet.service.AuditService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AuditLogConsumer {
 
+    private final AuditService auditService;
+
     @KafkaListener(
             topics = "audit-logs",
             groupId = "audit-persistence-group",
             containerFactory = "auditLogEventConcurrentKafkaListenerContainerFactory"
     )
-    public void consumeAuditLog(
-            AuditLogEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+    public void consumeAuditLogs(
+            List<ConsumerRecord<String, AuditLogEvent>> records,
             Acknowledgment acknowledgment
     ) {
-        if (event == null) {
-            log.warn("Audit event is null (partition={}, offset={}, key={})", partition, offset, key);
-            acknowledgment.acknowledge();
-            return;
-        }
-
-        try {
-            log.info("Consumed audit log: action={}, entityType={}, entityId={}, userId={}, adminId={}, partition={}, offset={}, key={}",
-                    event.getAction(), event.getEntityType(), event.getEntityId(),
-                    event.getUserId(), event.getAdminId(), partition, offset, key);
+        List<AuditLogEvent> events = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, AuditLogEvent> record : records) {
+            AuditLogEvent event = record.value();
+            if (event == null) {
+                log.warn("Audit event is null (partition={}, offset={}, key={})",
+                        record.partition(), record.offset(), record.key());
+                continue;
+            }
 
             if (isCriticalAction(event.getAction())) {
                 log.warn("CRITICAL AUDIT LOG: action={}, adminId={}, entityId={}, details={}",
                         event.getAction(), event.getAdminId(), event.getEntityId(), event.getDetails());
             }
-
-            // next phase: persist to audit table
-            acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Error processing audit log: action={}, entityId={}", event.getAction(), event.getEntityId(), e);
-            // no ack → retry
+            events.add(event);
         }
+
+        // Throws on failure, so the error handler retries the whole poll; inserts skip ids already stored
+        int stored = auditService.storeAll(events);
+        acknowledgment.acknowledge();
+        log.debug("Stored {} of {} audit events", stored, records.size());
     }
 
     private boolean isCriticalAction(String action) {
@@ -0,0 +1,112 @@
+package org.fintech.wallet.kafka.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.fintech.wallet.domain.entity.DeadLetterRecord;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+import org.fintech.wallet.dto.event.FraudDetectionEvent;
+import org.fintech.wallet.dto.event.KycEvent;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.fintech.wallet.dto.event.WalletEvent;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
+import org.fintech.wallet.service.DeadLetterService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies every record that reaches a {@code -dlt} topic into dead_letter_records, where admins
+ * can inspect it and replay or discard it. Storing is idempotent on the DLT position, so a
+ * redelivered batch does not create duplicates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterConsumer {
+
+    private static final String GROUP_ID = "dead-letter-store-group";
+
+    private final DeadLetterService deadLetterService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "transaction-events" + ConsumerRetryRouter.DLT_SUFFIX,
+            groupId = GROUP_ID,
+            containerFactory = "transactionEventKafkaListenerContainerFactory"
+    )
+    public void consumeTransactionDeadLetters(List<ConsumerRecord<String, TransactionEvent>> records,
+                                              Acknowledgment acknowledgment) {
+        store(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = "wallet-events" + ConsumerRetryRouter.DLT_SUFFIX,
+            groupId = GROUP_ID,
+            containerFactory = "walletEventKafkaListenerContainerFactory"
+    )
+    public void consumeWalletDeadLetters(List<ConsumerRecord<String, WalletEvent>> records,
+                                         Acknowledgment acknowledgment) {
+        store(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = "kyc-events" + ConsumerRetryRouter.DLT_SUFFIX,
+            groupId = GROUP_ID,
+            containerFactory = "kycEventKafkaListenerContainerFactory"
+    )
+    public void consumeKycDeadLetters(List<ConsumerRecord<String, KycEvent>> records,
+                                      Acknowledgment acknowledgment) {
+        store(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = "fraud-detection" + ConsumerRetryRouter.DLT_SUFFIX,
+            groupId = GROUP_ID,
+            containerFactory = "fraudDetectionEventConcurrentKafkaListenerContainerFactory"
+    )
+    public void consumeFraudDeadLetters(List<ConsumerRecord<String, FraudDetectionEvent>> records,
+                                        Acknowledgment acknowledgment) {
+        store(records, acknowledgment);
+    }
+
+    private void store(List<? extends ConsumerRecord<String, ?>> records, Acknowledgment acknowledgment) {
+        List<DeadLetterRecord> deadLetters = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, ?> record : records) {
+            if (record.value() == null) {
+                log.warn("Dead letter without payload skipped (topic={}, partition={}, offset={})",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            deadLetters.add(toDeadLetter(record));
+        }
+
+        int stored = deadLetterService.storeAll(deadLetters);
+        acknowledgment.acknowledge();
+        if (stored > 0) {
+            log.warn("Stored {} dead letters from {}", stored, records.get(0).topic());
+        }
+    }
+
+    private DeadLetterRecord toDeadLetter(ConsumerRecord<String, ?> record) {
+        try {
+            return DeadLetterRecord.builder()
+                    .originalTopic(ConsumerRetryRouter.originalTopic(record))
+                    .dltPartition(record.partition())
+                    .dltOffset(record.offset())
+                    .messageKey(record.key())
+                    .payloadType(record.value().getClass().getName())
+                    .payload(objectMapper.writeValueAsString(record.value()))
+                    .attempts(ConsumerRetryRouter.attempt(record))
+                    .errorMessage(ConsumerRetryRouter.header(record, ConsumerRetryRouter.HEADER_ERROR, null))
+                    .status(DeadLetterStatus.PENDING)
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize dead letter at offset " + record.offset(), e);
+        }
+    }
+}
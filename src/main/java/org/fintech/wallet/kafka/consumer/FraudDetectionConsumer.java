@@ -2,93 +2,134 @@ package org.fintech.wallet.kafka.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fintech.wallet.domain.enums.NotificationChannel;
 import org.fintech.wallet.domain.enums.NotificationPriority;
 import org.fintech.wallet.domain.enums.NotificationType;
 import org.fintech.wallet.dto.event.FraudDetectionEvent;
 import org.fintech.wallet.dto.request.SendNotificationRequest;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
 import org.fintech.wallet.service.NotificationService;
 import org.fintech.wallet.service.WalletService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class FraudDetectionConsumer {
 
+    public static final String TOPIC = "fraud-detection";
+    public static final String GROUP_ID = "fraud-analysis-group";
+    public static final String RETRY_TOPIC = TOPIC + "-" + GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX;
+
     private final NotificationService notificationService;
+    private final ConsumerRetryRouter retryRouter;
     private final WalletService walletService;
 
     @KafkaListener(
-            topics = "fraud-detection",
-            groupId = "fraud-analysis-group",
+            topics = TOPIC,
+            groupId = GROUP_ID,
+            containerFactory = "fraudDetectionEventConcurrentKafkaListenerContainerFactory"
+    )
+    public void consumeFraudEvents(
+            List<ConsumerRecord<String, FraudDetectionEvent>> records,
+            Acknowledgment acknowledgment
+    ) {
+        notifyUsers(records);
+        acknowledgment.acknowledge();
+    }
+
+    @KafkaListener(
+            topics = RETRY_TOPIC,
+            groupId = GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX,
             containerFactory = "fraudDetectionEventConcurrentKafkaListenerContainerFactory"
     )
-    public void consumeFraudEvent(
-            FraudDetectionEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+    public void consumeFraudEventRetries(
+            List<ConsumerRecord<String, FraudDetectionEvent>> records,
             Acknowledgment acknowledgment
     ) {
-        if (event == null) {
-            log.warn("Fraud event is null (partition={}, offset={}, key={})", partition, offset, key);
+        int due = retryRouter.dueCount(records);
+        notifyUsers(records.subList(0, due));
+        if (due < records.size()) {
+            acknowledgment.nack(due, retryRouter.untilDue(records.get(due)));
+        } else {
             acknowledgment.acknowledge();
-            return;
         }
+    }
 
-        try {
-            String risk = normalize(event.getRiskLevel());
-            log.warn("Consumed fraud event: txId={}, userId={}, riskLevel={}, riskScore={}, partition={}, offset={}, key={}",
-                    event.getTransactionId(), event.getUserId(), risk, event.getRiskScore(), partition, offset, key);
-
-            switch (risk) {
-                case "CRITICAL" -> handleCriticalRisk(event);
-                case "HIGH" -> handleHighRisk(event);
-                case "MEDIUM" -> log.info("MEDIUM risk: txId={} (logged for review)", event.getTransactionId());
-                case "LOW" -> log.debug("LOW risk: txId={} (analytics only)", event.getTransactionId());
-                default -> log.warn("Unknown riskLevel: {}", risk);
-            }
+    private void notifyUsers(List<ConsumerRecord<String, FraudDetectionEvent>> records) {
+        List<SendNotificationRequest> notifications = new ArrayList<>();
+        Map<ConsumerRecord<String, FraudDetectionEvent>, Exception> failed = new LinkedHashMap<>();
 
-            acknowledgment.acknowledge();
+        for (ConsumerRecord<String, FraudDetectionEvent> record : records) {
+            FraudDetectionEvent event = record.value();
+            if (event == null) {
+                log.warn("Fraud event is null (partition={}, offset={}, key={})",
+                        record.partition(), record.offset(), record.key());
+                continue;
+            }
 
-        } catch (Exception e) {
-            log.error("Error processing fraud event: txId={}, userId={}", event.getTransactionId(), event.getUserId(), e);
-            // no ack → retry
+            try {
+                String risk = normalize(event.getRiskLevel());
+                log.warn("Consumed fraud event: txId={}, userId={}, riskLevel={}, riskScore={}, partition={}, offset={}",
+                        event.getTransactionId(), event.getUserId(), risk, event.getRiskScore(),
+                        record.partition(), record.offset());
+
+                switch (risk) {
+                    case "CRITICAL" -> notifications.add(handleCriticalRisk(event));
+                    case "HIGH" -> notifications.add(handleHighRisk(event));
+                    case "MEDIUM" -> log.info("MEDIUM risk: txId={} (logged for review)", event.getTransactionId());
+                    case "LOW" -> log.debug("LOW risk: txId={} (analytics only)", event.getTransactionId());
+                    default -> log.warn("Unknown riskLevel: {}", risk);
+                }
+
+            } catch (Exception e) {
+                log.error("Error processing fraud event: txId={}, userId={}, partition={}, offset={}",
+                        event.getTransactionId(), event.getUserId(), record.partition(), record.offset(), e);
+                failed.put(record, e);
+            }
         }
+
+        // Throws on failure: the container's error handler retries the poll, then moves it to the retry topic.
+        // Failed records are routed only after that, so a retried poll does not route them a second time.
+        notificationService.sendNotifications(notifications);
+        retryRouter.retryOrDeadLetter(failed);
     }
 
-    private void handleCriticalRisk(FraudDetectionEvent event) {
+    private SendNotificationRequest handleCriticalRisk(FraudDetectionEvent event) {
         log.error("CRITICAL RISK DETECTED: Transaction={}", event.getTransactionId());
 
         // Optional: freeze all user wallets (enable in prod with proper method)
         // walletService.freezeAllUserWallets(event.getUserId());
 
-        send(event, NotificationPriority.URGENT,
+        return buildNotification(event, NotificationPriority.URGENT,
                 "URGENT: Suspicious Activity Detected",
                 String.format("We detected suspicious activity on your account. For your security, we may restrict activity. Transaction: %s %s. Contact support immediately.",
                         event.getAmount(), event.getCurrency()));
     }
 
-    private void handleHighRisk(FraudDetectionEvent event) {
+    private SendNotificationRequest handleHighRisk(FraudDetectionEvent event) {
         log.warn("HIGH RISK DETECTED: Transaction={}", event.getTransactionId());
 
-        send(event, NotificationPriority.HIGH,
+        return buildNotification(event, NotificationPriority.HIGH,
                 "Security Alert: Unusual Activity",
                 String.format("We noticed unusual activity on your account. Transaction: %s %s. If this wasn't you, contact support.",
                         event.getAmount(), event.getCurrency()));
     }
 
-    private void send(FraudDetectionEvent event, NotificationPriority priority, String title, String message) {
+    private SendNotificationRequest buildNotification(FraudDetectionEvent event, NotificationPriority priority, String title, String message) {
         if (event.getUserId() == null) throw new IllegalArgumentException("FraudDetectionEvent.userId is required");
 
         String ref = event.getTransactionId() != null ? event.getTransactionId().toString() : null;
 
-        SendNotificationRequest notification = SendNotificationRequest.builder()
+        return SendNotificationRequest.builder()
                 .userId(event.getUserId())
                 .type(NotificationType.SECURITY_ALERT)
                 .title(title)
@@ -97,8 +138,6 @@ public class FraudDetectionConsumer {
                 .channel(NotificationChannel.ALL)
                 .priority(priority)
                 .build();
-
-        notificationService.sendNotification(notification);
     }
 
     private String normalize(Object riskLevel) {
@@ -0,0 +1,85 @@
+package org.fintech.wallet.kafka.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.dto.event.FraudDetectionEvent;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.service.fraud.FraudScoringEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds transaction events into the scoring engine and publishes what it flags to the
+ * fraud-detection topic, where FraudDetectionConsumer alerts the user.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.fraud", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FraudScoringConsumer {
+
+    private final FraudScoringEngine scoringEngine;
+    private final KafkaProducerService kafkaProducerService;
+
+    @KafkaListener(
+            topics = "transaction-events",
+            groupId = "fraud-scoring-group",
+            containerFactory = "transactionEventKafkaListenerContainerFactory"
+    )
+    public void consumeTransactionEvents(
+            List<ConsumerRecord<String, TransactionEvent>> records,
+            Acknowledgment acknowledgment
+    ) {
+        List<FraudDetectionEvent> flagged = new ArrayList<>();
+
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            TransactionEvent event = record.value();
+            if (event == null || event.getUserId() == null) {
+                continue;
+            }
+
+            try {
+                if ("FAILED".equals(event.getEventType())) {
+                    scoringEngine.recordFailure(event);
+                } else if (isOutgoing(event)) {
+                    FraudDetectionEvent result = scoringEngine.score(event);
+                    if (result != null) {
+                        flagged.add(result);
+                    }
+                }
+            } catch (Exception e) {
+                // Scoring is best effort: one bad event must not hold back the windows of the rest
+                log.error("Error scoring transaction event (txId={}, partition={}, offset={})",
+                        event.getTransactionId(), record.partition(), record.offset(), e);
+            }
+        }
+
+        // Not rethrown: redelivery would add the whole batch to the windows a second time,
+        // and these records must never reach the notification group's retry topic
+        try {
+            kafkaProducerService.publishFraudDetectionEvents(flagged);
+        } catch (Exception e) {
+            log.error("Failed to publish {} fraud detection events", flagged.size(), e);
+        }
+        acknowledgment.acknowledge();
+
+        if (!flagged.isEmpty()) {
+            log.info("Flagged {} of {} transaction events", flagged.size(), records.size());
+        }
+    }
+
+    // Money leaving the user's control: a completed transfer, or a withdrawal when it is requested.
+    // The withdrawal's later COMPLETED event is its settlement and is not scored again.
+    private boolean isOutgoing(TransactionEvent event) {
+        return (event.getType() == TransactionType.TRANSFER && "COMPLETED".equals(event.getEventType()))
+                || (event.getType() == TransactionType.WITHDRAWAL && "CREATED".equals(event.getEventType()));
+    }
+}
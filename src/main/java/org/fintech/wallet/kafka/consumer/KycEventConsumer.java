@@ -2,93 +2,134 @@ package org.fintech.wallet.kafka.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fintech.wallet.domain.enums.KycLevel;
 import org.fintech.wallet.domain.enums.NotificationChannel;
 import org.fintech.wallet.domain.enums.NotificationPriority;
 import org.fintech.wallet.domain.enums.NotificationType;
 import org.fintech.wallet.dto.event.KycEvent;
 import org.fintech.wallet.dto.request.SendNotificationRequest;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
 import org.fintech.wallet.service.NotificationService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class KycEventConsumer {
 
+    public static final String TOPIC = "kyc-events";
+    public static final String GROUP_ID = "kyc-processing-group";
+    public static final String RETRY_TOPIC = TOPIC + "-" + GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX;
+
     private final NotificationService notificationService;
+    private final ConsumerRetryRouter retryRouter;
 
     @KafkaListener(
-            topics = "kyc-events",
-            groupId = "kyc-processing-group",
+            topics = TOPIC,
+            groupId = GROUP_ID,
             containerFactory = "kycEventKafkaListenerContainerFactory"
     )
-    public void consumeKycEvent(
-            KycEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+    public void consumeKycEvents(
+            List<ConsumerRecord<String, KycEvent>> records,
             Acknowledgment acknowledgment
     ) {
-        if (event == null) {
-            log.warn("KYC event is null (partition={}, offset={}, key={})", partition, offset, key);
+        notifyUsers(records);
+        acknowledgment.acknowledge();
+    }
+
+    @KafkaListener(
+            topics = RETRY_TOPIC,
+            groupId = GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX,
+            containerFactory = "kycEventKafkaListenerContainerFactory"
+    )
+    public void consumeKycEventRetries(
+            List<ConsumerRecord<String, KycEvent>> records,
+            Acknowledgment acknowledgment
+    ) {
+        int due = retryRouter.dueCount(records);
+        notifyUsers(records.subList(0, due));
+        if (due < records.size()) {
+            acknowledgment.nack(due, retryRouter.untilDue(records.get(due)));
+        } else {
             acknowledgment.acknowledge();
-            return;
         }
+    }
 
-        try {
-            String action = safe(event.getAction());
-            log.info("Consumed KYC event: action={}, status={}, level={}, userId={}, kycId={}, partition={}, offset={}, key={}",
-                    action, event.getStatus(), event.getLevel(), event.getUserId(), event.getKycId(), partition, offset, key);
+    private void notifyUsers(List<ConsumerRecord<String, KycEvent>> records) {
+        List<SendNotificationRequest> notifications = new ArrayList<>(records.size());
+        Map<ConsumerRecord<String, KycEvent>, Exception> failed = new LinkedHashMap<>();
 
-            switch (action) {
-                case "SUBMITTED" -> handleKycSubmitted(event);
-                case "APPROVED" -> handleKycApproved(event);
-                case "REJECTED" -> handleKycRejected(event);
-                default -> log.warn("Unknown KYC action: {}", action);
+        for (ConsumerRecord<String, KycEvent> record : records) {
+            KycEvent event = record.value();
+            if (event == null) {
+                log.warn("KYC event is null (partition={}, offset={}, key={})",
+                        record.partition(), record.offset(), record.key());
+                continue;
             }
 
-            acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Error processing KYC event: userId={}, kycId={}", event.getUserId(), event.getKycId(), e);
-            // no ack → retry
+            try {
+                String action = safe(event.getAction());
+                log.info("Consumed KYC event: action={}, status={}, level={}, userId={}, kycId={}, partition={}, offset={}",
+                        action, event.getStatus(), event.getLevel(), event.getUserId(), event.getKycId(),
+                        record.partition(), record.offset());
+
+                switch (action) {
+                    case "SUBMITTED" -> notifications.add(handleKycSubmitted(event));
+                    case "APPROVED" -> notifications.add(handleKycApproved(event));
+                    case "REJECTED" -> notifications.add(handleKycRejected(event));
+                    default -> log.warn("Unknown KYC action: {}", action);
+                }
+
+            } catch (Exception e) {
+                log.error("Error processing KYC event: userId={}, kycId={}, partition={}, offset={}",
+                        event.getUserId(), event.getKycId(), record.partition(), record.offset(), e);
+                failed.put(record, e);
+            }
         }
+
+        // Throws on failure: the container's error handler retries the poll, then moves it to the retry topic.
+        // Failed records are routed only after that, so a retried poll does not route them a second time.
+        notificationService.sendNotifications(notifications);
+        retryRouter.retryOrDeadLetter(failed);
     }
 
-    private void handleKycSubmitted(KycEvent event) {
-        send(event, NotificationType.KYC_SUBMITTED,
+    private SendNotificationRequest handleKycSubmitted(KycEvent event) {
+        return buildNotification(event, NotificationType.KYC_SUBMITTED,
                 "KYC Documents Received",
                 "We've received your KYC documents. Our team will review them within 24-48 hours.",
                 NotificationPriority.MEDIUM);
     }
 
-    private void handleKycApproved(KycEvent event) {
+    private SendNotificationRequest handleKycApproved(KycEvent event) {
         String limits = getTransactionLimits(event.getLevel());
-        send(event, NotificationType.KYC_APPROVED,
+        return buildNotification(event, NotificationType.KYC_APPROVED,
                 "KYC Verification Approved! 🎉",
                 String.format("Congratulations! Your KYC verification has been approved. You're now verified for %s with transaction limits: %s",
                         event.getLevel(), limits),
                 NotificationPriority.HIGH);
     }
 
-    private void handleKycRejected(KycEvent event) {
-        send(event, NotificationType.KYC_REJECTED,
+    private SendNotificationRequest handleKycRejected(KycEvent event) {
+        return buildNotification(event, NotificationType.KYC_REJECTED,
                 "KYC Verification Needs Attention",
                 "We couldn't verify your KYC documents. Please check your email for details and resubmit.",
                 NotificationPriority.HIGH);
     }
 
-    private void send(KycEvent event, NotificationType type, String title, String message, NotificationPriority priority) {
+    private SendNotificationRequest buildNotification(KycEvent event, NotificationType type, String title, String message, NotificationPriority priority) {
         if (event.getUserId() == null) throw new IllegalArgumentException("KycEvent.userId is required");
 
         String ref = event.getKycId() != null ? event.getKycId().toString() : null;
 
-        SendNotificationRequest notification = SendNotificationRequest.builder()
+        return SendNotificationRequest.builder()
                 .userId(event.getUserId())
                 .type(type)
                 .title(title)
@@ -97,8 +138,6 @@ public class KycEventConsumer {
                 .channel(NotificationChannel.ALL)
                 .priority(priority)
                 .build();
-
-        notificationService.sendNotification(notification);
     }
 
     private String getTransactionLimits(String level) {
@@ -2,94 +2,125 @@ package org.fintech.wallet.kafka.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fintech.wallet.domain.enums.*;
 import org.fintech.wallet.dto.event.TransactionEvent;
 import org.fintech.wallet.dto.request.SendNotificationRequest;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
 import org.fintech.wallet.service.NotificationService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventConsumer {
 
+    public static final String TOPIC = "transaction-events";
+    public static final String GROUP_ID = "transaction-notification-group";
+    public static final String RETRY_TOPIC = TOPIC + "-" + GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX;
+
     private final NotificationService notificationService;
+    private final ConsumerRetryRouter retryRouter;
 
     @KafkaListener(
-            topics = "transaction-events",
-            groupId = "transaction-notification-group",
+            topics = TOPIC,
+            groupId = GROUP_ID,
             containerFactory = "transactionEventKafkaListenerContainerFactory"
     )
-    public void consumeTransactionEvent(
-            @Payload TransactionEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+    public void consumeTransactionEvents(
+            List<ConsumerRecord<String, TransactionEvent>> records,
             Acknowledgment acknowledgment
     ) {
+        notifyUsers(records);
+        acknowledgment.acknowledge();
+    }
 
-        if (event == null) {
-            log.warn("Transaction event is null (partition={}, offset={}, key={})",
-                    partition, offset, key);
+    @KafkaListener(
+            topics = RETRY_TOPIC,
+            groupId = GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX,
+            containerFactory = "transactionEventKafkaListenerContainerFactory"
+    )
+    public void consumeTransactionEventRetries(
+            List<ConsumerRecord<String, TransactionEvent>> records,
+            Acknowledgment acknowledgment
+    ) {
+        int due = retryRouter.dueCount(records);
+        notifyUsers(records.subList(0, due));
+        if (due < records.size()) {
+            acknowledgment.nack(due, retryRouter.untilDue(records.get(due)));
+        } else {
             acknowledgment.acknowledge();
-            return;
         }
+    }
 
-        try {
-            log.info(
-                    "Consumed transaction event: ref={}, type={}, status={}, userId={}, partition={}, offset={}, key={}",
-                    event.getReference(),
-                    event.getType(),
-                    event.getStatus(),
-                    event.getUserId(),
-                    partition,
-                    offset,
-                    key
-            );
+    private void notifyUsers(List<ConsumerRecord<String, TransactionEvent>> records) {
+        List<SendNotificationRequest> notifications = new ArrayList<>(records.size());
+        Map<ConsumerRecord<String, TransactionEvent>, Exception> failed = new LinkedHashMap<>();
 
-            if (event.getUserId() == null) {
-                throw new IllegalArgumentException("TransactionEvent.userId is required");
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            TransactionEvent event = record.value();
+            if (event == null) {
+                log.warn("Transaction event is null (partition={}, offset={}, key={})",
+                        record.partition(), record.offset(), record.key());
+                continue;
             }
 
-            NotificationType notificationType = mapToNotificationType(event);
-
-            SendNotificationRequest notificationRequest =
-                    SendNotificationRequest.builder()
-                            .userId(event.getUserId())
-                            .type(notificationType)
-                            .title(getNotificationTitle(event))
-                            .message(getNotificationMessage(event))
-                            .referenceId(
-                                    event.getTransactionId() != null
-                                            ? event.getTransactionId().toString()
-                                            : event.getReference()
-                            )
-                            .channel(NotificationChannel.ALL)
-                            .priority(getNotificationPriority(event))
-                            .build();
-
-            notificationService.sendNotification(notificationRequest);
-
-            acknowledgment.acknowledge();
+            try {
+                log.debug(
+                        "Consumed transaction event: ref={}, type={}, status={}, userId={}, partition={}, offset={}",
+                        event.getReference(),
+                        event.getType(),
+                        event.getStatus(),
+                        event.getUserId(),
+                        record.partition(),
+                        record.offset()
+                );
+
+                if (event.getUserId() == null) {
+                    throw new IllegalArgumentException("TransactionEvent.userId is required");
+                }
 
-        } catch (Exception e) {
-            log.error(
-                    "Error processing transaction event: ref={}, key={}, partition={}, offset={}",
-                    event.getReference(),
-                    key,
-                    partition,
-                    offset,
-                    e
-            );
-            // no ack → retry (DLT recommended at container level)
+                notifications.add(SendNotificationRequest.builder()
+                        .userId(event.getUserId())
+                        .type(mapToNotificationType(event))
+                        .title(getNotificationTitle(event))
+                        .message(getNotificationMessage(event))
+                        .referenceId(
+                                event.getTransactionId() != null
+                                        ? event.getTransactionId().toString()
+                                        : event.getReference()
+                        )
+                        .channel(NotificationChannel.ALL)
+                        .priority(getNotificationPriority(event))
+                        .build());
+
+            } catch (Exception e) {
+                // Back off this event only; the rest of the poll goes on
+                log.error(
+                        "Error processing transaction event: ref={}, key={}, partition={}, offset={}",
+                        event.getReference(),
+                        record.key(),
+                        record.partition(),
+                        record.offset(),
+                        e
+                );
+                failed.put(record, e);
+            }
         }
+
+        // Throws on failure: the container's error handler retries the poll, then moves it to the retry topic.
+        // Failed records are routed only after that, so a retried poll does not route them a second time.
+        notificationService.sendNotifications(notifications);
+        retryRouter.retryOrDeadLetter(failed);
+        log.info("Processed {} transaction events, {} notifications", records.size(), notifications.size());
     }
 
     /* --------------------------------------------------------------------- */
@@ -113,7 +144,7 @@ public class TransactionEventConsumer {
 
             case WITHDRAWAL -> switch (event.getStatus()) {
                 case SUCCESS -> NotificationType.WITHDRAWAL_SUCCESS;
-                case FAILED -> NotificationType.WITHDRAWAL_FAILED;
+                case FAILED, EXPIRED -> NotificationType.WITHDRAWAL_FAILED;
                 case PENDING -> NotificationType.WITHDRAWAL_PENDING;
                 default -> NotificationType.TRANSACTION_PENDING;
             };
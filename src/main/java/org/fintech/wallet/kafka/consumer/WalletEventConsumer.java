@@ -2,90 +2,138 @@ package org.fintech.wallet.kafka.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.fintech.wallet.domain.enums.NotificationChannel;
 import org.fintech.wallet.domain.enums.NotificationPriority;
 import org.fintech.wallet.domain.enums.NotificationType;
 import org.fintech.wallet.dto.event.WalletEvent;
 import org.fintech.wallet.dto.request.SendNotificationRequest;
+import org.fintech.wallet.kafka.ConsumerRetryRouter;
 import org.fintech.wallet.service.NotificationService;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WalletEventConsumer {
 
+    public static final String TOPIC = "wallet-events";
+    public static final String GROUP_ID = "wallet-processing-group";
+    public static final String RETRY_TOPIC = TOPIC + "-" + GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX;
+
     private final NotificationService notificationService;
+    private final ConsumerRetryRouter retryRouter;
+
+    @KafkaListener(
+            topics = TOPIC,
+            groupId = GROUP_ID,
+            containerFactory = "walletEventKafkaListenerContainerFactory"
+    )
+    public void consumeWalletEvents(
+            List<ConsumerRecord<String, WalletEvent>> records,
+            Acknowledgment acknowledgment
+    ) {
+        notifyUsers(records);
+        acknowledgment.acknowledge();
+    }
 
     @KafkaListener(
-            topics = "wallet-events",
-            groupId = "wallet-processing-group",
+            topics = RETRY_TOPIC,
+            groupId = GROUP_ID + ConsumerRetryRouter.RETRY_SUFFIX,
             containerFactory = "walletEventKafkaListenerContainerFactory"
     )
-    public void consumeWalletEvent(
-            WalletEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+    public void consumeWalletEventRetries(
+            List<ConsumerRecord<String, WalletEvent>> records,
             Acknowledgment acknowledgment
     ) {
-        if (event == null) {
-            log.warn("Wallet event is null (partition={}, offset={}, key={})", partition, offset, key);
+        int due = retryRouter.dueCount(records);
+        notifyUsers(records.subList(0, due));
+        if (due < records.size()) {
+            acknowledgment.nack(due, retryRouter.untilDue(records.get(due)));
+        } else {
             acknowledgment.acknowledge();
-            return;
         }
+    }
 
-        try {
-            String action = safe(event.getAction());
-            log.info("Consumed wallet event: action={}, walletId={}, userId={}, currency={}, partition={}, offset={}, key={}",
-                    action, event.getWalletId(), event.getUserId(), event.getCurrency(), partition, offset, key);
-
-            switch (action) {
-                case "CREATED" -> notifyUser(event, NotificationType.WALLET_CREATED,
-                        "Wallet Created",
-                        "Your " + safe(event.getCurrency()) + " wallet has been created successfully.");
-
-                case "FROZEN" -> notifyUser(event, NotificationType.WALLET_FROZEN,
-                        "Wallet Frozen",
-                        "Your wallet has been frozen for security reasons. Contact support if needed.");
-
-                case "UNFROZEN" -> notifyUser(event, NotificationType.WALLET_UNFROZEN,
-                        "Wallet Unfrozen",
-                        "Your wallet has been unfrozen and is now active.");
+    private void notifyUsers(List<ConsumerRecord<String, WalletEvent>> records) {
+        List<SendNotificationRequest> notifications = new ArrayList<>(records.size());
+        Map<ConsumerRecord<String, WalletEvent>, Exception> failed = new LinkedHashMap<>();
 
-                case "LOW_BALANCE" -> notifyUser(event, NotificationType.WALLET_LOW_BALANCE,
-                        "Low Balance Alert",
-                        "Your wallet balance is low. Consider funding your wallet.");
+        for (ConsumerRecord<String, WalletEvent> record : records) {
+            WalletEvent event = record.value();
+            if (event == null) {
+                log.warn("Wallet event is null (partition={}, offset={}, key={})",
+                        record.partition(), record.offset(), record.key());
+                continue;
+            }
 
-                case "BALANCE_UPDATED" -> {
-                    // Usually too noisy; keep as log
-                    log.info("Wallet balance updated: walletId={}, old={}, new={}",
-                            event.getWalletId(), event.getOldBalance(), event.getNewBalance());
+            try {
+                String action = safe(event.getAction());
+                log.debug("Consumed wallet event: action={}, walletId={}, userId={}, currency={}, partition={}, offset={}",
+                        action, event.getWalletId(), event.getUserId(), event.getCurrency(),
+                        record.partition(), record.offset());
+
+                SendNotificationRequest notification = switch (action) {
+                    case "CREATED" -> notifyUser(event, NotificationType.WALLET_CREATED,
+                            "Wallet Created",
+                            "Your " + safe(event.getCurrency()) + " wallet has been created successfully.");
+
+                    case "FROZEN" -> notifyUser(event, NotificationType.WALLET_FROZEN,
+                            "Wallet Frozen",
+                            "Your wallet has been frozen for security reasons. Contact support if needed.");
+
+                    case "UNFROZEN" -> notifyUser(event, NotificationType.WALLET_UNFROZEN,
+                            "Wallet Unfrozen",
+                            "Your wallet has been unfrozen and is now active.");
+
+                    case "LOW_BALANCE" -> notifyUser(event, NotificationType.WALLET_LOW_BALANCE,
+                            "Low Balance Alert",
+                            "Your wallet balance is low. Consider funding your wallet.");
+
+                    case "BALANCE_UPDATED" -> {
+                        // Usually too noisy; keep as log
+                        log.info("Wallet balance updated: walletId={}, old={}, new={}",
+                                event.getWalletId(), event.getOldBalance(), event.getNewBalance());
+                        yield null;
+                    }
+
+                    default -> {
+                        log.warn("Unknown wallet action: action={}, walletId={}, userId={}",
+                                action, event.getWalletId(), event.getUserId());
+                        yield null;
+                    }
+                };
+
+                if (notification != null) {
+                    notifications.add(notification);
                 }
 
-                default -> log.warn("Unknown wallet action: action={}, walletId={}, userId={}",
-                        action, event.getWalletId(), event.getUserId());
+            } catch (Exception e) {
+                log.error("Error processing wallet event (walletId={}, userId={}, partition={}, offset={})",
+                        event.getWalletId(), event.getUserId(), record.partition(), record.offset(), e);
+                failed.put(record, e);
             }
-
-            acknowledgment.acknowledge();
-
-        } catch (Exception e) {
-            log.error("Error processing wallet event (walletId={}, userId={})",
-                    event.getWalletId(), event.getUserId(), e);
-            // do NOT ack → Kafka retries
         }
+
+        // Throws on failure: the container's error handler retries the poll, then moves it to the retry topic.
+        // Failed records are routed only after that, so a retried poll does not route them a second time.
+        notificationService.sendNotifications(notifications);
+        retryRouter.retryOrDeadLetter(failed);
     }
 
-    private void notifyUser(WalletEvent event, NotificationType type, String title, String message) {
+    private SendNotificationRequest notifyUser(WalletEvent event, NotificationType type, String title, String message) {
         if (event.getUserId() == null) {
             log.warn("Cannot notify user: userId is null for wallet event walletId={}", event.getWalletId());
-            return;
+            return null;
         }
-        SendNotificationRequest req = SendNotificationRequest.builder()
+        return SendNotificationRequest.builder()
                 .userId(event.getUserId())
                 .type(type)
                 .title(title)
@@ -94,8 +142,6 @@ public class WalletEventConsumer {
                 .channel(NotificationChannel.IN_APP) // wallet updates best as in-app
                 .priority(NotificationPriority.MEDIUM)
                 .build();
-
-        notificationService.sendNotification(req);
     }
 
     private String safe(String s) {
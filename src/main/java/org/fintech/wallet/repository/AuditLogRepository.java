@@ -0,0 +1,146 @@
+package org.fintech.wallet.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.fintech.wallet.dto.event.AuditLogEvent;
+import org.fintech.wallet.dto.request.AuditLogSearchRequest;
+import org.fintech.wallet.dto.response.AuditLogResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * audit_logs is range-partitioned by month and has no JPA entity: rows are written in bulk
+ * and read by time range, both through plain JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogRepository {
+
+    // One statement per batch: each column travels as a single array parameter
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (id, occurred_at, user_id, admin_id, action, entity_type, entity_id, details, ip_address)
+            SELECT * FROM unnest(?::uuid[], ?::timestamp[], ?::uuid[], ?::uuid[],
+                                 ?::varchar[], ?::varchar[], ?::varchar[], ?::text[], ?::varchar[])
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final RowMapper<AuditLogResponse> ROW_MAPPER = (rs, rowNum) -> AuditLogResponse.builder()
+            .id(rs.getObject("id", UUID.class))
+            .occurredAt(rs.getTimestamp("occurred_at").toLocalDateTime())
+            .userId(rs.getObject("user_id", UUID.class))
+            .adminId(rs.getObject("admin_id", UUID.class))
+            .action(rs.getString("action"))
+            .entityType(rs.getString("entity_type"))
+            .entityId(rs.getString("entity_id"))
+            .details(rs.getString("details"))
+            .ipAddress(rs.getString("ip_address"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Inserts the events, skipping ids already stored. Returns the number of new rows.
+     */
+    public int insertAll(List<AuditLogEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        int size = events.size();
+        Object[] ids = new Object[size];
+        Object[] occurredAt = new Object[size];
+        Object[] userIds = new Object[size];
+        Object[] adminIds = new Object[size];
+        Object[] actions = new Object[size];
+        Object[] entityTypes = new Object[size];
+        Object[] entityIds = new Object[size];
+        Object[] details = new Object[size];
+        Object[] ipAddresses = new Object[size];
+        for (int i = 0; i < size; i++) {
+            AuditLogEvent event = events.get(i);
+            ids[i] = event.getId();
+            occurredAt[i] = Timestamp.valueOf(event.getTimestamp());
+            userIds[i] = event.getUserId();
+            adminIds[i] = event.getAdminId();
+            actions[i] = event.getAction();
+            entityTypes[i] = event.getEntityType();
+            entityIds[i] = event.getEntityId();
+            details[i] = event.getDetails();
+            ipAddresses[i] = event.getIpAddress();
+        }
+
+        return jdbcTemplate.update(INSERT_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("uuid", ids));
+            ps.setArray(2, connection.createArrayOf("timestamp", occurredAt));
+            ps.setArray(3, connection.createArrayOf("uuid", userIds));
+            ps.setArray(4, connection.createArrayOf("uuid", adminIds));
+            ps.setArray(5, varchars(connection, actions));
+            ps.setArray(6, varchars(connection, entityTypes));
+            ps.setArray(7, varchars(connection, entityIds));
+            ps.setArray(8, connection.createArrayOf("text", details));
+            ps.setArray(9, varchars(connection, ipAddresses));
+        });
+    }
+
+    /**
+     * Newest first, keyset-paginated on (occurred_at, id). Both bounds of the time range are
+     * plain comparisons on the partition key, so Postgres only scans the partitions they cover.
+     */
+    public List<AuditLogResponse> search(AuditLogSearchRequest request, HistoryCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, occurred_at, user_id, admin_id, action, entity_type, entity_id, details, ip_address
+                FROM audit_logs
+                WHERE occurred_at >= :from AND occurred_at < :to
+                  AND (occurred_at, id) < (:cursorAt, :cursorId)
+                """);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", request.getFrom())
+                .addValue("to", request.getTo())
+                .addValue("cursorAt", cursor.getCreatedAt())
+                .addValue("cursorId", cursor.getId())
+                .addValue("limit", limit);
+
+        if (request.getUserId() != null) {
+            sql.append(" AND user_id = :userId");
+            params.addValue("userId", request.getUserId());
+        }
+        if (request.getAdminId() != null) {
+            sql.append(" AND admin_id = :adminId");
+            params.addValue("adminId", request.getAdminId());
+        }
+        if (request.getAction() != null) {
+            sql.append(" AND action = :action");
+            params.addValue("action", request.getAction());
+        }
+        if (request.getEntityType() != null) {
+            sql.append(" AND entity_type = :entityType");
+            params.addValue("entityType", request.getEntityType());
+        }
+        if (request.getEntityId() != null) {
+            sql.append(" AND entity_id = :entityId");
+            params.addValue("entityId", request.getEntityId());
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT :limit");
+
+        return namedJdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+    }
+
+    public void createMonthlyPartition(LocalDate monthStart) {
+        jdbcTemplate.queryForObject("SELECT create_audit_logs_partition(?)::text", String.class, monthStart);
+    }
+
+    private static Array varchars(Connection connection, Object[] values) throws SQLException {
+        return connection.createArrayOf("varchar", values);
+    }
+}
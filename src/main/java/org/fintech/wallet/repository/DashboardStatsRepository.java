@@ -0,0 +1,154 @@
+package org.fintech.wallet.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.fintech.wallet.repository.projection.DashboardStat;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard aggregates kept by the triggers of V10: writers append deltas, {@link #fold}
+ * merges them into dashboard_stats, {@link #recompute} rebuilds it from the source tables.
+ * Both run under a transaction-scoped advisory lock: folds share it, a recompute takes it
+ * alone so no fold moves deltas while it is replacing the totals.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DashboardStatsRepository {
+
+    public static final LocalDateTime TOTAL_BUCKET = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final long LOCK_KEY = 0x6461736862L;
+
+    // SKIP LOCKED lets nodes fold disjoint batches; merging in key order keeps them from deadlocking
+    private static final String FOLD_SQL = """
+            WITH folded AS (
+                DELETE FROM dashboard_stat_deltas
+                WHERE id IN (SELECT id FROM dashboard_stat_deltas ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                RETURNING metric, dimension, bucket, item_count, amount
+            ), merged AS (
+                INSERT INTO dashboard_stats (metric, dimension, bucket, item_count, amount, updated_at)
+                SELECT metric, dimension, bucket, SUM(item_count), SUM(amount), now()
+                FROM folded
+                GROUP BY metric, dimension, bucket
+                ORDER BY metric, dimension, bucket
+                ON CONFLICT (metric, dimension, bucket) DO UPDATE
+                   SET item_count = dashboard_stats.item_count + EXCLUDED.item_count,
+                       amount = dashboard_stats.amount + EXCLUDED.amount,
+                       updated_at = EXCLUDED.updated_at
+                RETURNING 1
+            )
+            SELECT COUNT(*) FROM folded
+            """;
+
+    /*
+     * One statement, so the aggregates and the deltas it discards come from the same snapshot:
+     * every delta visible here is already part of the aggregates, every later one is not.
+     */
+    private static final String RECOMPUTE_SQL = """
+            WITH cleared AS (
+                DELETE FROM dashboard_stat_deltas
+            ), truth AS (
+                SELECT 'user.status' AS metric, status AS dimension, TIMESTAMP '1970-01-01' AS bucket,
+                       COUNT(*) AS item_count, 0::DECIMAL AS amount
+                FROM users GROUP BY status
+                UNION ALL
+                SELECT 'user.kyc', kyc_status, TIMESTAMP '1970-01-01', COUNT(*), 0 FROM users GROUP BY kyc_status
+                UNION ALL
+                SELECT 'user.created', '', date_trunc('hour', created_at), COUNT(*), 0
+                FROM users WHERE created_at >= ? GROUP BY 3
+                UNION ALL
+                SELECT 'wallet.status', status, TIMESTAMP '1970-01-01', COUNT(*), 0 FROM wallets GROUP BY status
+                UNION ALL
+                SELECT 'wallet.currency', currency, TIMESTAMP '1970-01-01', COUNT(*), SUM(balance)
+                FROM wallets GROUP BY currency
+                UNION ALL
+                SELECT 'tx.status', status, TIMESTAMP '1970-01-01', COUNT(*), 0 FROM transactions GROUP BY status
+                UNION ALL
+                SELECT 'tx.type', type, TIMESTAMP '1970-01-01', COUNT(*), 0 FROM transactions GROUP BY type
+                UNION ALL
+                SELECT 'tx.created', '', date_trunc('hour', created_at), COUNT(*),
+                       COALESCE(SUM(amount) FILTER (WHERE status = 'SUCCESS'), 0)
+                FROM transactions WHERE created_at >= ? GROUP BY 3
+            ), merged AS (
+                INSERT INTO dashboard_stats (metric, dimension, bucket, item_count, amount, updated_at)
+                SELECT COALESCE(t.metric, s.metric), COALESCE(t.dimension, s.dimension), COALESCE(t.bucket, s.bucket),
+                       COALESCE(t.item_count, 0), COALESCE(t.amount, 0), now()
+                FROM truth t
+                FULL JOIN dashboard_stats s
+                       ON s.metric = t.metric AND s.dimension = t.dimension AND s.bucket = t.bucket
+                WHERE t.metric IS NOT NULL OR s.bucket = TIMESTAMP '1970-01-01' OR s.bucket >= ?
+                ON CONFLICT (metric, dimension, bucket) DO UPDATE
+                   SET item_count = EXCLUDED.item_count,
+                       amount = EXCLUDED.amount,
+                       updated_at = EXCLUDED.updated_at
+                WHERE dashboard_stats.item_count <> EXCLUDED.item_count
+                   OR dashboard_stats.amount <> EXCLUDED.amount
+                RETURNING 1
+            )
+            SELECT COUNT(*) FROM merged
+            """;
+
+    // Zeroed rows, and hours that have left the window
+    private static final String PRUNE_SQL = """
+            DELETE FROM dashboard_stats
+            WHERE (item_count = 0 AND amount = 0)
+               OR (bucket <> TIMESTAMP '1970-01-01' AND bucket < ?)
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT metric, dimension, bucket, item_count, amount FROM dashboard_stats
+            WHERE bucket = TIMESTAMP '1970-01-01' OR bucket >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Joins the folding side of the lock; false while a recompute holds it.
+     */
+    public boolean tryLockForFold() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock_shared(?)", Boolean.class, LOCK_KEY));
+    }
+
+    public boolean hasTotals() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM dashboard_stats WHERE bucket = TIMESTAMP '1970-01-01')", Boolean.class));
+    }
+
+    public void lockForRecompute() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, LOCK_KEY);
+    }
+
+    /**
+     * Merges up to {@code batchSize} deltas into dashboard_stats. Returns how many were merged.
+     */
+    public int fold(int batchSize) {
+        Integer folded = jdbcTemplate.queryForObject(FOLD_SQL, Integer.class, batchSize);
+        return folded != null ? folded : 0;
+    }
+
+    /**
+     * Replaces the stats with GROUP BY aggregates of the source tables, hourly series from
+     * {@code windowStart} on. Returns how many rows were corrected.
+     */
+    public int recompute(LocalDateTime windowStart) {
+        Timestamp start = Timestamp.valueOf(windowStart);
+        Integer corrected = jdbcTemplate.queryForObject(RECOMPUTE_SQL, Integer.class, start, start, start);
+        jdbcTemplate.update(PRUNE_SQL, start);
+        return corrected != null ? corrected : 0;
+    }
+
+    // All-time totals plus the hourly rows from windowStart on; a few hundred rows at most
+    public List<DashboardStat> findAll(LocalDateTime windowStart) {
+        return jdbcTemplate.query(FIND_SQL, (rs, i) -> new DashboardStat(
+                rs.getString("metric"),
+                rs.getString("dimension"),
+                rs.getTimestamp("bucket").toLocalDateTime(),
+                rs.getLong("item_count"),
+                rs.getBigDecimal("amount")), Timestamp.valueOf(windowStart));
+    }
+}
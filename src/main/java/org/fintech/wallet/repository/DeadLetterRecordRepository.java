@@ -0,0 +1,27 @@
+package org.fintech.wallet.repository;
+
+import org.fintech.wallet.domain.entity.DeadLetterRecord;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface DeadLetterRecordRepository extends JpaRepository<DeadLetterRecord, UUID> {
+
+    boolean existsByOriginalTopicAndDltPartitionAndDltOffset(String originalTopic, int dltPartition, long dltOffset);
+
+    @Query("SELECT d FROM DeadLetterRecord d WHERE " +
+            "(:topic IS NULL OR d.originalTopic = :topic) AND d.status = :status " +
+            "ORDER BY d.createdAt DESC")
+    Page<DeadLetterRecord> search(@Param("topic") String topic,
+                                  @Param("status") DeadLetterStatus status,
+                                  Pageable pageable);
+
+    long countByStatus(DeadLetterStatus status);
+}
@@ -0,0 +1,54 @@
+package org.fintech.wallet.repository;
+
+import org.fintech.wallet.domain.entity.FundHold;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FundHoldRepository extends JpaRepository<FundHold, UUID> {
+
+    @Query("SELECT h FROM FundHold h JOIN FETCH h.wallet w JOIN FETCH w.user " +
+            "WHERE h.transactionReference = :reference")
+    Optional<FundHold> findByTransactionReference(@Param("reference") String reference);
+
+    boolean existsByTransactionReferenceAndStatus(String transactionReference, HoldStatus status);
+
+    // Compare-and-set on status: exactly one of capture, release and expiry wins for a hold
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FundHold h SET h.status = :to, h.settledAt = :settledAt, h.settlementNote = :note " +
+            "WHERE h.id = :holdId AND h.status = :from")
+    int transition(
+            @Param("holdId") UUID holdId,
+            @Param("from") HoldStatus from,
+            @Param("to") HoldStatus to,
+            @Param("settledAt") LocalDateTime settledAt,
+            @Param("note") String note
+    );
+
+    // Pushes back the next sweep of a hold whose payout is still in flight at the gateway
+    @Modifying
+    @Query("UPDATE FundHold h SET h.expiresAt = :expiresAt WHERE h.id = :holdId AND h.status = :status")
+    int postponeExpiry(
+            @Param("holdId") UUID holdId,
+            @Param("status") HoldStatus status,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Query("SELECT h.transactionReference FROM FundHold h " +
+            "WHERE h.status = :status AND h.expiresAt < :now ORDER BY h.expiresAt")
+    List<String> findExpiredReferences(
+            @Param("status") HoldStatus status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+}
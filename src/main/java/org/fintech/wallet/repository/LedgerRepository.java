@@ -1,19 +1,26 @@
 package org.fintech.wallet.repository;
 
-
+import jakarta.persistence.QueryHint;
 import org.fintech.wallet.domain.entity.LedgerEntry;
 import org.fintech.wallet.domain.entity.Wallet;
 import org.fintech.wallet.domain.enums.EntryType;
+import org.fintech.wallet.dto.response.LedgerResponse;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface LedgerRepository extends JpaRepository<LedgerEntry, UUID> {
@@ -22,6 +29,9 @@ public interface LedgerRepository extends JpaRepository<LedgerEntry, UUID> {
 
     boolean existsByIdempotencyKey(String idempotencyKey);
 
+    @Query("SELECT l.idempotencyKey FROM LedgerEntry l WHERE l.idempotencyKey IN :idempotencyKeys")
+    List<String> findExistingIdempotencyKeys(Collection<String> idempotencyKeys);
+
     Page<LedgerEntry> findByWalletOrderByCreatedAtDesc(Wallet wallet, Pageable pageable);
 
     Page<LedgerEntry> findByWalletIdOrderByCreatedAtDesc(UUID walletId, Pageable pageable);
@@ -38,4 +48,34 @@ public interface LedgerRepository extends JpaRepository<LedgerEntry, UUID> {
     @Query("SELECT SUM(l.amount) FROM LedgerEntry l WHERE l.wallet.id = :walletId AND l.entryType = :type")
     java.math.BigDecimal sumAmountByWalletAndType(UUID walletId, EntryType type);
     List<LedgerEntry> findByTransactionReference(String transactionReference);
+
+    // Keyset page backed by idx_wallet_created
+    @Query("SELECT l FROM LedgerEntry l WHERE l.wallet.id = :walletId " +
+            "AND l.createdAt <= :createdAt AND (l.createdAt < :createdAt OR l.id < :id) " +
+            "ORDER BY l.createdAt DESC, l.id DESC")
+    List<LedgerEntry> findWalletEntriesBefore(
+            @Param("walletId") UUID walletId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    long countByWalletIdAndCreatedAtBetween(UUID walletId, LocalDateTime startDate, LocalDateTime endDate);
+
+    // Statement export, oldest first, streamed through a cursor; consume inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.fintech.wallet.dto.response.LedgerResponse(" +
+            "l.id, l.wallet.id, l.entryType, l.amount, l.balanceBefore, l.balanceAfter, " +
+            "l.transactionReference, l.description, l.createdAt) " +
+            "FROM LedgerEntry l WHERE l.wallet.id = :walletId " +
+            "AND l.createdAt BETWEEN :startDate AND :endDate " +
+            "ORDER BY l.createdAt, l.id")
+    Stream<LedgerResponse> streamStatement(
+            @Param("walletId") UUID walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate
+    );
 }
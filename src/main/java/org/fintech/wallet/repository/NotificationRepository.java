@@ -3,6 +3,7 @@ package org.fintech.wallet.repository;
 import org.fintech.wallet.domain.entity.Notification;
 import org.fintech.wallet.domain.enums.NotificationPriority;
 import org.fintech.wallet.domain.enums.NotificationType;
+import org.fintech.wallet.repository.projection.NotificationDedupeKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -57,11 +59,48 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
             "AND n.retryCount < 3 ORDER BY n.priority DESC, n.createdAt ASC")
     List<Notification> findUnsentNotifications(Pageable pageable);
 
-    // Find failed notifications for retry
-    @Query("SELECT n FROM Notification n WHERE n.isSent = false " +
-            "AND n.retryCount > 0 AND n.retryCount < 3 " +
-            "ORDER BY n.createdAt ASC")
-    List<Notification> findFailedNotificationsForRetry(Pageable pageable);
+    // Failed notifications whose backoff has elapsed, and never-attempted ones created before
+    // pendingBefore whose dispatch was lost; rows claimed by another instance are skipped
+    @Query(value = """
+    SELECT id FROM notifications
+    WHERE is_sent = false
+      AND COALESCE(retry_count, 0) < :maxRetries
+      AND (retry_count > 0 OR created_at < :pendingBefore)
+      AND (next_retry_at IS NULL OR next_retry_at <= :now)
+    ORDER BY next_retry_at NULLS FIRST
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<UUID> findFailedNotificationsForRetry(@Param("now") LocalDateTime now,
+                                               @Param("pendingBefore") LocalDateTime pendingBefore,
+                                               @Param("maxRetries") int maxRetries,
+                                               @Param("limit") int limit);
+
+    // Pushes claimed rows out of the due window while their retry is in flight
+    @Modifying
+    @Query("UPDATE Notification n SET n.nextRetryAt = :leaseUntil WHERE n.id IN :ids")
+    int leaseForRetry(@Param("ids") List<UUID> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.user WHERE n.id IN :ids")
+    List<Notification> findAllWithUserByIdIn(@Param("ids") List<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isSent = true, n.sentAt = :sentAt, n.nextRetryAt = null " +
+            "WHERE n.id = :id AND n.isSent = false")
+    int markSent(@Param("id") UUID id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isSent = true, n.sentAt = :sentAt, n.nextRetryAt = null " +
+            "WHERE n.id IN :ids AND n.isSent = false")
+    int markAllSent(@Param("ids") List<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.retryCount = COALESCE(n.retryCount, 0) + 1, " +
+            "n.errorMessage = :errorMessage, n.nextRetryAt = :nextRetryAt " +
+            "WHERE n.id = :id AND n.isSent = false")
+    int recordDispatchFailure(@Param("id") UUID id,
+                              @Param("errorMessage") String errorMessage,
+                              @Param("nextRetryAt") LocalDateTime nextRetryAt);
 
     // Mark all as read
     @Modifying
@@ -69,6 +108,20 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
             "WHERE n.user.id = :userId AND n.isRead = false")
     int markAllAsReadByUserId(@Param("userId") UUID userId, @Param("readAt") LocalDateTime readAt);
 
+    // Only the caller that actually flips the flag gets 1, so the unread counter moves once
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = :read, n.readAt = :readAt " +
+            "WHERE n.id = :id AND n.isRead <> :read")
+    int setRead(@Param("id") UUID id, @Param("read") boolean read, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.isRead = false")
+    int deleteIfUnread(@Param("id") UUID id);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
+    int deleteUnreadByUserId(@Param("userId") UUID userId);
+
     // Delete old read notifications
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.isRead = true " +
@@ -88,6 +141,12 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
 
     boolean existsByUserIdAndTypeAndReferenceId(UUID userId, NotificationType type, String referenceId);
 
+    // Keys among the candidates that already have a notification; the caller matches user and reference pairs
+    @Query("SELECT n.user.id AS userId, n.type AS type, n.referenceId AS referenceId FROM Notification n " +
+            "WHERE n.user.id IN :userIds AND n.referenceId IN :referenceIds")
+    List<NotificationDedupeKey> findDedupeKeys(@Param("userIds") Collection<UUID> userIds,
+                                               @Param("referenceIds") Collection<String> referenceIds);
+
     java.util.Optional<Notification> findFirstByUserIdAndTypeAndReferenceIdOrderByCreatedAtDesc(
             UUID userId, NotificationType type, String referenceId
     );
@@ -0,0 +1,98 @@
+package org.fintech.wallet.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-user unread notification counts, adjusted by the same transactions that insert, read
+ * or delete notifications, so a rollback never leaves them off. Every adjustment returns the
+ * new value, which means nobody has to COUNT the notifications table to learn it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationUnreadCounterRepository {
+
+    // ON CONFLICT makes the adjustment atomic under concurrent writers; one statement per batch
+    private static final String ADJUST_SQL = """
+            INSERT INTO notification_unread_counters (user_id, unread_count, updated_at)
+            SELECT user_id, delta, now() FROM unnest(?::uuid[], ?::bigint[]) AS d (user_id, delta)
+            ON CONFLICT (user_id) DO UPDATE
+               SET unread_count = GREATEST(notification_unread_counters.unread_count + EXCLUDED.unread_count, 0),
+                   updated_at = EXCLUDED.updated_at
+            RETURNING user_id, GREATEST(unread_count, 0)
+            """;
+
+    // Counters touched after stableBefore are skipped: their writers may have committed after the COUNT's snapshot
+    private static final String REBUILD_SQL = """
+            INSERT INTO notification_unread_counters (user_id, unread_count, updated_at)
+            SELECT user_id, COUNT(*), now() FROM notifications WHERE is_read = false GROUP BY user_id
+            ON CONFLICT (user_id) DO UPDATE
+               SET unread_count = EXCLUDED.unread_count,
+                   updated_at = EXCLUDED.updated_at
+            WHERE notification_unread_counters.unread_count <> EXCLUDED.unread_count
+              AND notification_unread_counters.updated_at < ?
+            """;
+
+    private static final String RESET_SQL = """
+            UPDATE notification_unread_counters c
+               SET unread_count = 0, updated_at = now()
+            WHERE c.unread_count <> 0 AND c.updated_at < ?
+              AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.user_id = c.user_id AND n.is_read = false)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> findUnreadCount(UUID userId) {
+        List<Long> counts = jdbcTemplate.queryForList(
+                "SELECT GREATEST(unread_count, 0) FROM notification_unread_counters WHERE user_id = ?",
+                Long.class, userId);
+        return counts.stream().findFirst();
+    }
+
+    public long adjust(UUID userId, long delta) {
+        return adjustAll(Map.of(userId, delta)).getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Adds each delta to its user's counter, never going below zero, and returns the new counts.
+     */
+    public Map<UUID, Long> adjustAll(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return Map.of();
+        }
+        // Same lock order for every batch, so two overlapping batches cannot deadlock
+        TreeMap<UUID, Long> sorted = new TreeMap<>(deltas);
+        Object[] userIds = sorted.keySet().toArray();
+        Object[] values = sorted.values().toArray();
+
+        Map<UUID, Long> counts = new HashMap<>();
+        jdbcTemplate.query(ADJUST_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("uuid", userIds));
+            ps.setArray(2, connection.createArrayOf("bigint", values));
+        }, rs -> {
+            counts.put(rs.getObject(1, UUID.class), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    /**
+     * Recomputes counters from the notifications table, leaving alone the ones written after
+     * {@code stableBefore}. Returns how many counters were corrected.
+     */
+    public int rebuild(LocalDateTime stableBefore) {
+        Timestamp cutoff = Timestamp.valueOf(stableBefore);
+        return jdbcTemplate.update(REBUILD_SQL, cutoff) + jdbcTemplate.update(RESET_SQL, cutoff);
+    }
+}
@@ -0,0 +1,42 @@
+package org.fintech.wallet.repository;
+
+import org.fintech.wallet.domain.entity.OutboxEvent;
+import org.fintech.wallet.repository.projection.OutboxBacklog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Transaction-scoped lane ownership: only one relay instance drains a lane at a time,
+    // which is what keeps events of the same key in order. The batch itself is read without
+    // row locks, so nothing a writer could wait on is held while the relay calls Kafka.
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryLockLane(@Param("lockKey") long lockKey);
+
+    @Query(value = """
+    SELECT * FROM outbox_events
+    WHERE lane = :lane AND published_at IS NULL AND attempts < :maxAttempts
+    ORDER BY id
+    LIMIT :batchSize
+""", nativeQuery = true)
+    List<OutboxEvent> claimBatch(
+            @Param("lane") int lane,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("batchSize") int batchSize
+    );
+
+    @Query("SELECT COUNT(o) AS pending, MIN(o.createdAt) AS oldestCreatedAt " +
+            "FROM OutboxEvent o WHERE o.publishedAt IS NULL")
+    OutboxBacklog findBacklog();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
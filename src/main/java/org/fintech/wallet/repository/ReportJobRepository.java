@@ -0,0 +1,86 @@
+package org.fintech.wallet.repository;
+
+import org.fintech.wallet.domain.entity.ReportJob;
+import org.fintech.wallet.domain.enums.ReportJobStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Status changes are conditional updates, so when two nodes race for the same job exactly
+ * one of them sees 1 and goes ahead.
+ */
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, UUID> {
+
+    Optional<ReportJob> findFirstByParamsHashAndStatusInOrderByCreatedAtDesc(
+            String paramsHash, Collection<ReportJobStatus> statuses);
+
+    @Query("SELECT j.id FROM ReportJob j WHERE j.status = :status AND j.createdAt < :before " +
+            "ORDER BY j.createdAt")
+    List<UUID> findIdsByStatusCreatedBefore(@Param("status") ReportJobStatus status,
+                                            @Param("before") LocalDateTime before,
+                                            Limit limit);
+
+    List<ReportJob> findByExpiresAtBefore(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :running, j.startedAt = :now, j.heartbeatAt = :now, " +
+            "j.rowsWritten = 0, j.totalRows = null WHERE j.id = :id AND j.status = :queued")
+    int claim(@Param("id") UUID id,
+              @Param("queued") ReportJobStatus queued,
+              @Param("running") ReportJobStatus running,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.rowsWritten = :rowsWritten, j.totalRows = :totalRows, " +
+            "j.heartbeatAt = :now WHERE j.id = :id AND j.status = :running")
+    int updateProgress(@Param("id") UUID id,
+                       @Param("rowsWritten") long rowsWritten,
+                       @Param("totalRows") Long totalRows,
+                       @Param("running") ReportJobStatus running,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :status, j.rowsWritten = :rowsWritten, " +
+            "j.fileSize = :fileSize, j.errorMessage = :errorMessage, " +
+            "j.completedAt = :now, j.expiresAt = :expiresAt " +
+            "WHERE j.id = :id AND j.status = :running")
+    int finish(@Param("id") UUID id,
+               @Param("running") ReportJobStatus running,
+               @Param("status") ReportJobStatus status,
+               @Param("rowsWritten") long rowsWritten,
+               @Param("fileSize") Long fileSize,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Hands a job interrupted by shutdown back to the queue for another node
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :queued, j.startedAt = null, j.heartbeatAt = null " +
+            "WHERE j.id = :id AND j.status = :running")
+    int requeue(@Param("id") UUID id,
+                @Param("running") ReportJobStatus running,
+                @Param("queued") ReportJobStatus queued);
+
+    // Running jobs whose node stopped without finishing them
+    @Modifying
+    @Query("UPDATE ReportJob j SET j.status = :failed, j.errorMessage = :errorMessage, " +
+            "j.completedAt = :now, j.expiresAt = :expiresAt " +
+            "WHERE j.status = :running AND j.heartbeatAt < :staleBefore")
+    int failStale(@Param("running") ReportJobStatus running,
+                  @Param("failed") ReportJobStatus failed,
+                  @Param("staleBefore") LocalDateTime staleBefore,
+                  @Param("errorMessage") String errorMessage,
+                  @Param("now") LocalDateTime now,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,131 @@
+package org.fintech.wallet.repository;
+
+import jakarta.persistence.QueryHint;
+import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.dto.response.TransactionResponse;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Read side of transactions: every list query builds {@link TransactionResponse} directly in
+ * the select clause, with the two wallets outer-joined for their numbers, so a page is one
+ * statement (plus its COUNT) no matter how many rows it holds. Nothing here loads entities.
+ */
+@Repository
+public interface TransactionQueryRepository extends org.springframework.data.repository.Repository<Transaction, UUID> {
+
+    String SELECT_RESPONSE = """
+    SELECT new org.fintech.wallet.dto.response.TransactionResponse(
+        t.id, t.reference, t.type, t.amount, t.fee, t.currency, t.status, t.description,
+        sw.walletNumber, dw.walletNumber, t.createdAt, t.completedAt)
+    FROM Transaction t
+    LEFT JOIN t.sourceWallet sw
+    LEFT JOIN t.destinationWallet dw
+""";
+
+    @Query(value = SELECT_RESPONSE + """
+    WHERE sw.id IN :walletIds OR dw.id IN :walletIds
+    ORDER BY t.createdAt DESC
+""", countQuery = """
+    SELECT COUNT(t) FROM Transaction t
+    WHERE t.sourceWallet.id IN :walletIds OR t.destinationWallet.id IN :walletIds
+""")
+    Page<TransactionResponse> findByWalletIds(@Param("walletIds") List<UUID> walletIds, Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + """
+    WHERE t.user.id = :userId OR sw.user.id = :userId OR dw.user.id = :userId
+    ORDER BY t.createdAt DESC
+""", countQuery = """
+    SELECT COUNT(t) FROM Transaction t
+    LEFT JOIN t.sourceWallet sw
+    LEFT JOIN t.destinationWallet dw
+    WHERE t.user.id = :userId OR sw.user.id = :userId OR dw.user.id = :userId
+""")
+    Page<TransactionResponse> findByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + """
+    WHERE sw.user.id = :userId OR dw.user.id = :userId
+    ORDER BY t.createdAt DESC
+""")
+    List<TransactionResponse> findRecentByUserId(@Param("userId") UUID userId, Limit limit);
+
+    @Query(value = SELECT_RESPONSE + """
+    WHERE (sw.user.id = :userId OR dw.user.id = :userId)
+      AND t.status = :status
+      AND t.createdAt BETWEEN :startDate AND :endDate
+""", countQuery = """
+    SELECT COUNT(t) FROM Transaction t
+    LEFT JOIN t.sourceWallet sw
+    LEFT JOIN t.destinationWallet dw
+    WHERE (sw.user.id = :userId OR dw.user.id = :userId)
+      AND t.status = :status
+      AND t.createdAt BETWEEN :startDate AND :endDate
+""")
+    Page<TransactionResponse> findByUserIdAndStatusAndDateRange(
+            @Param("userId") UUID userId,
+            @Param("status") TransactionStatus status,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
+
+    @Query(value = SELECT_RESPONSE + "WHERE t.reference LIKE CONCAT('%', :reference, '%')",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.reference LIKE CONCAT('%', :reference, '%')")
+    Page<TransactionResponse> findByReferenceContaining(@Param("reference") String reference, Pageable pageable);
+
+    @Query(value = SELECT_RESPONSE + "WHERE t.status = :status AND t.type = :type",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.status = :status AND t.type = :type")
+    Page<TransactionResponse> findByStatusAndType(
+            @Param("status") TransactionStatus status,
+            @Param("type") TransactionType type,
+            Pageable pageable
+    );
+
+    @Query(value = SELECT_RESPONSE + "WHERE t.createdAt BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(t) FROM Transaction t WHERE t.createdAt BETWEEN :startDate AND :endDate")
+    Page<TransactionResponse> findByCreatedAtBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.createdAt BETWEEN :startDate AND :endDate")
+    long countByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+
+    // For report exports: rows arrive in fetch-size chunks through a cursor, never all at once.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE + """
+    WHERE t.createdAt BETWEEN :startDate AND :endDate
+    ORDER BY t.createdAt, t.id
+""")
+    Stream<TransactionResponse> streamByCreatedAtBetween(@Param("startDate") LocalDateTime startDate,
+                                                         @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = SELECT_RESPONSE, countQuery = "SELECT COUNT(t) FROM Transaction t")
+    Page<TransactionResponse> findAllResponses(Pageable pageable);
+
+    // Second half of the keyset history: the ids come from the UNION query in TransactionRepository
+    @Query(SELECT_RESPONSE + """
+    WHERE t.id IN :ids
+    ORDER BY t.createdAt DESC, t.id DESC
+""")
+    List<TransactionResponse> findByIdIn(@Param("ids") List<UUID> ids);
+}
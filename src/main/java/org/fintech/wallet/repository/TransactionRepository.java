@@ -3,9 +3,11 @@ package org.fintech.wallet.repository;
 import org.fintech.wallet.domain.entity.Transaction;
 import org.fintech.wallet.domain.enums.TransactionStatus;
 import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.repository.projection.TransactionReportRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,26 +25,18 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     Optional<Transaction> findByExternalReference(String externalReference);
 
+    // Touches only the gateway id, so it cannot overwrite a status a concurrent settlement just wrote
+    @Modifying
+    @Query("UPDATE Transaction t SET t.externalReference = :externalReference WHERE t.reference = :reference")
+    int setExternalReference(
+            @Param("reference") String reference,
+            @Param("externalReference") String externalReference
+    );
+
     @Query("SELECT t FROM Transaction t WHERE " +
             "(t.sourceWallet.id = :walletId OR t.destinationWallet.id = :walletId) " +
             "ORDER BY t.createdAt DESC")
     Page<Transaction> findByWalletId(UUID walletId, Pageable pageable);
-//for transfer only
-    /**
-     *
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(t.sourceWallet.user.id = :userId OR t.destinationWallet.user.id = :userId) " +
-            "ORDER BY t.createdAt DESC")
-    */
-    @Query("""
-    SELECT t
-    FROM Transaction t
-    WHERE t.user.id = :userId
-       OR t.sourceWallet.user.id = :userId
-       OR t.destinationWallet.user.id = :userId
-    ORDER BY t.createdAt DESC
-""")
-    Page<Transaction> findByUserId(UUID userId, Pageable pageable);
 
     List<Transaction> findByStatusAndCreatedAtBefore(
             TransactionStatus status,
@@ -86,55 +80,53 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
             "AND t.createdAt > :since")
     long countByUserIdSince(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
 
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(t.sourceWallet.user.id = :userId OR t.destinationWallet.user.id = :userId) " +
-            "ORDER BY t.createdAt DESC")
-    List<Transaction> findTop10ByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId);
-
     long countByUserIdAndStatus(UUID userId, TransactionStatus status);
 
-    Page<Transaction> findByReferenceContaining(String reference, Pageable pageable);
-    Page<Transaction> findByStatusAndType(TransactionStatus status, TransactionType type, Pageable pageable);
-
-    @Query("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :startDate AND :endDate")
-    Page<Transaction> findByCreatedAtBetween(
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable
-    );
-
-    @Query("SELECT t FROM Transaction t WHERE t.createdAt BETWEEN :startDate AND :endDate")
-    List<Transaction> findByCreatedAtBetween(
+    // One row per type, status and currency present in the range, however many transactions it holds
+    @Query("""
+    SELECT t.type AS type, t.status AS status, t.currency AS currency,
+           COUNT(t) AS count, COALESCE(SUM(t.amount), 0) AS amount
+    FROM Transaction t
+    WHERE t.createdAt BETWEEN :startDate AND :endDate
+    GROUP BY t.type, t.status, t.currency
+""")
+    List<TransactionReportRow> aggregateByCreatedAtBetween(
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
 
-    @Query("SELECT t FROM Transaction t WHERE " +
-            "(t.sourceWallet.user.id = :userId OR t.destinationWallet.user.id = :userId) " +
-            "AND t.status = :status " +
-            "AND t.createdAt BETWEEN :startDate AND :endDate")
-    Page<Transaction> findByUserIdAndStatusAndDateRange(
-            @Param("userId") UUID userId,
-            @Param("status") TransactionStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable
-    );
-    @Query("SELECT SUM(t.amount) FROM Transaction t " +
-            "WHERE t.status = 'SUCCESS' AND t.sourceWallet.user.id = :userId " +
-            "AND t.createdAt >= :start AND t.createdAt < :end")
-    BigDecimal sumUserTransactionsByDateRange(UUID userId, LocalDateTime start, LocalDateTime end);
-
-    @Query("""
-    SELECT t
-    FROM Transaction t
-    WHERE
-          t.sourceWallet.id IN :walletIds
-       OR t.destinationWallet.id IN :walletIds
-    ORDER BY t.createdAt DESC
-""")
-    Page<Transaction> findAllWalletTransactions(
+    // Keyset page over the user's wallets. The lateral subquery runs once per wallet, so the wallet
+    // id is an equality in each branch and every branch is a backward range scan of
+    // idx_source_wallet / idx_destination_wallet that stops after :limit entries; an IN list across
+    // wallets would have to read and merge every wallet's rows. DISTINCT drops transfers between
+    // the user's own wallets, seen from both sides.
+    // Returns ids only; TransactionQueryRepository#findByIdIn builds the responses
+    @Query(value = """
+    SELECT u.id FROM (
+        SELECT DISTINCT s.id, s.created_at
+        FROM wallets w
+        CROSS JOIN LATERAL (
+            (SELECT t.id, t.created_at FROM transactions t
+             WHERE t.source_wallet_id = w.id
+               AND t.created_at <= :createdAt AND (t.created_at < :createdAt OR t.id < :id)
+             ORDER BY t.created_at DESC, t.id DESC
+             LIMIT :limit)
+            UNION ALL
+            (SELECT t.id, t.created_at FROM transactions t
+             WHERE t.destination_wallet_id = w.id
+               AND t.created_at <= :createdAt AND (t.created_at < :createdAt OR t.id < :id)
+             ORDER BY t.created_at DESC, t.id DESC
+             LIMIT :limit)
+        ) s
+        WHERE w.id IN (:walletIds)
+    ) u
+    ORDER BY u.created_at DESC, u.id DESC
+    LIMIT :limit
+""", nativeQuery = true)
+    List<UUID> findWalletTransactionIdsBefore(
             @Param("walletIds") List<UUID> walletIds,
-            Pageable pageable
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
     );
 }
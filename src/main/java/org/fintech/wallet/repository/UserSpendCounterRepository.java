@@ -0,0 +1,121 @@
+package org.fintech.wallet.repository;
+
+import org.fintech.wallet.domain.entity.UserSpendCounter;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.repository.projection.SpendCounterDrift;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserSpendCounterRepository extends JpaRepository<UserSpendCounter, UserSpendCounter.Key> {
+
+    @Query("SELECT c.amount FROM UserSpendCounter c " +
+            "WHERE c.userId = :userId AND c.period = :period AND c.periodStart = :periodStart")
+    Optional<BigDecimal> findAmount(
+            @Param("userId") UUID userId,
+            @Param("period") SpendPeriod period,
+            @Param("periodStart") LocalDate periodStart
+    );
+
+    // Creates the counter if missing and returns it with its row locked until the transaction ends.
+    // DO UPDATE (not DO NOTHING) is what takes the lock when the row already exists.
+    @Query(value = """
+    INSERT INTO user_spend_counters (user_id, period, period_start, amount, tx_count, updated_at)
+    VALUES (:userId, :period, :periodStart, 0, 0, now())
+    ON CONFLICT (user_id, period, period_start) DO UPDATE
+       SET amount = user_spend_counters.amount
+    RETURNING amount
+""", nativeQuery = true)
+    BigDecimal lockAmount(
+            @Param("userId") UUID userId,
+            @Param("period") String period,
+            @Param("periodStart") LocalDate periodStart
+    );
+
+    // Bumps the day, week and month counters in one statement; ON CONFLICT makes the
+    // increment atomic under concurrent writers at any isolation level
+    @Modifying
+    @Query(value = """
+    INSERT INTO user_spend_counters (user_id, period, period_start, amount, tx_count, updated_at)
+    VALUES (:userId, 'DAY', :dayStart, :amount, :txCount, now()),
+           (:userId, 'WEEK', :weekStart, :amount, :txCount, now()),
+           (:userId, 'MONTH', :monthStart, :amount, :txCount, now())
+    ON CONFLICT (user_id, period, period_start) DO UPDATE
+       SET amount = user_spend_counters.amount + EXCLUDED.amount,
+           tx_count = user_spend_counters.tx_count + EXCLUDED.tx_count,
+           updated_at = EXCLUDED.updated_at
+""", nativeQuery = true)
+    int increment(
+            @Param("userId") UUID userId,
+            @Param("dayStart") LocalDate dayStart,
+            @Param("weekStart") LocalDate weekStart,
+            @Param("monthStart") LocalDate monthStart,
+            @Param("amount") BigDecimal amount,
+            @Param("txCount") long txCount
+    );
+
+    /*
+     * Spend = successful outgoing transactions plus pending ones (withdrawals with an active hold).
+     * Each counter that differs from the transactions gets the difference added, not the total
+     * written: ON CONFLICT locks the row and adds to its latest value, so a spend that committed
+     * after this statement's snapshot (and is missing from both sides of the difference) keeps
+     * its increment. Counters of users without transactions go back to zero the same way.
+     */
+    @Modifying
+    @Query(value = """
+    INSERT INTO user_spend_counters (user_id, period, period_start, amount, tx_count, updated_at)
+    SELECT COALESCE(a.user_id, c.user_id), :period, :periodStart,
+           COALESCE(a.amount, 0) - COALESCE(c.amount, 0),
+           COALESCE(a.tx_count, 0) - COALESCE(c.tx_count, 0),
+           now()
+    FROM (SELECT user_id, amount, tx_count FROM user_spend_counters
+          WHERE period = :period AND period_start = :periodStart) c
+    FULL OUTER JOIN (
+          SELECT w.user_id, SUM(t.amount) AS amount, COUNT(*) AS tx_count
+          FROM transactions t
+          JOIN wallets w ON w.id = t.source_wallet_id
+          WHERE t.status IN ('SUCCESS', 'PENDING') AND t.created_at >= :start AND t.created_at < :end
+          GROUP BY w.user_id) a ON a.user_id = c.user_id
+    WHERE COALESCE(a.amount, 0) <> COALESCE(c.amount, 0)
+       OR COALESCE(a.tx_count, 0) <> COALESCE(c.tx_count, 0)
+    ON CONFLICT (user_id, period, period_start) DO UPDATE
+       SET amount = user_spend_counters.amount + EXCLUDED.amount,
+           tx_count = user_spend_counters.tx_count + EXCLUDED.tx_count,
+           updated_at = EXCLUDED.updated_at
+""", nativeQuery = true)
+    int rebuildFromTransactions(
+            @Param("period") String period,
+            @Param("periodStart") LocalDate periodStart,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    @Query(value = """
+    SELECT COUNT(*) AS "driftedUsers",
+           COALESCE(SUM(ABS(COALESCE(c.amount, 0) - COALESCE(a.amount, 0))), 0) AS "driftAmount"
+    FROM (SELECT user_id, amount FROM user_spend_counters
+          WHERE period = :period AND period_start = :periodStart) c
+    FULL OUTER JOIN (
+          SELECT w.user_id, SUM(t.amount) AS amount
+          FROM transactions t
+          JOIN wallets w ON w.id = t.source_wallet_id
+          WHERE t.status IN ('SUCCESS', 'PENDING') AND t.created_at >= :start AND t.created_at < :end
+          GROUP BY w.user_id) a ON a.user_id = c.user_id
+    WHERE COALESCE(c.amount, 0) <> COALESCE(a.amount, 0)
+""", nativeQuery = true)
+    SpendCounterDrift measureDrift(
+            @Param("period") String period,
+            @Param("periodStart") LocalDate periodStart,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+}
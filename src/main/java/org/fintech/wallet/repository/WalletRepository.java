@@ -5,13 +5,16 @@ import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.entity.Wallet;
 import org.fintech.wallet.domain.enums.WalletStatus;
 import org.fintech.wallet.dto.response.WalletResponse;
+import org.fintech.wallet.repository.projection.WalletBalanceView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.fintech.wallet.domain.enums.Currency;
 
+import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -29,7 +32,11 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
 
     Optional<Wallet> findByUserIdAndCurrency(UUID userId, Currency currency);
 
-    boolean existsByWalletNumber(String walletNumber);
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    // Reserves the next block of wallet numbers; nextval is never rolled back, so blocks are never reused
+    @Query(value = "SELECT nextval('wallet_number_seq')", nativeQuery = true)
+    long nextWalletNumberBlock();
 
     // Pessimistic locking for balance operations to prevent race conditions
     @Lock(LockModeType.PESSIMISTIC_WRITE)
@@ -40,6 +47,78 @@ public interface WalletRepository extends JpaRepository<Wallet, UUID> {
     @Query("SELECT w FROM Wallet w WHERE w.walletNumber = :walletNumber")
     Optional<Wallet> findByWalletNumberWithLock(String walletNumber);
 
+    // Locks both sides of a transfer in one statement; ORDER BY id gives every
+    // caller the same lock order so opposite-direction transfers cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id = :sourceWalletId " +
+            "OR w.walletNumber = :destinationWalletNumber ORDER BY w.id")
+    List<Wallet> findTransferPairWithLock(
+            @Param("sourceWalletId") UUID sourceWalletId,
+            @Param("destinationWalletNumber") String destinationWalletNumber
+    );
+
+    @Query("SELECT w FROM Wallet w WHERE w.id = :sourceWalletId " +
+            "OR w.walletNumber = :destinationWalletNumber ORDER BY w.id")
+    List<Wallet> findTransferPair(
+            @Param("sourceWalletId") UUID sourceWalletId,
+            @Param("destinationWalletNumber") String destinationWalletNumber
+    );
+
+    // Batch payouts: source plus every destination locked in one statement, in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Wallet w WHERE w.id = :sourceWalletId " +
+            "OR w.walletNumber IN :destinationWalletNumbers ORDER BY w.id")
+    List<Wallet> findBatchWalletsWithLock(
+            @Param("sourceWalletId") UUID sourceWalletId,
+            @Param("destinationWalletNumbers") Collection<String> destinationWalletNumbers
+    );
+
+    @Query("SELECT w FROM Wallet w WHERE w.id = :sourceWalletId " +
+            "OR w.walletNumber IN :destinationWalletNumbers ORDER BY w.id")
+    List<Wallet> findBatchWallets(
+            @Param("sourceWalletId") UUID sourceWalletId,
+            @Param("destinationWalletNumbers") Collection<String> destinationWalletNumbers
+    );
+
+    // Guarded atomic balance updates for the READ COMMITTED engine: the row lock is taken
+    // by the UPDATE itself and the returned count tells the caller whether it applied
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, " +
+            "w.availableBalance = w.availableBalance - :amount, " +
+            "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE w.id = :walletId AND w.availableBalance >= :amount")
+    int debitIfSufficient(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, " +
+            "w.availableBalance = w.availableBalance + :amount, " +
+            "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE w.id = :walletId")
+    int credit(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    // Fund holds: authorization only reserves availableBalance, capture then moves balance
+    @Modifying
+    @Query("UPDATE Wallet w SET w.availableBalance = w.availableBalance - :amount, " +
+            "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE w.id = :walletId AND w.availableBalance >= :amount")
+    int holdIfSufficient(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, " +
+            "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE w.id = :walletId")
+    int captureHeld(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Wallet w SET w.availableBalance = w.availableBalance + :amount, " +
+            "w.version = w.version + 1, w.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE w.id = :walletId")
+    int releaseHeld(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount);
+
+    @Query("SELECT w.balance AS balance, w.availableBalance AS availableBalance " +
+            "FROM Wallet w WHERE w.id = :walletId")
+    WalletBalanceView findBalancesById(@Param("walletId") UUID walletId);
+
     @Query("SELECT w FROM Wallet w WHERE w.user.id = :userId AND w.currency = :currency AND w.status = :status")
     Optional<Wallet> findActiveWallet(UUID userId, Currency currency, WalletStatus status);
 
@@ -0,0 +1,11 @@
+package org.fintech.wallet.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of dashboard_stats: a count and amount for a metric, per dimension value (a status,
+ * type or currency) and per hour, or with {@code bucket} at the epoch for all-time totals.
+ */
+public record DashboardStat(String metric, String dimension, LocalDateTime bucket, long count, BigDecimal amount) {
+}
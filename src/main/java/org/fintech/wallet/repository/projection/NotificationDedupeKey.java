@@ -0,0 +1,14 @@
+package org.fintech.wallet.repository.projection;
+
+import org.fintech.wallet.domain.enums.NotificationType;
+
+import java.util.UUID;
+
+/**
+ * Identity of a notification for Kafka redelivery dedupe: one per user, type and reference.
+ */
+public interface NotificationDedupeKey {
+    UUID getUserId();
+    NotificationType getType();
+    String getReferenceId();
+}
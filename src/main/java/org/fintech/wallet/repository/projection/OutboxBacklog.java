@@ -0,0 +1,8 @@
+package org.fintech.wallet.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface OutboxBacklog {
+    long getPending();
+    LocalDateTime getOldestCreatedAt();
+}
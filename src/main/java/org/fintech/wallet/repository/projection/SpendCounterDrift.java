@@ -0,0 +1,8 @@
+package org.fintech.wallet.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface SpendCounterDrift {
+    long getDriftedUsers();
+    BigDecimal getDriftAmount();
+}
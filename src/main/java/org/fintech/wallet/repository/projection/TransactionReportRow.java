@@ -0,0 +1,18 @@
+package org.fintech.wallet.repository.projection;
+
+import org.fintech.wallet.domain.enums.Currency;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.domain.enums.TransactionType;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and summed amount of the transactions sharing one type, status and currency.
+ */
+public interface TransactionReportRow {
+    TransactionType getType();
+    TransactionStatus getStatus();
+    Currency getCurrency();
+    long getCount();
+    BigDecimal getAmount();
+}
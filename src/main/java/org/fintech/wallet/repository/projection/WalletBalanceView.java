@@ -0,0 +1,11 @@
+package org.fintech.wallet.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Current balances of a wallet, read straight from the row without loading the entity.
+ */
+public interface WalletBalanceView {
+    BigDecimal getBalance();
+    BigDecimal getAvailableBalance();
+}
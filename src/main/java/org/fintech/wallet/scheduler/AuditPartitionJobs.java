@@ -0,0 +1,34 @@
+package org.fintech.wallet.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.repository.AuditLogRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionJobs {
+
+    private final AuditLogRepository auditLogRepository;
+    private final AppProperties appProperties;
+
+    /**
+     * Make sure the monthly audit_logs partitions exist ahead of time, every day at 1:15 AM
+     */
+    @Scheduled(cron = "0 15 1 * * *")
+    public void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= appProperties.getAudit().getPartitionsAhead(); i++) {
+            try {
+                auditLogRepository.createMonthlyPartition(month.plusMonths(i));
+            } catch (Exception e) {
+                log.error("Error creating audit_logs partition for {}", month.plusMonths(i), e);
+            }
+        }
+    }
+}
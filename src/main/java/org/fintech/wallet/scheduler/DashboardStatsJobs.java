@@ -0,0 +1,74 @@
+package org.fintech.wallet.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.service.DashboardStatsService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class DashboardStatsJobs {
+
+    private final DashboardStatsService dashboardStatsService;
+    private final AtomicLong correctedRows = new AtomicLong();
+
+    public DashboardStatsJobs(DashboardStatsService dashboardStatsService, MeterRegistry meterRegistry) {
+        this.dashboardStatsService = dashboardStatsService;
+        Gauge.builder("wallet.dashboard.stats.drift", correctedRows, AtomicLong::get)
+                .description("Dashboard stat rows the last recompute found out of line with the source tables")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Merge trigger deltas into the dashboard stats and refresh this node's copy
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard-stats.fold-interval-ms:5000}")
+    public void foldDeltas() {
+        try {
+            int folded = dashboardStatsService.foldDeltas();
+            if (folded > 0) {
+                log.debug("Folded {} dashboard stat deltas", folded);
+            }
+        } catch (Exception e) {
+            log.error("Error folding dashboard stat deltas", e);
+        }
+    }
+
+    /**
+     * Seed empty dashboard stats at startup. The recompute reads a snapshot of the source
+     * tables, so unlike a seed inside a migration it never blocks their writers
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            int seeded = dashboardStatsService.seedIfEmpty();
+            if (seeded > 0) {
+                log.info("Seeded {} dashboard stat rows", seeded);
+            }
+        } catch (Exception e) {
+            log.error("Error seeding dashboard stats", e);
+        }
+    }
+
+    /**
+     * Recompute the dashboard stats from the source tables every day at 3:30 AM
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void recompute() {
+        try {
+            int corrected = dashboardStatsService.recompute();
+            correctedRows.set(corrected);
+            if (corrected > 0) {
+                log.warn("Dashboard stats recompute corrected {} rows", corrected);
+            }
+        } catch (Exception e) {
+            log.error("Error recomputing dashboard stats", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.fintech.wallet.scheduler;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.service.fraud.FraudScoringEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "app.fraud", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FraudStateJobs {
+
+    private final FraudScoringEngine scoringEngine;
+
+    /**
+     * Checkpoint changed risk windows to Redis and evict idle ones
+     */
+    @Scheduled(fixedDelayString = "${app.fraud.checkpoint-interval-ms:30000}")
+    public void checkpoint() {
+        try {
+            int written = scoringEngine.checkpoint();
+            if (written > 0) {
+                log.debug("Checkpointed {} risk states", written);
+            }
+        } catch (Exception e) {
+            log.error("Error checkpointing risk states", e);
+        }
+    }
+
+    // Last checkpoint on shutdown, so a rolling restart loses at most the in-flight batch
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+}
@@ -0,0 +1,49 @@
+package org.fintech.wallet.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.fintech.wallet.repository.FundHoldRepository;
+import org.fintech.wallet.service.PayoutService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HoldExpiryJobs {
+
+    private static final int SWEEP_BATCH_SIZE = 200;
+
+    private final FundHoldRepository holdRepository;
+    private final PayoutService payoutService;
+
+    /**
+     * Settle holds that no webhook settled before they expired, every minute: the gateway's
+     * transfer status decides whether each one is captured or released
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void expireStaleHolds() {
+        List<String> references = holdRepository.findExpiredReferences(
+                HoldStatus.ACTIVE, LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH_SIZE));
+        if (references.isEmpty()) {
+            return;
+        }
+
+        int checked = 0;
+        for (String reference : references) {
+            try {
+                // One transaction per hold so a single failure does not undo the rest
+                payoutService.reconcile(reference);
+                checked++;
+            } catch (Exception e) {
+                log.error("Failed to reconcile hold: {}", reference, e);
+            }
+        }
+        log.info("Hold sweep completed. Reconciled {} of {} stale holds", checked, references.size());
+    }
+}
@@ -30,16 +30,27 @@ public class NotificationScheduledJobs {
     }
 
     /**
-     * Retry failed notifications every hour
+     * Correct drifted unread counters every 15 minutes
      */
-    @Scheduled(fixedRate = 3600000) // Every hour
-    public void retryFailedNotifications() {
-        log.info("Starting retry of failed notifications");
+    @Scheduled(cron = "0 */15 * * * *")
+    public void reconcileUnreadCounters() {
+        try {
+            notificationService.reconcileUnreadCounters();
+        } catch (Exception e) {
+            log.error("Error reconciling notification unread counters", e);
+        }
+    }
 
+    /**
+     * Re-dispatch failed notifications whose backoff has elapsed
+     */
+    @Scheduled(fixedDelayString = "${app.notification-dispatch.retry-interval-ms:60000}")
+    public void retryFailedNotifications() {
         try {
-            // Implementation would fetch failed notifications and retry sending
-            // notificationService.retryFailedNotifications();
-            log.info("Failed notification retry completed");
+            int retried = notificationService.retryFailedNotifications();
+            if (retried > 0) {
+                log.info("Re-dispatched {} failed notifications", retried);
+            }
 
         } catch (Exception e) {
             log.error("Error during notification retry", e);
@@ -0,0 +1,45 @@
+package org.fintech.wallet.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.service.ReportJobService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportExportJobs {
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Hand out report jobs left queued when the workers were busy or their node stopped
+     */
+    @Scheduled(fixedDelayString = "${app.report-jobs.sweep-interval-ms:30000}")
+    public void dispatchQueued() {
+        try {
+            int dispatched = reportJobService.dispatchQueued();
+            if (dispatched > 0) {
+                log.info("Dispatched {} queued report jobs", dispatched);
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching report jobs", e);
+        }
+    }
+
+    /**
+     * Delete expired report files and their jobs, every hour
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void purgeExpired() {
+        try {
+            int purged = reportJobService.purgeExpired();
+            if (purged > 0) {
+                log.info("Purged {} expired report jobs", purged);
+            }
+        } catch (Exception e) {
+            log.error("Error purging expired report jobs", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.fintech.wallet.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.repository.projection.SpendCounterDrift;
+import org.fintech.wallet.service.SpendLimitService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@Slf4j
+public class SpendCounterJobs {
+
+    private final SpendLimitService spendLimitService;
+    private final AtomicLong driftedUsers = new AtomicLong();
+    private final AtomicReference<Double> driftAmount = new AtomicReference<>(0.0);
+
+    public SpendCounterJobs(SpendLimitService spendLimitService, MeterRegistry meterRegistry) {
+        this.spendLimitService = spendLimitService;
+        Gauge.builder("wallet.spend.counter.drift.users", driftedUsers, AtomicLong::get)
+                .description("Users whose daily spend counter differs from their successful transactions")
+                .register(meterRegistry);
+        Gauge.builder("wallet.spend.counter.drift.amount", driftAmount, AtomicReference::get)
+                .description("Total absolute difference between daily spend counters and transactions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compare today's counters with the transactions table every 15 minutes
+     */
+    @Scheduled(cron = "0 */15 * * * *")
+    public void checkDrift() {
+        try {
+            SpendCounterDrift drift = spendLimitService.measureDrift(SpendPeriod.DAY, spendLimitService.today());
+            driftedUsers.set(drift.getDriftedUsers());
+            driftAmount.set(drift.getDriftAmount().doubleValue());
+
+            if (drift.getDriftedUsers() > 0) {
+                log.warn("Spend counter drift detected: {} users, amount {}",
+                        drift.getDriftedUsers(), drift.getDriftAmount());
+            }
+        } catch (Exception e) {
+            log.error("Error measuring spend counter drift", e);
+        }
+    }
+
+    /**
+     * Recompute the current day, week and month counters from transactions every day at 3 AM
+     * of the zone the limits reset in
+     */
+    @Scheduled(cron = "0 0 3 * * *", zone = "${app.transaction.limit-zone:UTC}")
+    public void rebuildCounters() {
+        log.info("Starting spend counter rebuild");
+        LocalDate today = spendLimitService.today();
+
+        for (SpendPeriod period : SpendPeriod.values()) {
+            try {
+                spendLimitService.rebuildCounters(period, today);
+            } catch (Exception e) {
+                log.error("Error rebuilding {} spend counters", period, e);
+            }
+        }
+    }
+}
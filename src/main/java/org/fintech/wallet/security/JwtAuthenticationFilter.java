@@ -10,8 +10,6 @@ import org.fintech.wallet.service.impl.TokenBlacklistService;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,7 +23,7 @@ import java.util.UUID;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
     private final TokenBlacklistService tokenBlacklistService;
 
     @Override
@@ -39,39 +37,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (StringUtils.hasText(jwt)) {
 
-                // Check blacklist (single-device logout)
-                if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
-                    log.warn("Attempted to use blacklisted token");
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
-                //Validate JWT signature + expiry
-                if (tokenProvider.validateToken(jwt)) {
-
-                    //Extract userId
-                    UUID userId = tokenProvider.getUserId(jwt);
+                //Validate JWT signature + expiry, reading all claims at once
+                JwtClaims claims = tokenProvider.verify(jwt);
+                if (claims != null) {
 
-                    //Check logout-all invalidation
-                    Long lastLogoutAt =
-                            tokenBlacklistService.getLastLogoutAt(userId);
+                    UUID userId = claims.userId();
 
-                    if (tokenProvider.isTokenIssuedBeforeLogout(jwt, lastLogoutAt)) {
-                        log.warn("Token invalidated due to logout-all for user: {}", userId);
+                    // Check blacklist (single-device logout) and logout-all invalidation
+                    if (tokenBlacklistService.isRevoked(claims, jwt)) {
+                        log.warn("Attempted to use revoked token for user: {}", userId);
                         filterChain.doFilter(request, response);
                         return;
                     }
 
-                    // Authenticate user
-                    String username = tokenProvider.getUsernameFromToken(jwt);
-                    UserDetails userDetails =
-                            userDetailsService.loadUserByUsername(username);
+                    // Authenticate user from the cached principal; no user query on a hit
+                    UserPrincipal principal = principalCache.get(userId);
+                    if (principal == null || !principal.isEnabled()) {
+                        log.warn("Token rejected for missing or inactive user: {}", userId);
+                        filterChain.doFilter(request, response);
+                        return;
+                    }
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
+                                    principal,
                                     null,
-                                    userDetails.getAuthorities()
+                                    principal.getAuthorities()
                             );
 
                     authentication.setDetails(
@@ -79,7 +70,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.debug("Authentication set for user: {}", username);
+                    log.debug("Authentication set for user: {}", principal.getUsername());
                 }
             }
         } catch (Exception ex) {
@@ -0,0 +1,24 @@
+package org.fintech.wallet.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The claims of a token whose signature and expiry have been checked, read once. tokenId is the
+ * jti, or a SHA-256 of the token for tokens issued before jti was added ({@link #legacy}).
+ */
+public record JwtClaims(String subject, UUID userId, String sessionId, Instant issuedAt, Instant expiresAt,
+                        String type, String tokenId, boolean legacy) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public long remainingSeconds() {
+        return expiresAt == null ? 0 : Math.max(0, expiresAt.getEpochSecond() - Instant.now().getEpochSecond());
+    }
+
+    public boolean isIssuedBefore(Long epochMillis) {
+        return epochMillis != null && issuedAt != null && issuedAt.toEpochMilli() < epochMillis;
+    }
+}
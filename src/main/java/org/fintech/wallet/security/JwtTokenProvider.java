@@ -11,10 +11,15 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
@@ -29,6 +34,14 @@ public class JwtTokenProvider {
     @Value("${security.jwt.refresh-expiration}")
     private long refreshExpirationMs;
 
+    // Verified tokens (by SHA-256) to their claims; 0 turns the cache off
+    @Value("${security.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private final Map<String, JwtClaims> claimsCache = new ConcurrentHashMap<>();
+
     @PostConstruct
     public void validateSecret() {
         if (jwtSecret == null || jwtSecret.trim().isEmpty()) {
@@ -37,9 +50,43 @@ public class JwtTokenProvider {
         if (jwtSecret.length() < 32) {
             throw new IllegalStateException("JWT secret must be at least 32 characters.");
         }
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
+    }
+
+    /**
+     * Verifies the token and reads its claims. A token verified recently is answered from
+     * memory until it expires, so only its first request pays for the signature check.
+     *
+     * @throws JwtException if the signature is invalid, the token is malformed or expired
+     * @throws IllegalArgumentException if the token is empty
+     */
+    public JwtClaims parse(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT string cannot be empty");
+        }
+        if (claimsCacheSize <= 0) {
+            return readClaims(token, tokenHash(token));
+        }
+        String key = tokenHash(token);
+        JwtClaims cached = claimsCache.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return cached;
+            }
+            claimsCache.remove(key);
+        }
+
+        JwtClaims claims = readClaims(token, key);
+        if (claimsCache.size() >= claimsCacheSize) {
+            evict();
+        }
+        claimsCache.put(key, claims);
+        return claims;
     }
 
     public String generateAccessToken(Authentication authentication, String sessionId, UUID userId) {
@@ -52,13 +99,7 @@ public class JwtTokenProvider {
         return generateToken(userDetails.getUsername(), refreshExpirationMs, "REFRESH",userId, sessionId);
     }
     public String getSessionIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("sessionId", String.class);
+        return parse(token).sessionId();
     }
 
 
@@ -74,6 +115,7 @@ public class JwtTokenProvider {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey())
@@ -81,37 +123,26 @@ public class JwtTokenProvider {
         }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return parse(token).subject();
     }
 
     /**
      * Get remaining time until token expires (in seconds)
      */
     public long getTokenExpirationTime(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        Date expiration = claims.getExpiration();
-        Date now = new Date();
-        return (expiration.getTime() - now.getTime()) / 1000; // Convert to seconds
+        return parse(token).remainingSeconds();
     }
 
     public boolean validateToken(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * Like {@link #parse(String)}, but logs why the token was rejected and returns null instead of throwing.
+     */
+    public JwtClaims verify(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return parse(token);
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -122,31 +153,51 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 
     public boolean isTokenIssuedBeforeLogout(String token, Long lastLogoutAt) {
         if (lastLogoutAt == null) return false;
+        return parse(token).isIssuedBefore(lastLogoutAt);
+    }
+    public UUID getUserId(String token) {
+        return parse(token).userId();
+    }
 
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private JwtClaims readClaims(String token, String tokenHash) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String userId = claims.get("userId", String.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                userId != null ? UUID.fromString(userId) : null,
+                claims.get("sessionId", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims.get("type", String.class),
+                claims.getId() != null ? claims.getId() : tokenHash,
+                claims.getId() == null);
+    }
 
-        Date issuedAt = claims.getIssuedAt();
-        return issuedAt != null && issuedAt.getTime() < lastLogoutAt;
+    // Expired entries first; if the cache is still full it is live traffic, so start over
+    private void evict() {
+        Instant now = Instant.now();
+        claimsCache.values().removeIf(claims -> claims.isExpired(now));
+        if (claimsCache.size() >= claimsCacheSize) {
+            claimsCache.clear();
+        }
     }
-    public UUID getUserId(String token) {
-        Claims claims = Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        String userIdStr = claims.get("userId", String.class);
-        return UUID.fromString(userIdStr);
+
+    // SHA-256 of the token, Base64; also how sessions store refresh tokens
+    public static String tokenHash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
 
@@ -1,28 +1,43 @@
 package org.fintech.wallet.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.Bucket4jLettuce;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Rate-limit buckets live in Redis so every node draws from the same allowance. A bucket key
+ * expires shortly after the bucket would have refilled, so idle clients cost nothing.
+ */
 @Configuration
 public class RateLimitConfig {
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    private static final Duration KEEP_AFTER_REFILL = Duration.ofSeconds(10);
 
-    public Bucket resolveBucket(String key) {
-        return cache.computeIfAbsent(key, k -> createNewBucket());
+    // Own connection: bucket4j needs a byte[] codec and must not share the template's pool
+    @Bean(destroyMethod = "close")
+    public StatefulRedisConnection<byte[], byte[]> rateLimitRedisConnection(RedisConnectionFactory connectionFactory) {
+        // The factory beans are declared as RedisConnectionFactory, so look at the instance
+        if (!(connectionFactory instanceof LettuceConnectionFactory lettuce)
+                || !(lettuce.getNativeClient() instanceof RedisClient client)) {
+            throw new IllegalStateException("Rate limiting requires a standalone Redis client");
+        }
+        return client.connect(ByteArrayCodec.INSTANCE);
     }
 
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.classic(60,
-                Refill.intervally(60, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
+    @Bean
+    public ProxyManager<byte[]> rateLimitProxyManager(StatefulRedisConnection<byte[], byte[]> rateLimitRedisConnection) {
+        return Bucket4jLettuce.casBasedBuilder(rateLimitRedisConnection)
+                .expirationAfterWrite(ExpirationAfterWriteStrategy
+                        .basedOnTimeForRefillingBucketUpToMax(KEEP_AFTER_REFILL))
                 .build();
     }
-}
\ No newline at end of file
+}
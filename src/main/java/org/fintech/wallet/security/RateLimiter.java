@@ -0,0 +1,190 @@
+package org.fintech.wallet.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-route token buckets shared across nodes through Redis. Each node keeps the bucket
+ * proxies of recently seen keys, and remembers until when a key is known to be empty: a
+ * client that keeps hammering after a 429 is refused locally, without another Redis call.
+ * When Redis is unavailable requests are let through rather than failing the API.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private static final String DEFAULT_POLICY = "default";
+    private static final String API_PATTERN = "/api/**";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ProxyManager<byte[]> proxyManager;
+    private final MeterRegistry meterRegistry;
+    private final String keyPrefix;
+    private final int maxEntries;
+    private final long entryTtlNanos;
+    private final List<Route> routes;
+    private final Route defaultRoute;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final Counter backendErrors;
+
+    public RateLimiter(ProxyManager<byte[]> proxyManager,
+                       AppProperties appProperties,
+                       MeterRegistry meterRegistry) {
+        AppProperties.RateLimit config = appProperties.getRateLimit();
+        this.proxyManager = proxyManager;
+        this.meterRegistry = meterRegistry;
+        this.keyPrefix = config.getKeyPrefix();
+        this.maxEntries = config.getLocalCacheSize();
+        this.entryTtlNanos = TimeUnit.SECONDS.toNanos(config.getLocalCacheTtlSeconds());
+        this.routes = config.getPolicies().stream().map(this::route).toList();
+        this.defaultRoute = route(new AppProperties.RateLimit.Policy(DEFAULT_POLICY, null, API_PATTERN,
+                config.getRequestsPerMinute(), 60, AppProperties.RateLimit.KeyBy.USER));
+
+        this.backendErrors = Counter.builder("wallet.ratelimit.errors")
+                .description("Rate-limit checks let through because Redis could not be reached")
+                .register(meterRegistry);
+        Gauge.builder("wallet.ratelimit.local.size", entries, Map::size)
+                .description("Rate-limit keys cached on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the client's bucket under the request's policy, keyed by user id or
+     * IP as the policy says. Returns null when the path is not rate limited or the check could
+     * not be made.
+     */
+    public Decision tryConsume(String method, String path, UUID userId, String clientIp) {
+        Route route = resolve(method, path);
+        if (route == null) {
+            return null;
+        }
+        AppProperties.RateLimit.Policy policy = route.policy();
+        String key = policy.getKeyBy() == AppProperties.RateLimit.KeyBy.USER && userId != null
+                ? policy.getName() + ":user:" + userId
+                : policy.getName() + ":ip:" + clientIp;
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(proxyManager.builder()
+                    .build((keyPrefix + key).getBytes(StandardCharsets.UTF_8), route::configuration), now);
+            // When the cache is full the key is checked against Redis only; entries already cached
+            // (and the clients they are blocking) stay put
+            if (hasRoom(now)) {
+                Entry existing = entries.putIfAbsent(key, entry);
+                entry = existing != null ? existing : entry;
+            }
+        }
+        entry.lastAccess = now;
+
+        long blockedFor = entry.blockedUntil - now;
+        if (blockedFor > 0) {
+            rejected(policy, "local");
+            return new Decision(policy, false, 0, blockedFor, blockedFor);
+        }
+
+        ConsumptionProbe probe;
+        try {
+            probe = entry.bucket.tryConsumeAndReturnRemaining(1);
+        } catch (Exception e) {
+            backendErrors.increment();
+            log.warn("Rate-limit check failed for {}, letting the request through: {}", key, e.getMessage());
+            return null;
+        }
+        if (probe.isConsumed()) {
+            return new Decision(policy, true, probe.getRemainingTokens(), 0, probe.getNanosToWaitForReset());
+        }
+        entry.blockedUntil = now + probe.getNanosToWaitForRefill();
+        rejected(policy, "redis");
+        return new Decision(policy, false, 0, probe.getNanosToWaitForRefill(), probe.getNanosToWaitForReset());
+    }
+
+    private Route resolve(String method, String path) {
+        for (Route route : routes) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return defaultRoute.matches(method, path) ? defaultRoute : null;
+    }
+
+    private void rejected(AppProperties.RateLimit.Policy policy, String source) {
+        Counter.builder("wallet.ratelimit.rejected")
+                .description("Requests refused with 429, by policy and where the limit was found")
+                .tag("policy", policy.getName())
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        // At most one sweep per interval, so a flood of new keys does not scan the map on every request
+        long last = lastSweep.get();
+        if (now - last > SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            entries.values().removeIf(e -> now - e.lastAccess > entryTtlNanos);
+        }
+        return entries.size() < maxEntries;
+    }
+
+    private Route route(AppProperties.RateLimit.Policy policy) {
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(policy.getCapacity())
+                        .refillIntervally(policy.getCapacity(), Duration.ofSeconds(policy.getPeriodSeconds()))
+                        .build())
+                .build();
+        return new Route(policy, configuration);
+    }
+
+    private record Route(AppProperties.RateLimit.Policy policy, BucketConfiguration configuration) {
+        boolean matches(String method, String path) {
+            return (!StringUtils.hasText(policy.getMethod()) || policy.getMethod().equalsIgnoreCase(method))
+                    && PATH_MATCHER.match(policy.getPattern(), path);
+        }
+    }
+
+    private static final class Entry {
+        private final BucketProxy bucket;
+        private volatile long lastAccess;
+        private volatile long blockedUntil;
+
+        private Entry(BucketProxy bucket, long now) {
+            this.bucket = bucket;
+            this.lastAccess = now;
+            this.blockedUntil = now;
+        }
+    }
+
+    /**
+     * Outcome of a check; times are in nanoseconds. {@code resetNanos} is how long until the
+     * bucket is full again, {@code retryAfterNanos} how long until the next token.
+     */
+    public record Decision(AppProperties.RateLimit.Policy policy, boolean allowed, long remaining,
+                           long retryAfterNanos, long resetNanos) {
+    }
+}
@@ -0,0 +1,53 @@
+package org.fintech.wallet.security;
+
+import org.fintech.wallet.domain.enums.UserRole;
+import org.fintech.wallet.domain.enums.UserStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The authenticated user of a request: id from the token, status and roles from
+ * {@link UserPrincipalCache}. Carries no password; it is never used to log in.
+ */
+public record UserPrincipal(UUID id, String email, UserStatus status, Set<UserRole> roles,
+                            List<GrantedAuthority> authorities) implements UserDetails {
+
+    public static UserPrincipal of(UUID id, String email, UserStatus status, Set<UserRole> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.name()))
+                .toList();
+        return new UserPrincipal(id, email, status, Set.copyOf(roles), authorities);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return status != UserStatus.LOCKED;
+    }
+
+    // Same rule as CustomUserDetailsService applies at login
+    @Override
+    public boolean isEnabled() {
+        return status == UserStatus.ACTIVE;
+    }
+}
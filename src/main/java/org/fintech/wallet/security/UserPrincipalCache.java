@@ -0,0 +1,132 @@
+package org.fintech.wallet.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.service.impl.CustomUserDetailsService;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Status and roles of recently authenticated users, so a request with a valid token needs no
+ * user query. Changes are announced on a Redis channel and every node drops its copy; entries
+ * also expire after {@code app.principal-cache.ttl-seconds} in case an announcement is missed.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache implements MessageListener {
+
+    private static final String INVALIDATION_CHANNEL = "auth:principal:invalidate";
+
+    private final CustomUserDetailsService userDetailsService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final int maxSize;
+    private final long ttlMs;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserPrincipalCache(CustomUserDetailsService userDetailsService,
+                              RedisTemplate<String, String> redisTemplate,
+                              RedisMessageListenerContainer redisMessageListenerContainer,
+                              AppProperties appProperties,
+                              MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.redisTemplate = redisTemplate;
+        this.maxSize = appProperties.getPrincipalCache().getMaxSize();
+        this.ttlMs = appProperties.getPrincipalCache().getTtlSeconds() * 1000;
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        meterRegistry.gaugeMapSize("wallet.auth.principal.cache.size", List.of(), entries);
+
+        redisMessageListenerContainer.addMessageListener(this, ChannelTopic.of(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * The user's principal, loaded from the primary database on a miss. Null if the user does not exist.
+     */
+    public UserPrincipal get(UUID userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAtMs() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+        misses.increment();
+
+        UserPrincipal principal = userDetailsService.loadPrincipal(userId);
+        if (principal != null) {
+            if (entries.size() >= maxSize) {
+                evict(now);
+            }
+            entries.put(userId, new Entry(principal, now + ttlMs));
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the user's principal on every node once the current transaction commits (at once
+     * without one), so the next request sees the committed status and roles.
+     */
+    public void invalidate(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishInvalidation(userId);
+                }
+            });
+        } else {
+            publishInvalidation(userId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            entries.remove(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed principal invalidation");
+        }
+    }
+
+    private void publishInvalidation(UUID userId) {
+        entries.remove(userId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (Exception e) {
+            // Other nodes pick the change up when their entry expires
+            log.error("Failed to announce principal change for user {}", userId, e);
+        }
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAtMs() <= now);
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("wallet.auth.principal.cache.lookups")
+                .description("Principal lookups by authenticated requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAtMs) {
+    }
+}
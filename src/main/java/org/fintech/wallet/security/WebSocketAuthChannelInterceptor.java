@@ -31,12 +31,13 @@ public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
             }
 
             String token = auth.substring(7);
-            if (!jwtTokenProvider.validateToken(token)) {
+            JwtClaims claims = jwtTokenProvider.verify(token);
+            if (claims == null) {
                 log.warn("WebSocket CONNECT invalid token");
                 return message;
             }
 
-            UUID userId = jwtTokenProvider.getUserId(token);
+            UUID userId = claims.userId();
             accessor.setUser(new StompPrincipal(userId.toString()));
             log.info("WebSocket CONNECT authenticated userId={}", userId);
         }
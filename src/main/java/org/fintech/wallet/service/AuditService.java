@@ -0,0 +1,27 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.domain.entity.LedgerEntry;
+import org.fintech.wallet.dto.event.AuditLogEvent;
+import org.fintech.wallet.dto.request.AuditLogSearchRequest;
+import org.fintech.wallet.dto.response.AuditLogResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The log* methods only enqueue an outbox row in the caller's transaction; the audit_logs
+ * insert happens later, in batches, in AuditLogConsumer.
+ */
+public interface AuditService {
+    void logAdminAction(UUID adminId, String action, String entityType, Object entityId, String details);
+    void logUserAction(UUID userId, String action, String ipAddress, String details);
+    /**
+     * Records the action only if the caller's transaction rolls back, e.g. a rejected login.
+     */
+    void logFailedUserAction(UUID userId, String action, String entityId, String ipAddress, String details);
+    void logBalanceChanges(List<LedgerEntry> entries);
+
+    int storeAll(List<AuditLogEvent> events);
+    CursorPageResponse<AuditLogResponse> search(AuditLogSearchRequest request, String cursor, int size);
+}
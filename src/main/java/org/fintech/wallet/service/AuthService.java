@@ -2,9 +2,11 @@ package org.fintech.wallet.service;
 
 import org.fintech.wallet.dto.request.*;
 import org.fintech.wallet.dto.response.AuthResponse;
+import org.fintech.wallet.dto.response.SessionResponse;
 import org.fintech.wallet.dto.response.UserResponse;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface AuthService {
@@ -21,6 +23,7 @@ public interface AuthService {
     UserResponse updateProfile(UUID userId, UpdateProfileRequest request);
     void logout(UUID userId, String accessToken);
     void logoutAllDevices(UUID userId);
+    List<SessionResponse> getActiveSessions(UUID userId);
     UserResponse updateProfileImage(UUID userId, MultipartFile image);
 
 }
@@ -0,0 +1,25 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.dto.response.DashboardStatsResponse;
+
+public interface DashboardStatsService {
+    /**
+     * Builds the admin dashboard from this node's in-memory copy of dashboard_stats, without
+     * touching the database once the copy is loaded. At most one fold interval behind.
+     */
+    DashboardStatsResponse getDashboardStats();
+    /**
+     * Merges pending deltas into dashboard_stats and reloads the in-memory copy.
+     * Returns how many deltas were merged.
+     */
+    int foldDeltas();
+    /**
+     * Rebuilds dashboard_stats from GROUP BY aggregates of users, wallets and transactions.
+     * Returns how many rows had drifted.
+     */
+    int recompute();
+    /**
+     * Recomputes dashboard_stats when it holds no totals yet. Returns how many rows were written.
+     */
+    int seedIfEmpty();
+}
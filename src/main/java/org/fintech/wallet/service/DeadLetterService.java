@@ -0,0 +1,24 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.domain.entity.DeadLetterRecord;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+import org.fintech.wallet.dto.response.DeadLetterResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface DeadLetterService {
+    /**
+     * Stores records read from a DLT, skipping ones already stored. Returns how many were new.
+     */
+    int storeAll(List<DeadLetterRecord> records);
+    Page<DeadLetterResponse> getDeadLetters(String topic, DeadLetterStatus status, Pageable pageable);
+    DeadLetterResponse getDeadLetter(UUID id);
+    /**
+     * Re-publishes the payload to its original topic through the outbox, as a fresh first attempt.
+     */
+    DeadLetterResponse replay(UUID id, UUID adminId);
+    DeadLetterResponse discard(UUID id, UUID adminId);
+}
@@ -0,0 +1,29 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.domain.entity.FundHold;
+import org.fintech.wallet.domain.entity.Wallet;
+
+import java.math.BigDecimal;
+
+public interface HoldService {
+    /**
+     * Reserves {@code amount} on the wallet for the given transaction: availableBalance drops,
+     * balance does not, and a HOLD ledger entry is written. Counts toward the user's spend.
+     */
+    FundHold placeHold(Wallet wallet, BigDecimal amount, String transactionReference, String description);
+    /**
+     * Settles an active hold: debits balance, writes the DEBIT entry and marks the transaction SUCCESS.
+     * Calling it again for a captured hold is a no-op.
+     */
+    void captureHold(String transactionReference);
+    /**
+     * Cancels an active hold: restores availableBalance and marks the transaction FAILED.
+     * Calling it again for a released hold is a no-op.
+     */
+    void releaseHold(String transactionReference, String reason);
+    /**
+     * Releases one hold whose expiry has passed. Used by the sweeper, one transaction per hold.
+     */
+    void expireHold(String transactionReference);
+    boolean isActiveHold(String transactionReference);
+}
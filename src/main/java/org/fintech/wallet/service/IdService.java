@@ -0,0 +1,14 @@
+package org.fintech.wallet.service;
+
+public interface IdService {
+    /**
+     * Returns a unique, time-ordered reference such as {@code TXN123456789012345678}.
+     * Unique across nodes as long as every instance runs with a distinct node id.
+     */
+    String nextReference(String prefix);
+    /**
+     * Returns an unused wallet number ending in a Luhn check digit. Numbers are handed out from
+     * blocks reserved through a database sequence, so no existence check is needed.
+     */
+    String nextWalletNumber();
+}
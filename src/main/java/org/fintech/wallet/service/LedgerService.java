@@ -2,14 +2,26 @@ package org.fintech.wallet.service;
 
 import org.fintech.wallet.domain.entity.LedgerEntry;
 import org.fintech.wallet.dto.request.LedgerEntryRequest;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+import org.fintech.wallet.dto.response.LedgerResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
 public interface LedgerService {
     LedgerEntry createEntry(LedgerEntryRequest request);
+    /**
+     * Inserts many entries with one idempotency lookup and one batched insert.
+     * Entries whose idempotency key already exists are skipped.
+     */
+    List<LedgerEntry> createEntries(List<LedgerEntryRequest> requests);
     Page<LedgerEntry> getWalletLedger(UUID walletId, Pageable pageable);
+    /**
+     * Keyset-paginated ledger of a wallet owned by {@code userId}, newest first, without a COUNT query.
+     */
+    CursorPageResponse<LedgerResponse> getWalletLedgerHistory(UUID walletId, UUID userId, String cursor, int size);
     BigDecimal calculateBalance(UUID walletId);
 }
@@ -15,6 +15,13 @@ public interface NotificationService {
     NotificationResponse sendNotification(UUID userId, NotificationType type, String title,
                           String message, String referenceId);
     NotificationResponse sendNotification(SendNotificationRequest request);
+    /**
+     * Stores a batch of notifications in one transaction: users are loaded in one query,
+     * duplicates (same user, type and reference, already stored or repeated in the batch) are
+     * dropped with one query, and the rest are inserted as a JDBC batch. Requests for unknown
+     * users are skipped. Returns the notifications that were created.
+     */
+    List<NotificationResponse> sendNotifications(List<SendNotificationRequest> requests);
     List<NotificationResponse> sendBulkNotification(BulkNotificationRequest request);
     Page<NotificationResponse> getUserNotifications(UUID userId, Pageable pageable);
     long getUnreadCount(UUID userId);
@@ -29,4 +36,14 @@ public interface NotificationService {
     void deleteNotification(UUID notificationId);
     void deleteAllNotifications(UUID userId);
     int deleteOldReadNotifications(int daysOld);
+    /**
+     * Recomputes the per-user unread counters from the notifications table and returns how
+     * many had drifted.
+     */
+    int reconcileUnreadCounters();
+    /**
+     * Claims a batch of failed notifications whose backoff has elapsed and hands them to the
+     * dispatcher again. Returns how many were re-dispatched.
+     */
+    int retryFailedNotifications();
 }
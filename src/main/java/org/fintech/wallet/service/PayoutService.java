@@ -0,0 +1,15 @@
+package org.fintech.wallet.service;
+
+public interface PayoutService {
+    /**
+     * Asks the withdrawal's gateway to send the held amount to the bank account. Runs after the
+     * hold commits, outside any database lock. A transfer the gateway rejects releases the hold.
+     */
+    void startPayout(String transactionReference, String bankAccount, String bankCode);
+    /**
+     * Settles an active withdrawal hold from the transfer status reported by the gateway's API:
+     * captured on success, released on failure. Webhooks and the hold sweeper both end up here,
+     * so nothing but the gateway's own answer moves money.
+     */
+    void reconcile(String transactionReference);
+}
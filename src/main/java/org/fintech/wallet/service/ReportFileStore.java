@@ -0,0 +1,21 @@
+package org.fintech.wallet.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Where finished report files are kept. Downloads are sent straight from a local file, so a
+ * store backed by remote storage returns a local copy from {@link #open}.
+ */
+public interface ReportFileStore {
+
+    OutputStream create(String key) throws IOException;
+
+    /**
+     * Local path of a stored file; fails if there is none.
+     */
+    Path open(String key) throws IOException;
+
+    void delete(String key);
+}
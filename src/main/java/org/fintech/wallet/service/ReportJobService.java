@@ -0,0 +1,33 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.dto.response.ReportJobResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ReportJobService {
+    /**
+     * Queues an export of every transaction in the range, or returns the job that already
+     * produced (or is producing) the same file.
+     */
+    ReportJobResponse submitTransactionReport(UUID adminId, LocalDateTime startDate, LocalDateTime endDate);
+    /**
+     * Same as {@link #submitTransactionReport} for the ledger entries of one of the user's wallets.
+     */
+    ReportJobResponse submitStatement(UUID userId, UUID walletId, LocalDateTime startDate, LocalDateTime endDate);
+    /**
+     * Admins may read any job, other users only their own.
+     */
+    ReportJobResponse getJob(UUID jobId, UUID userId, boolean admin);
+    ReportDownload getDownload(UUID jobId, UUID userId, boolean admin);
+    /**
+     * Hands queued jobs nobody is working on to this node's workers and fails running jobs
+     * whose node has gone. Returns how many were handed out.
+     */
+    int dispatchQueued();
+    int purgeExpired();
+
+    record ReportDownload(String fileName, Path path, long size) {
+    }
+}
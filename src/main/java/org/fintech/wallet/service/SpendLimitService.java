@@ -0,0 +1,46 @@
+package org.fintech.wallet.service;
+
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.repository.projection.SpendCounterDrift;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface SpendLimitService {
+    /**
+     * Today in {@code app.transaction.limit-zone}. Every counter and limit window is a day,
+     * week or month of that zone, whatever the zone of the JVM or the database session.
+     */
+    LocalDate today();
+    /**
+     * Returns the user's outgoing spend in the current period with a single primary key read.
+     */
+    BigDecimal getSpent(UUID userId, SpendPeriod period);
+    /**
+     * Same as {@link #getSpent(UUID, SpendPeriod)}, but locks the counter until the calling
+     * transaction ends: a concurrent spend of the same user waits here instead of passing
+     * a limit check against the same total. Call it before the spend is recorded.
+     */
+    BigDecimal lockSpent(UUID userId, SpendPeriod period);
+    /**
+     * Adds to the user's day, week and month counters. Must run in the same transaction
+     * as the ledger debit it accounts for.
+     */
+    void recordSpend(UUID userId, BigDecimal amount, long txCount);
+    /**
+     * Same as {@link #recordSpend(UUID, BigDecimal, long)} for spend made at {@code spentAt}, an entity
+     * timestamp, e.g. reversing a hold placed yesterday (negative amount and count).
+     */
+    void recordSpend(UUID userId, BigDecimal amount, long txCount, LocalDateTime spentAt);
+    /**
+     * Corrects every user's counter for the period containing {@code date} to match successful and
+     * pending transactions, keeping spends recorded while it runs. Returns the number of counters corrected.
+     */
+    int rebuildCounters(SpendPeriod period, LocalDate date);
+    /**
+     * Compares the counters for the period containing {@code date} with successful transactions.
+     */
+    SpendCounterDrift measureDrift(SpendPeriod period, LocalDate date);
+}
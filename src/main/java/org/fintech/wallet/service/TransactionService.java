@@ -2,7 +2,10 @@ package org.fintech.wallet.service;
 
 import jakarta.transaction.InvalidTransactionException;
 import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.dto.request.BatchTransferRequest;
 import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.dto.response.BatchTransferResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
 import org.fintech.wallet.dto.response.TransactionResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,9 +15,24 @@ import java.util.UUID;
 
 public interface TransactionService {
     TransactionResponse transfer(TransferRequest request, UUID userId) throws InvalidTransactionException;
+    /**
+     * Pays out from one source wallet to many destinations in a single transaction.
+     * Items are validated one by one; failed items are reported in the response and, unless
+     * {@code allOrNothing} is set, do not stop the rest of the batch.
+     */
+    BatchTransferResponse batchTransfer(BatchTransferRequest request, UUID userId) throws InvalidTransactionException;
     TransactionResponse deposit(UUID walletId, BigDecimal amount, String externalRef, String gateway);
-    TransactionResponse withdraw(UUID walletId, BigDecimal amount, String bankAccount);
+    /**
+     * Places a hold for the withdrawal and, once that commits, asks the payout gateway to send the
+     * money to the bank account. The hold is captured or released when the transfer settles.
+     */
+    TransactionResponse withdraw(UUID walletId, BigDecimal amount, String bankAccount, String bankCode);
     Page<TransactionResponse> getUserTransactions(UUID userId, Pageable pageable);
+    /**
+     * Keyset-paginated history across all of the user's wallets, newest first. Pass the previous
+     * response's {@code nextCursor} (or null for the first slice). Runs no COUNT query.
+     */
+    CursorPageResponse<TransactionResponse> getUserTransactionHistory(UUID userId, String cursor, int size);
     TransactionResponse getTransactionByReference(String reference);
 
 }
@@ -5,6 +5,7 @@ import org.fintech.wallet.dto.request.CreateWalletRequest;
 import org.fintech.wallet.dto.response.WalletResponse;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,6 +13,49 @@ public interface WalletService {
     WalletResponse createWallet(UUID userId, CreateWalletRequest request);
     void updateBalance(UUID walletId, BigDecimal amount, boolean isCredit);
     Wallet getWalletByIdWithLock(UUID walletId);
+    /**
+     * Locks the source wallet (by id) and the destination wallet (by number) with a single
+     * SELECT ... FOR UPDATE, always in wallet id order. Returns one element when both refer
+     * to the same wallet.
+     */
+    List<Wallet> getTransferWalletsWithLock(UUID sourceWalletId, String destinationWalletNumber);
+    /**
+     * Applies a balance change to a wallet the caller has already locked in the current
+     * transaction. Does not re-read or re-lock the row.
+     */
+    void applyBalanceChange(Wallet lockedWallet, BigDecimal amount, boolean isCredit);
+    /**
+     * Same lookup as {@link #getTransferWalletsWithLock} without taking row locks.
+     */
+    List<Wallet> getTransferWallets(UUID sourceWalletId, String destinationWalletNumber);
+    /**
+     * Applies a balance change as a single guarded UPDATE (debits only succeed while
+     * availableBalance covers the amount) and returns the wallet balance after the change.
+     * Does not require the wallet to be locked beforehand.
+     */
+    BigDecimal applyGuardedBalanceChange(Wallet wallet, BigDecimal amount, boolean isCredit);
+    /**
+     * Locks the source wallet and every destination wallet of a batch payout with a single
+     * SELECT ... FOR UPDATE, in wallet id order. Unknown wallet numbers are simply absent.
+     */
+    List<Wallet> getBatchWalletsWithLock(UUID sourceWalletId, Collection<String> destinationWalletNumbers);
+    /**
+     * Same lookup as {@link #getBatchWalletsWithLock} without taking row locks.
+     */
+    List<Wallet> getBatchWallets(UUID sourceWalletId, Collection<String> destinationWalletNumbers);
+    /**
+     * Reserves funds by lowering availableBalance only (guarded like a debit).
+     * Returns the wallet balance, which a hold does not change.
+     */
+    BigDecimal holdFunds(Wallet wallet, BigDecimal amount);
+    /**
+     * Settles previously held funds by lowering balance. Returns the balance after the capture.
+     */
+    BigDecimal captureHeldFunds(Wallet wallet, BigDecimal amount);
+    /**
+     * Returns previously held funds to availableBalance. Returns the (unchanged) wallet balance.
+     */
+    BigDecimal releaseHeldFunds(Wallet wallet, BigDecimal amount);
     Wallet getWalletById(UUID walletId);
     WalletResponse getWalletByNumberOnly(String walletNumber);
     WalletResponse getWalletByNumber(String walletNumber, UUID userId);
@@ -19,8 +63,13 @@ public interface WalletService {
     void freezeWallet(UUID walletId);
     void unfreezeWallet(UUID walletId);
     /**
-     * Calculates the total amount the user has transacted today across deposits, withdrawals, and transfers.
-     * Only counts SUCCESS transactions.
+     * Returns the user's outgoing spend today (successful transfers and withdrawals) from the
+     * rolling spend counter, without aggregating the transactions table.
      */
     BigDecimal getUserDailyTotal(UUID userId);
+    /**
+     * Same as {@link #getUserDailyTotal(UUID)}, with the counter locked until the transaction
+     * ends so that concurrent spends of the user are checked against the daily limit one at a time.
+     */
+    BigDecimal lockUserDailyTotal(UUID userId);
 }
@@ -0,0 +1,266 @@
+package org.fintech.wallet.service.fraud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.dto.event.FraudDetectionEvent;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores outgoing money movements against per-user sliding windows held in memory: velocity,
+ * amount z-score against the user's baseline, a login IP the user has not used recently,
+ * payments to destination wallets not seen before, and recent failures. transaction-events is
+ * keyed by user, so each user's window lives on exactly one instance; it is checkpointed to
+ * Redis by {@link #checkpoint()} and restored the first time the user is touched. Per-IP
+ * velocity spans users on every partition and is counted in Redis by {@link RiskStateStore}.
+ */
+@Service
+@Slf4j
+public class FraudScoringEngine {
+
+    private static final int WEIGHT_VELOCITY = 25;
+    private static final int WEIGHT_AMOUNT = 30;
+    private static final int WEIGHT_AMOUNT_EXTREME = 40;
+    private static final int WEIGHT_NEW_IP = 15;
+    private static final int WEIGHT_IP_VELOCITY = 20;
+    private static final int WEIGHT_FANOUT = 20;
+    private static final int WEIGHT_FAILURES = 15;
+
+    private final AppProperties.Fraud config;
+    private final RiskStateStore stateStore;
+    private final ConcurrentHashMap<UUID, UserRiskState> users = new ConcurrentHashMap<>();
+    private final Timer scoringTimer;
+    private final MeterRegistry meterRegistry;
+
+    public FraudScoringEngine(AppProperties appProperties, RiskStateStore stateStore, MeterRegistry meterRegistry) {
+        this.config = appProperties.getFraud();
+        this.stateStore = stateStore;
+        this.meterRegistry = meterRegistry;
+        this.scoringTimer = Timer.builder("wallet.fraud.scoring.latency")
+                .description("Time to score one transaction against its windows")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("wallet.fraud.state.users", users, Map::size)
+                .description("Users with risk windows held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the transaction to its windows and scores it. Returns an event when the score
+     * reaches {@code app.fraud.publish-min-score}, otherwise null.
+     */
+    public FraudDetectionEvent score(TransactionEvent event) {
+        long started = System.nanoTime();
+        long nowMs = eventTime(event.getTimestamp());
+        double amount = event.getAmount() != null ? event.getAmount().doubleValue() : 0;
+        List<String> reasons = new ArrayList<>(4);
+        int score = 0;
+
+        UserRiskState user = userState(event.getUserId());
+        synchronized (user) {
+            long velocity = user.recent.count(nowMs) + 1;
+            if (velocity > config.getVelocityThreshold()) {
+                score += WEIGHT_VELOCITY;
+                reasons.add("VELOCITY:" + velocity);
+            }
+
+            double[] stats = new double[3];
+            user.baseline.stats(nowMs, stats);
+            if (stats[0] >= config.getMinBaselineCount() && stats[2] > 0) {
+                double zScore = (amount - stats[1]) / stats[2];
+                if (zScore >= config.getZScoreThreshold() * 2) {
+                    score += WEIGHT_AMOUNT_EXTREME;
+                    reasons.add(String.format("AMOUNT_ZSCORE:%.1f", zScore));
+                } else if (zScore >= config.getZScoreThreshold()) {
+                    score += WEIGHT_AMOUNT;
+                    reasons.add(String.format("AMOUNT_ZSCORE:%.1f", zScore));
+                }
+            }
+
+            if (event.getIpAddress() != null) {
+                boolean hadHistory = user.hasIpHistory();
+                if (user.rememberIp(hash(event.getIpAddress()), nowMs) && hadHistory) {
+                    score += WEIGHT_NEW_IP;
+                    reasons.add("NEW_IP");
+                }
+            }
+
+            if (event.getDestinationWalletId() != null
+                    && user.rememberDestination(hash(event.getDestinationWalletId()), nowMs)) {
+                user.newDestinations.add(nowMs, 1);
+                long fanout = user.newDestinations.count(nowMs);
+                if (fanout > config.getFanoutThreshold()) {
+                    score += WEIGHT_FANOUT;
+                    reasons.add("NEW_DESTINATIONS:" + fanout);
+                }
+            }
+
+            long failures = user.failures.count(nowMs);
+            if (failures >= config.getFailureThreshold()) {
+                score += WEIGHT_FAILURES;
+                reasons.add("RECENT_FAILURES:" + failures);
+            }
+
+            user.recent.add(nowMs, amount);
+            user.baseline.add(nowMs, amount);
+            user.lastTouchedMs = System.currentTimeMillis();
+        }
+
+        if (event.getIpAddress() != null) {
+            long ipVelocity = stateStore.addIpEvent(event.getIpAddress(),
+                    TimeUnit.MILLISECONDS.toMinutes(nowMs), config.getVelocityWindowMinutes());
+            if (ipVelocity > config.getIpVelocityThreshold()) {
+                score += WEIGHT_IP_VELOCITY;
+                reasons.add("IP_VELOCITY:" + ipVelocity);
+            }
+        }
+
+        score = Math.min(score, 100);
+        String level = riskLevel(score);
+        scoringTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        Counter.builder("wallet.fraud.scored")
+                .description("Scored transactions by risk level")
+                .tag("level", level)
+                .register(meterRegistry)
+                .increment();
+
+        if (score < config.getPublishMinScore()) {
+            return null;
+        }
+        return FraudDetectionEvent.builder()
+                .transactionId(event.getTransactionId())
+                .userId(event.getUserId())
+                .eventType(event.getType() != null ? event.getType().name() : event.getEventType())
+                .amount(event.getAmount())
+                .currency(event.getCurrency())
+                .ipAddress(event.getIpAddress())
+                .riskScore(score)
+                .riskLevel(level)
+                .reasons(reasons)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Failed attempts are not scored themselves but count against the user's next transactions.
+     */
+    public void recordFailure(TransactionEvent event) {
+        long nowMs = eventTime(event.getTimestamp());
+        UserRiskState user = userState(event.getUserId());
+        synchronized (user) {
+            user.failures.add(nowMs, 1);
+            user.lastTouchedMs = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Writes every state touched since its last checkpoint to Redis, then drops states that
+     * have been idle for {@code app.fraud.idle-evict-minutes}. Returns the number written.
+     * A state only counts as checkpointed once the write succeeded, so a failed write is
+     * retried next time and never lets an unsaved state be evicted.
+     */
+    public int checkpoint() {
+        long now = System.currentTimeMillis();
+        Map<String, byte[]> userStates = new HashMap<>();
+        Map<UserRiskState, Long> written = new IdentityHashMap<>();
+
+        users.forEach((userId, state) -> {
+            synchronized (state) {
+                if (state.lastTouchedMs > state.checkpointedMs
+                        && serialize(RiskStateStore.USER_PREFIX + userId, state::toBytes, userStates)) {
+                    written.put(state, state.lastTouchedMs);
+                }
+            }
+        });
+
+        stateStore.saveAll(userStates, Duration.ofHours(config.getBaselineHours()));
+        written.forEach((state, serializedMs) -> {
+            synchronized (state) {
+                state.checkpointedMs = Math.max(state.checkpointedMs, serializedMs);
+            }
+        });
+
+        long idleMs = TimeUnit.MINUTES.toMillis(config.getIdleEvictMinutes());
+        users.values().removeIf(state -> {
+            synchronized (state) {
+                return state.isIdle(now, idleMs);
+            }
+        });
+        return userStates.size();
+    }
+
+    private UserRiskState userState(UUID userId) {
+        return users.computeIfAbsent(userId, id -> {
+            byte[] checkpoint = stateStore.load(RiskStateStore.USER_PREFIX + id);
+            if (checkpoint != null) {
+                try {
+                    return UserRiskState.fromBytes(checkpoint, config);
+                } catch (IOException e) {
+                    log.warn("Discarding unreadable risk state for user {}: {}", id, e.getMessage());
+                }
+            }
+            return new UserRiskState(config);
+        });
+    }
+
+    private String riskLevel(int score) {
+        if (score >= 80) return "CRITICAL";
+        if (score >= 60) return "HIGH";
+        if (score >= 30) return "MEDIUM";
+        return "LOW";
+    }
+
+    // Windows follow event time, so a consumer catching up after downtime rebuilds them faithfully
+    private static long eventTime(LocalDateTime timestamp) {
+        return timestamp != null
+                ? timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    private static long hash(UUID id) {
+        long h = id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+        return h != 0 ? h : 1;
+    }
+
+    // 64-bit FNV-1a; String.hashCode is too collision-prone for a set of 8 IPs held for days
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h != 0 ? h : 1;
+    }
+
+    private boolean serialize(String key, StateWriter writer, Map<String, byte[]> into) {
+        try {
+            into.put(key, writer.write());
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not checkpoint risk state {}: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StateWriter {
+        byte[] write() throws IOException;
+    }
+}
@@ -0,0 +1,86 @@
+package org.fintech.wallet.service.fraud;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis checkpoints of the scoring engine's per-user windows, so a restart or a partition
+ * moving to another instance picks up where the last owner left off. Values expire with the
+ * window. Per-IP velocity lives here directly: an IP's events are spread over every partition.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RiskStateStore {
+
+    static final String USER_PREFIX = "fraud:state:user:";
+    static final String IP_PREFIX = "fraud:ip:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public byte[] load(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            return value != null ? Base64.getDecoder().decode(value) : null;
+        } catch (Exception e) {
+            log.warn("Could not restore risk state {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes all states in one pipelined round trip.
+     */
+    public void saveAll(Map<String, byte[]> states, Duration ttl) {
+        if (states.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = ttl.toSeconds();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            states.forEach((key, bytes) -> connection.stringCommands().setEx(
+                    key.getBytes(StandardCharsets.UTF_8),
+                    ttlSeconds,
+                    Base64.getEncoder().encode(bytes)));
+            return null;
+        });
+    }
+
+    /**
+     * Counts one event for the IP in its minute bucket and returns the IP's events over the
+     * last {@code windowMinutes} buckets, this one included, shared by all instances. One
+     * pipelined round trip; returns -1 when Redis cannot be reached.
+     */
+    public long addIpEvent(String ip, long minute, int windowMinutes) {
+        byte[][] keys = new byte[windowMinutes][];
+        for (int i = 0; i < windowMinutes; i++) {
+            keys[i] = (IP_PREFIX + ip + ":" + (minute - i)).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().incr(keys[0]);
+                connection.keyCommands().expire(keys[0], Duration.ofMinutes(windowMinutes + 1L).toSeconds());
+                connection.stringCommands().mGet(keys);
+                return null;
+            });
+            long count = 0;
+            for (Object value : (List<?>) results.get(2)) {
+                if (value != null) {
+                    count += Long.parseLong(value.toString());
+                }
+            }
+            return count;
+        } catch (Exception e) {
+            log.warn("Could not count IP velocity for {}: {}", ip, e.getMessage());
+            return -1;
+        }
+    }
+}
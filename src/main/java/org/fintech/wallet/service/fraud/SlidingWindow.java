@@ -0,0 +1,119 @@
+package org.fintech.wallet.service.fraud;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Count, sum and sum of squares over the last {@code buckets} time buckets, kept in a ring of
+ * primitive arrays. A bucket is reused once its slot comes round again, so adding and reading
+ * never allocate. Not thread-safe; callers lock the state that owns the window.
+ */
+public final class SlidingWindow {
+
+    private final long bucketMs;
+    private final long[] bucketStart;
+    private final long[] counts;
+    private final double[] sums;
+    private final double[] sumSquares;
+
+    public SlidingWindow(long bucketMs, int buckets) {
+        this.bucketMs = bucketMs;
+        this.bucketStart = new long[buckets];
+        this.counts = new long[buckets];
+        this.sums = new double[buckets];
+        this.sumSquares = new double[buckets];
+    }
+
+    public void add(long nowMs, double value) {
+        long start = nowMs - Math.floorMod(nowMs, bucketMs);
+        int slot = slot(start);
+        if (bucketStart[slot] != start) {
+            bucketStart[slot] = start;
+            counts[slot] = 0;
+            sums[slot] = 0;
+            sumSquares[slot] = 0;
+        }
+        counts[slot]++;
+        sums[slot] += value;
+        sumSquares[slot] += value * value;
+    }
+
+    /**
+     * Count over the newest {@code span} buckets, the current one included.
+     */
+    public long count(long nowMs, int span) {
+        long oldest = oldestStart(nowMs, span);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (bucketStart[i] >= oldest && bucketStart[i] <= nowMs) {
+                total += counts[i];
+            }
+        }
+        return total;
+    }
+
+    public long count(long nowMs) {
+        return count(nowMs, counts.length);
+    }
+
+    /**
+     * Count, mean and sample standard deviation of the values in the whole window,
+     * written into {@code out} as {@code {count, mean, stdDev}}.
+     */
+    public void stats(long nowMs, double[] out) {
+        long oldest = oldestStart(nowMs, counts.length);
+        long n = 0;
+        double sum = 0;
+        double sumSq = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (bucketStart[i] >= oldest && bucketStart[i] <= nowMs) {
+                n += counts[i];
+                sum += sums[i];
+                sumSq += sumSquares[i];
+            }
+        }
+        double mean = n > 0 ? sum / n : 0;
+        double variance = n > 1 ? Math.max(0, (sumSq - n * mean * mean) / (n - 1)) : 0;
+        out[0] = n;
+        out[1] = mean;
+        out[2] = Math.sqrt(variance);
+    }
+
+    public long spanMs() {
+        return bucketMs * counts.length;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            out.writeLong(bucketStart[i]);
+            out.writeLong(counts[i]);
+            out.writeDouble(sums[i]);
+            out.writeDouble(sumSquares[i]);
+        }
+    }
+
+    // A checkpoint written with a different bucket count is dropped rather than misread
+    void read(DataInput in) throws IOException {
+        int buckets = in.readInt();
+        if (buckets != counts.length) {
+            throw new IOException("Window has " + counts.length + " buckets, checkpoint has " + buckets);
+        }
+        for (int i = 0; i < buckets; i++) {
+            bucketStart[i] = in.readLong();
+            counts[i] = in.readLong();
+            sums[i] = in.readDouble();
+            sumSquares[i] = in.readDouble();
+        }
+    }
+
+    private int slot(long start) {
+        return (int) Math.floorMod(start / bucketMs, (long) counts.length);
+    }
+
+    private long oldestStart(long nowMs, int span) {
+        long current = nowMs - Math.floorMod(nowMs, bucketMs);
+        return current - (long) (span - 1) * bucketMs;
+    }
+}
@@ -0,0 +1,129 @@
+package org.fintech.wallet.service.fraud;
+
+import org.fintech.wallet.config.AppProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Sliding-window features of one user. Every field is a primitive array of fixed size,
+ * so a state costs the same whatever the user's volume. Guarded by its own monitor.
+ */
+final class UserRiskState {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int KNOWN_IPS = 8;
+    private static final int KNOWN_DESTINATIONS = 16;
+    private static final long MINUTE_MS = 60_000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+    private static final long FANOUT_BUCKET_MS = 5 * MINUTE_MS;
+
+    // Outgoing amounts: short window for velocity, hourly buckets for the amount baseline
+    final SlidingWindow recent;
+    final SlidingWindow baseline;
+    final SlidingWindow failures;
+    final SlidingWindow newDestinations;
+
+    private final long[] ipHashes = new long[KNOWN_IPS];
+    private final long[] ipSeenAt = new long[KNOWN_IPS];
+    private final long[] destinationHashes = new long[KNOWN_DESTINATIONS];
+    private final long[] destinationSeenAt = new long[KNOWN_DESTINATIONS];
+
+    long lastTouchedMs;
+    long checkpointedMs;
+
+    UserRiskState(AppProperties.Fraud config) {
+        this.recent = new SlidingWindow(MINUTE_MS, config.getVelocityWindowMinutes());
+        this.baseline = new SlidingWindow(HOUR_MS, config.getBaselineHours());
+        this.failures = new SlidingWindow(MINUTE_MS, config.getVelocityWindowMinutes());
+        this.newDestinations = new SlidingWindow(FANOUT_BUCKET_MS,
+                Math.max(1, config.getFanoutWindowMinutes() / 5));
+    }
+
+    boolean hasIpHistory() {
+        return ipHashes[0] != 0;
+    }
+
+    /**
+     * Records the IP and returns true when it was not among the user's recent ones.
+     */
+    boolean rememberIp(long hash, long nowMs) {
+        return remember(ipHashes, ipSeenAt, hash, nowMs);
+    }
+
+    boolean rememberDestination(long hash, long nowMs) {
+        return remember(destinationHashes, destinationSeenAt, hash, nowMs);
+    }
+
+    boolean isIdle(long nowMs, long idleMs) {
+        return lastTouchedMs < nowMs - idleMs && lastTouchedMs <= checkpointedMs;
+    }
+
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeByte(FORMAT_VERSION);
+        out.writeLong(lastTouchedMs);
+        recent.write(out);
+        baseline.write(out);
+        failures.write(out);
+        newDestinations.write(out);
+        writeLongs(out, ipHashes);
+        writeLongs(out, ipSeenAt);
+        writeLongs(out, destinationHashes);
+        writeLongs(out, destinationSeenAt);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    static UserRiskState fromBytes(byte[] bytes, AppProperties.Fraud config) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readByte() != FORMAT_VERSION) {
+            throw new IOException("Unknown risk state format");
+        }
+        UserRiskState state = new UserRiskState(config);
+        state.lastTouchedMs = in.readLong();
+        state.checkpointedMs = state.lastTouchedMs;
+        state.recent.read(in);
+        state.baseline.read(in);
+        state.failures.read(in);
+        state.newDestinations.read(in);
+        readLongs(in, state.ipHashes);
+        readLongs(in, state.ipSeenAt);
+        readLongs(in, state.destinationHashes);
+        readLongs(in, state.destinationSeenAt);
+        return state;
+    }
+
+    // Keeps the most recently seen values; the least recently seen one makes room for a new one
+    private static boolean remember(long[] hashes, long[] seenAt, long hash, long nowMs) {
+        int oldest = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] == hash) {
+                seenAt[i] = nowMs;
+                return false;
+            }
+            if (seenAt[i] < seenAt[oldest]) {
+                oldest = i;
+            }
+        }
+        hashes[oldest] = hash;
+        seenAt[oldest] = nowMs;
+        return true;
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void readLongs(DataInputStream in, long[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+    }
+}
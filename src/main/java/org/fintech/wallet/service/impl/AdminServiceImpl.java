@@ -12,11 +12,17 @@ import org.fintech.wallet.dto.request.AdminActionRequest;
 import org.fintech.wallet.dto.response.*;
 import org.fintech.wallet.exception.UserNotFoundException;
 import org.fintech.wallet.repository.LedgerRepository;
+import org.fintech.wallet.repository.TransactionQueryRepository;
 import org.fintech.wallet.repository.TransactionRepository;
 import org.fintech.wallet.repository.UserRepository;
 import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.repository.projection.TransactionReportRow;
+import org.fintech.wallet.security.UserPrincipalCache;
 import org.fintech.wallet.service.AdminService;
+import org.fintech.wallet.service.AuditService;
+import org.fintech.wallet.service.DashboardStatsService;
 import org.fintech.wallet.service.NotificationService;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -36,8 +42,12 @@ public class AdminServiceImpl implements AdminService {
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
     private final LedgerRepository ledgerRepository;
     private final NotificationService notificationService;
+    private final AuditService auditService;
+    private final UserPrincipalCache principalCache;
+    private final DashboardStatsService dashboardStatsService;
 
     /**
      * DASHBOARD & STATISTICS
@@ -45,114 +55,8 @@ public class AdminServiceImpl implements AdminService {
      */
 
     @Override
-    @Transactional(readOnly = true)
     public DashboardStatsResponse getDashboardStats() {
-        log.info("Fetching comprehensive dashboard statistics");
-
-        // User Statistics
-        long totalUsers = userRepository.count();
-        long activeUsers = userRepository.countByStatus(UserStatus.ACTIVE);
-        long suspendedUsers = userRepository.countByStatus(UserStatus.SUSPENDED);
-        long lockedUsers = userRepository.countByStatus(UserStatus.LOCKED);
-        long verifiedUsers = userRepository.countByKycStatus(KycStatus.VERIFIED);
-
-        // Wallet Statistics
-        long totalWallets = walletRepository.count();
-        long activeWallets = walletRepository.countByStatus(WalletStatus.ACTIVE);
-        long frozenWallets = walletRepository.countByStatus(WalletStatus.FROZEN);
-
-        // Calculate total balance across all wallets
-        List<Wallet> allWallets = walletRepository.findAll();
-        BigDecimal totalBalance = allWallets.stream()
-                .map(Wallet::getBalance)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Balance by currency
-        Map<org.fintech.wallet.domain.enums.Currency, BigDecimal> balanceByCurrency = allWallets.stream()
-                .collect(Collectors.groupingBy(
-                        Wallet::getCurrency,
-                        Collectors.mapping(
-                                Wallet::getBalance,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                        )
-                ));
-
-        // Transaction Statistics
-        long totalTransactions = transactionRepository.count();
-        long successfulTransactions = transactionRepository.countByStatus(TransactionStatus.SUCCESS);
-        long failedTransactions = transactionRepository.countByStatus(TransactionStatus.FAILED);
-        long pendingTransactions = transactionRepository.countByStatus(TransactionStatus.PENDING);
-
-        // Time-based statistics
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime last24Hours = now.minus(24, ChronoUnit.HOURS);
-        LocalDateTime last7Days = now.minus(7, ChronoUnit.DAYS);
-        LocalDateTime last30Days = now.minus(30, ChronoUnit.DAYS);
-
-        long transactionsLast24h = transactionRepository.countTransactionsSince(last24Hours);
-        long transactionsLast7d = transactionRepository.countTransactionsSince(last7Days);
-        long transactionsLast30d = transactionRepository.countTransactionsSince(last30Days);
-
-        // Transaction volume (amount)
-        BigDecimal volumeLast24h = transactionRepository.sumTransactionAmountSince(last24Hours);
-        BigDecimal volumeLast7d = transactionRepository.sumTransactionAmountSince(last7Days);
-        BigDecimal volumeLast30d = transactionRepository.sumTransactionAmountSince(last30Days);
-
-        // New users statistics
-        long newUsersLast24h = userRepository.countCreatedSince(last24Hours);
-        long newUsersLast7d = userRepository.countCreatedSince(last7Days);
-        long newUsersLast30d = userRepository.countCreatedSince(last30Days);
-
-        // KYC Statistics
-        long pendingKyc = userRepository.countByKycStatus(KycStatus.PENDING);
-        long rejectedKyc = userRepository.countByKycStatus(KycStatus.REJECTED);
-
-        // Transaction type breakdown
-        Map<TransactionType, Long> transactionsByType = Arrays.stream(TransactionType.values())
-                .collect(Collectors.toMap(
-                        type -> type,
-                        type -> transactionRepository.countByType(type)
-                ));
-
-        return DashboardStatsResponse.builder()
-                // User stats
-                .totalUsers(totalUsers)
-                .activeUsers(activeUsers)
-                .suspendedUsers(suspendedUsers)
-                .lockedUsers(lockedUsers)
-                .verifiedUsers(verifiedUsers)
-                .newUsersLast24h(newUsersLast24h)
-                .newUsersLast7d(newUsersLast7d)
-                .newUsersLast30d(newUsersLast30d)
-
-                // Wallet stats
-                .totalWallets(totalWallets)
-                .activeWallets(activeWallets)
-                .frozenWallets(frozenWallets)
-                .totalBalance(totalBalance)
-                .balanceByCurrency(balanceByCurrency)
-
-                // Transaction stats
-                .totalTransactions(totalTransactions)
-                .successfulTransactions(successfulTransactions)
-                .failedTransactions(failedTransactions)
-                .pendingTransactions(pendingTransactions)
-                .transactionsLast24h(transactionsLast24h)
-                .transactionsLast7d(transactionsLast7d)
-                .transactionsLast30d(transactionsLast30d)
-                .volumeLast24h(volumeLast24h != null ? volumeLast24h : BigDecimal.ZERO)
-                .volumeLast7d(volumeLast7d != null ? volumeLast7d : BigDecimal.ZERO)
-                .volumeLast30d(volumeLast30d != null ? volumeLast30d : BigDecimal.ZERO)
-
-                // KYC stats
-                .pendingKyc(pendingKyc)
-                .rejectedKyc(rejectedKyc)
-
-                // Transaction breakdown
-                .transactionsByType(transactionsByType)
-
-                .generatedAt(LocalDateTime.now())
-                .build();
+        return dashboardStatsService.getDashboardStats();
     }
 
     /**
@@ -213,11 +117,8 @@ public class AdminServiceImpl implements AdminService {
                 .collect(Collectors.toList());
 
         // Get recent transactions
-        List<Transaction> recentTransactions = transactionRepository
-                .findTop10ByUserIdOrderByCreatedAtDesc(userId);
-        List<TransactionResponse> transactionResponses = recentTransactions.stream()
-                .map(this::mapToTransactionResponse)
-                .collect(Collectors.toList());
+        List<TransactionResponse> transactionResponses = transactionQueryRepository
+                .findRecentByUserId(userId, Limit.of(10));
 
         // Calculate user statistics
         long totalTransactionCount = transactionRepository.countByUserId(userId);
@@ -250,6 +151,7 @@ public class AdminServiceImpl implements AdminService {
 
         // Update user status
         user.setStatus(UserStatus.SUSPENDED);
+        principalCache.invalidate(userId);
         user = userRepository.save(user);
 
         // Freeze all user wallets
@@ -270,7 +172,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "SUSPEND_USER", userId, request.getReason());
+        logAdminAction(adminId, "SUSPEND_USER", "USER", userId, request.getReason());
 
         log.info("User suspended successfully: {}", userId);
         return mapToUserResponse(user);
@@ -289,6 +191,7 @@ public class AdminServiceImpl implements AdminService {
 
         // Update user status
         user.setStatus(UserStatus.ACTIVE);
+        principalCache.invalidate(userId);
         user = userRepository.save(user);
 
         // Unfreeze all user wallets
@@ -310,7 +213,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "UNSUSPEND_USER", userId, note);
+        logAdminAction(adminId, "UNSUSPEND_USER", "USER", userId, note);
 
         log.info("User unsuspended successfully: {}", userId);
         return mapToUserResponse(user);
@@ -330,6 +233,7 @@ public class AdminServiceImpl implements AdminService {
 
         // Update user status
         user.setStatus(UserStatus.LOCKED);
+        principalCache.invalidate(userId);
         user = userRepository.save(user);
 
         // Freeze all user wallets
@@ -350,7 +254,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "LOCK_USER", userId, request.getReason());
+        logAdminAction(adminId, "LOCK_USER", "USER", userId, request.getReason());
 
         log.info("User locked successfully: {}", userId);
         return mapToUserResponse(user);
@@ -370,6 +274,7 @@ public class AdminServiceImpl implements AdminService {
 
         // Update user status
         user.setStatus(UserStatus.ACTIVE);
+        principalCache.invalidate(userId);
         user = userRepository.save(user);
 
         // Unfreeze all user wallets
@@ -391,7 +296,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "UNLOCK_USER", userId, note);
+        logAdminAction(adminId, "UNLOCK_USER", "USER", userId, note);
 
         log.info("User unlocked successfully: {}", userId);
         return mapToUserResponse(user);
@@ -425,6 +330,7 @@ public class AdminServiceImpl implements AdminService {
 
         // Soft delete - mark as closed instead of hard delete
         user.setStatus(UserStatus.CLOSED);
+        principalCache.invalidate(userId);
         userRepository.save(user);
 
         // Close all wallets
@@ -434,7 +340,7 @@ public class AdminServiceImpl implements AdminService {
         }
 
         // Log admin action
-        logAdminAction(adminId, "DELETE_USER", userId, request.getReason());
+        logAdminAction(adminId, "DELETE_USER", "USER", userId, request.getReason());
 
         log.info("User deleted (soft delete) successfully: {}", userId);
     }
@@ -466,33 +372,27 @@ public class AdminServiceImpl implements AdminService {
                 reference, userId, status, type, startDate, endDate);
 
         if (reference != null && !reference.isEmpty()) {
-            return transactionRepository.findByReferenceContaining(reference, pageable)
-                    .map(this::mapToTransactionResponse);
+            return transactionQueryRepository.findByReferenceContaining(reference, pageable);
         }
 
         if (userId != null && status != null && startDate != null && endDate != null) {
-            return transactionRepository.findByUserIdAndStatusAndDateRange(
-                            userId, status, startDate, endDate, pageable)
-                    .map(this::mapToTransactionResponse);
+            return transactionQueryRepository.findByUserIdAndStatusAndDateRange(
+                    userId, status, startDate, endDate, pageable);
         }
 
         if (userId != null) {
-            return transactionRepository.findByUserId(userId, pageable)
-                    .map(this::mapToTransactionResponse);
+            return transactionQueryRepository.findByUserId(userId, pageable);
         }
 
         if (status != null && type != null) {
-            return transactionRepository.findByStatusAndType(status, type, pageable)
-                    .map(this::mapToTransactionResponse);
+            return transactionQueryRepository.findByStatusAndType(status, type, pageable);
         }
 
         if (startDate != null && endDate != null) {
-            return transactionRepository.findByCreatedAtBetween(startDate, endDate, pageable)
-                    .map(this::mapToTransactionResponse);
+            return transactionQueryRepository.findByCreatedAtBetween(startDate, endDate, pageable);
         }
 
-        return transactionRepository.findAll(pageable)
-                .map(this::mapToTransactionResponse);
+        return transactionQueryRepository.findAllResponses(pageable);
     }
 
     @Override
@@ -537,7 +437,7 @@ public class AdminServiceImpl implements AdminService {
         transaction = transactionRepository.save(transaction);
 
         // Log admin action
-        logAdminAction(adminId, "REVERSE_TRANSACTION", reference, request.getReason());
+        logAdminAction(adminId, "REVERSE_TRANSACTION", "TRANSACTION", reference, request.getReason());
 
         log.info("Transaction reversed successfully: {}", reference);
         return mapToTransactionResponse(transaction);
@@ -573,7 +473,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "FREEZE_WALLET", walletId, request.getReason());
+        logAdminAction(adminId, "FREEZE_WALLET", "WALLET", walletId, request.getReason());
 
         log.info("Wallet frozen successfully: {}", walletId);
         return mapToWalletResponse(wallet);
@@ -599,7 +499,7 @@ public class AdminServiceImpl implements AdminService {
         );
 
         // Log admin action
-        logAdminAction(adminId, "UNFREEZE_WALLET", walletId, note);
+        logAdminAction(adminId, "UNFREEZE_WALLET", "WALLET", walletId, note);
 
         log.info("Wallet unfrozen successfully: {}", walletId);
         return mapToWalletResponse(wallet);
@@ -619,36 +519,23 @@ public class AdminServiceImpl implements AdminService {
 
         log.info("Generating transaction report: {} to {}", startDate, endDate);
 
-        List<Transaction> transactions = transactionRepository
-                .findByCreatedAtBetween(startDate, endDate);
-
-        long totalCount = transactions.size();
-        BigDecimal totalVolume = transactions.stream()
-                .filter(t -> t.getStatus() == TransactionStatus.SUCCESS)
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        Map<TransactionType, Long> countByType = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getType,
-                        Collectors.counting()
-                ));
-
-        Map<TransactionStatus, Long> countByStatus = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getStatus,
-                        Collectors.counting()
-                ));
-
-        Map<Currency, BigDecimal> volumeByCurrency = transactions.stream()
-                .filter(t -> t.getStatus() == TransactionStatus.SUCCESS)
-                .collect(Collectors.groupingBy(
-                        Transaction::getCurrency,
-                        Collectors.mapping(
-                                Transaction::getAmount,
-                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add)
-                        )
-                ));
+        // Aggregated in the database: memory depends on the number of groups, not the range
+        List<TransactionReportRow> rows = transactionRepository.aggregateByCreatedAtBetween(startDate, endDate);
+
+        long totalCount = 0;
+        BigDecimal totalVolume = BigDecimal.ZERO;
+        Map<TransactionType, Long> countByType = new EnumMap<>(TransactionType.class);
+        Map<TransactionStatus, Long> countByStatus = new EnumMap<>(TransactionStatus.class);
+        Map<Currency, BigDecimal> volumeByCurrency = new EnumMap<>(Currency.class);
+        for (TransactionReportRow row : rows) {
+            totalCount += row.getCount();
+            countByType.merge(row.getType(), row.getCount(), Long::sum);
+            countByStatus.merge(row.getStatus(), row.getCount(), Long::sum);
+            if (row.getStatus() == TransactionStatus.SUCCESS) {
+                totalVolume = totalVolume.add(row.getAmount());
+                volumeByCurrency.merge(row.getCurrency(), row.getAmount(), BigDecimal::add);
+            }
+        }
 
         return TransactionReportResponse.builder()
                 .startDate(startDate)
@@ -730,9 +617,9 @@ public class AdminServiceImpl implements AdminService {
                 .createdAt(entry.getCreatedAt())
                 .build();
     }
-    private void logAdminAction(UUID adminId, String action, Object targetId, String reason) {
+    private void logAdminAction(UUID adminId, String action, String entityType, Object targetId, String reason) {
         log.info("ADMIN_ACTION: admin={}, action={}, target={}, reason={}",
                 adminId, action, targetId, reason);
-        // create an audit table In phase 2 production, save to audit_logs table
+        auditService.logAdminAction(adminId, action, entityType, targetId, reason);
     }
 }
@@ -0,0 +1,129 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.LedgerEntry;
+import org.fintech.wallet.dto.event.AuditLogEvent;
+import org.fintech.wallet.dto.request.AuditLogSearchRequest;
+import org.fintech.wallet.dto.response.AuditLogResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.AuditLogRepository;
+import org.fintech.wallet.repository.HistoryCursor;
+import org.fintech.wallet.service.AuditService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditServiceImpl implements AuditService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final AuditLogRepository auditLogRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final AppProperties appProperties;
+
+    @Override
+    public void logAdminAction(UUID adminId, String action, String entityType, Object entityId, String details) {
+        kafkaProducerService.publishAuditLog(event(action)
+                .adminId(adminId)
+                .entityType(entityType)
+                .entityId(entityId != null ? entityId.toString() : null)
+                .details(details)
+                .build());
+    }
+
+    @Override
+    public void logUserAction(UUID userId, String action, String ipAddress, String details) {
+        kafkaProducerService.publishAuditLog(event(action)
+                .userId(userId)
+                .entityType("USER")
+                .entityId(userId != null ? userId.toString() : null)
+                .ipAddress(ipAddress)
+                .details(details)
+                .build());
+    }
+
+    @Override
+    public void logFailedUserAction(UUID userId, String action, String entityId, String ipAddress, String details) {
+        kafkaProducerService.publishAuditLogOnRollback(event(action)
+                .userId(userId)
+                .entityType("USER")
+                .entityId(entityId)
+                .ipAddress(ipAddress)
+                .details(details)
+                .build());
+    }
+
+    @Override
+    public void logBalanceChanges(List<LedgerEntry> entries) {
+        kafkaProducerService.publishAuditLogs(entries.stream()
+                .map(entry -> event("BALANCE_" + entry.getEntryType().name())
+                        .userId(entry.getWallet().getUser().getId())
+                        .entityType("WALLET")
+                        .entityId(entry.getWallet().getId().toString())
+                        .ipAddress(entry.getIpAddress())
+                        .details("amount=" + entry.getAmount()
+                                + ", balanceBefore=" + entry.getBalanceBefore()
+                                + ", balanceAfter=" + entry.getBalanceAfter()
+                                + ", reference=" + entry.getTransactionReference())
+                        .build())
+                .toList());
+    }
+
+    @Override
+    public int storeAll(List<AuditLogEvent> events) {
+        // Duplicate ids inside one poll (outbox redelivery) would otherwise be sent twice
+        Map<UUID, AuditLogEvent> unique = new LinkedHashMap<>();
+        for (AuditLogEvent event : events) {
+            if (event.getId() == null || event.getTimestamp() == null || event.getAction() == null) {
+                log.warn("Skipping incomplete audit event: id={}, action={}", event.getId(), event.getAction());
+                continue;
+            }
+            unique.putIfAbsent(event.getId(), event);
+        }
+        return auditLogRepository.insertAll(List.copyOf(unique.values()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditLogResponse> search(AuditLogSearchRequest request, String cursor, int size) {
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("A time range with from before to is required");
+        }
+        int maxDays = appProperties.getAudit().getMaxQueryRangeDays();
+        if (Duration.between(request.getFrom(), request.getTo()).toDays() > maxDays) {
+            throw new IllegalArgumentException("Time range must not exceed " + maxDays + " days");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        List<AuditLogResponse> rows = auditLogRepository.search(request, HistoryCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<AuditLogResponse> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        AuditLogResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPageResponse.<AuditLogResponse>builder()
+                .content(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new HistoryCursor(last.getOccurredAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    private static AuditLogEvent.AuditLogEventBuilder event(String action) {
+        return AuditLogEvent.builder()
+                .id(UUID.randomUUID())
+                .action(action)
+                .timestamp(LocalDateTime.now());
+    }
+}
@@ -9,11 +9,14 @@ import org.fintech.wallet.domain.enums.UserRole;
 import org.fintech.wallet.domain.enums.UserStatus;
 import org.fintech.wallet.dto.request.*;
 import org.fintech.wallet.dto.response.AuthResponse;
+import org.fintech.wallet.dto.response.SessionResponse;
 import org.fintech.wallet.dto.response.UserResponse;
 import org.fintech.wallet.exception.InvalidCredentialsException;
 import org.fintech.wallet.exception.UserAlreadyExistsException;
 import org.fintech.wallet.repository.UserRepository;
+import org.fintech.wallet.security.JwtClaims;
 import org.fintech.wallet.security.JwtTokenProvider;
+import org.fintech.wallet.service.AuditService;
 import org.fintech.wallet.service.AuthService;
 import org.fintech.wallet.service.FileStorageService;
 import org.fintech.wallet.service.NotificationService;
@@ -27,6 +30,7 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -35,14 +39,18 @@ import java.util.*;
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
+    private static final Duration SESSION_TTL = Duration.ofDays(7);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final UserSessionStore sessionStore;
     private final NotificationService notificationService;
     private final FileStorageService fileStorageService;
+    private final AuditService auditService;
 
     @Override
     @Transactional
@@ -80,6 +88,7 @@ public class AuthServiceImpl implements AuthService {
 
         user = userRepository.save(user);
         log.info("User registered successfully: {}", user.getEmail());
+        auditService.logUserAction(user.getId(), "USER_REGISTERED", ipAddress, "userAgent=" + userAgent);
 
         // Auto login after registration
         Authentication authentication = authenticationManager.authenticate(
@@ -89,10 +98,8 @@ public class AuthServiceImpl implements AuthService {
 
         String accessToken = jwtTokenProvider.generateAccessToken(authentication, sessionId, user.getId());
         String refreshToken = jwtTokenProvider.generateRefreshToken(authentication, sessionId,user.getId());
-        // store session
-        tokenBlacklistService.storeUserSession(user.getId(), sessionId, userAgent);
-        // Store refresh token in Redis (7 days)
-        tokenBlacklistService.storeRefreshToken(user.getId(), sessionId, refreshToken, 7);
+        // Store the session with its refresh token (7 days)
+        sessionStore.openSession(user.getId(), sessionId, refreshToken, userAgent, ipAddress, SESSION_TTL);
 
         Map<String, Object> meta = new HashMap<>();
         meta.put("ipAddress", ipAddress);
@@ -147,15 +154,13 @@ public class AuthServiceImpl implements AuthService {
             // Generate tokens
             String accessToken = jwtTokenProvider.generateAccessToken(authentication, sessionId,user.getId());
             String refreshToken = jwtTokenProvider.generateRefreshToken(authentication, sessionId, user.getId());
-            // store session
-            tokenBlacklistService.storeUserSession(user.getId(), sessionId, userAgent);
-
-            // Store refresh token in Redis (7 days)
-
-            tokenBlacklistService.storeRefreshToken(user.getId(), sessionId, refreshToken, 7);
+            // Store the session with its refresh token (7 days)
+            sessionStore.openSession(user.getId(), sessionId, refreshToken, userAgent, ipAddress, SESSION_TTL);
 
 
             log.info("User logged in successfully: {}", user.getEmail());
+            auditService.logUserAction(user.getId(), "LOGIN_SUCCESS", ipAddress,
+                    "sessionId=" + sessionId + ", userAgent=" + userAgent);
             Map<String, Object> meta = new HashMap<>();
             meta.put("ipAddress", ipAddress);
             meta.put("userAgent", userAgent);
@@ -184,6 +189,8 @@ public class AuthServiceImpl implements AuthService {
 
         } catch (Exception e) {
             log.error("Login failed for user: {}", request.getEmail(), e);
+            auditService.logFailedUserAction(null, "LOGIN_FAILED", request.getEmail(), ipAddress,
+                    "userAgent=" + userAgent);
             throw new InvalidCredentialsException("Invalid email or password");
         }
     }
@@ -193,19 +200,18 @@ public class AuthServiceImpl implements AuthService {
     public void logout(UUID userId, String accessToken) {
         log.info("Logout requested for user: {}", userId);
 
-        String sessionId = jwtTokenProvider.getSessionIdFromToken(accessToken);
+        JwtClaims claims = jwtTokenProvider.parse(accessToken);
+        String sessionId = claims.sessionId();
 
         // 1. Blacklist access token
-        long remainingTime = jwtTokenProvider.getTokenExpirationTime(accessToken);
+        long remainingTime = claims.remainingSeconds();
         if (remainingTime > 0) {
-            tokenBlacklistService.blacklistToken(accessToken, remainingTime);
+            tokenBlacklistService.blacklistToken(claims.tokenId(), remainingTime);
         }
 
-        // Invalidate refresh token for THIS session
-        tokenBlacklistService.invalidateRefreshToken(userId, sessionId);
-
-        // Remove user session
-        tokenBlacklistService.removeUserSession(userId, sessionId);
+        // Remove this session, and with it its refresh token
+        sessionStore.removeSession(userId, sessionId);
+        auditService.logUserAction(userId, "LOGOUT", null, "sessionId=" + sessionId);
         log.info("User logged out successfully: {}", userId);
     }
 
@@ -213,28 +219,39 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public void logoutAllDevices(UUID userId) {
         log.info("Logout from all devices requested for user: {}", userId);
-        // Remove all sessions
-        tokenBlacklistService.logoutAllDevices(userId);
-
-        // Remove all refresh tokens
-        tokenBlacklistService.invalidateAllRefreshTokens(userId);
+        // Remove all sessions and their refresh tokens
+        sessionStore.removeAllSessions(userId);
 
         // Update lastLogoutAt to invalidate all access tokens
         tokenBlacklistService.updateLastLogoutAt(userId);
+        auditService.logUserAction(userId, "LOGOUT_ALL_DEVICES", null, null);
         log.info("User logged out from all devices: {}", userId);
     }
 
+    @Override
+    public List<SessionResponse> getActiveSessions(UUID userId) {
+        return sessionStore.getActiveSessions(userId);
+    }
+
 
     @Override
     @Transactional
     public AuthResponse refreshToken(String refreshToken, String userAgent) {
         log.info("Refreshing token");
 
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        JwtClaims refreshClaims = jwtTokenProvider.verify(refreshToken);
+        if (refreshClaims == null) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+
+        // The refresh token must still belong to a live session; logout removes it
+        String sessionId = refreshClaims.sessionId();
+        if (refreshClaims.userId() == null || sessionId == null
+                || !sessionStore.touchSession(refreshClaims.userId(), sessionId, refreshToken)) {
             throw new InvalidCredentialsException("Invalid refresh token");
         }
 
-        String email = jwtTokenProvider.getUsernameFromToken(refreshToken);
+        String email = refreshClaims.subject();
         User user = userDetailsService.getUserByEmail(email);
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
@@ -243,13 +260,9 @@ public class AuthServiceImpl implements AuthService {
                         .map(role -> new org.springframework.security.core.authority.SimpleGrantedAuthority(role.name()))
                         .collect(java.util.stream.Collectors.toList())
         );
-        //generate session id
-        String sessionId = UUID.randomUUID().toString();
+        // The new access token stays in the refresh token's session
         String newAccessToken = jwtTokenProvider.generateAccessToken(authentication,sessionId,user.getId());
-        // store session
-        tokenBlacklistService.storeUserSession(user.getId(), sessionId, userAgent);
-        // Store refresh token in Redis (7 days)
-        tokenBlacklistService.storeRefreshToken(user.getId(), sessionId, refreshToken, 7);
+        auditService.logUserAction(user.getId(), "TOKEN_REFRESHED", null, "sessionId=" + sessionId);
 
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
@@ -279,6 +292,7 @@ public class AuthServiceImpl implements AuthService {
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
 
+        auditService.logUserAction(userId, "PASSWORD_CHANGED", null, null);
         log.info("Password changed successfully for user: {}", userId);
     }
 
@@ -296,6 +310,7 @@ public class AuthServiceImpl implements AuthService {
 
         userRepository.save(user);
 
+        auditService.logUserAction(user.getId(), "PASSWORD_RESET", null, null);
         // Send email with temporary password
         log.info("Password reset completed for: {}", request.getEmail());
     }
@@ -315,6 +330,7 @@ public class AuthServiceImpl implements AuthService {
         user.setTransactionPin(passwordEncoder.encode(pin));
         userRepository.save(user);
 
+        auditService.logUserAction(userId, "TRANSACTION_PIN_SET", null, null);
         log.info("Transaction PIN set for user: {}", userId);
     }
 
@@ -341,6 +357,7 @@ public class AuthServiceImpl implements AuthService {
         user.setMfaSecret(secret);
         userRepository.save(user);
 
+        auditService.logUserAction(userId, "MFA_ENABLED", null, null);
         log.info("MFA enabled for user: {}", userId);
     }
 
@@ -354,6 +371,7 @@ public class AuthServiceImpl implements AuthService {
         user.setMfaSecret(null);
         userRepository.save(user);
 
+        auditService.logUserAction(userId, "MFA_DISABLED", null, null);
         log.info("MFA disabled for user: {}", userId);
     }
 
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.enums.UserStatus;
 import org.fintech.wallet.repository.UserRepository;
+import org.fintech.wallet.security.UserPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service("userDetailsService") // qualifier name
@@ -44,6 +46,14 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .collect(Collectors.toList());
     }
 
+    // Not readOnly: a principal reloaded after a status change must not come from a lagging replica
+    @Transactional
+    public UserPrincipal loadPrincipal(UUID userId) {
+        return userRepository.findById(userId)
+                .map(user -> UserPrincipal.of(user.getId(), user.getEmail(), user.getStatus(), user.getRoles()))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
@@ -0,0 +1,208 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.enums.Currency;
+import org.fintech.wallet.domain.enums.KycStatus;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.domain.enums.UserStatus;
+import org.fintech.wallet.domain.enums.WalletStatus;
+import org.fintech.wallet.dto.response.DashboardStatsResponse;
+import org.fintech.wallet.repository.DashboardStatsRepository;
+import org.fintech.wallet.repository.projection.DashboardStat;
+import org.fintech.wallet.service.DashboardStatsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dashboard reads an in-memory copy of dashboard_stats, reloaded after every fold run;
+ * building the response is a pass over a few hundred rows. Time windows are summed from
+ * hourly buckets, so "last 24h" may include up to an hour more than exactly 24 hours.
+ */
+@Service
+@Slf4j
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    private static final String USER_STATUS = "user.status";
+    private static final String USER_KYC = "user.kyc";
+    private static final String USER_CREATED = "user.created";
+    private static final String WALLET_STATUS = "wallet.status";
+    private static final String WALLET_CURRENCY = "wallet.currency";
+    private static final String TX_STATUS = "tx.status";
+    private static final String TX_TYPE = "tx.type";
+    private static final String TX_CREATED = "tx.created";
+
+    private final DashboardStatsRepository statsRepository;
+    private final AppProperties.DashboardStats config;
+
+    private volatile List<DashboardStat> snapshot;
+
+    public DashboardStatsServiceImpl(DashboardStatsRepository statsRepository, AppProperties appProperties) {
+        this.statsRepository = statsRepository;
+        this.config = appProperties.getDashboardStats();
+    }
+
+    @Override
+    public DashboardStatsResponse getDashboardStats() {
+        List<DashboardStat> stats = snapshot;
+        if (stats == null) {
+            stats = reload();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime last24Hours = hour(now.minusHours(24));
+        LocalDateTime last7Days = hour(now.minusDays(7));
+        LocalDateTime last30Days = hour(now.minusDays(30));
+
+        Map<Currency, BigDecimal> balanceByCurrency = new EnumMap<>(Currency.class);
+        Map<TransactionType, Long> transactionsByType = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TransactionType.values()) {
+            transactionsByType.put(type, 0L);
+        }
+        for (DashboardStat stat : stats) {
+            if (WALLET_CURRENCY.equals(stat.metric())) {
+                Currency currency = parse(Currency.class, stat.dimension());
+                if (currency != null) {
+                    balanceByCurrency.merge(currency, stat.amount(), BigDecimal::add);
+                }
+            } else if (TX_TYPE.equals(stat.metric())) {
+                TransactionType type = parse(TransactionType.class, stat.dimension());
+                if (type != null) {
+                    transactionsByType.merge(type, stat.count(), Long::sum);
+                }
+            }
+        }
+
+        return DashboardStatsResponse.builder()
+                // User stats
+                .totalUsers(total(stats, USER_STATUS))
+                .activeUsers(count(stats, USER_STATUS, UserStatus.ACTIVE))
+                .suspendedUsers(count(stats, USER_STATUS, UserStatus.SUSPENDED))
+                .lockedUsers(count(stats, USER_STATUS, UserStatus.LOCKED))
+                .verifiedUsers(count(stats, USER_KYC, KycStatus.VERIFIED))
+                .newUsersLast24h(countSince(stats, USER_CREATED, last24Hours))
+                .newUsersLast7d(countSince(stats, USER_CREATED, last7Days))
+                .newUsersLast30d(countSince(stats, USER_CREATED, last30Days))
+
+                // Wallet stats
+                .totalWallets(total(stats, WALLET_STATUS))
+                .activeWallets(count(stats, WALLET_STATUS, WalletStatus.ACTIVE))
+                .frozenWallets(count(stats, WALLET_STATUS, WalletStatus.FROZEN))
+                .totalBalance(balanceByCurrency.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .balanceByCurrency(balanceByCurrency)
+
+                // Transaction stats
+                .totalTransactions(total(stats, TX_STATUS))
+                .successfulTransactions(count(stats, TX_STATUS, TransactionStatus.SUCCESS))
+                .failedTransactions(count(stats, TX_STATUS, TransactionStatus.FAILED))
+                .pendingTransactions(count(stats, TX_STATUS, TransactionStatus.PENDING))
+                .transactionsLast24h(countSince(stats, TX_CREATED, last24Hours))
+                .transactionsLast7d(countSince(stats, TX_CREATED, last7Days))
+                .transactionsLast30d(countSince(stats, TX_CREATED, last30Days))
+                .volumeLast24h(amountSince(stats, TX_CREATED, last24Hours))
+                .volumeLast7d(amountSince(stats, TX_CREATED, last7Days))
+                .volumeLast30d(amountSince(stats, TX_CREATED, last30Days))
+
+                // KYC stats
+                .pendingKyc(count(stats, USER_KYC, KycStatus.PENDING))
+                .rejectedKyc(count(stats, USER_KYC, KycStatus.REJECTED))
+
+                // Transaction breakdown
+                .transactionsByType(transactionsByType)
+
+                .generatedAt(now)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int foldDeltas() {
+        int folded = 0;
+        if (statsRepository.tryLockForFold()) {
+            for (int batch = 0; batch < config.getMaxFoldBatches(); batch++) {
+                int merged = statsRepository.fold(config.getFoldBatchSize());
+                folded += merged;
+                if (merged < config.getFoldBatchSize()) {
+                    break;
+                }
+            }
+        }
+        // Reload even when another node did the folding, so every node sees it
+        reload();
+        return folded;
+    }
+
+    @Override
+    @Transactional
+    public int recompute() {
+        statsRepository.lockForRecompute();
+        int corrected = statsRepository.recompute(windowStart());
+        reload();
+        return corrected;
+    }
+
+    @Override
+    @Transactional
+    public int seedIfEmpty() {
+        return statsRepository.hasTotals() ? 0 : recompute();
+    }
+
+    private List<DashboardStat> reload() {
+        List<DashboardStat> stats = List.copyOf(statsRepository.findAll(windowStart()));
+        snapshot = stats;
+        return stats;
+    }
+
+    private LocalDateTime windowStart() {
+        return hour(LocalDateTime.now().minusDays(config.getWindowDays()));
+    }
+
+    private static long total(List<DashboardStat> stats, String metric) {
+        return stats.stream()
+                .filter(stat -> stat.metric().equals(metric))
+                .mapToLong(DashboardStat::count)
+                .sum();
+    }
+
+    private static long count(List<DashboardStat> stats, String metric, Enum<?> dimension) {
+        return stats.stream()
+                .filter(stat -> stat.metric().equals(metric) && stat.dimension().equals(dimension.name()))
+                .mapToLong(DashboardStat::count)
+                .sum();
+    }
+
+    private static long countSince(List<DashboardStat> stats, String metric, LocalDateTime since) {
+        return stats.stream()
+                .filter(stat -> stat.metric().equals(metric) && !stat.bucket().isBefore(since))
+                .mapToLong(DashboardStat::count)
+                .sum();
+    }
+
+    private static BigDecimal amountSince(List<DashboardStat> stats, String metric, LocalDateTime since) {
+        return stats.stream()
+                .filter(stat -> stat.metric().equals(metric) && !stat.bucket().isBefore(since))
+                .map(DashboardStat::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static LocalDateTime hour(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown {} in dashboard stats: {}", type.getSimpleName(), value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.domain.entity.DeadLetterRecord;
+import org.fintech.wallet.domain.enums.DeadLetterStatus;
+import org.fintech.wallet.dto.response.DeadLetterResponse;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.DeadLetterRecordRepository;
+import org.fintech.wallet.service.DeadLetterService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterServiceImpl implements DeadLetterService {
+
+    private final DeadLetterRecordRepository deadLetterRepository;
+    private final KafkaProducerService kafkaProducerService;
+
+    @Override
+    @Transactional
+    public int storeAll(List<DeadLetterRecord> records) {
+        List<DeadLetterRecord> fresh = records.stream()
+                .filter(r -> !deadLetterRepository.existsByOriginalTopicAndDltPartitionAndDltOffset(
+                        r.getOriginalTopic(), r.getDltPartition(), r.getDltOffset()))
+                .toList();
+        deadLetterRepository.saveAll(fresh);
+        return fresh.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<DeadLetterResponse> getDeadLetters(String topic, DeadLetterStatus status, Pageable pageable) {
+        DeadLetterStatus filter = status != null ? status : DeadLetterStatus.PENDING;
+        return deadLetterRepository.search(topic, filter, pageable).map(this::mapToResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeadLetterResponse getDeadLetter(UUID id) {
+        return mapToResponse(getRecord(id));
+    }
+
+    @Override
+    @Transactional
+    public DeadLetterResponse replay(UUID id, UUID adminId) {
+        DeadLetterRecord record = getPendingRecord(id);
+
+        kafkaProducerService.republish(record.getOriginalTopic(),
+                record.getMessageKey() != null ? record.getMessageKey() : record.getId().toString(),
+                record.getPayloadType(), record.getPayload());
+
+        resolve(record, DeadLetterStatus.REPLAYED, adminId);
+        log.info("Dead letter replayed: id={}, topic={}, admin={}", id, record.getOriginalTopic(), adminId);
+        return mapToResponse(record);
+    }
+
+    @Override
+    @Transactional
+    public DeadLetterResponse discard(UUID id, UUID adminId) {
+        DeadLetterRecord record = getPendingRecord(id);
+        resolve(record, DeadLetterStatus.DISCARDED, adminId);
+        log.info("Dead letter discarded: id={}, topic={}, admin={}", id, record.getOriginalTopic(), adminId);
+        return mapToResponse(record);
+    }
+
+    private void resolve(DeadLetterRecord record, DeadLetterStatus status, UUID adminId) {
+        record.setStatus(status);
+        record.setResolvedAt(LocalDateTime.now());
+        record.setResolvedBy(adminId);
+        deadLetterRepository.save(record);
+    }
+
+    private DeadLetterRecord getPendingRecord(UUID id) {
+        DeadLetterRecord record = getRecord(id);
+        if (record.getStatus() != DeadLetterStatus.PENDING) {
+            throw new IllegalArgumentException("Dead letter is already " + record.getStatus());
+        }
+        return record;
+    }
+
+    private DeadLetterRecord getRecord(UUID id) {
+        return deadLetterRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Dead letter not found: " + id));
+    }
+
+    private DeadLetterResponse mapToResponse(DeadLetterRecord record) {
+        return DeadLetterResponse.builder()
+                .id(record.getId())
+                .originalTopic(record.getOriginalTopic())
+                .dltPartition(record.getDltPartition())
+                .dltOffset(record.getDltOffset())
+                .messageKey(record.getMessageKey())
+                .payloadType(record.getPayloadType())
+                .payload(record.getPayload())
+                .attempts(record.getAttempts())
+                .errorMessage(record.getErrorMessage())
+                .status(record.getStatus())
+                .createdAt(record.getCreatedAt())
+                .resolvedAt(record.getResolvedAt())
+                .resolvedBy(record.getResolvedBy())
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.FundHold;
+import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.EntryType;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.fintech.wallet.dto.request.LedgerEntryRequest;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.FundHoldRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.LedgerService;
+import org.fintech.wallet.service.SpendLimitService;
+import org.fintech.wallet.service.WalletService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HoldServiceImpl implements HoldService {
+
+    private final FundHoldRepository holdRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletService walletService;
+    private final LedgerService ledgerService;
+    private final SpendLimitService spendLimitService;
+    private final KafkaProducerService kafkaProducerService;
+    private final AppProperties appProperties;
+
+    @Override
+    @Transactional
+    public FundHold placeHold(Wallet wallet, BigDecimal amount, String transactionReference, String description) {
+        BigDecimal balance = walletService.holdFunds(wallet, amount);
+
+        ledgerService.createEntry(LedgerEntryRequest.builder()
+                .wallet(wallet)
+                .entryType(EntryType.HOLD)
+                .amount(amount)
+                .balanceBefore(balance)
+                .transactionReference(transactionReference)
+                .idempotencyKey(transactionReference + "_HOLD")
+                .description(description)
+                .build());
+        spendLimitService.recordSpend(wallet.getUser().getId(), amount, 1);
+
+        FundHold hold = holdRepository.save(FundHold.builder()
+                .wallet(wallet)
+                .transactionReference(transactionReference)
+                .amount(amount)
+                .status(HoldStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusMinutes(appProperties.getTransaction().getHoldTtlMinutes()))
+                .build());
+
+        log.info("Hold placed: {} amount={} wallet={}", transactionReference, amount, wallet.getWalletNumber());
+        return hold;
+    }
+
+    @Override
+    @Transactional
+    public void captureHold(String transactionReference) {
+        FundHold hold = getHold(transactionReference);
+        if (!claim(hold, HoldStatus.CAPTURED, null)) {
+            return;
+        }
+
+        Wallet wallet = hold.getWallet();
+        BigDecimal balanceAfter = walletService.captureHeldFunds(wallet, hold.getAmount());
+        ledgerService.createEntry(LedgerEntryRequest.builder()
+                .wallet(wallet)
+                .entryType(EntryType.DEBIT)
+                .amount(hold.getAmount())
+                .balanceBefore(balanceAfter.add(hold.getAmount()))
+                .transactionReference(transactionReference)
+                .idempotencyKey(transactionReference + "_DEBIT")
+                .description("Capture of hold " + transactionReference)
+                .countsTowardSpend(false)
+                .build());
+
+        Transaction transaction = updateTransaction(transactionReference, TransactionStatus.SUCCESS, null);
+        publishEvent(transaction, wallet, "COMPLETED", transaction.getDescription());
+        log.info("Hold captured: {}", transactionReference);
+    }
+
+    @Override
+    @Transactional
+    public void releaseHold(String transactionReference, String reason) {
+        release(getHold(transactionReference), HoldStatus.RELEASED, TransactionStatus.FAILED, reason);
+    }
+
+    @Override
+    @Transactional
+    public void expireHold(String transactionReference) {
+        release(getHold(transactionReference), HoldStatus.EXPIRED, TransactionStatus.EXPIRED,
+                "Hold expired before settlement");
+    }
+
+    // Not readOnly: this decides how a payout is settled, so it must not read a lagging replica
+    @Override
+    @Transactional
+    public boolean isActiveHold(String transactionReference) {
+        return holdRepository.existsByTransactionReferenceAndStatus(transactionReference, HoldStatus.ACTIVE);
+    }
+
+    private void release(FundHold hold, HoldStatus holdStatus, TransactionStatus transactionStatus, String reason) {
+        if (!claim(hold, holdStatus, reason)) {
+            return;
+        }
+
+        Wallet wallet = hold.getWallet();
+        BigDecimal balance = walletService.releaseHeldFunds(wallet, hold.getAmount());
+        ledgerService.createEntry(LedgerEntryRequest.builder()
+                .wallet(wallet)
+                .entryType(EntryType.HOLD_RELEASE)
+                .amount(hold.getAmount())
+                .balanceBefore(balance)
+                .transactionReference(hold.getTransactionReference())
+                .idempotencyKey(hold.getTransactionReference() + "_RELEASE")
+                .description(reason)
+                .build());
+        // Give back the spend counted when the hold was placed, on the day it was placed
+        spendLimitService.recordSpend(wallet.getUser().getId(), hold.getAmount().negate(), -1,
+                hold.getCreatedAt());
+
+        Transaction transaction = updateTransaction(hold.getTransactionReference(), transactionStatus, reason);
+        publishEvent(transaction, wallet, "FAILED", reason);
+        log.info("Hold {}: {} ({})", holdStatus.name().toLowerCase(), hold.getTransactionReference(), reason);
+    }
+
+    // Only the caller whose UPDATE moves the hold out of ACTIVE applies the balance change
+    private boolean claim(FundHold hold, HoldStatus target, String note) {
+        int updated = holdRepository.transition(hold.getId(), HoldStatus.ACTIVE, target, LocalDateTime.now(), note);
+        if (updated == 0) {
+            HoldStatus current = holdRepository.findById(hold.getId())
+                    .map(FundHold::getStatus)
+                    .orElseThrow();
+            if (current == target) {
+                log.info("Hold {} already {}", hold.getTransactionReference(), target);
+                return false;
+            }
+            throw new IllegalStateException("Hold " + hold.getTransactionReference() + " is already " + current);
+        }
+        return true;
+    }
+
+    private FundHold getHold(String transactionReference) {
+        return holdRepository.findByTransactionReference(transactionReference)
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found: " + transactionReference));
+    }
+
+    private Transaction updateTransaction(String reference, TransactionStatus status, String failureReason) {
+        Transaction transaction = transactionRepository.findByReference(reference)
+                .orElseThrow(() -> new IllegalStateException("Transaction not found for hold: " + reference));
+        transaction.setStatus(status);
+        transaction.setFailureReason(failureReason);
+        transaction.setCompletedAt(LocalDateTime.now());
+        return transactionRepository.save(transaction);
+    }
+
+    private void publishEvent(Transaction transaction, Wallet wallet, String eventType, String description) {
+        try {
+            kafkaProducerService.publishTransactionEvent(TransactionEvent.builder()
+                    .transactionId(transaction.getId())
+                    .reference(transaction.getReference())
+                    .sourceWalletId(wallet.getId())
+                    .userId(wallet.getUser().getId())
+                    .type(transaction.getType())
+                    .status(transaction.getStatus())
+                    .amount(transaction.getAmount())
+                    .currency(transaction.getCurrency() != null ? transaction.getCurrency().name() : null)
+                    .description(description)
+                    .timestamp(LocalDateTime.now())
+                    .eventType(eventType)
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to publish transaction event: {}", transaction.getReference(), e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.fintech.wallet.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.IdService;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style references (41 bits of milliseconds since 2024-01-01, 10 bits of node id,
+ * 12 bits of per-millisecond sequence) and block-allocated wallet numbers.
+ * <p>
+ * The node id is {@code app.ids.node-id} when set. Otherwise the instance leases a free one in
+ * Redis, renews the lease while it runs and stops issuing references if it cannot renew in time,
+ * so two running instances never share a node id.
+ */
+@Service
+@Slf4j
+public class IdServiceImpl implements IdService {
+
+    private static final long EPOCH_MS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final String LEASE_PREFIX = "ids:node:";
+    private static final Duration LEASE_TTL = Duration.ofSeconds(30);
+    private static final long LEASE_RENEW_INTERVAL_MS = 10_000;
+
+    // Extends the lease if this instance still holds it, or takes it back if it expired unclaimed
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local owner = redis.call('GET', KEYS[1])
+            if owner == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end
+            if not owner then
+                redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end
+            return 0
+            """, Long.class);
+
+    // Must match INCREMENT BY of wallet_number_seq (V4 migration)
+    static final long WALLET_NUMBER_BLOCK_SIZE = 100;
+    private static final String WALLET_NUMBER_PREFIX = "WLT";
+    private static final int WALLET_NUMBER_DIGITS = 10;
+
+    private final WalletRepository walletRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean leased;
+    private final String leaseToken = UUID.randomUUID().toString();
+    private volatile long nodeId;
+    // Ids are refused from this wall-clock time on, until the lease is renewed
+    private volatile long leaseValidUntil = Long.MAX_VALUE;
+
+    // Packed (timestamp << SEQUENCE_BITS | sequence) of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    private long nextWalletNumber;
+    private long walletNumberBlockEnd;
+
+    public IdServiceImpl(WalletRepository walletRepository, RedisTemplate<String, String> redisTemplate,
+                         AppProperties appProperties) {
+        this.walletRepository = walletRepository;
+        this.redisTemplate = redisTemplate;
+        Integer configured = appProperties.getIds().getNodeId();
+        this.leased = configured == null;
+        this.nodeId = leased ? acquireLease() : validNodeId(configured);
+        log.info("Id service started with {} node id {}", leased ? "leased" : "configured", nodeId);
+    }
+
+    @Override
+    public String nextReference(String prefix) {
+        return prefix.concat(Long.toString(nextId()));
+    }
+
+    @Override
+    public synchronized String nextWalletNumber() {
+        if (nextWalletNumber >= walletNumberBlockEnd) {
+            long blockStart = walletRepository.nextWalletNumberBlock();
+            nextWalletNumber = blockStart;
+            walletNumberBlockEnd = blockStart + WALLET_NUMBER_BLOCK_SIZE;
+        }
+        return formatWalletNumber(nextWalletNumber++);
+    }
+
+    long nextId() {
+        while (true) {
+            long previous = lastState.get();
+            long previousTimestamp = previous >>> SEQUENCE_BITS;
+            long wallClock = System.currentTimeMillis();
+            if (wallClock >= leaseValidUntil) {
+                throw new IllegalStateException("Node id lease " + nodeId + " expired; is Redis reachable?");
+            }
+            long now = wallClock - EPOCH_MS;
+
+            long next;
+            if (now > previousTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // Same millisecond, or the clock stepped back: keep counting on the last timestamp
+                long sequence = (previous & SEQUENCE_MASK) + 1;
+                if (sequence > SEQUENCE_MASK) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                next = previous + 1;
+            }
+
+            if (lastState.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // WLT + 10-digit sequence value + Luhn digit. Legacy random numbers are one digit shorter,
+    // so the two schemes can never produce the same number.
+    static String formatWalletNumber(long value) {
+        char[] chars = new char[WALLET_NUMBER_PREFIX.length() + WALLET_NUMBER_DIGITS + 1];
+        WALLET_NUMBER_PREFIX.getChars(0, WALLET_NUMBER_PREFIX.length(), chars, 0);
+
+        int sum = 0;
+        long remaining = value;
+        for (int i = 0; i < WALLET_NUMBER_DIGITS; i++) {
+            int digit = (int) (remaining % 10);
+            remaining /= 10;
+            chars[WALLET_NUMBER_PREFIX.length() + WALLET_NUMBER_DIGITS - 1 - i] = (char) ('0' + digit);
+
+            // Rightmost payload digit is doubled since the check digit follows it
+            if (i % 2 == 0) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+        }
+        if (remaining != 0) {
+            throw new IllegalStateException("Wallet number space exhausted");
+        }
+        chars[chars.length - 1] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(chars);
+    }
+
+    @Scheduled(fixedDelay = LEASE_RENEW_INTERVAL_MS)
+    public void renewLease() {
+        if (!leased) {
+            return;
+        }
+        long renewedAt = System.currentTimeMillis();
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(LEASE_PREFIX + nodeId),
+                    leaseToken, String.valueOf(LEASE_TTL.toMillis()));
+            if (renewed != null && renewed == 1) {
+                leaseValidUntil = renewedAt + LEASE_TTL.toMillis();
+                return;
+            }
+            // Only possible after the lease expired, and no id was issued since then
+            long lost = nodeId;
+            nodeId = acquireLease();
+            log.warn("Node id lease {} was taken by another instance, now using node id {}", lost, nodeId);
+        } catch (Exception e) {
+            log.error("Failed to renew node id lease {}; references stop at {}", nodeId, leaseValidUntil, e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leased) {
+            leaseValidUntil = 0;
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(LEASE_PREFIX + nodeId), leaseToken);
+            } catch (Exception e) {
+                log.warn("Failed to release node id lease {}; it expires on its own", nodeId, e);
+            }
+        }
+    }
+
+    // Starts at a random id so instances booting together rarely contend for the same key
+    private long acquireLease() {
+        int start = ThreadLocalRandom.current().nextInt((int) MAX_NODE_ID + 1);
+        for (long i = 0; i <= MAX_NODE_ID; i++) {
+            long candidate = (start + i) & MAX_NODE_ID;
+            long claimedAt = System.currentTimeMillis();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(LEASE_PREFIX + candidate, leaseToken, LEASE_TTL))) {
+                leaseValidUntil = claimedAt + LEASE_TTL.toMillis();
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("All " + (MAX_NODE_ID + 1) + " node ids are leased");
+    }
+
+    private static long validNodeId(int configured) {
+        if (configured < 0 || configured > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.ids.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        return configured;
+    }
+}
@@ -6,22 +6,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.fintech.wallet.domain.entity.LedgerEntry;
 import org.fintech.wallet.domain.enums.EntryType;
 import org.fintech.wallet.dto.request.LedgerEntryRequest;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+import org.fintech.wallet.dto.response.LedgerResponse;
+import org.fintech.wallet.exception.WalletAuthorizeException;
+import org.fintech.wallet.repository.HistoryCursor;
 import org.fintech.wallet.repository.LedgerRepository;
+import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.AuditService;
 import org.fintech.wallet.service.LedgerService;
+import org.fintech.wallet.service.SpendLimitService;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LedgerServiceImpl implements LedgerService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final LedgerRepository ledgerRepository;
+    private final WalletRepository walletRepository;
+    private final SpendLimitService spendLimitService;
+    private final AuditService auditService;
     @Override
     @Transactional
     public LedgerEntry createEntry(LedgerEntryRequest request) {
@@ -35,36 +52,80 @@ public class LedgerServiceImpl implements LedgerService {
                     .orElseThrow();
         }
 
-        BigDecimal balanceBefore = request.getWallet().getBalance();
-        BigDecimal balanceAfter = request.getEntryType() == EntryType.CREDIT
-                ? balanceBefore.add(request.getAmount())
-                : balanceBefore.subtract(request.getAmount());
-
-        LedgerEntry entry = LedgerEntry.builder()
-                .wallet(request.getWallet())
-                .entryType(request.getEntryType())
-                .amount(request.getAmount())
-                .balanceBefore(balanceBefore)
-                .balanceAfter(balanceAfter)
-                .transactionReference(request.getTransactionReference())
-                .idempotencyKey(request.getIdempotencyKey())
-                .description(request.getDescription())
-                .externalReference(request.getExternalReference())
-                .ipAddress(request.getIpAddress())
-                .build();
-
+        LedgerEntry entry = toEntity(request);
         entry = ledgerRepository.save(entry);
+        if (entry.getEntryType() == EntryType.DEBIT && request.isCountsTowardSpend()) {
+            spendLimitService.recordSpend(request.getWallet().getUser().getId(), entry.getAmount(), 1);
+        }
+        auditService.logBalanceChanges(List.of(entry));
         log.info("Ledger entry created: {}", entry.getId());
 
         return entry;
     }
     @Override
+    @Transactional
+    public List<LedgerEntry> createEntries(List<LedgerEntryRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Set<String> existingKeys = new HashSet<>(ledgerRepository.findExistingIdempotencyKeys(
+                requests.stream().map(LedgerEntryRequest::getIdempotencyKey).toList()));
+        if (!existingKeys.isEmpty()) {
+            log.warn("Skipping {} ledger entries with duplicate idempotency keys", existingKeys.size());
+        }
+
+        List<LedgerEntry> entries = requests.stream()
+                .filter(r -> !existingKeys.contains(r.getIdempotencyKey()))
+                .map(this::toEntity)
+                .toList();
+
+        List<LedgerEntry> saved = ledgerRepository.saveAll(entries);
+
+        // One counter update per spending user instead of one per debit
+        Set<String> uncountedKeys = requests.stream()
+                .filter(r -> !r.isCountsTowardSpend())
+                .map(LedgerEntryRequest::getIdempotencyKey)
+                .collect(Collectors.toSet());
+        saved.stream()
+                .filter(e -> e.getEntryType() == EntryType.DEBIT && !uncountedKeys.contains(e.getIdempotencyKey()))
+                .collect(Collectors.groupingBy(e -> e.getWallet().getUser().getId()))
+                .forEach((userId, debits) -> spendLimitService.recordSpend(userId,
+                        debits.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add),
+                        debits.size()));
+        auditService.logBalanceChanges(saved);
+        log.info("Created {} ledger entries in batch", saved.size());
+        return saved;
+    }
+    @Override
     @Transactional(readOnly = true)
     public Page<LedgerEntry> getWalletLedger(UUID walletId, Pageable pageable) {
         return ledgerRepository.findByWalletIdOrderByCreatedAtDesc(walletId, pageable);
     }
     @Override
     @Transactional(readOnly = true)
+    public CursorPageResponse<LedgerResponse> getWalletLedgerHistory(UUID walletId, UUID userId,
+                                                                     String cursor, int size) {
+        if (!walletRepository.existsByIdAndUserId(walletId, userId)) {
+            throw new WalletAuthorizeException("Unauthorized wallet access");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        HistoryCursor position = HistoryCursor.decode(cursor);
+
+        List<LedgerEntry> rows = ledgerRepository.findWalletEntriesBefore(
+                walletId, position.getCreatedAt(), position.getId(), Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<LedgerEntry> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        LedgerEntry last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPageResponse.<LedgerResponse>builder()
+                .content(page.stream().map(e -> mapToResponse(e, walletId)).toList())
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new HistoryCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+    @Override
+    @Transactional(readOnly = true)
     public BigDecimal calculateBalance(UUID walletId) {
         BigDecimal credits = ledgerRepository.sumAmountByWalletAndType(walletId, EntryType.CREDIT);
         BigDecimal debits = ledgerRepository.sumAmountByWalletAndType(walletId, EntryType.DEBIT);
@@ -74,4 +135,43 @@ public class LedgerServiceImpl implements LedgerService {
 
         return credits.subtract(debits);
     }
+
+    private LedgerEntry toEntity(LedgerEntryRequest request) {
+        BigDecimal balanceBefore = request.getBalanceBefore() != null
+                ? request.getBalanceBefore()
+                : request.getWallet().getBalance();
+        // HOLD / HOLD_RELEASE only move availableBalance, so balance stays as it was
+        BigDecimal balanceAfter = switch (request.getEntryType()) {
+            case CREDIT -> balanceBefore.add(request.getAmount());
+            case DEBIT -> balanceBefore.subtract(request.getAmount());
+            case HOLD, HOLD_RELEASE -> balanceBefore;
+        };
+
+        return LedgerEntry.builder()
+                .wallet(request.getWallet())
+                .entryType(request.getEntryType())
+                .amount(request.getAmount())
+                .balanceBefore(balanceBefore)
+                .balanceAfter(balanceAfter)
+                .transactionReference(request.getTransactionReference())
+                .idempotencyKey(request.getIdempotencyKey())
+                .description(request.getDescription())
+                .externalReference(request.getExternalReference())
+                .ipAddress(request.getIpAddress())
+                .build();
+    }
+
+    private LedgerResponse mapToResponse(LedgerEntry entry, UUID walletId) {
+        return LedgerResponse.builder()
+                .id(entry.getId())
+                .walletId(walletId)
+                .entryType(entry.getEntryType())
+                .amount(entry.getAmount())
+                .balanceBefore(entry.getBalanceBefore())
+                .balanceAfter(entry.getBalanceAfter())
+                .transactionReference(entry.getTransactionReference())
+                .description(entry.getDescription())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,63 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.service.ReportFileStore;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Report files in a directory on local disk ({@code app.report-jobs.storage-dir}).
+ */
+@Service
+@Slf4j
+public class LocalReportFileStore implements ReportFileStore {
+
+    private final Path directory;
+
+    public LocalReportFileStore(AppProperties appProperties) {
+        this.directory = Path.of(appProperties.getReportJobs().getStorageDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create report directory " + directory, e);
+        }
+    }
+
+    @Override
+    public OutputStream create(String key) throws IOException {
+        return Files.newOutputStream(resolve(key));
+    }
+
+    @Override
+    public Path open(String key) throws IOException {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            throw new FileNotFoundException("Report file not found: " + key);
+        }
+        return file;
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.warn("Failed to delete report file {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Path resolve(String key) {
+        Path file = directory.resolve(key).normalize();
+        if (!file.getParent().equals(directory)) {
+            throw new IllegalArgumentException("Invalid report file key: " + key);
+        }
+        return file;
+    }
+}
@@ -1,98 +1,233 @@
 package org.fintech.wallet.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
 import org.fintech.wallet.domain.entity.Notification;
 import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.enums.NotificationChannel;
+import org.fintech.wallet.domain.enums.NotificationPriority;
 import org.fintech.wallet.dto.event.NotificationEvent;
 import org.fintech.wallet.kafka.KafkaProducerService;
 import org.fintech.wallet.repository.NotificationRepository;
-import org.fintech.wallet.repository.UserRepository;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Sends notifications through their external channels on bounded per-channel executors
+ * (see {@link NotificationChannelExecutor}). The caller only hands the work over; the
+ * outcome is written back when the sends finish, and failures are scheduled for the retry
+ * job with exponential backoff.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationAsyncDispatcher {
 
+    private static final List<NotificationChannel> ALL_CHANNELS =
+            List.of(NotificationChannel.EMAIL, NotificationChannel.SMS, NotificationChannel.PUSH);
+
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
     private final KafkaProducerService kafkaProducerService;
+    private final AppProperties.NotificationDispatch config;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<NotificationChannel, NotificationChannelExecutor> executors =
+            new EnumMap<>(NotificationChannel.class);
+
+    public NotificationAsyncDispatcher(NotificationRepository notificationRepository,
+                                       KafkaProducerService kafkaProducerService,
+                                       AppProperties appProperties,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.config = appProperties.getNotificationDispatch();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // dispatch() runs from afterCommit callbacks, where the finished transaction is still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        executors.put(NotificationChannel.EMAIL, executor(NotificationChannel.EMAIL, config.getEmail(), meterRegistry));
+        executors.put(NotificationChannel.SMS, executor(NotificationChannel.SMS, config.getSms(), meterRegistry));
+        executors.put(NotificationChannel.PUSH, executor(NotificationChannel.PUSH, config.getPush(), meterRegistry));
+    }
+
+    /**
+     * Returns without waiting. Call after the notification is committed; its user must be loaded.
+     * ALL fans out to email, SMS and push in parallel and counts as sent once all three are.
+     */
+    public void dispatch(Notification notification) {
+        dispatchAll(List.of(notification));
+    }
+
+    /**
+     * {@link #dispatch} for a group of notifications. In-app ones are delivered by being stored,
+     * so they are marked sent together: one UPDATE and one batched event insert for the group.
+     */
+    public void dispatchAll(List<Notification> notifications) {
+        List<Delivery> inApp = new ArrayList<>();
+        for (Notification notification : notifications) {
+            Delivery delivery = Delivery.of(notification);
+            if (delivery.channel() == NotificationChannel.IN_APP) {
+                inApp.add(delivery);
+            } else {
+                submit(delivery);
+            }
+        }
+        if (!inApp.isEmpty()) {
+            try {
+                onAllSent(inApp);
+            } catch (Exception e) {
+                // Left unsent: the retry job picks them up once they are past the pending grace
+                log.error("Failed to record {} in-app deliveries", inApp.size(), e);
+            }
+        }
+    }
 
-    @Async
-    @Transactional
-    public void dispatch(UUID notificationId) {
-        Notification notification = notificationRepository.findById(notificationId).orElse(null);
-        if (notification == null) return;
-
-        User user = userRepository.findById(notification.getUser().getId()).orElse(null);
-        if (user == null) return;
-
-        try {
-            NotificationChannel channel = notification.getChannel();
-
-            // IN_APP means: saved in DB + considered sent
-            switch (channel) {
-                case IN_APP -> markAsSent(notification);
-                case EMAIL -> { sendEmail(notification, user); markAsSent(notification); }
-                case SMS -> { sendSms(notification, user); markAsSent(notification); }
-                case PUSH -> { sendPush(notification, user); markAsSent(notification); }
-                case ALL -> {
-                    sendEmail(notification, user);
-                    sendSms(notification, user);
-                    sendPush(notification, user);
-                    markAsSent(notification);
+    private void submit(Delivery delivery) {
+        List<NotificationChannel> targets = delivery.channel() == NotificationChannel.ALL
+                ? ALL_CHANNELS
+                : List.of(delivery.channel());
+        CompletableFuture<?>[] sends = targets.stream()
+                .map(channel -> executors.get(channel).submit(delivery.priority(), () -> send(channel, delivery)))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(sends).whenComplete((ignored, error) -> {
+            try {
+                if (error == null) {
+                    onSent(delivery);
+                } else {
+                    onFailed(delivery, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
                 }
+            } catch (Exception e) {
+                log.error("Failed to record dispatch result. id={}", delivery.notificationId(), e);
             }
+        });
+    }
 
-            // Publish analytics event
-            kafkaProducerService.publishNotificationEvent(NotificationEvent.builder()
-                    .notificationId(notification.getId())
-                    .userId(notification.getUser().getId())
-                    .type(notification.getType().name())
-                    .title(notification.getTitle())
-                    .message(notification.getMessage())
-                    .channel(notification.getChannel().name())
-                    .priority(notification.getPriority().name())
-                    .timestamp(LocalDateTime.now())
-                    .build());
-
-        } catch (Exception e) {
-            log.error("Failed to dispatch notification. id={}", notificationId, e);
-            notification.setRetryCount(notification.getRetryCount() + 1);
-            notification.setErrorMessage(e.getMessage());
-            notificationRepository.save(notification);
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executors.values().forEach(NotificationChannelExecutor::shutdown);
+        for (NotificationChannelExecutor executor : executors.values()) {
+            if (!executor.awaitTermination(config.getShutdownTimeoutMs())) {
+                // Anything still queued keeps isSent=false and is resent by the retry job after the pending grace
+                log.warn("Notification executor did not drain within {} ms", config.getShutdownTimeoutMs());
+            }
+        }
+    }
+
+    private void send(NotificationChannel channel, Delivery delivery) {
+        switch (channel) {
+            case EMAIL -> sendEmail(delivery);
+            case SMS -> sendSms(delivery);
+            case PUSH -> sendPush(delivery);
+            default -> throw new IllegalArgumentException("Not an external channel: " + channel);
         }
     }
 
-    private void sendEmail(Notification notification, User user) {
-        log.info("Sending email notification to: {}", user.getEmail());
+    private void sendEmail(Delivery delivery) {
+        log.info("Sending email notification to: {}", delivery.email());
         // TODO: plug real email service
     }
 
-    private void sendSms(Notification notification, User user) {
-        if (user.getPhoneNumber() != null) {
-            log.info("Sending SMS notification to: {}", user.getPhoneNumber());
+    private void sendSms(Delivery delivery) {
+        if (delivery.phoneNumber() != null) {
+            log.info("Sending SMS notification to: {}", delivery.phoneNumber());
             // TODO: plug real SMS service
         }
     }
 
-    private void sendPush(Notification notification, User user) {
-        log.info("Sending push notification to user: {}", user.getId());
+    private void sendPush(Delivery delivery) {
+        log.info("Sending push notification to user: {}", delivery.userId());
         // TODO: plug real push service
     }
 
-    private void markAsSent(Notification notification) {
-        if (!Boolean.TRUE.equals(notification.getIsSent())) {
-            notification.setIsSent(true);
-            notification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(notification);
+    private void onSent(Delivery delivery) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (notificationRepository.markSent(delivery.notificationId(), LocalDateTime.now()) == 0) {
+                return;
+            }
+            // Publish analytics event
+            kafkaProducerService.publishNotificationEvent(sentEvent(delivery, LocalDateTime.now()));
+        });
+    }
+
+    private static NotificationEvent sentEvent(Delivery delivery, LocalDateTime timestamp) {
+        return NotificationEvent.builder()
+                .notificationId(delivery.notificationId())
+                .userId(delivery.userId())
+                .type(delivery.type())
+                .title(delivery.title())
+                .message(delivery.message())
+                .channel(delivery.channel().name())
+                .priority(delivery.priority().name())
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private void onAllSent(List<Delivery> deliveries) {
+        List<UUID> ids = deliveries.stream().map(Delivery::notificationId).toList();
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (notificationRepository.markAllSent(ids, LocalDateTime.now()) == 0) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            kafkaProducerService.publishNotificationEvents(deliveries.stream()
+                    .map(delivery -> sentEvent(delivery, now))
+                    .toList());
+        });
+    }
+
+    private void onFailed(Delivery delivery, Throwable error) {
+        int attempt = delivery.retryCount() + 1;
+        double backoff = config.getInitialBackoffMs() * Math.pow(config.getMultiplier(), attempt - 1);
+        LocalDateTime nextRetryAt = attempt < config.getMaxRetries()
+                ? LocalDateTime.now().plusNanos((long) Math.min(backoff, config.getMaxBackoffMs()) * 1_000_000)
+                : null;
+
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        String errorMessage = message.length() > 500 ? message.substring(0, 500) : message;
+        transactionTemplate.executeWithoutResult(tx ->
+                notificationRepository.recordDispatchFailure(delivery.notificationId(), errorMessage, nextRetryAt));
+
+        if (nextRetryAt != null) {
+            log.warn("Notification dispatch failed, attempt {} retries at {}. id={}, error={}",
+                    attempt, nextRetryAt, delivery.notificationId(), errorMessage);
+        } else {
+            log.error("Notification dispatch failed for good after {} attempts. id={}",
+                    attempt, delivery.notificationId(), error);
+        }
+    }
+
+    private static NotificationChannelExecutor executor(NotificationChannel channel,
+                                                        AppProperties.NotificationDispatch.Channel limits,
+                                                        MeterRegistry meterRegistry) {
+        return new NotificationChannelExecutor(channel, limits.getConcurrency(), limits.getQueueCapacity(),
+                meterRegistry);
+    }
+
+    // Everything a send needs, captured up front so executor threads never touch the entity
+    private record Delivery(UUID notificationId, UUID userId, String email, String phoneNumber,
+                            NotificationChannel channel, NotificationPriority priority,
+                            String type, String title, String message, int retryCount) {
+
+        static Delivery of(Notification notification) {
+            User user = notification.getUser();
+            return new Delivery(notification.getId(), user.getId(), user.getEmail(), user.getPhoneNumber(),
+                    notification.getChannel(), notification.getPriority(), notification.getType().name(),
+                    notification.getTitle(), notification.getMessage(),
+                    notification.getRetryCount() != null ? notification.getRetryCount() : 0);
         }
     }
 }
@@ -0,0 +1,142 @@
+package org.fintech.wallet.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.fintech.wallet.domain.enums.NotificationChannel;
+import org.fintech.wallet.domain.enums.NotificationPriority;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends for one channel. The pool size is the provider's concurrency limit; waiting sends
+ * are ordered by priority, then by arrival. The queue is bounded by a semaphore because
+ * PriorityBlockingQueue itself is not: a send that finds it full fails straight away and is
+ * picked up by the retry job instead of blocking the caller.
+ */
+final class NotificationChannelExecutor {
+
+    private final NotificationChannel channel;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final MeterRegistry meterRegistry;
+
+    NotificationChannelExecutor(NotificationChannel channel, int concurrency, int queueCapacity,
+                                MeterRegistry meterRegistry) {
+        this.channel = channel;
+        this.meterRegistry = meterRegistry;
+        this.capacity = new Semaphore(concurrency + queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "notify-" + channel.name().toLowerCase() + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        String tag = channel.name();
+        Gauge.builder("wallet.notification.dispatch.queue.depth", executor, e -> e.getQueue().size())
+                .description("Sends waiting for a provider slot")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        Gauge.builder("wallet.notification.dispatch.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Sends in progress")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("wallet.notification.dispatch.queue.wait")
+                .description("Time a send waited for a provider slot")
+                .tag("channel", tag)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("wallet.notification.dispatch.rejected")
+                .description("Sends refused because the channel queue was full")
+                .tag("channel", tag)
+                .register(meterRegistry);
+    }
+
+    CompletableFuture<Void> submit(NotificationPriority priority, Runnable send) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (!capacity.tryAcquire()) {
+            rejected.increment();
+            result.completeExceptionally(new RejectedExecutionException(channel + " dispatch queue is full"));
+            return result;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            execute(priority, send, result, enqueuedAt);
+        } catch (RejectedExecutionException e) {
+            // Shut down: the task never ran, so its slot is given back here
+            capacity.release();
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void execute(NotificationPriority priority, Runnable send, CompletableFuture<Void> result,
+                         long enqueuedAt) {
+        executor.execute(new PrioritizedSend(priority, sequence.incrementAndGet(), () -> {
+            long started = System.nanoTime();
+            queueWait.record(started - enqueuedAt, TimeUnit.NANOSECONDS);
+            Exception failure = null;
+            try {
+                send.run();
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                capacity.release();
+                Timer.builder("wallet.notification.dispatch.latency")
+                        .description("Provider send time")
+                        .tag("channel", channel.name())
+                        .tag("outcome", failure == null ? "success" : "failure")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            // Completed after the slot is released: dependent stages run on this thread
+            if (failure == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        }));
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean awaitTermination(long timeoutMs) throws InterruptedException {
+        return executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Higher priority first; FIFO among equal priorities
+    private record PrioritizedSend(NotificationPriority priority, long sequence, Runnable task)
+            implements Runnable, Comparable<PrioritizedSend> {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedSend other) {
+            int byPriority = Integer.compare(other.priority.ordinal(), priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
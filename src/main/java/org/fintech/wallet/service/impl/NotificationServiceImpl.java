@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
 import org.fintech.wallet.domain.entity.Notification;
 import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.enums.NotificationChannel;
@@ -14,6 +15,7 @@ import org.fintech.wallet.dto.request.SendNotificationRequest;
 import org.fintech.wallet.dto.response.NotificationResponse;
 import org.fintech.wallet.dto.response.NotificationStatsResponse;
 import org.fintech.wallet.repository.NotificationRepository;
+import org.fintech.wallet.repository.NotificationUnreadCounterRepository;
 import org.fintech.wallet.repository.UserRepository;
 import org.fintech.wallet.service.NotificationService;
 import org.fintech.wallet.service.realtime.NotificationRealtimePublisher;
@@ -36,11 +38,13 @@ import java.util.stream.Collectors;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationUnreadCounterRepository unreadCounterRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
 
     private final NotificationAsyncDispatcher asyncDispatcher;
     private final NotificationRealtimePublisher realtimePublisher;
+    private final AppProperties appProperties;
 
     /**
      * SEND NOTIFICATIONS
@@ -76,47 +80,20 @@ public class NotificationServiceImpl implements NotificationService {
             }
         }
 
-        String metadataJson = null;
-        if (request.getMetadata() != null) {
-            try {
-                metadataJson = objectMapper.writeValueAsString(request.getMetadata());
-            } catch (Exception e) {
-                log.warn("Failed to serialize notification metadata. Dropping metadata. user={}, type={}",
-                        request.getUserId(), request.getType(), e);
-            }
-        }
-
-        NotificationChannel channel = request.getChannel() != null ? request.getChannel() : NotificationChannel.ALL;
-        NotificationPriority priority = request.getPriority() != null ? request.getPriority() : NotificationPriority.MEDIUM;
-
-        Notification notification = Notification.builder()
-                .user(user)
-                .type(request.getType())
-                .title(request.getTitle())
-                .message(request.getMessage())
-                .referenceId(request.getReferenceId())
-                .channel(channel)
-                .priority(priority)
-                .isRead(false)
-                .isSent(false)
-                .metadata(metadataJson)
-                .retryCount(0)
-                .build();
+        Notification notification = notificationRepository.save(toEntity(request, user));
+        long unread = unreadCounterRepository.adjust(user.getId(), 1);
 
-        notification = notificationRepository.save(notification);
-
-        // Dispatch external channels asynchronously (IMPORTANT: @Async must be in a different bean)
-        asyncDispatcher.dispatch(notification.getId());
-
-        // Realtime push AFTER COMMIT to avoid “ghost notifications”
+        // Dispatch and realtime push AFTER COMMIT to avoid “ghost notifications”
         final UUID savedNotificationId = notification.getId();
         final UUID savedUserId = user.getId();
+        final Notification toDispatch = notification;
 
         runAfterCommit(() -> {
+            asyncDispatcher.dispatch(toDispatch);
             try {
                 Notification saved = notificationRepository.findById(savedNotificationId).orElse(null);
                 if (saved != null) {
-                    realtimePublisher.publishNew(savedUserId, mapToResponse(saved));
+                    realtimePublisher.publishNew(savedUserId, mapToResponse(saved), unread);
                 }
             } catch (Exception e) {
                 log.error("Realtime publish failed for notification={}", savedNotificationId, e);
@@ -127,6 +104,76 @@ public class NotificationServiceImpl implements NotificationService {
         return mapToResponse(notification);
     }
 
+    @Override
+    @Transactional
+    public List<NotificationResponse> sendNotifications(List<SendNotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> userIds = requests.stream()
+                .map(SendNotificationRequest::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+
+        // DEDUPE against stored notifications and within the batch (Kafka redelivers whole polls)
+        Set<String> referenceIds = requests.stream()
+                .map(SendNotificationRequest::getReferenceId)
+                .filter(ref -> ref != null && !ref.isBlank())
+                .collect(Collectors.toSet());
+        Set<String> seen = new HashSet<>();
+        if (!referenceIds.isEmpty() && !users.isEmpty()) {
+            notificationRepository.findDedupeKeys(users.keySet(), referenceIds)
+                    .forEach(k -> seen.add(dedupeKey(k.getUserId(), k.getType(), k.getReferenceId())));
+        }
+
+        List<Notification> notifications = new ArrayList<>(requests.size());
+        for (SendNotificationRequest request : requests) {
+            User user = users.get(request.getUserId());
+            if (user == null) {
+                log.warn("Skipping notification for unknown user: user={}, type={}",
+                        request.getUserId(), request.getType());
+                continue;
+            }
+            String referenceId = request.getReferenceId();
+            if (referenceId != null && !referenceId.isBlank()
+                    && !seen.add(dedupeKey(user.getId(), request.getType(), referenceId))) {
+                log.debug("Dedupe hit: user={}, type={}, ref={}", user.getId(), request.getType(), referenceId);
+                continue;
+            }
+            notifications.add(toEntity(request, user));
+        }
+
+        notifications = notificationRepository.saveAll(notifications);
+
+        List<NotificationResponse> responses = notifications.stream().map(this::mapToResponse).toList();
+        Map<UUID, List<NotificationResponse>> byUser = new LinkedHashMap<>();
+        for (int i = 0; i < notifications.size(); i++) {
+            byUser.computeIfAbsent(notifications.get(i).getUser().getId(), k -> new ArrayList<>())
+                    .add(responses.get(i));
+        }
+        Map<UUID, Long> unread = unreadCounterRepository.adjustAll(byUser.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> (long) e.getValue().size())));
+        List<Notification> saved = notifications;
+
+        runAfterCommit(() -> {
+            asyncDispatcher.dispatchAll(saved);
+            byUser.forEach((userId, created) -> {
+                try {
+                    realtimePublisher.publishNew(userId, created, unread.getOrDefault(userId, 0L));
+                } catch (Exception e) {
+                    log.error("Realtime publish failed for user={}", userId, e);
+                }
+            });
+        });
+
+        log.info("Notification batch stored: {} created, {} skipped", notifications.size(),
+                requests.size() - notifications.size());
+        return responses;
+    }
+
     @Override
     @Transactional
     public NotificationResponse sendNotification(UUID userId, NotificationType type,
@@ -200,7 +247,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public long getUnreadCount(UUID userId) {
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return unreadCounterRepository.findUnreadCount(userId).orElse(0L);
     }
 
     @Override
@@ -254,13 +301,10 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
-        if (!notification.getIsRead()) {
-            notification.setIsRead(true);
-            notification.setReadAt(LocalDateTime.now());
-            notificationRepository.save(notification);
-
+        if (notificationRepository.setRead(notificationId, true, LocalDateTime.now()) > 0) {
             UUID userId = notification.getUser().getId();
-            runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId));
+            long unread = unreadCounterRepository.adjust(userId, -1);
+            runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId, unread));
 
             log.info("Notification marked as read: {}", notificationId);
         }
@@ -272,12 +316,12 @@ public class NotificationServiceImpl implements NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
-        notification.setIsRead(false);
-        notification.setReadAt(null);
-        notificationRepository.save(notification);
-
+        if (notificationRepository.setRead(notificationId, false, null) == 0) {
+            return;
+        }
         UUID userId = notification.getUser().getId();
-        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId));
+        long unread = unreadCounterRepository.adjust(userId, 1);
+        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId, unread));
 
         log.info("Notification marked as unread: {}", notificationId);
     }
@@ -287,7 +331,8 @@ public class NotificationServiceImpl implements NotificationService {
     public int markAllAsRead(UUID userId) {
         int count = notificationRepository.markAllAsReadByUserId(userId, LocalDateTime.now());
 
-        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId));
+        long unread = unreadCounterRepository.adjust(userId, -count);
+        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId, unread));
 
         log.info("Marked {} notifications as read for user: {}", count, userId);
         return count;
@@ -300,12 +345,15 @@ public class NotificationServiceImpl implements NotificationService {
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
         UUID userId = notification.getUser().getId();
-        notificationRepository.delete(notification);
+        long unread;
+        if (notificationRepository.deleteIfUnread(notificationId) > 0) {
+            unread = unreadCounterRepository.adjust(userId, -1);
+        } else {
+            notificationRepository.deleteById(notificationId);
+            unread = getUnreadCount(userId);
+        }
 
-        runAfterCommit(() -> {
-            realtimePublisher.publishDeleted(userId, notificationId);
-            realtimePublisher.publishUnreadCount(userId);
-        });
+        runAfterCommit(() -> realtimePublisher.publishDeleted(userId, notificationId, unread));
 
         log.info("Notification deleted: {}", notificationId);
     }
@@ -313,9 +361,11 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional
     public void deleteAllNotifications(UUID userId) {
+        int unreadDeleted = notificationRepository.deleteUnreadByUserId(userId);
         notificationRepository.deleteByUserId(userId);
 
-        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId));
+        long unread = unreadCounterRepository.adjust(userId, -unreadDeleted);
+        runAfterCommit(() -> realtimePublisher.publishUnreadCount(userId, unread));
 
         log.info("All notifications deleted for user: {}", userId);
     }
@@ -329,6 +379,37 @@ public class NotificationServiceImpl implements NotificationService {
         return count;
     }
 
+    @Override
+    @Transactional
+    public int reconcileUnreadCounters() {
+        // Grace period: counters written since then may belong to transactions the COUNT cannot see yet
+        int corrected = unreadCounterRepository.rebuild(LocalDateTime.now().minusMinutes(1));
+        if (corrected > 0) {
+            log.warn("Corrected {} notification unread counters", corrected);
+        }
+        return corrected;
+    }
+
+    @Override
+    @Transactional
+    public int retryFailedNotifications() {
+        AppProperties.NotificationDispatch config = appProperties.getNotificationDispatch();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<UUID> ids = notificationRepository.findFailedNotificationsForRetry(
+                now, now.minusNanos(config.getPendingGraceMs() * 1_000_000), config.getMaxRetries(),
+                config.getRetryBatchSize());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Lease the claimed rows so other instances skip them while the sends are in flight
+        notificationRepository.leaseForRetry(ids, now.plusNanos(config.getRetryLeaseMs() * 1_000_000));
+        List<Notification> due = notificationRepository.findAllWithUserByIdIn(ids);
+
+        runAfterCommit(() -> asyncDispatcher.dispatchAll(due));
+        return due.size();
+    }
+
     /**
      * MAPPING
      * @param notification
@@ -360,6 +441,39 @@ public class NotificationServiceImpl implements NotificationService {
                 .build();
     }
 
+    private Notification toEntity(SendNotificationRequest request, User user) {
+        String metadataJson = null;
+        if (request.getMetadata() != null) {
+            try {
+                metadataJson = objectMapper.writeValueAsString(request.getMetadata());
+            } catch (Exception e) {
+                log.warn("Failed to serialize notification metadata. Dropping metadata. user={}, type={}",
+                        request.getUserId(), request.getType(), e);
+            }
+        }
+
+        NotificationChannel channel = request.getChannel() != null ? request.getChannel() : NotificationChannel.ALL;
+        NotificationPriority priority = request.getPriority() != null ? request.getPriority() : NotificationPriority.MEDIUM;
+
+        return Notification.builder()
+                .user(user)
+                .type(request.getType())
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .referenceId(request.getReferenceId())
+                .channel(channel)
+                .priority(priority)
+                .isRead(false)
+                .isSent(false)
+                .metadata(metadataJson)
+                .retryCount(0)
+                .build();
+    }
+
+    private String dedupeKey(UUID userId, NotificationType type, String referenceId) {
+        return userId + "|" + type + "|" + referenceId;
+    }
+
     private void runAfterCommit(Runnable task) {
         if (TransactionSynchronizationManager.isSynchronizationActive()) {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fintech.wallet.dto.request.InitiatePaymentRequest;
 import org.fintech.wallet.dto.response.PaymentResponse;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.IdService;
 import org.fintech.wallet.service.PaymentService;
+import org.fintech.wallet.service.PayoutService;
 import org.fintech.wallet.service.TransactionService;
 import org.fintech.wallet.service.payment.FlutterwaveService;
 import org.fintech.wallet.service.payment.PaystackService;
@@ -21,13 +24,16 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaystackService paystackService;
     private final FlutterwaveService flutterwaveService;
     private final TransactionService transactionService;
+    private final IdService idService;
+    private final HoldService holdService;
+    private final PayoutService payoutService;
 
     public PaymentResponse initiateDeposit(UUID walletId, BigDecimal amount,
                                            String email, String gateway) {
         log.info("Initiating deposit: wallet={}, amount={}, gateway={}",
                 walletId, amount, gateway);
 
-        String reference = generateReference("DEP");
+        String reference = idService.nextReference("DEP");
 
         InitiatePaymentRequest request = InitiatePaymentRequest.builder()
                 .userId(UUID.randomUUID()) // Get from context
@@ -56,6 +62,12 @@ public class PaymentServiceImpl implements PaymentService {
         log.info("Processing webhook: gateway={}, reference={}, status={}",
                 gateway, reference, status);
 
+        // Withdrawal payouts: the body's status is only a hint, the gateway's transfer API decides
+        if (holdService.isActiveHold(reference)) {
+            payoutService.reconcile(reference);
+            return;
+        }
+
         boolean verified = false;
         if ("PAYSTACK".equalsIgnoreCase(gateway)) {
             verified = paystackService.verifyTransaction(reference);
@@ -71,9 +83,4 @@ public class PaymentServiceImpl implements PaymentService {
             log.warn("Payment verification failed: {}", reference);
         }
     }
-
-    private String generateReference(String prefix) {
-        return String.format("%s%d%06d", prefix, System.currentTimeMillis(),
-                (int)(Math.random() * 1000000));
-    }
-}
\ No newline at end of file
+}
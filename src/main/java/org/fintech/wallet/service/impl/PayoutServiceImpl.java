@@ -0,0 +1,139 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.FundHold;
+import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.fintech.wallet.domain.enums.PayoutStatus;
+import org.fintech.wallet.repository.FundHoldRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.PayoutService;
+import org.fintech.wallet.service.payment.FlutterwaveService;
+import org.fintech.wallet.service.payment.PayoutResult;
+import org.fintech.wallet.service.payment.PaystackService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+@Service
+@Slf4j
+public class PayoutServiceImpl implements PayoutService {
+
+    static final String FLUTTERWAVE = "FLUTTERWAVE";
+    // An expired hold whose payout is still pending is asked about again after this long
+    private static final long PENDING_RECHECK_MINUTES = 30;
+
+    private final TransactionRepository transactionRepository;
+    private final FundHoldRepository holdRepository;
+    private final HoldService holdService;
+    private final PaystackService paystackService;
+    private final FlutterwaveService flutterwaveService;
+    private final AppProperties appProperties;
+    // startPayout runs from afterCommit callbacks: writes need their own transaction
+    private final TransactionTemplate writeTemplate;
+
+    public PayoutServiceImpl(TransactionRepository transactionRepository,
+                             FundHoldRepository holdRepository,
+                             HoldService holdService,
+                             PaystackService paystackService,
+                             FlutterwaveService flutterwaveService,
+                             AppProperties appProperties,
+                             PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.holdRepository = holdRepository;
+        this.holdService = holdService;
+        this.paystackService = paystackService;
+        this.flutterwaveService = flutterwaveService;
+        this.appProperties = appProperties;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void startPayout(String transactionReference, String bankAccount, String bankCode) {
+        Transaction transaction = transactionRepository.findByReference(transactionReference)
+                .orElseThrow(() -> new IllegalArgumentException("Transaction not found: " + transactionReference));
+        String currency = transaction.getCurrency().name();
+
+        PayoutResult result = isFlutterwave(transaction)
+                ? flutterwaveService.initiateTransfer(transactionReference, transaction.getAmount(), currency,
+                        bankAccount, bankCode, transaction.getDescription())
+                : paystackService.initiateTransfer(transactionReference, transaction.getAmount(), currency,
+                        bankAccount, bankCode, transaction.getDescription());
+
+        if (result.gatewayReference() != null) {
+            writeTemplate.executeWithoutResult(tx ->
+                    transactionRepository.setExternalReference(transactionReference, result.gatewayReference()));
+        }
+        log.info("Payout started: {} status={} gateway={}", transactionReference, result.status(),
+                transaction.getPaymentGateway());
+
+        // PENDING and unknown outcomes wait for the webhook or the sweeper
+        settle(transactionReference, transaction.getPaymentGateway(), result);
+    }
+
+    @Override
+    public void reconcile(String transactionReference) {
+        FundHold hold = holdRepository.findByTransactionReference(transactionReference).orElse(null);
+        if (hold == null || hold.getStatus() != HoldStatus.ACTIVE) {
+            return;
+        }
+        Transaction transaction = transactionRepository.findByReference(transactionReference)
+                .orElseThrow(() -> new IllegalStateException("Transaction not found for hold: " + transactionReference));
+
+        PayoutResult result = lookup(transaction);
+        if (result.status() == PayoutStatus.NOT_FOUND) {
+            // The transfer never reached the gateway (crash before the request, or a lost one):
+            // give the money back, but not while a payout could still be on its way
+            LocalDateTime graceEnd = hold.getCreatedAt()
+                    .plusMinutes(appProperties.getTransaction().getPayoutNotFoundGraceMinutes());
+            if (LocalDateTime.now().isAfter(graceEnd)) {
+                writeTemplate.executeWithoutResult(tx -> holdService.expireHold(transactionReference));
+            }
+            return;
+        }
+        if (result.status() == PayoutStatus.PENDING && hold.getExpiresAt().isBefore(LocalDateTime.now())) {
+            // Money may still leave the gateway: keep the hold, but out of the front of the sweep
+            log.warn("Payout still unsettled after hold expiry: {} ({})", transactionReference, result.message());
+            writeTemplate.executeWithoutResult(tx -> holdRepository.postponeExpiry(hold.getId(), HoldStatus.ACTIVE,
+                    LocalDateTime.now().plusMinutes(PENDING_RECHECK_MINUTES)));
+            return;
+        }
+        settle(transactionReference, transaction.getPaymentGateway(), result);
+    }
+
+    private void settle(String transactionReference, String gateway, PayoutResult result) {
+        switch (result.status()) {
+            case SUCCESS -> writeTemplate.executeWithoutResult(tx -> holdService.captureHold(transactionReference));
+            case FAILED -> writeTemplate.executeWithoutResult(tx -> holdService.releaseHold(transactionReference,
+                    "Payout failed at " + gateway + ": " + result.message()));
+            default -> log.info("Payout not settled yet: {} ({})", transactionReference, result.message());
+        }
+    }
+
+    private PayoutResult lookup(Transaction transaction) {
+        if (!isFlutterwave(transaction)) {
+            return paystackService.getTransferStatus(transaction.getReference());
+        }
+        if (transaction.getExternalReference() != null) {
+            return flutterwaveService.getTransferStatus(transaction.getExternalReference());
+        }
+        // The create call failed or timed out before returning an id: find the transfer by our
+        // reference, and keep the id so later lookups go straight to it
+        PayoutResult result = flutterwaveService.getTransferStatusByReference(transaction.getReference());
+        if (result.gatewayReference() != null) {
+            writeTemplate.executeWithoutResult(tx ->
+                    transactionRepository.setExternalReference(transaction.getReference(), result.gatewayReference()));
+        }
+        return result;
+    }
+
+    private static boolean isFlutterwave(Transaction transaction) {
+        return FLUTTERWAVE.equalsIgnoreCase(transaction.getPaymentGateway());
+    }
+}
@@ -0,0 +1,144 @@
+package org.fintech.wallet.service.impl;
+
+import jakarta.transaction.InvalidTransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.EntryType;
+import org.fintech.wallet.dto.request.BatchTransferRequest;
+import org.fintech.wallet.dto.request.LedgerEntryRequest;
+import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.dto.response.BatchTransferResponse;
+import org.fintech.wallet.dto.response.TransactionResponse;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.TransactionQueryRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.IdService;
+import org.fintech.wallet.service.LedgerService;
+import org.fintech.wallet.service.PayoutService;
+import org.fintech.wallet.service.WalletService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Transaction engine that runs at READ COMMITTED instead of SERIALIZABLE.
+ * Wallets are read without FOR UPDATE; every balance change is a single guarded
+ * UPDATE and its row count decides whether a debit went through, so a balance can
+ * never go negative and there are no serialization aborts to retry.
+ * Enabled with {@code app.transaction.engine=read-committed}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.transaction", name = "engine", havingValue = "read-committed")
+@Slf4j
+public class ReadCommittedTransactionServiceImpl extends TransactionServiceImpl {
+
+    private final WalletService walletService;
+    private final LedgerService ledgerService;
+
+    public ReadCommittedTransactionServiceImpl(TransactionRepository transactionRepository,
+                                               TransactionQueryRepository transactionQueryRepository,
+                                               WalletService walletService,
+                                               LedgerService ledgerService,
+                                               KafkaProducerService kafkaProducerService,
+                                               WalletRepository walletRepository,
+                                               AppProperties appProperties,
+                                               IdService idService,
+                                               HoldService holdService,
+                                               PayoutService payoutService) {
+        super(transactionRepository, transactionQueryRepository, walletService, ledgerService,
+                kafkaProducerService, walletRepository, appProperties, idService, holdService, payoutService);
+        this.walletService = walletService;
+        this.ledgerService = ledgerService;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public TransactionResponse transfer(TransferRequest request, UUID userId) throws InvalidTransactionException {
+        return super.transfer(request, userId);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BatchTransferResponse batchTransfer(BatchTransferRequest request, UUID userId)
+            throws InvalidTransactionException {
+        return super.batchTransfer(request, userId);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public TransactionResponse deposit(UUID walletId, BigDecimal amount, String externalRef, String gateway) {
+        return super.deposit(walletId, amount, externalRef, gateway);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public TransactionResponse withdraw(UUID walletId, BigDecimal amount, String bankAccount, String bankCode) {
+        return super.withdraw(walletId, amount, bankAccount, bankCode);
+    }
+
+    @Override
+    protected List<Wallet> loadTransferWallets(UUID sourceWalletId, String destinationWalletNumber) {
+        return walletService.getTransferWallets(sourceWalletId, destinationWalletNumber);
+    }
+
+    @Override
+    protected List<Wallet> loadBatchWallets(UUID sourceWalletId, Collection<String> destinationWalletNumbers) {
+        return walletService.getBatchWallets(sourceWalletId, destinationWalletNumbers);
+    }
+
+    @Override
+    protected Wallet loadWallet(UUID walletId) {
+        return walletService.getWalletById(walletId);
+    }
+
+    @Override
+    protected void applyEntry(LedgerEntryRequest entry) {
+        boolean isCredit = entry.getEntryType() == EntryType.CREDIT;
+        BigDecimal balanceAfter = walletService.applyGuardedBalanceChange(
+                entry.getWallet(), entry.getAmount(), isCredit);
+
+        entry.setBalanceBefore(isCredit
+                ? balanceAfter.subtract(entry.getAmount())
+                : balanceAfter.add(entry.getAmount()));
+        ledgerService.createEntry(entry);
+    }
+
+    @Override
+    protected void applyTransferEntries(LedgerEntryRequest debitEntry, LedgerEntryRequest creditEntry) {
+        // Each UPDATE takes its row lock; touch the rows in id order so opposite-direction
+        // transfers between the same pair cannot deadlock
+        if (debitEntry.getWallet().getId().compareTo(creditEntry.getWallet().getId()) <= 0) {
+            applyEntry(debitEntry);
+            applyEntry(creditEntry);
+        } else {
+            applyEntry(creditEntry);
+            applyEntry(debitEntry);
+        }
+    }
+
+    @Override
+    protected Map<UUID, BigDecimal> applyBatchBalances(Wallet sourceWallet, BigDecimal debitTotal,
+                                                       Map<Wallet, BigDecimal> creditTotals) {
+        // One guarded UPDATE per wallet, in id order like the transfer pair. The source debit
+        // is for the whole accepted total, so a concurrent spend fails the batch rather than
+        // letting it overdraw.
+        Map<Wallet, BigDecimal> changes = new TreeMap<>(Comparator.comparing(Wallet::getId));
+        changes.putAll(creditTotals);
+        changes.put(sourceWallet, debitTotal.negate());
+
+        Map<UUID, BigDecimal> openingBalances = new HashMap<>();
+        changes.forEach((wallet, change) -> {
+            boolean isCredit = change.signum() > 0;
+            BigDecimal balanceAfter = walletService.applyGuardedBalanceChange(wallet, change.abs(), isCredit);
+            openingBalances.put(wallet.getId(), balanceAfter.subtract(change));
+        });
+        return openingBalances;
+    }
+}
@@ -0,0 +1,502 @@
+package org.fintech.wallet.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.ReportJob;
+import org.fintech.wallet.domain.enums.ReportJobStatus;
+import org.fintech.wallet.domain.enums.ReportType;
+import org.fintech.wallet.dto.response.LedgerResponse;
+import org.fintech.wallet.dto.response.ReportJobResponse;
+import org.fintech.wallet.dto.response.TransactionResponse;
+import org.fintech.wallet.exception.WalletAuthorizeException;
+import org.fintech.wallet.repository.LedgerRepository;
+import org.fintech.wallet.repository.ReportJobRepository;
+import org.fintech.wallet.repository.TransactionQueryRepository;
+import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.ReportFileStore;
+import org.fintech.wallet.service.ReportJobService;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Report exports run on a small worker pool, off the request thread. A job row is the queue
+ * entry: submitting stores it and hands it to a local worker after commit; jobs that did not
+ * fit in the pool, or whose node went away, are handed out again by {@link #dispatchQueued}.
+ * A worker streams rows through a database cursor into a gzip CSV file, so memory use does
+ * not depend on the size of the range. A finished file is reused for identical requests
+ * until it expires.
+ */
+@Service
+@Slf4j
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final String FILE_SUFFIX = ".csv.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PURGE_BATCH = 500;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    // Younger queued jobs are most likely still on their way to a worker after commit
+    private static final long DISPATCH_GRACE_SECONDS = 10;
+    private static final List<ReportJobStatus> REUSABLE =
+            List.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED);
+
+    private static final String TRANSACTION_HEADER = "id,reference,type,amount,fee,currency,status,description," +
+            "source_wallet,destination_wallet,created_at,completed_at";
+    private static final String STATEMENT_HEADER = "id,wallet_id,entry_type,amount,balance_before,balance_after," +
+            "transaction_reference,description,created_at";
+
+    private final ReportJobRepository reportJobRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
+    private final LedgerRepository ledgerRepository;
+    private final WalletRepository walletRepository;
+    private final ReportFileStore fileStore;
+    private final AppProperties.ReportJobs config;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate exportTemplate;
+    private final ThreadPoolExecutor executor;
+    // Jobs queued or running on this node, so the sweep does not hand them out twice
+    private final Set<UUID> localJobs = ConcurrentHashMap.newKeySet();
+    private final Counter cacheHits;
+    private final Timer exportTime;
+    private final MeterRegistry meterRegistry;
+
+    public ReportJobServiceImpl(ReportJobRepository reportJobRepository,
+                                TransactionQueryRepository transactionQueryRepository,
+                                LedgerRepository ledgerRepository,
+                                WalletRepository walletRepository,
+                                ReportFileStore fileStore,
+                                AppProperties appProperties,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.reportJobRepository = reportJobRepository;
+        this.transactionQueryRepository = transactionQueryRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.walletRepository = walletRepository;
+        this.fileStore = fileStore;
+        this.config = appProperties.getReportJobs();
+        this.meterRegistry = meterRegistry;
+
+        // Status and progress writes commit on their own, also while an export is open
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Read-only goes to the replica; one snapshot, so the row count matches the rows written
+        this.exportTemplate = new TransactionTemplate(transactionManager);
+        this.exportTemplate.setReadOnly(true);
+        this.exportTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("wallet.report.jobs.queue.depth", executor, e -> e.getQueue().size())
+                .description("Report jobs waiting for a worker on this node")
+                .register(meterRegistry);
+        Gauge.builder("wallet.report.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Report jobs being written on this node")
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("wallet.report.jobs.cache.hits")
+                .description("Report requests answered with an existing job")
+                .register(meterRegistry);
+        this.exportTime = Timer.builder("wallet.report.jobs.duration")
+                .description("Time to write a report file")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public ReportJobResponse submitTransactionReport(UUID adminId, LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+        return mapToResponse(submit(ReportType.TRANSACTIONS, adminId, null, startDate, endDate));
+    }
+
+    @Override
+    @Transactional
+    public ReportJobResponse submitStatement(UUID userId, UUID walletId,
+                                             LocalDateTime startDate, LocalDateTime endDate) {
+        validateRange(startDate, endDate);
+        if (!walletRepository.existsByIdAndUserId(walletId, userId)) {
+            throw new WalletAuthorizeException("Unauthorized wallet access");
+        }
+        return mapToResponse(submit(ReportType.STATEMENT, userId, walletId, startDate, endDate));
+    }
+
+    // Not read-only: a job polled right after submission may not have reached the replica yet
+    @Override
+    @Transactional
+    public ReportJobResponse getJob(UUID jobId, UUID userId, boolean admin) {
+        return mapToResponse(getAccessibleJob(jobId, userId, admin));
+    }
+
+    @Override
+    @Transactional
+    public ReportDownload getDownload(UUID jobId, UUID userId, boolean admin) {
+        ReportJob job = getAccessibleJob(jobId, userId, admin);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalArgumentException("Report is " + job.getStatus());
+        }
+        if (job.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Report has expired");
+        }
+        try {
+            Path path = fileStore.open(fileKey(jobId));
+            return new ReportDownload(fileName(job), path, job.getFileSize());
+        } catch (IOException e) {
+            throw new IllegalStateException("Report file is not available: " + jobId, e);
+        }
+    }
+
+    @Override
+    public int dispatchQueued() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer lost = writeTemplate.execute(status -> reportJobRepository.failStale(
+                ReportJobStatus.RUNNING, ReportJobStatus.FAILED, now.minusMinutes(config.getStaleAfterMinutes()),
+                "Report worker stopped", now, expiry(now)));
+        if (lost != null && lost > 0) {
+            log.warn("Failed {} report jobs without progress", lost);
+        }
+
+        int free = config.getWorkers() + config.getQueueCapacity() - localJobs.size();
+        if (free <= 0) {
+            return 0;
+        }
+        int dispatched = 0;
+        for (UUID jobId : reportJobRepository.findIdsByStatusCreatedBefore(ReportJobStatus.QUEUED,
+                now.minusSeconds(DISPATCH_GRACE_SECONDS), Limit.of(free))) {
+            if (dispatch(jobId)) {
+                dispatched++;
+            }
+        }
+        return dispatched;
+    }
+
+    @Override
+    public int purgeExpired() {
+        int purged = 0;
+        List<ReportJob> expired;
+        do {
+            expired = reportJobRepository.findByExpiresAtBefore(LocalDateTime.now(), Limit.of(PURGE_BATCH));
+            expired.forEach(job -> fileStore.delete(fileKey(job.getId())));
+            reportJobRepository.deleteAllByIdInBatch(expired.stream().map(ReportJob::getId).toList());
+            purged += expired.size();
+        } while (expired.size() == PURGE_BATCH);
+        return purged;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Interrupted exports requeue their jobs; ones still waiting here stay queued in the table
+        executor.shutdownNow();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Report workers did not stop within {}s", SHUTDOWN_TIMEOUT_SECONDS);
+        }
+    }
+
+    private ReportJob submit(ReportType type, UUID requestedBy, UUID walletId,
+                             LocalDateTime startDate, LocalDateTime endDate) {
+        String paramsHash = paramsHash(type, walletId, startDate, endDate);
+        Optional<ReportJob> existing = reportJobRepository
+                .findFirstByParamsHashAndStatusInOrderByCreatedAtDesc(paramsHash, REUSABLE)
+                .filter(this::isReusable);
+        if (existing.isPresent()) {
+            cacheHits.increment();
+            log.info("Report request answered by job {}", existing.get().getId());
+            return existing.get();
+        }
+
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .type(type)
+                .status(ReportJobStatus.QUEUED)
+                .paramsHash(paramsHash)
+                .requestedBy(requestedBy)
+                .walletId(walletId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .rowsWritten(0)
+                .build());
+        UUID jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(jobId);
+            }
+        });
+        log.info("Report job queued: id={}, type={}, requestedBy={}", jobId, type, requestedBy);
+        return job;
+    }
+
+    // A file only stands for its range if the range had ended when the file was written.
+    // A queued or running job will be about as fresh as a new one.
+    private boolean isReusable(ReportJob job) {
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            return true;
+        }
+        return job.getExpiresAt().isAfter(LocalDateTime.now()) && job.getStartedAt().isAfter(job.getEndDate());
+    }
+
+    private boolean dispatch(UUID jobId) {
+        if (!localJobs.add(jobId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    localJobs.remove(jobId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Stays queued for the next sweep
+            localJobs.remove(jobId);
+            log.debug("Report workers busy, job {} waits for the next sweep", jobId);
+            return false;
+        }
+    }
+
+    private void run(UUID jobId) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        ReportJob job = writeTemplate.execute(status ->
+                reportJobRepository.claim(jobId, ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, startedAt) == 1
+                        ? reportJobRepository.findById(jobId).orElse(null)
+                        : null);
+        if (job == null) {
+            // Another node has it, or it is no longer queued
+            return;
+        }
+
+        String fileKey = fileKey(jobId);
+        long started = System.nanoTime();
+        try {
+            Long rows = exportTemplate.execute(status -> export(job, fileKey));
+            long size = Files.size(fileStore.open(fileKey));
+            LocalDateTime now = LocalDateTime.now();
+            writeTemplate.executeWithoutResult(status -> reportJobRepository.finish(jobId,
+                    ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED, rows, size, null, now, expiry(now)));
+            exportTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            count("completed");
+            log.info("Report job completed: id={}, rows={}, bytes={}", jobId, rows, size);
+        } catch (Exception e) {
+            fileStore.delete(fileKey);
+            if (executor.isShutdown()) {
+                writeTemplate.executeWithoutResult(status ->
+                        reportJobRepository.requeue(jobId, ReportJobStatus.RUNNING, ReportJobStatus.QUEUED));
+                log.info("Report job {} requeued on shutdown", jobId);
+                return;
+            }
+            log.error("Report job failed: id={}", jobId, e);
+            count("failed");
+            LocalDateTime now = LocalDateTime.now();
+            writeTemplate.executeWithoutResult(status -> reportJobRepository.finish(jobId,
+                    ReportJobStatus.RUNNING, ReportJobStatus.FAILED, 0, null, errorMessage(e), now, expiry(now)));
+        }
+    }
+
+    private long export(ReportJob job, String fileKey) {
+        try (OutputStream file = fileStore.create(fileKey);
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(file, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            if (job.getType() == ReportType.TRANSACTIONS) {
+                long total = transactionQueryRepository.countByCreatedAtBetween(job.getStartDate(), job.getEndDate());
+                try (Stream<TransactionResponse> rows = transactionQueryRepository
+                        .streamByCreatedAtBetween(job.getStartDate(), job.getEndDate())) {
+                    return write(job.getId(), total, out, TRANSACTION_HEADER, rows, t -> new Object[]{
+                            t.getId(), t.getReference(), t.getType(), t.getAmount(), t.getFee(), t.getCurrency(),
+                            t.getStatus(), t.getDescription(), t.getSourceWalletNumber(),
+                            t.getDestinationWalletNumber(), t.getCreatedAt(), t.getCompletedAt()});
+                }
+            }
+
+            long total = ledgerRepository.countByWalletIdAndCreatedAtBetween(
+                    job.getWalletId(), job.getStartDate(), job.getEndDate());
+            try (Stream<LedgerResponse> rows = ledgerRepository
+                    .streamStatement(job.getWalletId(), job.getStartDate(), job.getEndDate())) {
+                return write(job.getId(), total, out, STATEMENT_HEADER, rows, l -> new Object[]{
+                        l.getId(), l.getWalletId(), l.getEntryType(), l.getAmount(), l.getBalanceBefore(),
+                        l.getBalanceAfter(), l.getTransactionReference(), l.getDescription(), l.getCreatedAt()});
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> long write(UUID jobId, long total, Writer out, String header,
+                           Stream<T> rows, Function<T, Object[]> columns) throws IOException {
+        progress(jobId, 0, total);
+        out.write(header);
+        out.write('\n');
+
+        long written = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writeRow(out, columns.apply(iterator.next()));
+            if (++written % config.getProgressEvery() == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Report job interrupted");
+                }
+                progress(jobId, written, total);
+            }
+        }
+        return written;
+    }
+
+    private void progress(UUID jobId, long written, long total) {
+        writeTemplate.executeWithoutResult(status -> reportJobRepository.updateProgress(
+                jobId, written, total, ReportJobStatus.RUNNING, LocalDateTime.now()));
+    }
+
+    private static void writeRow(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                out.write(csvText(text));
+            } else if (value instanceof BigDecimal amount) {
+                out.write(amount.toPlainString());
+            } else if (value != null) {
+                out.write(value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    // Free text is quoted when needed, and a leading formula character is escaped so
+    // spreadsheet software shows it as text instead of evaluating it
+    private static String csvText(String text) {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private ReportJob getAccessibleJob(UUID jobId, UUID userId, boolean admin) {
+        ReportJob job = reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Report job not found: " + jobId));
+        if (!admin && !job.getRequestedBy().equals(userId)) {
+            throw new AccessDeniedException("Unauthorized report access");
+        }
+        return job;
+    }
+
+    private void count(String outcome) {
+        Counter.builder("wallet.report.jobs")
+                .description("Report jobs finished")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private LocalDateTime expiry(LocalDateTime now) {
+        return now.plusHours(config.getResultTtlHours());
+    }
+
+    private static void validateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
+    private static String paramsHash(ReportType type, UUID walletId, LocalDateTime startDate, LocalDateTime endDate) {
+        String params = type + "|" + walletId + "|" + startDate + "|" + endDate;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(params.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String fileKey(UUID jobId) {
+        return jobId + FILE_SUFFIX;
+    }
+
+    private static String fileName(ReportJob job) {
+        return job.getType().name().toLowerCase() + "-" + job.getStartDate().toLocalDate()
+                + "-to-" + job.getEndDate().toLocalDate() + FILE_SUFFIX;
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private ReportJobResponse mapToResponse(ReportJob job) {
+        Integer progressPercent = null;
+        if (job.getStatus() == ReportJobStatus.COMPLETED) {
+            progressPercent = 100;
+        } else if (job.getTotalRows() != null) {
+            progressPercent = job.getTotalRows() == 0 ? 0
+                    : (int) Math.min(100, job.getRowsWritten() * 100 / job.getTotalRows());
+        }
+        return ReportJobResponse.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .walletId(job.getWalletId())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .rowsWritten(job.getRowsWritten())
+                .totalRows(job.getTotalRows())
+                .progressPercent(progressPercent)
+                .fileSize(job.getFileSize())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package org.fintech.wallet.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.repository.UserSpendCounterRepository;
+import org.fintech.wallet.repository.projection.SpendCounterDrift;
+import org.fintech.wallet.service.SpendLimitService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpendLimitServiceImpl implements SpendLimitService {
+
+    private final UserSpendCounterRepository counterRepository;
+    private final AppProperties appProperties;
+
+    @Override
+    public LocalDate today() {
+        return LocalDate.now(limitZone());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getSpent(UUID userId, SpendPeriod period) {
+        LocalDate periodStart = period.startOf(today());
+        return counterRepository.findAmount(userId, period, periodStart)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BigDecimal lockSpent(UUID userId, SpendPeriod period) {
+        LocalDate periodStart = period.startOf(today());
+        return counterRepository.lockAmount(userId, period.name(), periodStart);
+    }
+
+    @Override
+    @Transactional
+    public void recordSpend(UUID userId, BigDecimal amount, long txCount) {
+        increment(userId, amount, txCount, today());
+    }
+
+    @Override
+    @Transactional
+    public void recordSpend(UUID userId, BigDecimal amount, long txCount, LocalDateTime spentAt) {
+        increment(userId, amount, txCount,
+                spentAt.atZone(ZoneId.systemDefault()).withZoneSameInstant(limitZone()).toLocalDate());
+    }
+
+    private void increment(UUID userId, BigDecimal amount, long txCount, LocalDate spentOn) {
+        counterRepository.increment(
+                userId,
+                SpendPeriod.DAY.startOf(spentOn),
+                SpendPeriod.WEEK.startOf(spentOn),
+                SpendPeriod.MONTH.startOf(spentOn),
+                amount,
+                txCount
+        );
+    }
+
+    @Override
+    @Transactional
+    public int rebuildCounters(SpendPeriod period, LocalDate date) {
+        LocalDate periodStart = period.startOf(date);
+        LocalDate periodEnd = period.endOf(periodStart);
+
+        int corrected = counterRepository.rebuildFromTransactions(period.name(), periodStart,
+                startOfDay(periodStart), startOfDay(periodEnd));
+
+        log.info("Rebuilt {} spend counters from {}: {} corrected", period, periodStart, corrected);
+        return corrected;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SpendCounterDrift measureDrift(SpendPeriod period, LocalDate date) {
+        LocalDate periodStart = period.startOf(date);
+        LocalDate periodEnd = period.endOf(periodStart);
+        return counterRepository.measureDrift(period.name(), periodStart,
+                startOfDay(periodStart), startOfDay(periodEnd));
+    }
+
+    private ZoneId limitZone() {
+        return ZoneId.of(appProperties.getTransaction().getLimitZone());
+    }
+
+    // Midnight of the limit zone as an entity timestamp: those are local to the JVM and stored as UTC
+    private LocalDateTime startOfDay(LocalDate day) {
+        return day.atStartOfDay(limitZone()).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
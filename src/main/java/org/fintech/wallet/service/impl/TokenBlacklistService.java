@@ -1,131 +1,181 @@
 package org.fintech.wallet.service.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.security.JwtClaims;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Token revocation (single-session logout) and logout-all timestamps in Redis, fronted by a local
+ * {@link RevocationBloomFilter} of everything revoked. Every node loads the filter from the
+ * {@code revoked:index} sorted set, adds new revocations as they are published on
+ * {@code auth:revoked}, and rebuilds it every {@code app.revocation.rebuild-interval-ms} to
+ * drop expired entries and catch anything a missed message left out. A request whose token id
+ * and user id are both absent from the filter is answered without Redis.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class TokenBlacklistService {
+public class TokenBlacklistService implements MessageListener {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final AppProperties.Revocation config;
 
-    private static final String BLACKLIST_PREFIX = "blacklist:token:";
-    private static final String REFRESH_TOKEN_PREFIX = "refresh:token:";
-    private static final String USER_SESSIONS_PREFIX = "user:sessions:";
+    private static final String BLACKLIST_PREFIX = "blacklist:jti:";
+    // Tokens issued before jti was added were blacklisted under their full text
+    private static final String LEGACY_BLACKLIST_PREFIX = "blacklist:token:";
     /**
      * update at
      */
     private static final String USER_LOGOUT_AT_PREFIX = "user:lastLogoutAt:";
-
+    // Members are "jti:<id>" and "user:<id>", scored by when they stop mattering
+    private static final String REVOKED_INDEX = "revoked:index";
+    private static final String REVOKED_CHANNEL = "auth:revoked";
+
+    private volatile RevocationBloomFilter revoked;
+    // Filter being rebuilt; revocations published meanwhile go into both
+    private volatile RevocationBloomFilter rebuilding;
+
+    public TokenBlacklistService(RedisTemplate<String, String> redisTemplate,
+                                 RedisMessageListenerContainer redisMessageListenerContainer,
+                                 AppProperties appProperties) {
+        this.redisTemplate = redisTemplate;
+        this.config = appProperties.getRevocation();
+        redisMessageListenerContainer.addMessageListener(this, ChannelTopic.of(REVOKED_CHANNEL));
+    }
 
     /**
      * Blacklist an access token
-     * @param token The JWT token to blacklist
+     * @param tokenId The token's jti
      * @param expirationSeconds How long to keep it blacklisted (match token TTL)
      */
-    public void blacklistToken(String token, long expirationSeconds) {
-        String key = BLACKLIST_PREFIX + token;
-        redisTemplate.opsForValue().set(key, "blacklisted", expirationSeconds, TimeUnit.SECONDS);
+    public void blacklistToken(String tokenId, long expirationSeconds) {
+        revoke(BLACKLIST_PREFIX + tokenId, "blacklisted", jtiMember(tokenId), expirationSeconds);
         log.info("Token blacklisted for {} seconds", expirationSeconds);
     }
 
     /**
-     * Check if a token is blacklisted
+     * Whether the token was revoked by a logout or a logout-all issued after it. Answered from
+     * the local filter when neither id is in it, otherwise with one pipelined Redis round trip.
      */
-    public boolean isTokenBlacklisted(String token) {
-        String key = BLACKLIST_PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-    }
+    public boolean isRevoked(JwtClaims claims, String token) {
+        RevocationBloomFilter filter = revoked;
+        // Before the first load, and for legacy tokens, the filter cannot vouch for anything
+        boolean checkToken = filter == null || claims.legacy() || filter.mightContain(jtiMember(claims.tokenId()));
+        boolean checkUser = filter == null || filter.mightContain(userMember(claims.userId()));
+        if (!checkToken && !checkUser) {
+            return false;
+        }
 
-    /**
-     * Store refresh token in Redis
-     * @param userId User ID
-     * @param refreshToken The refresh token
-     * @param expirationDays Expiration in days
-     */
-    public void storeRefreshToken(UUID userId,
-                                  String sessionId,
-                                  String refreshToken,
-                                  long expirationDays) {
-
-        String key = REFRESH_TOKEN_PREFIX + userId + ":" + sessionId;
-        redisTemplate.opsForValue().set(
-                key,
-                refreshToken,
-                Duration.ofDays(expirationDays)
-        );
+        byte[][] tokenKeys = claims.legacy()
+                ? new byte[][]{bytes(BLACKLIST_PREFIX + claims.tokenId()), bytes(LEGACY_BLACKLIST_PREFIX + token)}
+                : new byte[][]{bytes(BLACKLIST_PREFIX + claims.tokenId())};
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (checkToken) {
+                connection.keyCommands().exists(tokenKeys);
+            }
+            if (checkUser) {
+                connection.stringCommands().get(bytes(USER_LOGOUT_AT_PREFIX + claims.userId()));
+            }
+            return null;
+        });
+
+        int i = 0;
+        if (checkToken && results.get(i++) instanceof Number existing && existing.longValue() > 0) {
+            return true;
+        }
+        if (checkUser && results.get(i) != null) {
+            return claims.isIssuedBefore(Long.parseLong(String.valueOf(results.get(i))));
+        }
+        return false;
     }
 
-    /**
-     * Invalidate refresh token (for logout)
-     */
-    public void invalidateRefreshToken(UUID userId, String sessionId) {
-        String key = REFRESH_TOKEN_PREFIX + userId + ":" + sessionId;
-        redisTemplate.delete(key);
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocally(new String(message.getBody(), StandardCharsets.UTF_8));
     }
 
-    /**
-     * Invalidate all refresh tokens for a user
-     * @param userId
-     */
-    public void invalidateAllRefreshTokens(UUID userId) {
-        Set<String> keys =
-                redisTemplate.keys(REFRESH_TOKEN_PREFIX + userId + ":*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+    private void addLocally(String member) {
+        RevocationBloomFilter filter = revoked;
+        if (filter != null) {
+            filter.add(member);
+        }
+        RevocationBloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(member);
         }
     }
 
-    /**
-     * Store user session (for tracking active sessions)
-     */
-    public void storeUserSession(UUID userId, String sessionId, String deviceInfo) {
-        String key = USER_SESSIONS_PREFIX + userId;
-        String sessionData = sessionId + ":" + deviceInfo;
-        redisTemplate.opsForSet().add(key, sessionData);
-        log.info("Session stored for user: {}", userId);
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        try {
+            indexExistingLogouts();
+        } catch (Exception e) {
+            log.error("Failed to index existing logout-all timestamps", e);
+        }
+        rebuildRevocationFilter();
     }
 
-    /**
-     * Remove user session (on logout)
-     */
-    public void removeUserSession(UUID userId, String sessionId) {
-        String key = USER_SESSIONS_PREFIX + userId;
-        // Remove all sessions matching this sessionId
-        redisTemplate.opsForSet().members(key).stream()
-                .filter(session -> session.startsWith(sessionId))
-                .forEach(session -> redisTemplate.opsForSet().remove(key, session));
-        log.info("Session removed for user: {}", userId);
+    // Logout-all timestamps written before the index existed; done once per Redis, by whichever node gets there first
+    private void indexExistingLogouts() {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REVOKED_INDEX + ":seeded", "1"))) {
+            return;
+        }
+        double relevantUntil = System.currentTimeMillis() + Duration.ofHours(config.getUserEntryTtlHours()).toMillis();
+        int indexed = 0;
+        try (Cursor<String> keys = redisTemplate.scan(
+                ScanOptions.scanOptions().match(USER_LOGOUT_AT_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                String userId = keys.next().substring(USER_LOGOUT_AT_PREFIX.length());
+                redisTemplate.opsForZSet().add(REVOKED_INDEX, "user:" + userId, relevantUntil);
+                indexed++;
+            }
+        }
+        log.info("Indexed {} existing logout-all timestamps", indexed);
     }
 
-    /**
-     * Logout from all devices (invalidate all sessions)
-     */
-    public void logoutAllDevices(UUID userId) {
-        String key = USER_SESSIONS_PREFIX + userId;
-
-        // remove all sessions
-        redisTemplate.delete(key);
-
-        // invalidate ALL refresh tokens
-        invalidateAllRefreshTokens(userId);
-
-        log.info("All sessions cleared for user: {}", userId);
+    @Scheduled(fixedDelayString = "${app.revocation.rebuild-interval-ms:60000}",
+            initialDelayString = "${app.revocation.rebuild-interval-ms:60000}")
+    public void rebuildRevocationFilter() {
+        try {
+            long now = System.currentTimeMillis();
+            RevocationBloomFilter next = new RevocationBloomFilter(config.getExpectedRevocations(),
+                    config.getFalsePositiveRate());
+            rebuilding = next;
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_INDEX, Double.NEGATIVE_INFINITY, now);
+            Set<String> members = redisTemplate.opsForZSet().rangeByScore(REVOKED_INDEX, now, Double.POSITIVE_INFINITY);
+            if (members != null) {
+                members.forEach(next::add);
+            }
+            revoked = next;
+            log.debug("Revocation filter rebuilt with {} entries", members != null ? members.size() : 0);
+        } catch (Exception e) {
+            // Keep the previous filter: it only lacks what expired or was missed since the last load
+            log.error("Failed to rebuild revocation filter", e);
+        } finally {
+            rebuilding = null;
+        }
     }
+
     public void updateLastLogoutAt(UUID userId) {
-        String key = USER_LOGOUT_AT_PREFIX + userId;
-        redisTemplate.opsForValue().set(
-                key,
-                String.valueOf(System.currentTimeMillis())
-        );
+        revoke(USER_LOGOUT_AT_PREFIX + userId, String.valueOf(System.currentTimeMillis()),
+                userMember(userId), 0);
     }
     public Long getLastLogoutAt(UUID userId) {
         String value = redisTemplate.opsForValue()
@@ -134,4 +184,32 @@ public class TokenBlacklistService {
         return value != null ? Long.parseLong(value) : null;
     }
 
-}
\ No newline at end of file
+    // Key, index entry and announcement in one round trip; ttlSeconds 0 keeps the key without expiry
+    private void revoke(String key, String value, String member, long ttlSeconds) {
+        long relevantUntil = System.currentTimeMillis()
+                + (ttlSeconds > 0 ? ttlSeconds * 1000 : Duration.ofHours(config.getUserEntryTtlHours()).toMillis());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (ttlSeconds > 0) {
+                connection.stringCommands().setEx(bytes(key), ttlSeconds, bytes(value));
+            } else {
+                connection.stringCommands().set(bytes(key), bytes(value));
+            }
+            connection.zSetCommands().zAdd(bytes(REVOKED_INDEX), relevantUntil, bytes(member));
+            connection.publish(bytes(REVOKED_CHANNEL), bytes(member));
+            return null;
+        });
+        addLocally(member);
+    }
+
+    private static String jtiMember(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userMember(UUID userId) {
+        return "user:" + userId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,43 +3,68 @@ package org.fintech.wallet.service.impl;
 import jakarta.transaction.InvalidTransactionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
 import org.fintech.wallet.domain.entity.Transaction;
 import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.entity.Wallet;
 import org.fintech.wallet.domain.enums.*;
 import org.fintech.wallet.dto.event.TransactionEvent;
+import org.fintech.wallet.dto.request.BatchTransferItem;
+import org.fintech.wallet.dto.request.BatchTransferRequest;
+import org.fintech.wallet.repository.HistoryCursor;
 import org.fintech.wallet.dto.request.LedgerEntryRequest;
 import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.dto.response.BatchTransferItemResult;
+import org.fintech.wallet.dto.response.BatchTransferResponse;
+import org.fintech.wallet.dto.response.CursorPageResponse;
 import org.fintech.wallet.dto.response.TransactionResponse;
 import org.fintech.wallet.exception.InsufficientBalanceException;
 import org.fintech.wallet.exception.WalletAuthorizeException;
+import org.fintech.wallet.exception.WalletNotFoundException;
 import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.TransactionQueryRepository;
 import org.fintech.wallet.repository.TransactionRepository;
 import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.IdService;
 import org.fintech.wallet.service.LedgerService;
+import org.fintech.wallet.service.PayoutService;
 import org.fintech.wallet.service.TransactionService;
 import org.fintech.wallet.service.WalletService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(prefix = "app.transaction", name = "engine",
+        havingValue = "serializable", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionQueryRepository transactionQueryRepository;
     private final WalletService walletService;
     private final LedgerService ledgerService;
     private final KafkaProducerService kafkaProducerService;
     private  final WalletRepository walletRepository;
+    private final AppProperties appProperties;
+    private final IdService idService;
+    private final HoldService holdService;
+    private final PayoutService payoutService;
 
     @Override
     @Transactional(isolation = Isolation.SERIALIZABLE)
@@ -51,25 +76,26 @@ public class TransactionServiceImpl implements TransactionService {
             throw new InvalidTransactionException("Amount must be positive");
         }
         log.info("Transfer amount: {}", request.getAmount());
-        // Get wallets with pessimistic locking (prevents concurrent modifications)
-        Wallet sourceWallet = walletService.getWalletByIdWithLock(request.getSourceWalletId());
+        // Lock both wallets in one round trip, ordered by id (prevents concurrent modifications
+        // and lock-order deadlocks between opposite-direction transfers)
+        List<Wallet> transferWallets = loadTransferWallets(
+                request.getSourceWalletId(), request.getDestinationWalletNumber());
+        Wallet sourceWallet = transferWallets.stream()
+                .filter(w -> w.getId().equals(request.getSourceWalletId()))
+                .findFirst()
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
         WalletStatus status = sourceWallet.getStatus();
         if (status != WalletStatus.ACTIVE) {
             throw new WalletAuthorizeException("Wallet is "+status.name()+", cannot transfer funds");
         }
-        Wallet destinationWallet = walletService.getWalletByIdWithLock(
-                walletService.getWalletByNumberOnly(request.getDestinationWalletNumber()).getId()
-        );
+        Wallet destinationWallet = transferWallets.stream()
+                .filter(w -> w.getWalletNumber().equals(request.getDestinationWalletNumber()))
+                .findFirst()
+                .orElseThrow(() -> new WalletAuthorizeException("Destination Wallet Not found"));
 
-        // Validate wallet ownership
-        if (!sourceWallet.getUser().getId().equals(userId)) {
-            throw new InvalidTransactionException("Unauthorized wallet access");
-        }
         // Validate ownership and currency
-
-        log.warn("Unauthorized wallet access: sourceId: {}, userId: {}", sourceWallet.getId(), userId);
         if (!sourceWallet.getUser().getId().equals(userId)) {
-            log.warn("Unauthorized wallet access: sourceId{}, userId{}", sourceWallet.getId(), userId);
+            log.warn("Unauthorized wallet access: sourceId: {}, userId: {}", sourceWallet.getId(), userId);
             throw new InvalidTransactionException("Unauthorized wallet access");
         }
 
@@ -77,10 +103,10 @@ public class TransactionServiceImpl implements TransactionService {
             throw new InvalidTransactionException("Currency mismatch");
         }
 
-        // Enforce KYC limits if not unlimited
+        // Enforce KYC limits if not unlimited; the locked counter makes concurrent spends of the user check in turn
         KycLevel level = sourceWallet.getUser().getKycLevel();
         if (!level.isUnlimited()) {
-            BigDecimal dailySpent = walletService.getUserDailyTotal(sourceWallet.getUser().getId());
+            BigDecimal dailySpent = walletService.lockUserDailyTotal(sourceWallet.getUser().getId());
             if (request.getAmount().compareTo(level.getPerTransactionLimit()) > 0) {
                 throw new IllegalArgumentException(
                         "Transfer amount exceeds max per-transaction limit for " + level.name()
@@ -129,8 +155,6 @@ public class TransactionServiceImpl implements TransactionService {
                     .description("Transfer to " + destinationWallet.getWalletNumber())
                     .ipAddress(request.getIpAddress())
                     .build();
-            ledgerService.createEntry(debitEntry);
-            walletService.updateBalance(sourceWallet.getId(), request.getAmount(), false);
 
             // Credit destination
             LedgerEntryRequest creditEntry = LedgerEntryRequest.builder()
@@ -142,8 +166,7 @@ public class TransactionServiceImpl implements TransactionService {
                     .description("Transfer from " + sourceWallet.getWalletNumber())
                     .ipAddress(request.getIpAddress())
                     .build();
-            ledgerService.createEntry(creditEntry);
-            walletService.updateBalance(destinationWallet.getId(), request.getAmount(), true);
+            applyTransferEntries(debitEntry, creditEntry);
 
             // Finalize transaction
             transaction.setStatus(TransactionStatus.SUCCESS);
@@ -169,17 +192,181 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setFailureReason(e.getMessage());
             transaction = transactionRepository.save(transaction);
 
-            publishTransactionEvent(transaction, userId, sourceWallet.getId(), destinationWallet.getId(),
-                    request.getIpAddress(), "FAILED", "Transfer failed: " + safeMsg(e.getMessage()));
+            publishFailedEvent(transaction, userId, sourceWallet.getId(), destinationWallet.getId(),
+                    request.getIpAddress(), "Transfer failed: " + safeMsg(e.getMessage()));
 
             throw e;
         }
     }
 
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public BatchTransferResponse batchTransfer(BatchTransferRequest request, UUID userId)
+            throws InvalidTransactionException {
+        List<BatchTransferItem> items = request.getItems();
+        int maxItems = appProperties.getTransaction().getBatchMaxItems();
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Batch exceeds maximum of " + maxItems + " transfers");
+        }
+        log.info("Processing batch transfer from {}: {} items", request.getSourceWalletId(), items.size());
+
+        // Source and all destinations in one round trip, locked in wallet id order
+        Set<String> walletNumbers = items.stream()
+                .map(BatchTransferItem::getDestinationWalletNumber)
+                .collect(Collectors.toSet());
+        Map<String, Wallet> walletsByNumber = loadBatchWallets(request.getSourceWalletId(), walletNumbers)
+                .stream()
+                .collect(Collectors.toMap(Wallet::getWalletNumber, Function.identity()));
+        Wallet sourceWallet = walletsByNumber.values().stream()
+                .filter(w -> w.getId().equals(request.getSourceWalletId()))
+                .findFirst()
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found"));
+
+        if (!sourceWallet.getUser().getId().equals(userId)) {
+            log.warn("Unauthorized wallet access: sourceId: {}, userId: {}", sourceWallet.getId(), userId);
+            throw new InvalidTransactionException("Unauthorized wallet access");
+        }
+        WalletStatus status = sourceWallet.getStatus();
+        if (status != WalletStatus.ACTIVE) {
+            throw new WalletAuthorizeException("Wallet is "+status.name()+", cannot transfer funds");
+        }
+
+        KycLevel level = sourceWallet.getUser().getKycLevel();
+        BigDecimal dailySpent = level.isUnlimited()
+                ? BigDecimal.ZERO
+                : walletService.lockUserDailyTotal(userId);
+        BigDecimal remainingBalance = sourceWallet.getAvailableBalance();
+
+        // Validate every item in memory against running totals; nothing is written yet
+        String batchReference = generateReference("BTX");
+        List<BatchTransferItemResult> results = new ArrayList<>(items.size());
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchTransferItem item = items.get(i);
+            Wallet destination = walletsByNumber.get(item.getDestinationWalletNumber());
+            String failure = validateBatchItem(item, sourceWallet, destination, level, dailySpent, remainingBalance);
+
+            BatchTransferItemResult result = BatchTransferItemResult.builder()
+                    .index(i)
+                    .destinationWalletNumber(item.getDestinationWalletNumber())
+                    .amount(item.getAmount())
+                    .build();
+            if (failure != null) {
+                result.setStatus(TransactionStatus.FAILED);
+                result.setFailureReason(failure);
+            } else {
+                result.setReference(batchReference + "-" + (i + 1));
+                dailySpent = dailySpent.add(item.getAmount());
+                remainingBalance = remainingBalance.subtract(item.getAmount());
+                accepted.add(i);
+            }
+            results.add(result);
+        }
+
+        boolean allOrNothing = Boolean.TRUE.equals(request.getAllOrNothing());
+        if (accepted.isEmpty() || (allOrNothing && accepted.size() < items.size())) {
+            log.warn("Batch transfer {} rejected: {} of {} items failed validation",
+                    batchReference, items.size() - accepted.size(), items.size());
+            for (int i : accepted) {
+                BatchTransferItemResult result = results.get(i);
+                result.setStatus(TransactionStatus.FAILED);
+                result.setReference(null);
+                result.setFailureReason("Batch rejected: another item failed validation");
+            }
+            return buildBatchResponse(batchReference, sourceWallet, allOrNothing, results, BigDecimal.ZERO);
+        }
+
+        // One Transaction row per accepted item, inserted as a JDBC batch
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = new ArrayList<>(accepted.size());
+        BigDecimal debitTotal = BigDecimal.ZERO;
+        Map<Wallet, BigDecimal> creditTotals = new LinkedHashMap<>();
+        for (int i : accepted) {
+            BatchTransferItem item = items.get(i);
+            Wallet destination = walletsByNumber.get(item.getDestinationWalletNumber());
+            transactions.add(Transaction.builder()
+                    .reference(results.get(i).getReference())
+                    .sourceWallet(sourceWallet)
+                    .destinationWallet(destination)
+                    .type(TransactionType.TRANSFER)
+                    .amount(item.getAmount())
+                    .fee(BigDecimal.ZERO)
+                    .currency(sourceWallet.getCurrency())
+                    .status(TransactionStatus.SUCCESS)
+                    .description(item.getDescription())
+                    .ipAddress(request.getIpAddress())
+                    .completedAt(now)
+                    .build());
+            debitTotal = debitTotal.add(item.getAmount());
+            creditTotals.merge(destination, item.getAmount(), BigDecimal::add);
+        }
+        transactions = transactionRepository.saveAll(transactions);
+
+        // Each wallet's balance moves once; ledger rows carry the running balance per item
+        Map<UUID, BigDecimal> runningBalances = applyBatchBalances(sourceWallet, debitTotal, creditTotals);
+        List<LedgerEntryRequest> entries = new ArrayList<>(transactions.size() * 2);
+        for (Transaction transaction : transactions) {
+            Wallet destination = transaction.getDestinationWallet();
+            String idempotencyKey = generateIdempotencyKey(transaction.getReference());
+            BigDecimal sourceBefore = runningBalances.get(sourceWallet.getId());
+            BigDecimal destinationBefore = runningBalances.get(destination.getId());
+            runningBalances.put(sourceWallet.getId(), sourceBefore.subtract(transaction.getAmount()));
+            runningBalances.put(destination.getId(), destinationBefore.add(transaction.getAmount()));
+
+            entries.add(LedgerEntryRequest.builder()
+                    .wallet(sourceWallet)
+                    .entryType(EntryType.DEBIT)
+                    .amount(transaction.getAmount())
+                    .balanceBefore(sourceBefore)
+                    .transactionReference(transaction.getReference())
+                    .idempotencyKey(idempotencyKey + "_DEBIT")
+                    .description("Transfer to " + destination.getWalletNumber())
+                    .ipAddress(request.getIpAddress())
+                    .build());
+            entries.add(LedgerEntryRequest.builder()
+                    .wallet(destination)
+                    .entryType(EntryType.CREDIT)
+                    .amount(transaction.getAmount())
+                    .balanceBefore(destinationBefore)
+                    .transactionReference(transaction.getReference())
+                    .idempotencyKey(idempotencyKey + "_CREDIT")
+                    .description("Transfer from " + sourceWallet.getWalletNumber())
+                    .ipAddress(request.getIpAddress())
+                    .build());
+        }
+        ledgerService.createEntries(entries);
+
+        List<TransactionEvent> events = new ArrayList<>(transactions.size() * 2);
+        Iterator<Transaction> saved = transactions.iterator();
+        for (int i : accepted) {
+            Transaction transaction = saved.next();
+            BatchTransferItemResult result = results.get(i);
+            result.setStatus(TransactionStatus.SUCCESS);
+            result.setTransactionId(transaction.getId());
+
+            Wallet destination = transaction.getDestinationWallet();
+            events.add(buildTransactionEvent(transaction, userId, sourceWallet.getId(), destination.getId(),
+                    request.getIpAddress(), "COMPLETED", transaction.getDescription()));
+            events.add(buildTransactionEvent(transaction, destination.getUser().getId(), sourceWallet.getId(),
+                    destination.getId(), request.getIpAddress(), "RECEIVED",
+                    "You received " + transaction.getAmount() + " " + transaction.getCurrency().name()
+                            + " from " + sourceWallet.getWalletNumber()));
+        }
+        try {
+            kafkaProducerService.publishTransactionEvents(events);
+        } catch (Exception e) {
+            log.error("Failed to publish events for batch transfer: {}", batchReference, e);
+        }
+
+        log.info("Batch transfer {} completed: {} succeeded, {} failed",
+                batchReference, accepted.size(), items.size() - accepted.size());
+        return buildBatchResponse(batchReference, sourceWallet, allOrNothing, results, debitTotal);
+    }
+
     @Override
     @Transactional(isolation = Isolation.SERIALIZABLE)
     public TransactionResponse deposit(UUID walletId, BigDecimal amount, String externalRef, String gateway) {
-        Wallet wallet = walletService.getWalletByIdWithLock(walletId);
+        Wallet wallet = loadWallet(walletId);
         KycLevel level = wallet.getUser().getKycLevel();
 
         // KYC enforcement for non-unlimited users
@@ -231,8 +418,7 @@ public class TransactionServiceImpl implements TransactionService {
                     .externalReference(externalRef)
                     .description("Deposit via " + gateway)
                     .build();
-            ledgerService.createEntry(creditEntry);
-            walletService.updateBalance(walletId, amount, true);
+            applyEntry(creditEntry);
 
             transaction.setStatus(TransactionStatus.SUCCESS);
             transaction.setCompletedAt(LocalDateTime.now());
@@ -249,8 +435,8 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setFailureReason(e.getMessage());
             transaction = transactionRepository.save(transaction);
 
-            publishTransactionEvent(transaction, wallet.getUser().getId(), null, wallet.getId(),
-                    null, "FAILED", "Deposit failed: " + safeMsg(e.getMessage()));
+            publishFailedEvent(transaction, wallet.getUser().getId(), null, wallet.getId(),
+                    null, "Deposit failed: " + safeMsg(e.getMessage()));
 
             throw e;
         }
@@ -258,8 +444,8 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     @Transactional(isolation = Isolation.SERIALIZABLE)
-    public TransactionResponse withdraw(UUID walletId, BigDecimal amount, String bankAccount) {
-        Wallet wallet = walletService.getWalletByIdWithLock(walletId);
+    public TransactionResponse withdraw(UUID walletId, BigDecimal amount, String bankAccount, String bankCode) {
+        Wallet wallet = loadWallet(walletId);
         WalletStatus status = wallet.getStatus();
         if (status != WalletStatus.ACTIVE) {
             throw new WalletAuthorizeException("Wallet is "+status.name()+", cannot transfer funds");
@@ -267,7 +453,7 @@ public class TransactionServiceImpl implements TransactionService {
         KycLevel level = wallet.getUser().getKycLevel();
 
         if (!level.isUnlimited()) {
-            BigDecimal dailyWithdrawals = walletService.getUserDailyTotal(wallet.getUser().getId());
+            BigDecimal dailyWithdrawals = walletService.lockUserDailyTotal(wallet.getUser().getId());
             if (amount.compareTo(level.getPerTransactionLimit()) > 0) {
                 throw new IllegalArgumentException(
                         "Withdrawal exceeds per-transaction limit for " + level.name()
@@ -291,7 +477,6 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         String reference = generateReference("WTH");
-        String idempotencyKey = generateIdempotencyKey(reference);
 
         Transaction transaction = Transaction.builder()
                 .reference(reference)
@@ -301,28 +486,23 @@ public class TransactionServiceImpl implements TransactionService {
                 .currency(wallet.getCurrency())
                 .status(TransactionStatus.PROCESSING)
                 .description("Withdrawal to " + bankAccount)
+                .paymentGateway(appProperties.getTransaction().getPayoutGateway().toUpperCase())
                 .build();
 
         transaction = transactionRepository.save(transaction);
 
         try {
-            LedgerEntryRequest debitEntry = LedgerEntryRequest.builder()
-                    .wallet(wallet)
-                    .entryType(EntryType.DEBIT)
-                    .amount(amount)
-                    .transactionReference(reference)
-                    .idempotencyKey(idempotencyKey)
-                    .description("Withdrawal to " + bankAccount)
-                    .build();
-            ledgerService.createEntry(debitEntry);
-            walletService.updateBalance(walletId, amount, false);
+            // Only availableBalance moves now; the payout's settlement captures or releases the hold
+            holdService.placeHold(wallet, amount, reference, "Withdrawal to " + bankAccount);
 
-            transaction.setStatus(TransactionStatus.SUCCESS);
-            transaction.setCompletedAt(LocalDateTime.now());
+            transaction.setStatus(TransactionStatus.PENDING);
             transaction = transactionRepository.save(transaction);
 
             publishTransactionEvent(transaction, wallet.getUser().getId(), wallet.getId(), null,
-                    null, "COMPLETED", transaction.getDescription());
+                    null, "CREATED", transaction.getDescription());
+
+            // The gateway is called once the hold is committed, never while the wallet row is locked
+            afterCommit(() -> startPayout(reference, bankAccount, bankCode));
 
             return mapToResponse(transaction);
 
@@ -332,8 +512,8 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setFailureReason(e.getMessage());
             transaction = transactionRepository.save(transaction);
 
-            publishTransactionEvent(transaction, wallet.getUser().getId(), wallet.getId(), null,
-                    null, "FAILED", "Withdrawal failed: " + safeMsg(e.getMessage()));
+            publishFailedEvent(transaction, wallet.getUser().getId(), wallet.getId(), null,
+                    null, "Withdrawal failed: " + safeMsg(e.getMessage()));
 
             throw e;
         }
@@ -342,12 +522,42 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional(readOnly = true)
     public Page<TransactionResponse> getUserTransactions(UUID userId, Pageable pageable) {
-        //return transactionRepository.findByUserId(userId, pageable)
-              //  .map(this::mapToResponse);
         List<UUID> walletIds = walletRepository.findWalletIdsByUserId(userId);
-        Page<Transaction> page = transactionRepository
-                .findAllWalletTransactions(walletIds, pageable);
-        return page.map(this::mapToResponse);
+        if (walletIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return transactionQueryRepository.findByWalletIds(walletIds, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> getUserTransactionHistory(UUID userId, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        HistoryCursor position = HistoryCursor.decode(cursor);
+
+        List<UUID> walletIds = walletRepository.findWalletIdsByUserId(userId);
+        if (walletIds.isEmpty()) {
+            return CursorPageResponse.<TransactionResponse>builder()
+                    .content(List.of())
+                    .size(0)
+                    .build();
+        }
+
+        // One extra row tells us whether another slice exists
+        List<UUID> ids = transactionRepository.findWalletTransactionIdsBefore(
+                walletIds, position.getCreatedAt(), position.getId(), pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<TransactionResponse> page = ids.isEmpty()
+                ? List.of()
+                : transactionQueryRepository.findByIdIn(hasNext ? ids.subList(0, pageSize) : ids);
+
+        TransactionResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPageResponse.<TransactionResponse>builder()
+                .content(page)
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? new HistoryCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
     }
 
     @Override
@@ -358,6 +568,78 @@ public class TransactionServiceImpl implements TransactionService {
         return mapToResponse(transaction);
     }
 
+    private void startPayout(String reference, String bankAccount, String bankCode) {
+        try {
+            payoutService.startPayout(reference, bankAccount, bankCode);
+        } catch (Exception e) {
+            // The withdrawal stands; the hold sweeper asks the gateway what happened
+            log.error("Failed to start payout: {}", reference, e);
+        }
+    }
+
+    private void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCommit() { task.run(); }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * Loads the source and destination wallets of a transfer, locked in wallet id order.
+     */
+    protected List<Wallet> loadTransferWallets(UUID sourceWalletId, String destinationWalletNumber) {
+        return walletService.getTransferWalletsWithLock(sourceWalletId, destinationWalletNumber);
+    }
+
+    /**
+     * Loads the wallet of a deposit or withdrawal, locked for the rest of the transaction.
+     */
+    protected Wallet loadWallet(UUID walletId) {
+        return walletService.getWalletByIdWithLock(walletId);
+    }
+
+    /**
+     * Writes a ledger entry and moves the wallet balance by the same amount.
+     */
+    protected void applyEntry(LedgerEntryRequest entry) {
+        ledgerService.createEntry(entry);
+        walletService.applyBalanceChange(entry.getWallet(), entry.getAmount(),
+                entry.getEntryType() == EntryType.CREDIT);
+    }
+
+    /**
+     * Applies both legs of a transfer. Wallets are already locked in a fixed order.
+     */
+    protected void applyTransferEntries(LedgerEntryRequest debitEntry, LedgerEntryRequest creditEntry) {
+        applyEntry(debitEntry);
+        applyEntry(creditEntry);
+    }
+
+    /**
+     * Loads the source wallet and the destination wallets of a batch payout, locked in wallet id order.
+     */
+    protected List<Wallet> loadBatchWallets(UUID sourceWalletId, Collection<String> destinationWalletNumbers) {
+        return walletService.getBatchWalletsWithLock(sourceWalletId, destinationWalletNumbers);
+    }
+
+    /**
+     * Debits the source once and credits each destination once for a whole batch.
+     * Returns each wallet's balance before the batch, keyed by wallet id.
+     */
+    protected Map<UUID, BigDecimal> applyBatchBalances(Wallet sourceWallet, BigDecimal debitTotal,
+                                                       Map<Wallet, BigDecimal> creditTotals) {
+        Map<UUID, BigDecimal> openingBalances = new HashMap<>();
+        openingBalances.put(sourceWallet.getId(), sourceWallet.getBalance());
+        creditTotals.keySet().forEach(w -> openingBalances.put(w.getId(), w.getBalance()));
+
+        walletService.applyBalanceChange(sourceWallet, debitTotal, false);
+        creditTotals.forEach((wallet, amount) -> walletService.applyBalanceChange(wallet, amount, true));
+        return openingBalances;
+    }
+
     private void publishTransactionEvent(
             Transaction transaction,
             UUID userId,
@@ -368,30 +650,113 @@ public class TransactionServiceImpl implements TransactionService {
             String description
     ) {
         try {
-            TransactionEvent event = TransactionEvent.builder()
-                    .transactionId(transaction.getId())
-                    .reference(transaction.getReference())
-                    .sourceWalletId(sourceWalletId)
-                    .destinationWalletId(destinationWalletId)
-                    .userId(userId)
-                    .type(transaction.getType())
-                    .status(transaction.getStatus())
-                    .amount(transaction.getAmount())
-                    .currency(transaction.getCurrency() != null ? transaction.getCurrency().name() : null)
-                    .description(description)
-                    .timestamp(LocalDateTime.now())
-                    .ipAddress(ipAddress)
-                    .eventType(eventType)
-                    .build();
+            kafkaProducerService.publishTransactionEvent(buildTransactionEvent(transaction, userId,
+                    sourceWalletId, destinationWalletId, ipAddress, eventType, description));
+        } catch (Exception e) {
+            log.error("Failed to publish transaction event: {}", transaction.getReference(), e);
+        }
+    }
 
-            kafkaProducerService.publishTransactionEvent(event);
+    // The surrounding transaction rolls back after a failure, so the event is stored afterwards
+    private void publishFailedEvent(
+            Transaction transaction,
+            UUID userId,
+            UUID sourceWalletId,
+            UUID destinationWalletId,
+            String ipAddress,
+            String description
+    ) {
+        try {
+            kafkaProducerService.publishTransactionEventOnRollback(buildTransactionEvent(transaction, userId,
+                    sourceWalletId, destinationWalletId, ipAddress, "FAILED", description));
         } catch (Exception e) {
             log.error("Failed to publish transaction event: {}", transaction.getReference(), e);
         }
     }
 
+    private TransactionEvent buildTransactionEvent(
+            Transaction transaction,
+            UUID userId,
+            UUID sourceWalletId,
+            UUID destinationWalletId,
+            String ipAddress,
+            String eventType,
+            String description
+    ) {
+        return TransactionEvent.builder()
+                .transactionId(transaction.getId())
+                .reference(transaction.getReference())
+                .sourceWalletId(sourceWalletId)
+                .destinationWalletId(destinationWalletId)
+                .userId(userId)
+                .type(transaction.getType())
+                .status(transaction.getStatus())
+                .amount(transaction.getAmount())
+                .currency(transaction.getCurrency() != null ? transaction.getCurrency().name() : null)
+                .description(description)
+                .timestamp(LocalDateTime.now())
+                .ipAddress(ipAddress)
+                .eventType(eventType)
+                .build();
+    }
+
+    /**
+     * Returns the reason an item cannot be paid out, or null when it passes. Balance and daily
+     * limit are checked against what the earlier accepted items in the batch already used.
+     */
+    private String validateBatchItem(BatchTransferItem item, Wallet sourceWallet, Wallet destination,
+                                     KycLevel level, BigDecimal dailySpent, BigDecimal remainingBalance) {
+        BigDecimal amount = item.getAmount();
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be positive";
+        }
+        if (destination == null) {
+            return "Destination Wallet Not found";
+        }
+        if (destination.getId().equals(sourceWallet.getId())) {
+            return "Cannot transfer to the source wallet";
+        }
+        if (!sourceWallet.getCurrency().equals(destination.getCurrency())) {
+            return "Currency mismatch";
+        }
+        if (!level.isUnlimited()) {
+            if (amount.compareTo(level.getPerTransactionLimit()) > 0) {
+                return "Transfer amount exceeds max per-transaction limit for " + level.name()
+                        + ": " + level.getPerTransactionLimit();
+            }
+            if (dailySpent.add(amount).compareTo(level.getDailyTransactionLimit()) > 0) {
+                return "Daily transfer limit exceeded for " + level.name()
+                        + ": " + level.getDailyTransactionLimit();
+            }
+        }
+        if (remainingBalance.compareTo(amount) < 0) {
+            return "Insufficient balance";
+        }
+        return null;
+    }
+
+    private BatchTransferResponse buildBatchResponse(String batchReference, Wallet sourceWallet,
+                                                     boolean allOrNothing,
+                                                     List<BatchTransferItemResult> results,
+                                                     BigDecimal totalAmount) {
+        int successCount = (int) results.stream()
+                .filter(r -> r.getStatus() == TransactionStatus.SUCCESS)
+                .count();
+        return BatchTransferResponse.builder()
+                .batchReference(batchReference)
+                .sourceWalletNumber(sourceWallet.getWalletNumber())
+                .currency(sourceWallet.getCurrency())
+                .allOrNothing(allOrNothing)
+                .totalCount(results.size())
+                .successCount(successCount)
+                .failedCount(results.size() - successCount)
+                .totalAmount(totalAmount)
+                .results(results)
+                .build();
+    }
+
     private String generateReference(String prefix) {
-        return String.format("%s%d%06d", prefix, System.currentTimeMillis(), (int) (Math.random() * 1000000));
+        return idService.nextReference(prefix);
     }
 
     private String generateIdempotencyKey(String reference) {
@@ -0,0 +1,290 @@
+package org.fintech.wallet.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.dto.response.SessionResponse;
+import org.fintech.wallet.security.JwtTokenProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Login sessions in Redis: one hash per user, session id to a JSON entry holding the refresh
+ * token hash, device, IP, creation and last-seen times and its own expiry. Every operation
+ * touches only that user's hash, in a single command or script. Redis 7 has no per-field TTL,
+ * so entries carry {@code expiresAt}: expired ones are ignored on read and dropped whenever a
+ * session is opened, and the hash itself expires with its longest-lived session.
+ */
+@Service
+@Slf4j
+public class UserSessionStore {
+
+    private static final String SESSIONS_PREFIX = "session:user:";
+    private static final String MIGRATED_MARKER = "session:migrated";
+    // Layout before this store: one key per refresh token and a set of "sessionId:device" per user
+    private static final String LEGACY_REFRESH_PREFIX = "refresh:token:";
+    private static final String LEGACY_SESSIONS_PREFIX = "user:sessions:";
+    private static final int MIGRATION_BATCH = 500;
+
+    // Add the session, drop expired ones and keep the hash alive as long as its newest expiry
+    private static final RedisScript<Long> OPEN_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            local now = tonumber(ARGV[3])
+            local expireAt = tonumber(ARGV[4])
+            local entries = redis.call('HGETALL', KEYS[1])
+            for i = 1, #entries, 2 do
+                local expiresAt = cjson.decode(entries[i + 1]).expiresAt
+                if expiresAt <= now then
+                    redis.call('HDEL', KEYS[1], entries[i])
+                elseif expiresAt > expireAt then
+                    expireAt = expiresAt
+                end
+            end
+            redis.call('PEXPIREAT', KEYS[1], expireAt)
+            return #entries / 2
+            """, Long.class);
+
+    // Accept the refresh token only for a live session it was issued for, and record the use
+    private static final RedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>("""
+            local raw = redis.call('HGET', KEYS[1], ARGV[1])
+            if not raw then return 0 end
+            local entry = cjson.decode(raw)
+            if entry.refreshTokenHash ~= ARGV[2] or entry.expiresAt <= tonumber(ARGV[3]) then return 0 end
+            entry.lastSeenAt = tonumber(ARGV[3])
+            redis.call('HSET', KEYS[1], ARGV[1], cjson.encode(entry))
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserSessionStore(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void openSession(UUID userId, String sessionId, String refreshToken,
+                            String device, String ipAddress, Duration ttl) {
+        long now = System.currentTimeMillis();
+        SessionEntry entry = new SessionEntry(JwtTokenProvider.tokenHash(refreshToken), device, ipAddress,
+                now, now, now + ttl.toMillis());
+        redisTemplate.execute(OPEN_SCRIPT, List.of(key(userId)), sessionId, write(entry),
+                String.valueOf(now), String.valueOf(entry.expiresAt()));
+        log.info("Session stored for user: {}", userId);
+    }
+
+    /**
+     * Whether {@code refreshToken} belongs to a live session of the user; if so the session's
+     * last-seen time is updated in the same call.
+     */
+    public boolean touchSession(UUID userId, String sessionId, String refreshToken) {
+        Long result = redisTemplate.execute(TOUCH_SCRIPT, List.of(key(userId)), sessionId,
+                JwtTokenProvider.tokenHash(refreshToken), String.valueOf(System.currentTimeMillis()));
+        return result != null && result == 1;
+    }
+
+    public void removeSession(UUID userId, String sessionId) {
+        redisTemplate.opsForHash().delete(key(userId), sessionId);
+        log.info("Session removed for user: {}", userId);
+    }
+
+    public void removeAllSessions(UUID userId) {
+        redisTemplate.delete(key(userId));
+        log.info("All sessions cleared for user: {}", userId);
+    }
+
+    // Most recently used first
+    public List<SessionResponse> getActiveSessions(UUID userId) {
+        long now = System.currentTimeMillis();
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(key(userId));
+        List<SessionResponse> sessions = new ArrayList<>(entries.size());
+        entries.forEach((sessionId, raw) -> {
+            SessionEntry entry = read(String.valueOf(raw));
+            if (entry != null && entry.expiresAt() > now) {
+                sessions.add(SessionResponse.builder()
+                        .sessionId(String.valueOf(sessionId))
+                        .device(entry.device())
+                        .ipAddress(entry.ipAddress())
+                        .createdAt(toDateTime(entry.createdAt()))
+                        .lastSeenAt(toDateTime(entry.lastSeenAt()))
+                        .expiresAt(toDateTime(entry.expiresAt()))
+                        .build());
+            }
+        });
+        sessions.sort(Comparator.comparing(SessionResponse::getLastSeenAt).reversed());
+        return sessions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacySessions() {
+        // Done once per Redis, by whichever node gets there first
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(MIGRATED_MARKER, "1"))) {
+            return;
+        }
+        try {
+            int moved = 0;
+            List<String> batch = new ArrayList<>(MIGRATION_BATCH);
+            try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions()
+                    .match(LEGACY_REFRESH_PREFIX + "*").count(1000).build())) {
+                while (keys.hasNext()) {
+                    batch.add(keys.next());
+                    if (batch.size() == MIGRATION_BATCH) {
+                        moved += migrateBatch(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                moved += migrateBatch(batch);
+            }
+            deleteLegacySessionSets();
+            log.info("Migrated {} legacy sessions", moved);
+        } catch (Exception e) {
+            // Unmigrated sessions only cost their users a fresh login; their old keys expire on their own
+            log.error("Legacy session migration failed", e);
+        }
+    }
+
+    private int migrateBatch(List<String> refreshKeys) {
+        List<Object> values = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : refreshKeys) {
+                connection.stringCommands().get(bytes(key));
+                connection.keyCommands().pTtl(bytes(key));
+            }
+            return null;
+        });
+
+        // userId -> sessionId -> entry
+        Map<UUID, Map<String, SessionEntry>> byUser = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < refreshKeys.size(); i++) {
+            Object token = values.get(2 * i);
+            Object ttl = values.get(2 * i + 1);
+            String[] parts = refreshKeys.get(i).substring(LEGACY_REFRESH_PREFIX.length()).split(":", 2);
+            if (token == null || !(ttl instanceof Number ttlMs) || ttlMs.longValue() <= 0 || parts.length < 2) {
+                continue;
+            }
+            UUID userId;
+            try {
+                userId = UUID.fromString(parts[0]);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            long expiresAt = now + ttlMs.longValue();
+            byUser.computeIfAbsent(userId, id -> new HashMap<>()).put(parts[1], new SessionEntry(
+                    JwtTokenProvider.tokenHash(String.valueOf(token)), null, null, now, now, expiresAt));
+        }
+
+        List<UUID> users = new ArrayList<>(byUser.keySet());
+        List<Object> devices = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            users.forEach(userId -> connection.setCommands().sMembers(bytes(LEGACY_SESSIONS_PREFIX + userId)));
+            return null;
+        });
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < users.size(); i++) {
+                UUID userId = users.get(i);
+                Map<String, SessionEntry> sessions = byUser.get(userId);
+                Map<String, String> legacyDevices = legacyDevices(devices.get(i));
+                byte[] key = bytes(key(userId));
+                long expireAt = now;
+                for (Map.Entry<String, SessionEntry> session : sessions.entrySet()) {
+                    SessionEntry entry = session.getValue()
+                            .withDevice(legacyDevices.get(session.getKey()));
+                    connection.hashCommands().hSet(key, bytes(session.getKey()), bytes(write(entry)));
+                    expireAt = Math.max(expireAt, entry.expiresAt());
+                }
+                connection.keyCommands().pExpireAt(key, expireAt);
+            }
+            refreshKeys.forEach(key -> connection.keyCommands().unlink(bytes(key)));
+            return null;
+        });
+        return byUser.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void deleteLegacySessionSets() {
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(LEGACY_SESSIONS_PREFIX + "*").count(1000).build())) {
+            List<String> batch = new ArrayList<>(MIGRATION_BATCH);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == MIGRATION_BATCH || !keys.hasNext()) {
+                    redisTemplate.unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    // Legacy set members are "sessionId:device"
+    private static Map<String, String> legacyDevices(Object members) {
+        Map<String, String> devices = new HashMap<>();
+        if (members instanceof Set<?> set) {
+            for (Object member : set) {
+                String[] parts = String.valueOf(member).split(":", 2);
+                if (parts.length == 2 && !"null".equals(parts[1])) {
+                    devices.put(parts[0], parts[1]);
+                }
+            }
+        }
+        return devices;
+    }
+
+    private String write(SessionEntry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize session", e);
+        }
+    }
+
+    private SessionEntry read(String raw) {
+        try {
+            return objectMapper.readValue(raw, SessionEntry.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable session entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(UUID userId) {
+        return SESSIONS_PREFIX + userId;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Times are epoch millis, so the scripts can compare them without parsing dates
+    record SessionEntry(String refreshTokenHash, String device, String ipAddress,
+                        long createdAt, long lastSeenAt, long expiresAt) {
+
+        SessionEntry withDevice(String device) {
+            return new SessionEntry(refreshTokenHash, device, ipAddress, createdAt, lastSeenAt, expiresAt);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fintech.wallet.domain.entity.User;
 import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.SpendPeriod;
 import org.fintech.wallet.domain.enums.WalletStatus;
 import org.fintech.wallet.dto.event.WalletEvent;
 import org.fintech.wallet.dto.request.CreateWalletRequest;
@@ -13,17 +14,19 @@ import org.fintech.wallet.exception.InsufficientBalanceException;
 import org.fintech.wallet.exception.WalletAuthorizeException;
 import org.fintech.wallet.exception.WalletNotFoundException;
 import org.fintech.wallet.kafka.KafkaProducerService;
-import org.fintech.wallet.repository.TransactionRepository;
 import org.fintech.wallet.repository.UserRepository;
 import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.repository.projection.WalletBalanceView;
+import org.fintech.wallet.service.IdService;
+import org.fintech.wallet.service.SpendLimitService;
 import org.fintech.wallet.service.WalletService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -34,10 +37,10 @@ public class WalletServiceImpl implements WalletService{
 
     private final WalletRepository walletRepository;
     private final UserRepository userRepository;
-    private final TransactionRepository transactionRepository;
+    private final SpendLimitService spendLimitService;
+    private final IdService idService;
     private final KafkaProducerService kafkaProducerService;
 
-    private final Random random = new Random();
     @Override
     @Transactional
     public WalletResponse createWallet(UUID userId, CreateWalletRequest request) {
@@ -54,7 +57,7 @@ public class WalletServiceImpl implements WalletService{
 
         Wallet wallet = Wallet.builder()
                 .user(user)
-                .walletNumber(generateWalletNumber())
+                .walletNumber(idService.nextWalletNumber())
                 .currency(request.getCurrency())
                 .balance(BigDecimal.ZERO)
                 .availableBalance(BigDecimal.ZERO)
@@ -110,8 +113,27 @@ public class WalletServiceImpl implements WalletService{
     }
     @Override
     @Transactional
+    public List<Wallet> getTransferWalletsWithLock(UUID sourceWalletId, String destinationWalletNumber) {
+        return walletRepository.findTransferPairWithLock(sourceWalletId, destinationWalletNumber);
+    }
+    @Override
+    @Transactional
+    public List<Wallet> getBatchWalletsWithLock(UUID sourceWalletId, Collection<String> destinationWalletNumbers) {
+        return walletRepository.findBatchWalletsWithLock(sourceWalletId, destinationWalletNumbers);
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public List<Wallet> getBatchWallets(UUID sourceWalletId, Collection<String> destinationWalletNumbers) {
+        return walletRepository.findBatchWallets(sourceWalletId, destinationWalletNumbers);
+    }
+    @Override
+    @Transactional
     public void updateBalance(UUID walletId, BigDecimal amount, boolean isCredit) {
-        Wallet wallet = getWalletByIdWithLock(walletId);
+        applyBalanceChange(getWalletByIdWithLock(walletId), amount, isCredit);
+    }
+    @Override
+    @Transactional
+    public void applyBalanceChange(Wallet wallet, BigDecimal amount, boolean isCredit) {
         BigDecimal oldBalance = wallet.getAvailableBalance();
 
         if (isCredit) {
@@ -124,39 +146,74 @@ public class WalletServiceImpl implements WalletService{
             wallet.setBalance(wallet.getBalance().subtract(amount));
             wallet.setAvailableBalance(wallet.getAvailableBalance().subtract(amount));
         }
-        publishWalletEvent(
-                wallet,
-                wallet.getUser().getId(),
-                "BALANCE_UPDATED",
-                oldBalance,
-                wallet.getAvailableBalance()
-        );
-
-        // Optional LOW_BALANCE alert
-        if (wallet.getAvailableBalance().compareTo(new BigDecimal("1000")) < 0) {
-            publishWalletEvent(
-                    wallet,
-                    wallet.getUser().getId(),
-                    "LOW_BALANCE",
-                    wallet.getAvailableBalance(),
-                    wallet.getAvailableBalance()
-            );
-        }
+        publishBalanceEvents(wallet, oldBalance, wallet.getAvailableBalance());
 
         walletRepository.save(wallet);
     }
     @Override
-    public BigDecimal getUserDailyTotal(UUID userId) {
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
+    @Transactional(readOnly = true)
+    public List<Wallet> getTransferWallets(UUID sourceWalletId, String destinationWalletNumber) {
+        return walletRepository.findTransferPair(sourceWalletId, destinationWalletNumber);
+    }
+    @Override
+    @Transactional
+    public BigDecimal applyGuardedBalanceChange(Wallet wallet, BigDecimal amount, boolean isCredit) {
+        int updated = isCredit
+                ? walletRepository.credit(wallet.getId(), amount)
+                : walletRepository.debitIfSufficient(wallet.getId(), amount);
 
-        BigDecimal total = transactionRepository.sumUserTransactionsByDateRange(
-                userId,
-                startOfDay,
-                endOfDay
-        );
+        if (updated == 0) {
+            if (isCredit) {
+                throw new WalletNotFoundException("Wallet not found");
+            }
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
 
-        return total != null ? total : BigDecimal.ZERO;
+        // Row is held by our UPDATE until commit, so this read is exactly the post-update state
+        WalletBalanceView balances = walletRepository.findBalancesById(wallet.getId());
+        BigDecimal oldAvailable = isCredit
+                ? balances.getAvailableBalance().subtract(amount)
+                : balances.getAvailableBalance().add(amount);
+
+        publishBalanceEvents(wallet, oldAvailable, balances.getAvailableBalance());
+        return balances.getBalance();
+    }
+    @Override
+    @Transactional
+    public BigDecimal holdFunds(Wallet wallet, BigDecimal amount) {
+        if (walletRepository.holdIfSufficient(wallet.getId(), amount) == 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        WalletBalanceView balances = walletRepository.findBalancesById(wallet.getId());
+        publishBalanceEvents(wallet, balances.getAvailableBalance().add(amount), balances.getAvailableBalance());
+        return balances.getBalance();
+    }
+    @Override
+    @Transactional
+    public BigDecimal captureHeldFunds(Wallet wallet, BigDecimal amount) {
+        if (walletRepository.captureHeld(wallet.getId(), amount) == 0) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+        // availableBalance already dropped when the hold was placed; no balance event here
+        return walletRepository.findBalancesById(wallet.getId()).getBalance();
+    }
+    @Override
+    @Transactional
+    public BigDecimal releaseHeldFunds(Wallet wallet, BigDecimal amount) {
+        if (walletRepository.releaseHeld(wallet.getId(), amount) == 0) {
+            throw new WalletNotFoundException("Wallet not found");
+        }
+        WalletBalanceView balances = walletRepository.findBalancesById(wallet.getId());
+        publishBalanceEvents(wallet, balances.getAvailableBalance().subtract(amount), balances.getAvailableBalance());
+        return balances.getBalance();
+    }
+    @Override
+    public BigDecimal getUserDailyTotal(UUID userId) {
+        return spendLimitService.getSpent(userId, SpendPeriod.DAY);
+    }
+    @Override
+    public BigDecimal lockUserDailyTotal(UUID userId) {
+        return spendLimitService.lockSpent(userId, SpendPeriod.DAY);
     }
     @Override
     @Transactional
@@ -189,14 +246,6 @@ public class WalletServiceImpl implements WalletService{
         );
     }
 
-    private String generateWalletNumber() {
-        String walletNumber;
-        do {
-            walletNumber = String.format("WLT%010d", random.nextInt(1000000000));
-        } while (walletRepository.existsByWalletNumber(walletNumber));
-        return walletNumber;
-    }
-
     private WalletResponse mapToResponse(Wallet wallet) {
         return WalletResponse.builder()
                 .id(wallet.getId())
@@ -208,6 +257,26 @@ public class WalletServiceImpl implements WalletService{
                 .createdAt(wallet.getCreatedAt())
                 .build();
     }
+    private void publishBalanceEvents(Wallet wallet, BigDecimal oldBalance, BigDecimal newBalance) {
+        publishWalletEvent(
+                wallet,
+                wallet.getUser().getId(),
+                "BALANCE_UPDATED",
+                oldBalance,
+                newBalance
+        );
+
+        // Optional LOW_BALANCE alert
+        if (newBalance.compareTo(new BigDecimal("1000")) < 0) {
+            publishWalletEvent(
+                    wallet,
+                    wallet.getUser().getId(),
+                    "LOW_BALANCE",
+                    newBalance,
+                    newBalance
+            );
+        }
+    }
     private void publishWalletEvent(
             Wallet wallet,
             UUID userId,
@@ -2,14 +2,20 @@ package org.fintech.wallet.service.payment;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.domain.enums.PayoutStatus;
 import org.fintech.wallet.dto.request.InitiatePaymentRequest;
 import org.fintech.wallet.dto.response.PaymentResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -25,6 +31,10 @@ public class FlutterwaveService {
     @Value("${payment.flutterwave.base-url:https://api.flutterwave.com/v3}")
     private String flutterwaveBaseUrl;
 
+    // Secret hash set on the Flutterwave dashboard, sent back in the verif-hash header of webhooks
+    @Value("${payment.flutterwave.secret-hash:}")
+    private String flutterwaveSecretHash;
+
     public PaymentResponse initiateDeposit(InitiatePaymentRequest request) {
         log.info("Initiating Flutterwave deposit for user: {}", request.getUserId());
 
@@ -102,4 +112,121 @@ public class FlutterwaveService {
             return false;
         }
     }
+
+    /**
+     * Sends {@code amount} to a bank account. Flutterwave rejects a second transfer with the same
+     * reference, so a retry never pays twice.
+     */
+    public PayoutResult initiateTransfer(String reference, BigDecimal amount, String currency,
+                                         String accountNumber, String bankCode, String narration) {
+        log.info("Initiating Flutterwave transfer: {}", reference);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(flutterwaveSecretKey);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("account_bank", bankCode);
+        body.put("account_number", accountNumber);
+        body.put("amount", amount);
+        body.put("currency", currency);
+        body.put("debit_currency", currency);
+        body.put("reference", reference);
+        body.put("narration", narration);
+
+        try {
+            ResponseEntity<Map> response = restTemplate.postForEntity(
+                    flutterwaveBaseUrl + "/transfers", new HttpEntity<>(body, headers), Map.class);
+            Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
+
+            return new PayoutResult(transferStatus((String) data.get("status")),
+                    String.valueOf(data.get("id")), (String) response.getBody().get("message"));
+
+        } catch (HttpClientErrorException e) {
+            log.error("Flutterwave transfer rejected: {} {}", reference, e.getResponseBodyAsString());
+            return PayoutResult.of(PayoutStatus.FAILED, "Transfer rejected: " + e.getStatusCode());
+        } catch (Exception e) {
+            log.error("Flutterwave transfer outcome unknown: {}", reference, e);
+            return PayoutResult.of(PayoutStatus.PENDING, e.getMessage());
+        }
+    }
+
+    /**
+     * Looks a transfer up by the id Flutterwave returned when it was created.
+     */
+    public PayoutResult getTransferStatus(String transferId) {
+        log.info("Verifying Flutterwave transfer: {}", transferId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(flutterwaveSecretKey);
+
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    flutterwaveBaseUrl + "/transfers/" + transferId,
+                    HttpMethod.GET, new HttpEntity<>(headers), Map.class
+            );
+            Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
+            String status = (String) data.get("status");
+
+            return new PayoutResult(transferStatus(status), transferId, status);
+
+        } catch (HttpClientErrorException.NotFound e) {
+            return PayoutResult.of(PayoutStatus.NOT_FOUND, "Transfer not found");
+        } catch (Exception e) {
+            log.error("Flutterwave transfer verification failed: {}", transferId, e);
+            return PayoutResult.of(PayoutStatus.PENDING, e.getMessage());
+        }
+    }
+
+    /**
+     * Looks a transfer up by our own reference, for a transfer whose create call never returned
+     * an id. NOT_FOUND means Flutterwave never accepted it.
+     */
+    public PayoutResult getTransferStatusByReference(String reference) {
+        log.info("Looking up Flutterwave transfer by reference: {}", reference);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(flutterwaveSecretKey);
+
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    flutterwaveBaseUrl + "/transfers?reference={reference}",
+                    HttpMethod.GET, new HttpEntity<>(headers), Map.class, reference
+            );
+            List<Map<String, Object>> data = (List<Map<String, Object>>) response.getBody().get("data");
+            if (data == null || data.isEmpty()) {
+                return PayoutResult.of(PayoutStatus.NOT_FOUND, "Transfer not found");
+            }
+            Map<String, Object> transfer = data.get(0);
+            String status = (String) transfer.get("status");
+
+            return new PayoutResult(transferStatus(status), String.valueOf(transfer.get("id")), status);
+
+        } catch (Exception e) {
+            log.error("Flutterwave transfer lookup failed: {}", reference, e);
+            return PayoutResult.of(PayoutStatus.PENDING, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks the verif-hash header against the configured secret hash.
+     */
+    public boolean isValidSignature(String signature) {
+        if (signature == null || flutterwaveSecretHash == null || flutterwaveSecretHash.isBlank()) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                flutterwaveSecretHash.getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PayoutStatus transferStatus(String status) {
+        if ("successful".equalsIgnoreCase(status)) {
+            return PayoutStatus.SUCCESS;
+        }
+        if ("failed".equalsIgnoreCase(status)) {
+            return PayoutStatus.FAILED;
+        }
+        return PayoutStatus.PENDING;
+    }
 }
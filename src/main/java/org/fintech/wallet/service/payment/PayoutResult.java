@@ -0,0 +1,14 @@
+package org.fintech.wallet.service.payment;
+
+import org.fintech.wallet.domain.enums.PayoutStatus;
+
+/**
+ * Outcome of a transfer request or status lookup at a gateway. {@code gatewayReference} is
+ * the gateway's own id of the transfer, when it returned one.
+ */
+public record PayoutResult(PayoutStatus status, String gatewayReference, String message) {
+
+    public static PayoutResult of(PayoutStatus status, String message) {
+        return new PayoutResult(status, null, message);
+    }
+}
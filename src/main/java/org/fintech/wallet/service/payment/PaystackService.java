@@ -2,15 +2,23 @@ package org.fintech.wallet.service.payment;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.domain.enums.PayoutStatus;
 import org.fintech.wallet.dto.request.InitiatePaymentRequest;
 import org.fintech.wallet.dto.response.PaymentResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Service
@@ -100,4 +108,110 @@ public class PaystackService {
             return false;
         }
     }
+
+    /**
+     * Sends {@code amount} from the Paystack balance to a bank account. The reference makes the
+     * request idempotent at Paystack, so a retry never pays twice.
+     */
+    public PayoutResult initiateTransfer(String reference, BigDecimal amount, String currency,
+                                         String accountNumber, String bankCode, String reason) {
+        log.info("Initiating Paystack transfer: {}", reference);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(paystackSecretKey);
+
+        try {
+            Map<String, Object> recipient = new HashMap<>();
+            recipient.put("type", "nuban");
+            recipient.put("name", accountNumber);
+            recipient.put("account_number", accountNumber);
+            recipient.put("bank_code", bankCode);
+            recipient.put("currency", currency);
+            ResponseEntity<Map> recipientResponse = restTemplate.postForEntity(
+                    paystackBaseUrl + "/transferrecipient", new HttpEntity<>(recipient, headers), Map.class);
+            Map<String, Object> recipientData = (Map<String, Object>) recipientResponse.getBody().get("data");
+
+            Map<String, Object> body = new HashMap<>();
+            body.put("source", "balance");
+            body.put("amount", amount.movePointRight(2).longValueExact()); // Convert to kobo
+            body.put("recipient", recipientData.get("recipient_code"));
+            body.put("reference", transferReference(reference));
+            body.put("reason", reason);
+            ResponseEntity<Map> response = restTemplate.postForEntity(
+                    paystackBaseUrl + "/transfer", new HttpEntity<>(body, headers), Map.class);
+            Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
+
+            return new PayoutResult(transferStatus((String) data.get("status")),
+                    (String) data.get("transfer_code"), (String) response.getBody().get("message"));
+
+        } catch (HttpClientErrorException e) {
+            // Paystack refused the request (bad account, insufficient balance): nothing was sent
+            log.error("Paystack transfer rejected: {} {}", reference, e.getResponseBodyAsString());
+            return PayoutResult.of(PayoutStatus.FAILED, "Transfer rejected: " + e.getStatusCode());
+        } catch (Exception e) {
+            // Timeouts and 5xx leave the outcome unknown; the status lookup settles it later
+            log.error("Paystack transfer outcome unknown: {}", reference, e);
+            return PayoutResult.of(PayoutStatus.PENDING, e.getMessage());
+        }
+    }
+
+    public PayoutResult getTransferStatus(String reference) {
+        log.info("Verifying Paystack transfer: {}", reference);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(paystackSecretKey);
+
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    paystackBaseUrl + "/transfer/verify/" + transferReference(reference),
+                    HttpMethod.GET, new HttpEntity<>(headers), Map.class
+            );
+            Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
+            String status = (String) data.get("status");
+
+            return new PayoutResult(transferStatus(status), (String) data.get("transfer_code"), status);
+
+        } catch (HttpClientErrorException.NotFound e) {
+            return PayoutResult.of(PayoutStatus.NOT_FOUND, "Transfer not found");
+        } catch (Exception e) {
+            log.error("Paystack transfer verification failed: {}", reference, e);
+            return PayoutResult.of(PayoutStatus.PENDING, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks the x-paystack-signature header: HMAC-SHA512 of the raw body keyed with the secret key.
+     */
+    public boolean isValidSignature(String payload, String signature) {
+        if (signature == null || paystackSecretKey == null || paystackSecretKey.isBlank()) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(paystackSecretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(signature.toLowerCase()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA512 unavailable", e);
+        }
+    }
+
+    private static PayoutStatus transferStatus(String status) {
+        if ("success".equalsIgnoreCase(status)) {
+            return PayoutStatus.SUCCESS;
+        }
+        if ("failed".equalsIgnoreCase(status) || "reversed".equalsIgnoreCase(status)
+                || "abandoned".equalsIgnoreCase(status)) {
+            return PayoutStatus.FAILED;
+        }
+        return PayoutStatus.PENDING;
+    }
+
+    // Paystack transfer references allow lowercase letters, digits, '-' and '_' only
+    private static String transferReference(String reference) {
+        return reference.toLowerCase();
+    }
 }
@@ -0,0 +1,25 @@
+package org.fintech.wallet.service.realtime;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Hands messages straight to the message broker: enough for a single node, and for the STOMP
+ * broker relay, which resolves user sessions on other nodes itself.
+ */
+@Component
+@ConditionalOnExpression("'${app.websocket.relay:simple}' != 'redis'")
+@RequiredArgsConstructor
+public class LocalUserMessageRelay implements UserMessageRelay {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void sendToUser(UUID userId, String destination, Object payload) {
+        messagingTemplate.convertAndSendToUser(userId.toString(), destination, payload);
+    }
+}
@@ -6,56 +6,62 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.fintech.wallet.dto.response.NotificationResponse;
 import org.fintech.wallet.dto.response.RealtimeNotificationMessage;
-import org.fintech.wallet.repository.NotificationRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Pushes notification changes to the user's WebSocket sessions. Callers pass the unread count
+ * they got back from the counter update, so nothing here touches the database. A new
+ * notification carries the count in the same message; clients take it from there instead of
+ * waiting for a separate UNREAD_COUNT.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationRealtimePublisher {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final NotificationRepository notificationRepository;
+    private final UserMessageRelay messageRelay;
 
-    public void publishNew(UUID userId, NotificationResponse notification) {
-        long unread = notificationRepository.countByUserIdAndIsRead(userId, false);
-
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+    public void publishNew(UUID userId, NotificationResponse notification, long unreadCount) {
+        messageRelay.sendToUser(
+                userId,
                 "/queue/notifications",
                 RealtimeNotificationMessage.builder()
                         .event("NEW_NOTIFICATION")
                         .notification(notification)
-                        .unreadCount(unread)
+                        .unreadCount(unreadCount)
                         .build()
         );
-
-        publishUnreadCount(userId);
     }
 
-    public void publishUnreadCount(UUID userId) {
-        long unread = notificationRepository.countByUserIdAndIsRead(userId, false);
+    // Several new notifications for one user, all carrying the count after the last of them
+    public void publishNew(UUID userId, List<NotificationResponse> notifications, long unreadCount) {
+        for (NotificationResponse notification : notifications) {
+            publishNew(userId, notification, unreadCount);
+        }
+    }
 
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+    public void publishUnreadCount(UUID userId, long unreadCount) {
+        messageRelay.sendToUser(
+                userId,
                 "/queue/notifications/unread-count",
                 RealtimeNotificationMessage.builder()
                         .event("UNREAD_COUNT")
-                        .unreadCount(unread)
+                        .unreadCount(unreadCount)
                         .build()
         );
     }
 
-    public void publishDeleted(UUID userId, UUID notificationId) {
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
+    public void publishDeleted(UUID userId, UUID notificationId, long unreadCount) {
+        messageRelay.sendToUser(
+                userId,
                 "/queue/notifications",
                 RealtimeNotificationMessage.builder()
                         .event("DELETED")
                         .notificationId(notificationId)
+                        .unreadCount(unreadCount)
                         .build()
         );
     }
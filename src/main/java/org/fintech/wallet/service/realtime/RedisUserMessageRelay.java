@@ -0,0 +1,195 @@
+package org.fintech.wallet.service.realtime;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.config.SchedulingConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * User messages across nodes over Redis pub/sub. Messages are queued and flushed every
+ * {@code app.websocket.flush-interval-ms}: one pipelined registry lookup finds the nodes of
+ * all users in the flush, sessions on this node get their messages directly, and each other
+ * node gets one PUBLISH on its own channel with everything addressed to it. Nodes only
+ * receive messages for users they hold.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.websocket", name = "relay", havingValue = "redis")
+@Slf4j
+public class RedisUserMessageRelay implements UserMessageRelay, MessageListener {
+
+    private static final String CHANNEL_PREFIX = "ws:relay:";
+    private static final TypeReference<List<RelayedMessage>> BATCH_TYPE = new TypeReference<>() {};
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxPending;
+
+    private final ConcurrentLinkedQueue<RelayedMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Counter deliveredLocal;
+    private final Counter deliveredRemote;
+    private final Counter offline;
+    private final Counter dropped;
+
+    public RedisUserMessageRelay(SimpMessagingTemplate messagingTemplate,
+                                 SimpUserRegistry simpUserRegistry,
+                                 WebSocketSessionRegistry sessionRegistry,
+                                 RedisTemplate<String, String> redisTemplate,
+                                 RedisMessageListenerContainer redisMessageListenerContainer,
+                                 ObjectMapper objectMapper,
+                                 AppProperties appProperties,
+                                 MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.sessionRegistry = sessionRegistry;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.maxPending = appProperties.getWebsocket().getMaxPending();
+
+        this.deliveredLocal = relayed(meterRegistry, "local");
+        this.deliveredRemote = relayed(meterRegistry, "remote");
+        this.offline = relayed(meterRegistry, "offline");
+        this.dropped = relayed(meterRegistry, "dropped");
+        meterRegistry.gauge("wallet.websocket.relay.pending", pendingCount);
+
+        redisMessageListenerContainer.addMessageListener(this, ChannelTopic.of(channel(sessionRegistry.getNodeId())));
+    }
+
+    @Override
+    public void sendToUser(UUID userId, String destination, Object payload) {
+        if (pendingCount.get() >= maxPending) {
+            dropped.increment();
+            return;
+        }
+        try {
+            pending.add(new RelayedMessage(userId.toString(), destination, objectMapper.writeValueAsString(payload)));
+            pendingCount.incrementAndGet();
+        } catch (Exception e) {
+            log.error("Failed to serialize realtime message for user {}", userId, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.flush-interval-ms:20}",
+            scheduler = SchedulingConfig.WEBSOCKET_FLUSH_SCHEDULER)
+    public void flush() {
+        List<RelayedMessage> batch = new ArrayList<>();
+        RelayedMessage next;
+        while ((next = pending.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        pendingCount.addAndGet(-batch.size());
+
+        Set<String> users = new LinkedHashSet<>();
+        batch.forEach(m -> users.add(m.user()));
+        Map<String, Set<String>> nodesByUser;
+        try {
+            nodesByUser = sessionRegistry.nodesByUser(users);
+        } catch (Exception e) {
+            // Registry unreachable: still reach whoever is connected here
+            log.warn("WebSocket session registry unavailable, delivering to local sessions only", e);
+            batch.stream().filter(m -> simpUserRegistry.getUser(m.user()) != null).forEach(this::deliver);
+            return;
+        }
+
+        String self = sessionRegistry.getNodeId();
+        Map<String, List<RelayedMessage>> byNode = new HashMap<>();
+        for (RelayedMessage message : batch) {
+            Set<String> nodes = nodesByUser.get(message.user());
+            if (nodes == null) {
+                offline.increment();
+                continue;
+            }
+            for (String node : nodes) {
+                if (node.equals(self)) {
+                    deliver(message);
+                } else {
+                    byNode.computeIfAbsent(node, k -> new ArrayList<>()).add(message);
+                }
+            }
+        }
+        byNode.forEach(this::publish);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            objectMapper.readValue(message.getBody(), BATCH_TYPE).forEach(this::deliver);
+        } catch (Exception e) {
+            log.error("Failed to deliver relayed WebSocket batch", e);
+        }
+    }
+
+    private void publish(String node, List<RelayedMessage> messages) {
+        try {
+            Long receivers = redisTemplate.convertAndSend(channel(node), objectMapper.writeValueAsString(messages));
+            if (receivers != null && receivers == 0) {
+                offline.increment(messages.size());
+                sessionRegistry.forgetNode(node, messages.stream().map(RelayedMessage::user).distinct().toList());
+                return;
+            }
+            deliveredRemote.increment(messages.size());
+        } catch (Exception e) {
+            log.error("Failed to relay {} WebSocket messages to node {}", messages.size(), node, e);
+        }
+    }
+
+    // Payload is already JSON, so it goes out as-is instead of through the message converter again
+    private void deliver(RelayedMessage message) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        messagingTemplate.send(messagingTemplate.getUserDestinationPrefix() + message.user() + message.destination(),
+                MessageBuilder.createMessage(message.payload().getBytes(StandardCharsets.UTF_8),
+                        headers.getMessageHeaders()));
+        deliveredLocal.increment();
+    }
+
+    private static String channel(String nodeId) {
+        return CHANNEL_PREFIX + nodeId;
+    }
+
+    private static Counter relayed(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("wallet.websocket.relay.messages")
+                .description("User messages handled by the Redis WebSocket relay")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    record RelayedMessage(String user, String destination, String payload) {
+    }
+}
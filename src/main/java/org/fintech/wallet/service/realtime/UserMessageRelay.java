@@ -0,0 +1,11 @@
+package org.fintech.wallet.service.realtime;
+
+import java.util.UUID;
+
+/**
+ * Delivers a message to every WebSocket session of a user, whichever node holds them.
+ */
+public interface UserMessageRelay {
+
+    void sendToUser(UUID userId, String destination, Object payload);
+}
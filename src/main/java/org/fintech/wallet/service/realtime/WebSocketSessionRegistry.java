@@ -0,0 +1,151 @@
+package org.fintech.wallet.service.realtime;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which nodes hold WebSocket sessions of which users, shared through Redis: one hash per user,
+ * node id to the number of that user's sessions on the node.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.websocket", name = "relay", havingValue = "redis")
+@Slf4j
+public class WebSocketSessionRegistry {
+
+    private static final String USER_PREFIX = "ws:user:";
+
+    // Decrement and drop the field at zero in one step, so a concurrent connect is never lost
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local n = redis.call('HINCRBY', KEYS[1], ARGV[1], -1)
+            if n <= 0 then redis.call('HDEL', KEYS[1], ARGV[1]) end
+            return n
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String nodeId;
+    private final Duration sessionTtl;
+    // sessionId -> userId; disconnect events can repeat, only the first one releases
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    public WebSocketSessionRegistry(RedisTemplate<String, String> redisTemplate, AppProperties appProperties) {
+        AppProperties.WebSocket config = appProperties.getWebsocket();
+        this.redisTemplate = redisTemplate;
+        this.nodeId = StringUtils.hasText(config.getNodeId()) ? config.getNodeId() : UUID.randomUUID().toString();
+        this.sessionTtl = Duration.ofHours(config.getSessionTtlHours());
+        log.info("WebSocket relay node id: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null || localSessions.putIfAbsent(sessionId, user.getName()) != null) {
+            return;
+        }
+        String key = USER_PREFIX + user.getName();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] rawKey = bytes(key);
+                connection.hashCommands().hIncrBy(rawKey, bytes(nodeId), 1);
+                connection.keyCommands().expire(rawKey, sessionTtl.toSeconds());
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to register WebSocket session for user {}", user.getName(), e);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        String userId = localSessions.remove(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(USER_PREFIX + userId), nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to release WebSocket session for user {}", userId, e);
+        }
+    }
+
+    /**
+     * Nodes holding sessions of each of the users, in one pipelined round trip. Users without
+     * a session anywhere are left out.
+     */
+    public Map<String, Set<String>> nodesByUser(Collection<String> userIds) {
+        List<String> ordered = new ArrayList<>(userIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String userId : ordered) {
+                connection.hashCommands().hKeys(bytes(USER_PREFIX + userId));
+            }
+            return null;
+        });
+
+        Map<String, Set<String>> nodes = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            if (results.get(i) instanceof Collection<?> keys && !keys.isEmpty()) {
+                Set<String> userNodes = new HashSet<>();
+                keys.forEach(k -> userNodes.add(String.valueOf(k)));
+                nodes.put(ordered.get(i), userNodes);
+            }
+        }
+        return nodes;
+    }
+
+    // A node nobody listens for any more (crashed without cleaning up): drop it from these users
+    public void forgetNode(String deadNodeId, Collection<String> userIds) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String userId : userIds) {
+                connection.hashCommands().hDel(bytes(USER_PREFIX + userId), bytes(deadNodeId));
+            }
+            return null;
+        });
+        log.info("Removed departed WebSocket node {} from {} users", deadNodeId, userIds.size());
+    }
+
+    @PreDestroy
+    public void deregister() {
+        Set<String> users = new HashSet<>(localSessions.values());
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            forgetNode(nodeId, users);
+        } catch (Exception e) {
+            log.warn("Failed to deregister WebSocket sessions of node {}", nodeId, e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
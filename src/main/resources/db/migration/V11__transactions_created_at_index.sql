@@ -0,0 +1,4 @@
+-- Date-range reports aggregate type, status, currency and amount; with them in the index the
+-- GROUP BY reads only the range's index entries. CONCURRENTLY keeps writes going while it builds.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_created_at
+    ON transactions (created_at) INCLUDE (type, status, currency, amount);
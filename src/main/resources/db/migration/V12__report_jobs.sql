@@ -0,0 +1,28 @@
+CREATE TABLE report_jobs
+(
+    id            UUID          NOT NULL,
+    type          VARCHAR(20)   NOT NULL,
+    status        VARCHAR(20)   NOT NULL,
+    params_hash   VARCHAR(64)   NOT NULL,
+    requested_by  UUID          NOT NULL,
+    wallet_id     UUID,
+    start_date    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    total_rows    BIGINT,
+    rows_written  BIGINT        NOT NULL,
+    file_size     BIGINT,
+    error_message VARCHAR(500),
+    created_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    started_at    TIMESTAMP WITHOUT TIME ZONE,
+    heartbeat_at  TIMESTAMP WITHOUT TIME ZONE,
+    completed_at  TIMESTAMP WITHOUT TIME ZONE,
+    expires_at    TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_report_jobs PRIMARY KEY (id)
+);
+
+-- Result cache lookup: the newest job for a set of parameters
+CREATE INDEX idx_report_jobs_params ON report_jobs (params_hash, created_at);
+
+CREATE INDEX idx_report_jobs_status ON report_jobs (status, created_at);
+
+CREATE INDEX idx_report_jobs_expires ON report_jobs (expires_at);
@@ -0,0 +1,23 @@
+CREATE TABLE user_spend_counters
+(
+    user_id      UUID           NOT NULL,
+    period       VARCHAR(10)    NOT NULL,
+    period_start date           NOT NULL,
+    amount       DECIMAL(19, 4) NOT NULL,
+    tx_count     BIGINT         NOT NULL,
+    updated_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_user_spend_counters PRIMARY KEY (user_id, period, period_start)
+);
+
+CREATE INDEX idx_spend_counter_period ON user_spend_counters (period, period_start);
+
+-- Seed the current day, week and month so limits hold from the first request after deploy.
+-- PENDING counts as spent, as in the rebuild and drift check of UserSpendCounterRepository.
+INSERT INTO user_spend_counters (user_id, period, period_start, amount, tx_count, updated_at)
+SELECT w.user_id, p.period, p.period_start, SUM(t.amount), COUNT(*), now()
+FROM (VALUES ('DAY', date_trunc('day', now())::date),
+             ('WEEK', date_trunc('week', now())::date),
+             ('MONTH', date_trunc('month', now())::date)) AS p (period, period_start)
+JOIN transactions t ON t.created_at >= p.period_start AND t.status IN ('SUCCESS', 'PENDING')
+JOIN wallets w ON w.id = t.source_wallet_id
+GROUP BY w.user_id, p.period, p.period_start;
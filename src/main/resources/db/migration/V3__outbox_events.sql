@@ -0,0 +1,21 @@
+CREATE SEQUENCE outbox_events_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE outbox_events
+(
+    id           BIGINT        NOT NULL,
+    topic        VARCHAR(100)  NOT NULL,
+    message_key  VARCHAR(100)  NOT NULL,
+    payload_type VARCHAR(200)  NOT NULL,
+    payload      TEXT          NOT NULL,
+    lane         INTEGER       NOT NULL,
+    attempts     INTEGER       NOT NULL,
+    last_error   VARCHAR(500),
+    created_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    published_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+-- Relay scan: unpublished rows of one lane in id order
+CREATE INDEX idx_outbox_pending ON outbox_events (lane, id) WHERE published_at IS NULL;
+
+CREATE INDEX idx_outbox_published ON outbox_events (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Wallet numbers are allocated in blocks of 100; INCREMENT BY must match
+-- IdServiceImpl.WALLET_NUMBER_BLOCK_SIZE
+CREATE SEQUENCE wallet_number_seq START WITH 1 INCREMENT BY 100;
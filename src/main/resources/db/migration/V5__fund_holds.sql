@@ -0,0 +1,17 @@
+CREATE TABLE fund_holds
+(
+    id                    UUID           NOT NULL,
+    wallet_id             UUID           NOT NULL,
+    transaction_reference VARCHAR(50)    NOT NULL,
+    amount                DECIMAL(19, 4) NOT NULL,
+    status                VARCHAR(20)    NOT NULL,
+    expires_at            TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_at            TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    settled_at            TIMESTAMP WITHOUT TIME ZONE,
+    settlement_note       VARCHAR(500),
+    CONSTRAINT pk_fund_holds PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX idx_hold_reference ON fund_holds (transaction_reference);
+
+CREATE INDEX idx_hold_status_expiry ON fund_holds (status, expires_at);
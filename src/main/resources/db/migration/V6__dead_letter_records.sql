@@ -0,0 +1,22 @@
+CREATE TABLE dead_letter_records
+(
+    id               UUID          NOT NULL,
+    original_topic   VARCHAR(100)  NOT NULL,
+    dlt_partition    INTEGER       NOT NULL,
+    dlt_offset       BIGINT        NOT NULL,
+    message_key      VARCHAR(100),
+    payload_type     VARCHAR(200)  NOT NULL,
+    payload          TEXT          NOT NULL,
+    attempts         INTEGER       NOT NULL,
+    error_message    VARCHAR(500),
+    status           VARCHAR(20)   NOT NULL,
+    created_at       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    resolved_at      TIMESTAMP WITHOUT TIME ZONE,
+    resolved_by      UUID,
+    CONSTRAINT pk_dead_letter_records PRIMARY KEY (id)
+);
+
+-- One row per DLT record, so redelivery of the DLT itself stores nothing twice
+CREATE UNIQUE INDEX idx_dead_letter_position ON dead_letter_records (original_topic, dlt_partition, dlt_offset);
+
+CREATE INDEX idx_dead_letter_status ON dead_letter_records (status, created_at);
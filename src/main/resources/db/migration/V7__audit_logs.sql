@@ -0,0 +1,36 @@
+CREATE TABLE audit_logs
+(
+    id          UUID        NOT NULL,
+    occurred_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    user_id     UUID,
+    admin_id    UUID,
+    action      VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id   VARCHAR(100),
+    details     TEXT,
+    ip_address  VARCHAR(45),
+    recorded_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    CONSTRAINT pk_audit_logs PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+-- Rows outside every monthly partition land here; partitions are created ahead so it stays empty
+CREATE TABLE audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+CREATE INDEX idx_audit_user_time ON audit_logs (user_id, occurred_at DESC);
+CREATE INDEX idx_audit_admin_time ON audit_logs (admin_id, occurred_at DESC);
+CREATE INDEX idx_audit_entity_time ON audit_logs (entity_type, entity_id, occurred_at DESC);
+
+CREATE OR REPLACE FUNCTION create_audit_logs_partition(month_start DATE) RETURNS VOID AS
+$$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                   'audit_logs_' || to_char(from_date, 'YYYY_MM'),
+                   from_date,
+                   (from_date + INTERVAL '1 month')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_audit_logs_partition((date_trunc('month', now()) + make_interval(months => m))::DATE)
+FROM generate_series(0, 2) AS m;
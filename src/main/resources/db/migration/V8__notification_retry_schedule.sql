@@ -0,0 +1,4 @@
+ALTER TABLE notifications ADD COLUMN next_retry_at TIMESTAMP WITHOUT TIME ZONE;
+
+CREATE INDEX idx_notification_retry ON notifications (next_retry_at)
+    WHERE is_sent = false AND retry_count > 0;
@@ -0,0 +1,13 @@
+CREATE TABLE notification_unread_counters
+(
+    user_id      UUID   NOT NULL,
+    unread_count BIGINT NOT NULL,
+    updated_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_notification_unread_counters PRIMARY KEY (user_id)
+);
+
+INSERT INTO notification_unread_counters (user_id, unread_count, updated_at)
+SELECT user_id, COUNT(*), now()
+FROM notifications
+WHERE is_read = false
+GROUP BY user_id;
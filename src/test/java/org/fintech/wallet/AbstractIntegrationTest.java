@@ -0,0 +1,91 @@
+package org.fintech.wallet;
+
+import org.fintech.wallet.domain.entity.User;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.*;
+import org.fintech.wallet.repository.UserRepository;
+import org.fintech.wallet.repository.WalletRepository;
+import org.fintech.wallet.service.IdService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Base class of the tests that run against the whole application: Postgres, Redis and
+ * Kafka run in containers and the dev profile points at them. Skipped where Docker is
+ * not available.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withExposedPorts(6379);
+
+    @Container
+    static final KafkaContainer KAFKA = new KafkaContainer("apache/kafka:3.7.0");
+
+    @DynamicPropertySource
+    static void containerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.data.redis.password", () -> "");
+        registry.add("spring.kafka.bootstrap-servers", KAFKA::getBootstrapServers);
+        registry.add("spring.mail.username", () -> "test");
+        registry.add("spring.mail.password", () -> "test");
+    }
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected WalletRepository walletRepository;
+
+    @Autowired
+    protected IdService idService;
+
+    /**
+     * Saves an active, KYC-verified user with one NGN wallet holding {@code balance}.
+     */
+    protected Wallet createWallet(KycLevel kycLevel, BigDecimal balance) {
+        User user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@test.local")
+                .passwordHash("not-a-hash")
+                .firstName("Test")
+                .lastName("User")
+                .status(UserStatus.ACTIVE)
+                .kycStatus(KycStatus.VERIFIED)
+                .kycLevel(kycLevel)
+                .mfaEnabled(false)
+                .roles(new HashSet<>(Set.of(UserRole.ROLE_USER)))
+                .build());
+        return walletRepository.save(Wallet.builder()
+                .user(user)
+                .walletNumber(idService.nextWalletNumber())
+                .currency(Currency.NGN)
+                .balance(balance)
+                .availableBalance(balance)
+                .status(WalletStatus.ACTIVE)
+                .build());
+    }
+}
@@ -1,10 +1,8 @@
 package org.fintech.wallet;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class WalletAppApplicationTests {
+class WalletAppApplicationTests extends AbstractIntegrationTest {
 
     @Test
     void contextLoads() {
@@ -0,0 +1,160 @@
+package org.fintech.wallet.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.fintech.wallet.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ConsumerRetryRouterTest {
+
+    private static final String GROUP = "wallet-processing-group";
+    private static final String RETRY_TOPIC = "wallet-events-wallet-processing-group-retry";
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final AppProperties appProperties = new AppProperties();
+    private ConsumerRetryRouter router;
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        router = new ConsumerRetryRouter(kafkaTemplate, appProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void firstFailureGoesToTheRetryTopicOfTheGroup() {
+        long before = System.currentTimeMillis();
+
+        router.retryOrDeadLetter(record("wallet-events", 7), GROUP, new IllegalStateException("boom"));
+
+        ProducerRecord<String, Object> sent = sent();
+        assertThat(sent.topic()).isEqualTo(RETRY_TOPIC);
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ATTEMPT)).isEqualTo("1");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ORIGINAL_TOPIC)).isEqualTo("wallet-events");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ORIGINAL_OFFSET)).isEqualTo("7");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ERROR)).isEqualTo("IllegalStateException: boom");
+        assertThat(Long.parseLong(header(sent, ConsumerRetryRouter.HEADER_NOT_BEFORE)) - before)
+                .isBetween(2000L, 3000L);
+    }
+
+    @Test
+    void retryRecordStaysOnItsTopicWithAGrowingBackoff() {
+        long before = System.currentTimeMillis();
+
+        router.retryOrDeadLetter(retryRecord(1, before - 1), "another-group", new IllegalStateException("boom"));
+
+        ProducerRecord<String, Object> sent = sent();
+        assertThat(sent.topic()).isEqualTo(RETRY_TOPIC);
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ATTEMPT)).isEqualTo("2");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ORIGINAL_TOPIC)).isEqualTo("wallet-events");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ORIGINAL_OFFSET)).isEqualTo("7");
+        assertThat(Long.parseLong(header(sent, ConsumerRetryRouter.HEADER_NOT_BEFORE)) - before)
+                .isBetween(10000L, 11000L);
+    }
+
+    @Test
+    void backoffIsCappedAtTheMaximum() {
+        long before = System.currentTimeMillis();
+
+        router.retryOrDeadLetter(retryRecord(3, before - 1), GROUP, new IllegalStateException("boom"));
+
+        assertThat(Long.parseLong(header(sent(), ConsumerRetryRouter.HEADER_NOT_BEFORE)) - before)
+                .isBetween(120000L, 121000L);
+    }
+
+    @Test
+    void recordGoesToTheDeadLetterTopicOnceItsAttemptsAreUsedUp() {
+        router.retryOrDeadLetter(retryRecord(4, System.currentTimeMillis() - 1), GROUP, new IllegalStateException("boom"));
+
+        ProducerRecord<String, Object> sent = sent();
+        assertThat(sent.topic()).isEqualTo("wallet-events-dlt");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ATTEMPT)).isEqualTo("5");
+        assertThat(sent.headers().lastHeader(ConsumerRetryRouter.HEADER_NOT_BEFORE)).isNull();
+    }
+
+    @Test
+    void retryRecordThatWasNotDueKeepsItsAttemptAndBackoff() {
+        long notBefore = System.currentTimeMillis() + 60000;
+        ConsumerRecord<String, String> record = retryRecord(2, notBefore);
+        record.headers().add(ConsumerRetryRouter.HEADER_ERROR, bytes("IllegalStateException: first"));
+
+        router.retryOrDeadLetter(record, GROUP, new IllegalStateException("database down"));
+
+        ProducerRecord<String, Object> sent = sent();
+        assertThat(sent.topic()).isEqualTo(RETRY_TOPIC);
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ATTEMPT)).isEqualTo("2");
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_NOT_BEFORE)).isEqualTo(String.valueOf(notBefore));
+        assertThat(header(sent, ConsumerRetryRouter.HEADER_ERROR)).isEqualTo("IllegalStateException: first");
+    }
+
+    @Test
+    void deadLetterRecordIsNotRoutedAgain() {
+        assertThatThrownBy(() -> router.retryOrDeadLetter(record("wallet-events-dlt", 1), GROUP, new IllegalStateException()))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void sourceRecordNeedsAConsumerGroup() {
+        assertThatThrownBy(() -> router.retryOrDeadLetter(record("wallet-events", 1), null, new IllegalStateException()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No consumer group");
+    }
+
+    @Test
+    void dueCountStopsAtTheFirstRecordStillBackingOff() {
+        long now = System.currentTimeMillis();
+        List<ConsumerRecord<String, String>> records = List.of(
+                retryRecord(1, now - 1000),
+                retryRecord(1, now - 1),
+                retryRecord(2, now + 60000),
+                retryRecord(1, now - 1));
+
+        assertThat(router.dueCount(records)).isEqualTo(2);
+        assertThat(router.dueCount(records.subList(0, 2))).isEqualTo(2);
+        assertThat(router.untilDue(records.get(2)).toMillis()).isBetween(1L, 60000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, Object> sent() {
+        ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, long offset) {
+        return new ConsumerRecord<>(topic, 0, offset, "key", "value");
+    }
+
+    private static ConsumerRecord<String, String> retryRecord(int attempt, long notBefore) {
+        ConsumerRecord<String, String> record = record(RETRY_TOPIC, 3);
+        record.headers().add(ConsumerRetryRouter.HEADER_ATTEMPT, bytes(String.valueOf(attempt)));
+        record.headers().add(ConsumerRetryRouter.HEADER_NOT_BEFORE, bytes(String.valueOf(notBefore)));
+        record.headers().add(ConsumerRetryRouter.HEADER_ORIGINAL_TOPIC, bytes("wallet-events"));
+        record.headers().add(ConsumerRetryRouter.HEADER_ORIGINAL_OFFSET, bytes("7"));
+        return record;
+    }
+
+    private static String header(ProducerRecord<String, Object> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package org.fintech.wallet.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000);
+        UUID id = UUID.randomUUID();
+
+        String encoded = new HistoryCursor(createdAt, id).encode();
+        HistoryCursor decoded = HistoryCursor.decode(encoded);
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void encodedFormIsUrlSafe() {
+        for (int i = 0; i < 100; i++) {
+            String encoded = new HistoryCursor(LocalDateTime.now().minusSeconds(i), UUID.randomUUID()).encode();
+            assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        }
+    }
+
+    @Test
+    void missingCursorStartsAtTheNewestRow() {
+        assertThat(HistoryCursor.decode(null)).isSameAs(HistoryCursor.START);
+        assertThat(HistoryCursor.decode("  ")).isSameAs(HistoryCursor.START);
+        assertThat(HistoryCursor.START.getCreatedAt()).isAfter(LocalDateTime.now().plusYears(1000));
+        assertThat(HistoryCursor.START.getId().toString()).isEqualTo("ffffffff-ffff-ffff-ffff-ffffffffffff");
+    }
+
+    @Test
+    void malformedCursorIsRejectedAsABadRequest() {
+        assertThatThrownBy(() -> HistoryCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> HistoryCursor.decode(encodeRaw("2026-03-14T15:09:26")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> HistoryCursor.decode(encodeRaw("yesterday|" + UUID.randomUUID())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> HistoryCursor.decode(encodeRaw("2026-03-14T15:09:26|not-a-uuid")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,145 @@
+package org.fintech.wallet.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void parseReadsEveryClaimOnce() {
+        JwtTokenProvider provider = provider(10, 60_000);
+
+        JwtClaims claims = provider.parse(accessToken(provider, "session-1"));
+
+        assertThat(claims.subject()).isEqualTo("user@test.local");
+        assertThat(claims.userId()).isEqualTo(userId);
+        assertThat(claims.sessionId()).isEqualTo("session-1");
+        assertThat(claims.type()).isEqualTo("ACCESS");
+        assertThat(claims.legacy()).isFalse();
+        assertThat(claims.tokenId()).isNotBlank();
+        assertThat(claims.expiresAt()).isAfter(claims.issuedAt());
+    }
+
+    @Test
+    void verifiedTokenIsAnsweredFromTheCache() {
+        JwtTokenProvider provider = provider(10, 60_000);
+        String token = accessToken(provider, "session-1");
+
+        JwtClaims first = provider.parse(token);
+
+        assertThat(provider.parse(token)).isSameAs(first);
+        assertThat(provider.verify(token)).isSameAs(first);
+        assertThat(provider.getUserId(token)).isEqualTo(userId);
+    }
+
+    @Test
+    void cacheSizeZeroParsesEveryTime() {
+        JwtTokenProvider provider = provider(0, 60_000);
+        String token = accessToken(provider, "session-1");
+
+        JwtClaims first = provider.parse(token);
+        JwtClaims second = provider.parse(token);
+
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void tamperedTokenIsNeverServedFromTheCache() {
+        JwtTokenProvider provider = provider(10, 60_000);
+        String token = accessToken(provider, "session-1");
+        provider.parse(token);
+
+        String[] parts = token.split("\\.");
+        char last = parts[2].charAt(parts[2].length() - 2);
+        String tampered = parts[0] + "." + parts[1] + "."
+                + parts[2].substring(0, parts[2].length() - 2) + (last == 'A' ? 'B' : 'A')
+                + parts[2].charAt(parts[2].length() - 1);
+
+        assertThatThrownBy(() -> provider.parse(tampered)).isInstanceOf(JwtException.class);
+        assertThat(provider.verify(tampered)).isNull();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtTokenProvider other = provider(10, 60_000);
+        ReflectionTestUtils.setField(other, "jwtSecret", SECRET.replace('0', 'x'));
+        other.validateSecret();
+
+        assertThat(provider(10, 60_000).verify(accessToken(other, "session-1"))).isNull();
+    }
+
+    @Test
+    void cachedClaimsStopAtTheTokenExpiry() throws InterruptedException {
+        JwtTokenProvider provider = provider(10, 1_000);
+        String token = accessToken(provider, "session-1");
+        JwtClaims claims = provider.parse(token);
+
+        Thread.sleep(Duration.between(Instant.now(), claims.expiresAt()).toMillis() + 50);
+
+        assertThatThrownBy(() -> provider.parse(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(provider.verify(token)).isNull();
+    }
+
+    @Test
+    void fullCacheStartsOver() {
+        JwtTokenProvider provider = provider(2, 60_000);
+        String first = accessToken(provider, "session-1");
+        JwtClaims firstClaims = provider.parse(first);
+        provider.parse(accessToken(provider, "session-2"));
+
+        // Nothing expired, so the third token clears the cache
+        provider.parse(accessToken(provider, "session-3"));
+
+        assertThat(provider.parse(first)).isNotSameAs(firstClaims).isEqualTo(firstClaims);
+    }
+
+    @Test
+    void emptyTokenIsRejected() {
+        JwtTokenProvider provider = provider(10, 60_000);
+
+        assertThatThrownBy(() -> provider.parse(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(provider.verify(null)).isNull();
+    }
+
+    @Test
+    void tokenHashIsABase64Sha256() {
+        assertThat(JwtTokenProvider.tokenHash("token"))
+                .isEqualTo(JwtTokenProvider.tokenHash("token"))
+                .isNotEqualTo(JwtTokenProvider.tokenHash("token2"))
+                .hasSize(44);
+    }
+
+    private String accessToken(JwtTokenProvider provider, String sessionId) {
+        UserDetails user = User.withUsername("user@test.local").password("not-a-hash").authorities(List.of()).build();
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, List.of());
+        return provider.generateAccessToken(authentication, sessionId, userId);
+    }
+
+    private static JwtTokenProvider provider(int cacheSize, long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheSize", cacheSize);
+        provider.validateSecret();
+        return provider;
+    }
+}
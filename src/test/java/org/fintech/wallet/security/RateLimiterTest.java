@@ -0,0 +1,107 @@
+package org.fintech.wallet.security;
+
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fintech.wallet.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+class RateLimiterTest {
+
+    private final ProxyManager<byte[]> proxyManager = mock(ProxyManager.class);
+    private final RemoteBucketBuilder<byte[]> bucketBuilder = mock(RemoteBucketBuilder.class);
+    private final BucketProxy bucket = mock(BucketProxy.class);
+    private final List<String> builtKeys = new ArrayList<>();
+    private final AppProperties appProperties = new AppProperties();
+
+    @BeforeEach
+    void setUp() {
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(any(byte[].class), any(Supplier.class))).thenAnswer(invocation -> {
+            builtKeys.add(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8));
+            return bucket;
+        });
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenReturn(ConsumptionProbe.consumed(4, 0));
+    }
+
+    @Test
+    void routePolicyMatchesOnMethodAndPath() {
+        RateLimiter.Decision decision = limiter().tryConsume("POST", "/api/v1/auth/login", null, "203.0.113.7");
+
+        assertThat(decision.policy().getName()).isEqualTo("login");
+        assertThat(builtKeys).containsExactly("ratelimit:login:ip:203.0.113.7");
+    }
+
+    @Test
+    void otherMethodsFallBackToTheDefaultPolicy() {
+        UUID userId = UUID.randomUUID();
+
+        RateLimiter.Decision decision = limiter().tryConsume("GET", "/api/v1/auth/login", userId, "203.0.113.7");
+
+        assertThat(decision.policy().getName()).isEqualTo("default");
+        assertThat(builtKeys).containsExactly("ratelimit:default:user:" + userId);
+    }
+
+    @Test
+    void userPoliciesUseTheIpWithoutAUser() {
+        RateLimiter.Decision decision = limiter().tryConsume("POST", "/api/v1/transactions/transfer", null, "203.0.113.7");
+
+        assertThat(decision.policy().getName()).isEqualTo("transfer");
+        assertThat(builtKeys).containsExactly("ratelimit:transfer:ip:203.0.113.7");
+    }
+
+    @Test
+    void pathsOutsideTheApiAreNotLimited() {
+        assertThat(limiter().tryConsume("GET", "/actuator/health", null, "203.0.113.7")).isNull();
+        verifyNoInteractions(proxyManager);
+    }
+
+    @Test
+    void rejectedClientIsRefusedLocallyUntilItsBucketRefills() {
+        when(bucket.tryConsumeAndReturnRemaining(anyLong()))
+                .thenReturn(ConsumptionProbe.rejected(0, 30_000_000_000L, 60_000_000_000L));
+        RateLimiter limiter = limiter();
+
+        assertThat(limiter.tryConsume("POST", "/api/v1/auth/login", null, "203.0.113.7").allowed()).isFalse();
+        assertThat(limiter.tryConsume("POST", "/api/v1/auth/login", null, "203.0.113.7").allowed()).isFalse();
+
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    void fullCacheKeepsTheClientsItIsBlocking() {
+        appProperties.getRateLimit().setLocalCacheSize(1);
+        when(bucket.tryConsumeAndReturnRemaining(anyLong()))
+                .thenReturn(ConsumptionProbe.rejected(0, 30_000_000_000L, 60_000_000_000L));
+        RateLimiter limiter = limiter();
+        limiter.tryConsume("POST", "/api/v1/auth/login", null, "203.0.113.7");
+
+        // New keys beyond the cache size are checked against Redis without evicting anyone
+        limiter.tryConsume("POST", "/api/v1/auth/login", null, "198.51.100.1");
+        limiter.tryConsume("POST", "/api/v1/auth/login", null, "198.51.100.2");
+        clearInvocations(bucket);
+
+        assertThat(limiter.tryConsume("POST", "/api/v1/auth/login", null, "203.0.113.7").allowed()).isFalse();
+        verifyNoInteractions(bucket);
+    }
+
+    private RateLimiter limiter() {
+        return new RateLimiter(proxyManager, appProperties, new SimpleMeterRegistry());
+    }
+
+}
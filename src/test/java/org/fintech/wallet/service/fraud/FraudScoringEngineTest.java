@@ -0,0 +1,86 @@
+package org.fintech.wallet.service.fraud;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.dto.event.FraudDetectionEvent;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FraudScoringEngineTest {
+
+    private final RiskStateStore stateStore = mock(RiskStateStore.class);
+    private final AppProperties appProperties = new AppProperties();
+    private FraudScoringEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        appProperties.getFraud().setPublishMinScore(1);
+        engine = new FraudScoringEngine(appProperties, stateStore, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void ipVelocityComesFromTheSharedCount() {
+        when(stateStore.addIpEvent(eq("203.0.113.7"), anyLong(), anyInt()))
+                .thenReturn((long) appProperties.getFraud().getIpVelocityThreshold() + 1);
+
+        FraudDetectionEvent flagged = engine.score(transfer(UUID.randomUUID(), "203.0.113.7"));
+
+        assertThat(flagged.getReasons()).anyMatch(reason -> reason.startsWith("IP_VELOCITY:"));
+    }
+
+    @Test
+    void unreachableIpCountDoesNotFlag() {
+        when(stateStore.addIpEvent(any(), anyLong(), anyInt())).thenReturn(-1L);
+
+        assertThat(engine.score(transfer(UUID.randomUUID(), "203.0.113.7"))).isNull();
+    }
+
+    @Test
+    void failedCheckpointIsRetriedAndKeepsTheState() {
+        UUID userId = UUID.randomUUID();
+        engine.score(transfer(userId, null));
+        doThrow(new IllegalStateException("Redis down")).when(stateStore).saveAll(anyMap(), any());
+
+        assertThatThrownBy(() -> engine.checkpoint()).isInstanceOf(IllegalStateException.class);
+
+        // The state was not marked as saved: the next checkpoint writes it again
+        doNothing().when(stateStore).saveAll(anyMap(), any());
+        assertThat(engine.checkpoint()).isEqualTo(1);
+        verify(stateStore, times(2)).saveAll(argThatHasKey(RiskStateStore.USER_PREFIX + userId), any());
+
+        // And once saved, an unchanged state is not written again
+        assertThat(engine.checkpoint()).isZero();
+    }
+
+    private static Map<String, byte[]> argThatHasKey(String key) {
+        return argThat(states -> states.containsKey(key));
+    }
+
+    private static TransactionEvent transfer(UUID userId, String ipAddress) {
+        return TransactionEvent.builder()
+                .transactionId(UUID.randomUUID())
+                .userId(userId)
+                .type(TransactionType.TRANSFER)
+                .eventType("COMPLETED")
+                .amount(new BigDecimal("100"))
+                .ipAddress(ipAddress)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package org.fintech.wallet.service.fraud;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.dto.event.TransactionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link FraudScoringEngine#score} and {@link FraudScoringEngine#recordFailure} at a
+ * fixed rate across many users and logs the throughput reached and the latency percentiles.
+ * Latency runs from the moment each event was due, so falling behind the rate shows up in it.
+ * Rate, duration and user count can be raised with -Dfraud.throughput.rate, .seconds and .users.
+ */
+@Slf4j
+class FraudScoringThroughputTest {
+
+    private static final int RATE = Integer.getInteger("fraud.throughput.rate", 10_000);
+    private static final int SECONDS = Integer.getInteger("fraud.throughput.seconds", 3);
+    private static final int USERS = Integer.getInteger("fraud.throughput.users", 20_000);
+    private static final int THREADS = 4;
+    // One event in ten is a failed attempt
+    private static final int FAILURE_EVERY = 10;
+
+    @Test
+    void keepsUpWithTenThousandEventsPerSecond() throws Exception {
+        FraudScoringEngine engine = new FraudScoringEngine(new AppProperties(), new InMemoryStateStore(),
+                new SimpleMeterRegistry());
+        UUID[] users = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = UUID.randomUUID();
+        }
+        // Warm up the scoring path before measuring
+        for (int i = 0; i < 20_000; i++) {
+            engine.score(event(users[i % USERS]));
+        }
+
+        int perThread = RATE * SECONDS / THREADS;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) * THREADS / RATE;
+        long[][] latencies = new long[THREADS][perThread];
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        try {
+            List<Future<?>> futures = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // Threads start staggered so the combined rate is even
+                    long due = started + thread * intervalNanos / THREADS;
+                    for (int i = 0; i < perThread; i++, due += intervalNanos) {
+                        long wait;
+                        while ((wait = due - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        TransactionEvent event = event(users[random.nextInt(USERS)]);
+                        if (i % FAILURE_EVERY == 0) {
+                            engine.recordFailure(event);
+                        } else {
+                            engine.score(event);
+                        }
+                        latencies[thread][i] = System.nanoTime() - due;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(SECONDS * 10L, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - started;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double throughput = all.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        log.info("Scored {} events for {} users in {} ms: {} events/s (target {}); latency p50={} us "
+                        + "p99={} us p99.9={} us max={} us",
+                all.length, USERS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Math.round(throughput), RATE,
+                micros(percentile(all, 0.50)), micros(percentile(all, 0.99)),
+                micros(percentile(all, 0.999)), micros(all[all.length - 1]));
+
+        assertThat(throughput).isGreaterThanOrEqualTo(RATE * 0.9);
+        assertThat(engine.checkpoint()).isEqualTo(USERS);
+    }
+
+    private static TransactionEvent event(UUID userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return TransactionEvent.builder()
+                .transactionId(UUID.randomUUID())
+                .userId(userId)
+                .destinationWalletId(UUID.randomUUID())
+                .type(TransactionType.TRANSFER)
+                .eventType("COMPLETED")
+                .amount(BigDecimal.valueOf(random.nextInt(100, 50_000)))
+                .currency("NGN")
+                .ipAddress("198.51.100." + random.nextInt(256))
+                .build();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    // Redis stands in as a map: the run measures the engine, not the network
+    private static class InMemoryStateStore extends RiskStateStore {
+
+        private final Map<String, AtomicLong> ipEvents = new ConcurrentHashMap<>();
+
+        InMemoryStateStore() {
+            super(null);
+        }
+
+        @Override
+        public byte[] load(String key) {
+            return null;
+        }
+
+        @Override
+        public void saveAll(Map<String, byte[]> states, Duration ttl) {
+        }
+
+        @Override
+        public long addIpEvent(String ip, long minute, int windowMinutes) {
+            return ipEvents.computeIfAbsent(ip, k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.fintech.wallet.service.fraud;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SlidingWindowTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_700_000_000_000L - Math.floorMod(1_700_000_000_000L, MINUTE);
+
+    @Test
+    void countsOnlyTheNewestBuckets() {
+        SlidingWindow window = new SlidingWindow(MINUTE, 5);
+        window.add(T0, 1);
+        window.add(T0 + MINUTE, 1);
+        window.add(T0 + MINUTE + 10, 1);
+
+        assertThat(window.count(T0 + MINUTE)).isEqualTo(3);
+        assertThat(window.count(T0 + MINUTE, 1)).isEqualTo(2);
+        // T0's bucket falls out once five newer buckets have started
+        assertThat(window.count(T0 + 5 * MINUTE)).isEqualTo(2);
+        assertThat(window.count(T0 + 6 * MINUTE)).isZero();
+    }
+
+    @Test
+    void reusedSlotStartsFromZero() {
+        SlidingWindow window = new SlidingWindow(MINUTE, 3);
+        window.add(T0, 10);
+        window.add(T0, 10);
+
+        // Same slot, three buckets later
+        window.add(T0 + 3 * MINUTE, 5);
+
+        assertThat(window.count(T0 + 3 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void statsAreCountMeanAndSampleStdDev() {
+        SlidingWindow window = new SlidingWindow(MINUTE, 10);
+        window.add(T0, 2);
+        window.add(T0 + MINUTE, 4);
+        window.add(T0 + 2 * MINUTE, 4);
+        window.add(T0 + 2 * MINUTE, 6);
+
+        double[] stats = new double[3];
+        window.stats(T0 + 2 * MINUTE, stats);
+
+        assertThat(stats[0]).isEqualTo(4);
+        assertThat(stats[1]).isEqualTo(4);
+        assertThat(stats[2]).isCloseTo(Math.sqrt(8.0 / 3), within(1e-9));
+    }
+
+    @Test
+    void eventsAfterNowAreIgnored() {
+        SlidingWindow window = new SlidingWindow(MINUTE, 5);
+        window.add(T0 + 2 * MINUTE, 1);
+
+        assertThat(window.count(T0)).isZero();
+    }
+
+    @Test
+    void roundTripsThroughItsCheckpoint() throws IOException {
+        SlidingWindow window = new SlidingWindow(MINUTE, 4);
+        window.add(T0, 3);
+        window.add(T0 + MINUTE, 7);
+
+        SlidingWindow restored = new SlidingWindow(MINUTE, 4);
+        restored.read(new DataInputStream(new ByteArrayInputStream(bytes(window))));
+
+        double[] expected = new double[3];
+        double[] actual = new double[3];
+        window.stats(T0 + MINUTE, expected);
+        restored.stats(T0 + MINUTE, actual);
+        assertThat(actual).containsExactly(expected);
+    }
+
+    @Test
+    void checkpointOfAnotherSizeIsRejected() throws IOException {
+        byte[] checkpoint = bytes(new SlidingWindow(MINUTE, 4));
+
+        assertThatThrownBy(() -> new SlidingWindow(MINUTE, 5)
+                .read(new DataInputStream(new ByteArrayInputStream(checkpoint))))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] bytes(SlidingWindow window) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        window.write(out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
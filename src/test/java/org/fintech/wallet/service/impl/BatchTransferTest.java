@@ -0,0 +1,260 @@
+package org.fintech.wallet.service.impl;
+
+import jakarta.transaction.InvalidTransactionException;
+import org.fintech.wallet.AbstractIntegrationTest;
+import org.fintech.wallet.domain.entity.LedgerEntry;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.EntryType;
+import org.fintech.wallet.domain.enums.KycLevel;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.dto.request.BatchTransferItem;
+import org.fintech.wallet.dto.request.BatchTransferRequest;
+import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.dto.response.BatchTransferItemResult;
+import org.fintech.wallet.dto.response.BatchTransferResponse;
+import org.fintech.wallet.repository.LedgerRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.service.SpendLimitService;
+import org.fintech.wallet.service.TransactionService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batch transfers through both engines against Postgres: per-item rejection, all-or-nothing,
+ * the ledger rows of each item and the daily limit over the batch total.
+ */
+class BatchTransferTest extends AbstractIntegrationTest {
+
+    private static final String SERIALIZABLE = "serializable";
+    private static final String READ_COMMITTED = "read-committed";
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    LedgerRepository ledgerRepository;
+
+    @Autowired
+    SpendLimitService spendLimitService;
+
+    @Autowired
+    AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    private TransactionService readCommitted;
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void invalidItemIsRejectedOnItsOwn(String engine) throws Exception {
+        Wallet source = createWallet(KycLevel.TIER_3, new BigDecimal("1000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+
+        BatchTransferResponse response = engine(engine).batchTransfer(batch(source, false,
+                item(destination, "100"),
+                BatchTransferItem.builder().destinationWalletNumber("WLT0000000000").amount(new BigDecimal("50")).build(),
+                item(source, "50")), userId(source));
+
+        List<BatchTransferItemResult> results = response.getResults();
+        assertThat(results.get(0).getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(results.get(1).getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(results.get(1).getFailureReason()).isEqualTo("Destination Wallet Not found");
+        assertThat(results.get(2).getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(results.get(2).getFailureReason()).isEqualTo("Cannot transfer to the source wallet");
+        assertThat(response.getSuccessCount()).isEqualTo(1);
+        assertThat(response.getFailedCount()).isEqualTo(2);
+        assertThat(response.getTotalAmount()).isEqualByComparingTo("100");
+        assertThat(balance(source)).isEqualByComparingTo("900");
+        assertThat(balance(destination)).isEqualByComparingTo("100");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void allOrNothingBatchTheSourceCannotCoverMovesNothing(String engine) throws Exception {
+        Wallet source = createWallet(KycLevel.TIER_3, new BigDecimal("250"));
+        Wallet first = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+        Wallet second = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+
+        BatchTransferResponse response = engine(engine).batchTransfer(batch(source, true,
+                item(first, "100"), item(second, "100"), item(first, "100")), userId(source));
+
+        assertThat(response.getSuccessCount()).isZero();
+        assertThat(response.getResults()).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(TransactionStatus.FAILED);
+            assertThat(result.getReference()).isNull();
+        });
+        assertThat(response.getResults().get(2).getFailureReason()).isEqualTo("Insufficient balance");
+        assertThat(transactionRepository.findByReference(response.getBatchReference() + "-1")).isEmpty();
+        assertThat(balance(source)).isEqualByComparingTo("250");
+        assertThat(balance(first)).isEqualByComparingTo("0");
+        assertThat(balance(second)).isEqualByComparingTo("0");
+        assertThat(spendLimitService.getSpent(userId(source), SpendPeriod.DAY)).isEqualByComparingTo("0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void eachItemGetsLedgerEntriesWithTheRunningBalance(String engine) throws Exception {
+        Wallet source = createWallet(KycLevel.TIER_3, new BigDecimal("1000"));
+        Wallet first = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+        Wallet second = createWallet(KycLevel.TIER_3, new BigDecimal("10"));
+
+        BatchTransferResponse response = engine(engine).batchTransfer(batch(source, false,
+                item(first, "100"), item(second, "200"), item(first, "50")), userId(source));
+
+        assertThat(response.getSuccessCount()).isEqualTo(3);
+        List<String> references = response.getResults().stream().map(BatchTransferItemResult::getReference).toList();
+        assertEntries(references.get(0), "100", "1000", "0");
+        assertEntries(references.get(1), "200", "900", "10");
+        assertEntries(references.get(2), "50", "700", "100");
+        assertThat(transactionRepository.findByReference(references.get(1)).orElseThrow().getStatus())
+                .isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(balance(source)).isEqualByComparingTo("650");
+        assertThat(balance(first)).isEqualByComparingTo("150");
+        assertThat(balance(second)).isEqualByComparingTo("210");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void dailyLimitAppliesToTheBatchTotal(String engine) throws Exception {
+        // TIER_1: 50,000 per transaction, 200,000 a day
+        Wallet source = createWallet(KycLevel.TIER_1, new BigDecimal("1000000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+        engine(engine).transfer(TransferRequest.builder()
+                .sourceWalletId(source.getId())
+                .destinationWalletNumber(destination.getWalletNumber())
+                .amount(new BigDecimal("30000"))
+                .build(), userId(source));
+
+        BatchTransferResponse response = engine(engine).batchTransfer(batch(source, false,
+                item(destination, "50000"), item(destination, "50000"), item(destination, "50000"),
+                item(destination, "50000")), userId(source));
+
+        // 30,000 already spent: three more items reach 180,000, the fourth would pass 200,000
+        assertThat(response.getSuccessCount()).isEqualTo(3);
+        assertThat(response.getResults().get(3).getFailureReason()).startsWith("Daily transfer limit exceeded");
+        assertThat(spendLimitService.getSpent(userId(source), SpendPeriod.DAY)).isEqualByComparingTo("180000");
+        assertThat(balance(source)).isEqualByComparingTo("820000");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void batchRacingATransferNeverOverdrawsOrWritesHalfABatch(String engine) throws Exception {
+        Wallet source = createWallet(KycLevel.TIER_3, new BigDecimal("1000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+        CountDownLatch start = new CountDownLatch(1);
+
+        CompletableFuture<BatchTransferResponse> batch = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            try {
+                return engine(engine).batchTransfer(batch(source, true,
+                        item(destination, "400"), item(destination, "400")), userId(source));
+            } catch (InvalidTransactionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        CompletableFuture<?> transfer = CompletableFuture.runAsync(() -> {
+            await(start);
+            try {
+                engine(engine).transfer(TransferRequest.builder()
+                        .sourceWalletId(source.getId())
+                        .destinationWalletNumber(destination.getWalletNumber())
+                        .amount(new BigDecimal("500"))
+                        .build(), userId(source));
+            } catch (InvalidTransactionException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        start.countDown();
+        CompletableFuture.allOf(batch, transfer).handle((ok, e) -> null).get(60, TimeUnit.SECONDS);
+
+        // Whatever won, the source's debits add up to exactly what left it
+        BigDecimal sourceBalance = balance(source);
+        assertThat(sourceBalance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(sourceBalance.add(balance(destination))).isEqualByComparingTo("1000");
+        BigDecimal debited = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COALESCE(SUM(amount), 0) FROM ledger_entries WHERE wallet_id = ? AND entry_type = 'DEBIT'",
+                BigDecimal.class, source.getId());
+        assertThat(debited).isEqualByComparingTo(new BigDecimal("1000").subtract(sourceBalance));
+        if (!batch.isCompletedExceptionally()) {
+            assertThat(batch.get().getSuccessCount()).isIn(0, 2);
+        }
+    }
+
+    private void assertEntries(String reference, String amount, String sourceBefore, String destinationBefore) {
+        List<LedgerEntry> entries = ledgerRepository.findByTransactionReference(reference).stream()
+                .sorted(Comparator.comparing(LedgerEntry::getEntryType))
+                .toList();
+        assertThat(entries).extracting(LedgerEntry::getEntryType).containsExactly(EntryType.DEBIT, EntryType.CREDIT);
+        LedgerEntry debit = entries.get(0);
+        LedgerEntry credit = entries.get(1);
+        assertThat(debit.getAmount()).isEqualByComparingTo(amount);
+        assertThat(debit.getBalanceBefore()).isEqualByComparingTo(sourceBefore);
+        assertThat(debit.getBalanceAfter()).isEqualByComparingTo(new BigDecimal(sourceBefore).subtract(new BigDecimal(amount)));
+        assertThat(credit.getAmount()).isEqualByComparingTo(amount);
+        assertThat(credit.getBalanceBefore()).isEqualByComparingTo(destinationBefore);
+        assertThat(credit.getBalanceAfter()).isEqualByComparingTo(new BigDecimal(destinationBefore).add(new BigDecimal(amount)));
+    }
+
+    private static BatchTransferRequest batch(Wallet source, boolean allOrNothing, BatchTransferItem... items) {
+        return BatchTransferRequest.builder()
+                .sourceWalletId(source.getId())
+                .items(List.of(items))
+                .allOrNothing(allOrNothing)
+                .pin("1234")
+                .build();
+    }
+
+    private static BatchTransferItem item(Wallet destination, String amount) {
+        return BatchTransferItem.builder()
+                .destinationWalletNumber(destination.getWalletNumber())
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private BigDecimal balance(Wallet wallet) {
+        return walletRepository.findById(wallet.getId()).orElseThrow().getBalance();
+    }
+
+    private static UUID userId(Wallet wallet) {
+        return wallet.getUser().getId();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized TransactionService engine(String engine) {
+        if (SERIALIZABLE.equals(engine)) {
+            return transactionService;
+        }
+        if (readCommitted == null) {
+            // createBean applies the transaction proxy like any other bean of the context
+            readCommitted = beanFactory.createBean(ReadCommittedTransactionServiceImpl.class);
+        }
+        return readCommitted;
+    }
+}
@@ -0,0 +1,194 @@
+package org.fintech.wallet.service.impl;
+
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdServiceImplTest {
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    @Test
+    void walletNumbersCarryAValidLuhnDigit() {
+        assertThat(IdServiceImpl.formatWalletNumber(7992739871L)).isEqualTo("WLT79927398713");
+        assertThat(IdServiceImpl.formatWalletNumber(0)).isEqualTo("WLT00000000000");
+
+        for (long value = 1; value < 1_000_000_000L; value = value * 7 + 3) {
+            String number = IdServiceImpl.formatWalletNumber(value);
+            assertThat(number).hasSize(14).startsWith("WLT");
+            assertThat(luhnValid(number.substring(3))).as(number).isTrue();
+        }
+    }
+
+    @Test
+    void luhnDigitCatchesASingleDigitTypo() {
+        String digits = IdServiceImpl.formatWalletNumber(1234567890L).substring(3);
+        for (int i = 0; i < digits.length(); i++) {
+            char[] typo = digits.toCharArray();
+            typo[i] = (char) ('0' + (typo[i] - '0' + 1) % 10);
+            assertThat(luhnValid(new String(typo))).isFalse();
+        }
+    }
+
+    @Test
+    void walletNumberSpaceIsBoundedToTenDigits() {
+        assertThat(IdServiceImpl.formatWalletNumber(9_999_999_999L)).startsWith("WLT9999999999");
+        assertThatThrownBy(() -> IdServiceImpl.formatWalletNumber(10_000_000_000L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void walletNumbersComeFromReservedBlocks() {
+        when(walletRepository.nextWalletNumberBlock()).thenReturn(100L, 500L);
+        IdServiceImpl ids = configured(1);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < IdServiceImpl.WALLET_NUMBER_BLOCK_SIZE + 1; i++) {
+            numbers.add(ids.nextWalletNumber());
+        }
+
+        assertThat(numbers.get(0)).isEqualTo(IdServiceImpl.formatWalletNumber(100));
+        assertThat(numbers.get(99)).isEqualTo(IdServiceImpl.formatWalletNumber(199));
+        assertThat(numbers.get(100)).isEqualTo(IdServiceImpl.formatWalletNumber(500));
+        verify(walletRepository, times(2)).nextWalletNumberBlock();
+    }
+
+    @Test
+    void idsCarryTheNodeIdAndIncrease() {
+        IdServiceImpl ids = configured(1023);
+
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = ids.nextId();
+            assertThat(nodeOf(id)).isEqualTo(1023);
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        assertThat(ids.nextReference("TXN")).startsWith("TXN");
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        IdServiceImpl ids = configured(7);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        seen.add(ids.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(seen).hasSize(8 * 20_000);
+    }
+
+    @Test
+    void nodeIdOutsideTenBitsIsRejected() {
+        assertThatThrownBy(() -> configured(1024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> configured(-1)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void unsetNodeIdIsLeasedFromRedis() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false, false, true);
+
+        IdServiceImpl ids = leased();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations, times(3)).setIfAbsent(keys.capture(), anyString(), eq(Duration.ofSeconds(30)));
+        long leasedNode = Long.parseLong(keys.getValue().substring("ids:node:".length()));
+        assertThat(nodeOf(ids.nextId())).isEqualTo(leasedNode);
+    }
+
+    @Test
+    void leaseTakenByAnotherInstanceMovesToAFreeNodeId() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        IdServiceImpl ids = leased();
+        long first = nodeOf(ids.nextId());
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(0L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false, true);
+        ids.renewLease();
+
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations, times(3)).setIfAbsent(keys.capture(), anyString(), any(Duration.class));
+        long second = Long.parseLong(keys.getValue().substring("ids:node:".length()));
+        assertThat(second).isNotEqualTo(first);
+        assertThat(nodeOf(ids.nextId())).isEqualTo(second);
+    }
+
+    @Test
+    void releasedLeaseStopsIssuingIds() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        IdServiceImpl ids = leased();
+
+        ids.releaseLease();
+
+        assertThatThrownBy(ids::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("lease");
+    }
+
+    private IdServiceImpl configured(int nodeId) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getIds().setNodeId(nodeId);
+        return new IdServiceImpl(walletRepository, redisTemplate, appProperties);
+    }
+
+    private IdServiceImpl leased() {
+        return new IdServiceImpl(walletRepository, redisTemplate, new AppProperties());
+    }
+
+    private static long nodeOf(long id) {
+        return (id >>> 12) & 1023;
+    }
+
+    private static boolean luhnValid(String digits) {
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(digits.length() - 1 - i) - '0';
+            if (i % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+        }
+        return sum % 10 == 0;
+    }
+}
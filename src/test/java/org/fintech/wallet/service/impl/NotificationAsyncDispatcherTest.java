@@ -0,0 +1,83 @@
+package org.fintech.wallet.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.Notification;
+import org.fintech.wallet.domain.entity.User;
+import org.fintech.wallet.domain.enums.NotificationChannel;
+import org.fintech.wallet.domain.enums.NotificationPriority;
+import org.fintech.wallet.domain.enums.NotificationType;
+import org.fintech.wallet.kafka.KafkaProducerService;
+import org.fintech.wallet.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NotificationAsyncDispatcherTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final NotificationAsyncDispatcher dispatcher = new NotificationAsyncDispatcher(
+            notificationRepository, kafkaProducerService, new AppProperties(), transactionManager,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void inAppNotificationsAreMarkedSentInOneStatement() {
+        List<Notification> notifications = List.of(inApp(), inApp(), inApp());
+        when(notificationRepository.markAllSent(anyList(), any())).thenReturn(3);
+
+        dispatcher.dispatchAll(notifications);
+
+        verify(notificationRepository).markAllSent(
+                eq(notifications.stream().map(Notification::getId).toList()), any());
+        verify(notificationRepository, never()).markSent(any(), any());
+        verify(kafkaProducerService).publishNotificationEvents(argThat(events -> events.size() == 3));
+        verify(kafkaProducerService, never()).publishNotificationEvent(any());
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void alreadySentNotificationsPublishNothing() {
+        when(notificationRepository.markAllSent(anyList(), any())).thenReturn(0);
+
+        dispatcher.dispatchAll(List.of(inApp()));
+
+        verifyNoInteractions(kafkaProducerService);
+    }
+
+    @Test
+    void failedBulkUpdateIsLeftForTheRetryJob() {
+        when(notificationRepository.markAllSent(anyList(), any())).thenThrow(new IllegalStateException("db down"));
+
+        dispatcher.dispatchAll(List.of(inApp()));
+
+        assertThat(mockingDetails(kafkaProducerService).getInvocations()).isEmpty();
+    }
+
+    private static Notification inApp() {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .user(User.builder().id(UUID.randomUUID()).email("user@test.local").build())
+                .type(NotificationType.TRANSACTION_SUCCESS)
+                .title("Transfer received")
+                .message("You received 100 NGN")
+                .channel(NotificationChannel.IN_APP)
+                .priority(NotificationPriority.MEDIUM)
+                .retryCount(0)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package org.fintech.wallet.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fintech.wallet.domain.enums.NotificationChannel;
+import org.fintech.wallet.domain.enums.NotificationPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationChannelExecutorTest {
+
+    @Test
+    void fullQueueRejectsStraightAway() throws Exception {
+        NotificationChannelExecutor executor = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> running = executor.submit(NotificationPriority.MEDIUM, () -> await(release));
+
+        CompletableFuture<Void> refused = executor.submit(NotificationPriority.MEDIUM, () -> { });
+
+        assertThatThrownBy(refused::get).hasCauseInstanceOf(RejectedExecutionException.class)
+                .hasMessageContaining("queue is full");
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void slotIsFreedWhenTheSendFails() throws Exception {
+        NotificationChannelExecutor executor = executor(1, 0);
+
+        CompletableFuture<Void> failed = executor.submit(NotificationPriority.MEDIUM, () -> {
+            throw new IllegalStateException("provider down");
+        });
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        executor.submit(NotificationPriority.MEDIUM, () -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void submitAfterShutdownFailsWithoutLeakingItsSlot() {
+        NotificationChannelExecutor executor = executor(1, 0);
+        executor.shutdown();
+
+        // With a leaked permit the second submit would be refused as "queue is full"
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<Void> result = executor.submit(NotificationPriority.MEDIUM, () -> { });
+            assertThat(result).isCompletedExceptionally();
+            assertThatThrownBy(result::get).hasCauseInstanceOf(RejectedExecutionException.class)
+                    .satisfies(e -> assertThat(e.getCause().getMessage()).doesNotContain("queue is full"));
+        }
+    }
+
+    private static NotificationChannelExecutor executor(int concurrency, int queueCapacity) {
+        return new NotificationChannelExecutor(NotificationChannel.EMAIL, concurrency, queueCapacity,
+                new SimpleMeterRegistry());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
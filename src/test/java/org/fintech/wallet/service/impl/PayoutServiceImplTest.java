@@ -0,0 +1,178 @@
+package org.fintech.wallet.service.impl;
+
+import org.fintech.wallet.config.AppProperties;
+import org.fintech.wallet.domain.entity.FundHold;
+import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.domain.enums.Currency;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.fintech.wallet.domain.enums.PayoutStatus;
+import org.fintech.wallet.repository.FundHoldRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.service.HoldService;
+import org.fintech.wallet.service.payment.FlutterwaveService;
+import org.fintech.wallet.service.payment.PayoutResult;
+import org.fintech.wallet.service.payment.PaystackService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PayoutServiceImplTest {
+
+    private static final String REFERENCE = "WTH123";
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final FundHoldRepository holdRepository = mock(FundHoldRepository.class);
+    private final HoldService holdService = mock(HoldService.class);
+    private final PaystackService paystackService = mock(PaystackService.class);
+    private final FlutterwaveService flutterwaveService = mock(FlutterwaveService.class);
+    private final AppProperties appProperties = new AppProperties();
+
+    private PayoutServiceImpl payoutService;
+
+    @BeforeEach
+    void setUp() {
+        payoutService = new PayoutServiceImpl(transactionRepository, holdRepository, holdService,
+                paystackService, flutterwaveService, appProperties, mock(PlatformTransactionManager.class));
+        when(transactionRepository.findByReference(REFERENCE)).thenReturn(Optional.of(Transaction.builder()
+                .reference(REFERENCE)
+                .amount(new BigDecimal("2500"))
+                .currency(Currency.NGN)
+                .paymentGateway("PAYSTACK")
+                .description("Withdrawal to 0123456789")
+                .build()));
+    }
+
+    @Test
+    void successfulTransferCapturesTheHold() {
+        when(paystackService.initiateTransfer(eq(REFERENCE), any(), eq("NGN"), eq("0123456789"), eq("058"), anyString()))
+                .thenReturn(new PayoutResult(PayoutStatus.SUCCESS, "TRF_1", "ok"));
+
+        payoutService.startPayout(REFERENCE, "0123456789", "058");
+
+        verify(transactionRepository).setExternalReference(REFERENCE, "TRF_1");
+        verify(holdService).captureHold(REFERENCE);
+    }
+
+    @Test
+    void pendingTransferLeavesTheHoldActive() {
+        when(paystackService.initiateTransfer(anyString(), any(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(PayoutResult.of(PayoutStatus.PENDING, "timeout"));
+
+        payoutService.startPayout(REFERENCE, "0123456789", "058");
+
+        verifyNoInteractions(holdService);
+    }
+
+    @Test
+    void failedTransferReleasesTheHold() {
+        givenActiveHold(LocalDateTime.now().minusMinutes(5), LocalDateTime.now().plusDays(1));
+        when(paystackService.getTransferStatus(REFERENCE)).thenReturn(PayoutResult.of(PayoutStatus.FAILED, "reversed"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verify(holdService).releaseHold(eq(REFERENCE), anyString());
+        verify(holdService, never()).captureHold(any());
+    }
+
+    @Test
+    void unknownTransferIsKeptDuringTheGracePeriod() {
+        givenActiveHold(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        when(paystackService.getTransferStatus(REFERENCE)).thenReturn(PayoutResult.of(PayoutStatus.NOT_FOUND, "none"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verifyNoInteractions(holdService);
+    }
+
+    @Test
+    void unknownTransferIsAbandonedAfterTheGracePeriod() {
+        givenActiveHold(LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1));
+        when(paystackService.getTransferStatus(REFERENCE)).thenReturn(PayoutResult.of(PayoutStatus.NOT_FOUND, "none"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verify(holdService).expireHold(REFERENCE);
+    }
+
+    @Test
+    void pendingTransferPastExpiryIsRecheckedLater() {
+        FundHold hold = givenActiveHold(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusMinutes(1));
+        when(paystackService.getTransferStatus(REFERENCE)).thenReturn(PayoutResult.of(PayoutStatus.PENDING, "pending"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verifyNoInteractions(holdService);
+        verify(holdRepository).postponeExpiry(eq(hold.getId()), eq(HoldStatus.ACTIVE), any());
+    }
+
+    @Test
+    void flutterwaveTransferWithoutAnIdIsLookedUpByReference() {
+        givenFlutterwaveTransferWithoutId();
+        givenActiveHold(LocalDateTime.now().minusMinutes(5), LocalDateTime.now().plusDays(1));
+        when(flutterwaveService.getTransferStatusByReference(REFERENCE))
+                .thenReturn(new PayoutResult(PayoutStatus.SUCCESS, "4711", "successful"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verify(transactionRepository).setExternalReference(REFERENCE, "4711");
+        verify(holdService).captureHold(REFERENCE);
+        verify(flutterwaveService, never()).getTransferStatus(any());
+    }
+
+    @Test
+    void flutterwaveTransferThatTimedOutBeforeAnIdIsAbandonedAfterTheGracePeriod() {
+        givenFlutterwaveTransferWithoutId();
+        givenActiveHold(LocalDateTime.now().minusHours(1), LocalDateTime.now().minusMinutes(1));
+        when(flutterwaveService.getTransferStatusByReference(REFERENCE))
+                .thenReturn(PayoutResult.of(PayoutStatus.NOT_FOUND, "Transfer not found"));
+
+        payoutService.reconcile(REFERENCE);
+
+        verify(holdService).expireHold(REFERENCE);
+        verify(holdRepository, never()).postponeExpiry(any(), any(), any());
+        verify(transactionRepository, never()).setExternalReference(any(), any());
+    }
+
+    @Test
+    void settledHoldIsNotLookedUp() {
+        FundHold hold = givenActiveHold(LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1));
+        hold.setStatus(HoldStatus.CAPTURED);
+
+        payoutService.reconcile(REFERENCE);
+
+        verifyNoInteractions(paystackService, holdService);
+    }
+
+    private void givenFlutterwaveTransferWithoutId() {
+        when(transactionRepository.findByReference(REFERENCE)).thenReturn(Optional.of(Transaction.builder()
+                .reference(REFERENCE)
+                .amount(new BigDecimal("2500"))
+                .currency(Currency.NGN)
+                .paymentGateway("FLUTTERWAVE")
+                .description("Withdrawal to 0123456789")
+                .build()));
+    }
+
+    private FundHold givenActiveHold(LocalDateTime createdAt, LocalDateTime expiresAt) {
+        FundHold hold = FundHold.builder()
+                .id(UUID.randomUUID())
+                .transactionReference(REFERENCE)
+                .amount(new BigDecimal("2500"))
+                .status(HoldStatus.ACTIVE)
+                .createdAt(createdAt)
+                .expiresAt(expiresAt)
+                .build();
+        when(holdRepository.findByTransactionReference(REFERENCE)).thenReturn(Optional.of(hold));
+        return hold;
+    }
+}
@@ -0,0 +1,85 @@
+package org.fintech.wallet.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationBloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(1000, 0.01);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain(UUID.randomUUID().toString())).isFalse();
+        }
+    }
+
+    @Test
+    void addedIdsAreAlwaysFound() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(10_000, 0.01);
+        List<String> ids = randomIds(10_000);
+
+        ids.forEach(filter::add);
+
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(10_000, 0.01);
+        randomIds(10_000).forEach(filter::add);
+
+        long falsePositives = randomIds(100_000).stream().filter(filter::mightContain).count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        RevocationBloomFilter filter = new RevocationBloomFilter(40_000, 0.01);
+        List<List<String>> batches = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            batches.add(randomIds(5_000));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<String> batch : batches) {
+                futures.add(pool.submit(() -> batch.forEach(filter::add)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).allMatch(filter::mightContain));
+    }
+
+    @Test
+    void tinyExpectedSizeStillWorks() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(0, 0.01);
+
+        filter.add("user:1");
+
+        assertThat(filter.mightContain("user:1")).isTrue();
+    }
+
+    private static List<String> randomIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+}
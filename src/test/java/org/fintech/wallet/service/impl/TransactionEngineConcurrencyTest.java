@@ -0,0 +1,231 @@
+package org.fintech.wallet.service.impl;
+
+import jakarta.transaction.InvalidTransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.AbstractIntegrationTest;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.KycLevel;
+import org.fintech.wallet.domain.enums.SpendPeriod;
+import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.service.SpendLimitService;
+import org.fintech.wallet.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs transfers in parallel through both engines against Postgres. The context holds the
+ * default SERIALIZABLE engine; the READ COMMITTED one is created next to it, so both run
+ * against the same database in one test run.
+ */
+@Slf4j
+class TransactionEngineConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final String SERIALIZABLE = "serializable";
+    private static final String READ_COMMITTED = "read-committed";
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    SpendLimitService spendLimitService;
+
+    @Autowired
+    AutowireCapableBeanFactory beanFactory;
+
+    private TransactionService readCommitted;
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void parallelTransfersNeverOverdrawTheSource(String engine) throws Exception {
+        Wallet source = createWallet(KycLevel.TIER_3, new BigDecimal("1000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+
+        List<Runnable> transfers = Collections.nCopies(20, () -> transfer(engine, source, destination, "100"));
+        int succeeded = runConcurrently(20, transfers);
+
+        BigDecimal moved = new BigDecimal("100").multiply(BigDecimal.valueOf(succeeded));
+        Wallet sourceAfter = walletRepository.findById(source.getId()).orElseThrow();
+        assertThat(sourceAfter.getBalance()).isEqualByComparingTo(new BigDecimal("1000").subtract(moved));
+        assertThat(sourceAfter.getAvailableBalance()).isEqualByComparingTo(sourceAfter.getBalance());
+        assertThat(sourceAfter.getBalance()).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(walletRepository.findById(destination.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(moved);
+        // SERIALIZABLE may abort some transfers that would have fit; guarded updates never do
+        assertThat(succeeded).isBetween(1, 10);
+        if (READ_COMMITTED.equals(engine)) {
+            assertThat(succeeded).isEqualTo(10);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void oppositeTransfersKeepTheTotalAndNeverGoNegative(String engine) throws Exception {
+        Wallet first = createWallet(KycLevel.TIER_3, new BigDecimal("500"));
+        Wallet second = createWallet(KycLevel.TIER_3, new BigDecimal("500"));
+
+        List<Runnable> transfers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            transfers.add(() -> transfer(engine, first, second, "100"));
+            transfers.add(() -> transfer(engine, second, first, "100"));
+        }
+        runConcurrently(20, transfers);
+
+        BigDecimal firstBalance = walletRepository.findById(first.getId()).orElseThrow().getBalance();
+        BigDecimal secondBalance = walletRepository.findById(second.getId()).orElseThrow().getBalance();
+        assertThat(firstBalance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(secondBalance).isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        assertThat(firstBalance.add(secondBalance)).isEqualByComparingTo("1000");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SERIALIZABLE, READ_COMMITTED})
+    void parallelTransfersStayWithinTheDailyLimit(String engine) throws Exception {
+        // TIER_1: 50,000 per transaction, 200,000 a day
+        Wallet source = createWallet(KycLevel.TIER_1, new BigDecimal("1000000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+
+        List<Runnable> transfers = Collections.nCopies(10, () -> transfer(engine, source, destination, "50000"));
+        int succeeded = runConcurrently(10, transfers);
+
+        BigDecimal moved = new BigDecimal("50000").multiply(BigDecimal.valueOf(succeeded));
+        assertThat(succeeded).isBetween(1, 4);
+        if (READ_COMMITTED.equals(engine)) {
+            assertThat(succeeded).isEqualTo(4);
+        }
+        assertThat(spendLimitService.getSpent(source.getUser().getId(), SpendPeriod.DAY))
+                .isEqualByComparingTo(moved);
+        assertThat(walletRepository.findById(source.getId()).orElseThrow().getBalance())
+                .isEqualByComparingTo(new BigDecimal("1000000").subtract(moved));
+    }
+
+    /**
+     * Throughput of both engines on the same workload: eight wallets in a ring, each thread
+     * sending from its wallet to the next one, so every transfer shares a row with two others.
+     */
+    @Test
+    void readCommittedThroughputAgainstSerializable() throws Exception {
+        int serializableDone = measureRing(SERIALIZABLE);
+        int readCommittedDone = measureRing(READ_COMMITTED);
+        log.info("Ring of 8 wallets: read-committed completed {}, serializable {} ({}x)",
+                readCommittedDone, serializableDone,
+                String.format("%.2f", readCommittedDone / (double) Math.max(serializableDone, 1)));
+
+        // Guarded updates in wallet id order neither deadlock nor abort; SERIALIZABLE may
+        assertThat(readCommittedDone).isEqualTo(8 * 25);
+        assertThat(serializableDone).isPositive();
+        assertThat(readCommittedDone).isGreaterThanOrEqualTo(serializableDone);
+    }
+
+    private int measureRing(String engine) throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        List<Wallet> ring = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            ring.add(createWallet(KycLevel.TIER_3, new BigDecimal("1000000")));
+        }
+        List<Runnable> workers = new ArrayList<>(threads);
+        List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < threads; i++) {
+            Wallet from = ring.get(i);
+            Wallet to = ring.get((i + 1) % threads);
+            workers.add(() -> {
+                int count = 0;
+                for (int n = 0; n < perThread; n++) {
+                    try {
+                        transfer(engine, from, to, "10");
+                        count++;
+                    } catch (RuntimeException e) {
+                        // aborted; counted as not done
+                    }
+                }
+                done.add(count);
+            });
+        }
+
+        long started = System.nanoTime();
+        runConcurrently(threads, workers);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        int completed = done.stream().mapToInt(Integer::intValue).sum();
+        log.info("{} engine: {} of {} transfers in {} ms ({} transfers/s)",
+                engine, completed, threads * perThread, elapsedMillis,
+                Math.round(completed * 1000.0 / Math.max(elapsedMillis, 1)));
+
+        BigDecimal total = ring.stream()
+                .map(w -> walletRepository.findById(w.getId()).orElseThrow().getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(new BigDecimal("1000000").multiply(BigDecimal.valueOf(threads)));
+        return completed;
+    }
+
+    private void transfer(String engine, Wallet source, Wallet destination, String amount) {
+        try {
+            engine(engine).transfer(TransferRequest.builder()
+                    .sourceWalletId(source.getId())
+                    .destinationWalletNumber(destination.getWalletNumber())
+                    .amount(new BigDecimal(amount))
+                    .build(), source.getUser().getId());
+        } catch (InvalidTransactionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionService engine(String engine) {
+        if (SERIALIZABLE.equals(engine)) {
+            return transactionService;
+        }
+        if (readCommitted == null) {
+            // createBean applies the transaction proxy like any other bean of the context
+            readCommitted = beanFactory.createBean(ReadCommittedTransactionServiceImpl.class);
+        }
+        return readCommitted;
+    }
+
+    // Starts every task at once; returns how many completed without an exception
+    private static int runConcurrently(int threads, List<Runnable> tasks) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (Runnable task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    // rejected by a balance or limit check, or aborted by the database
+                } catch (TimeoutException e) {
+                    throw new IllegalStateException("Transfer did not finish", e);
+                }
+            }
+            return succeeded;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
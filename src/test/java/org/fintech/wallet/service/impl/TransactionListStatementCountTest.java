@@ -0,0 +1,104 @@
+package org.fintech.wallet.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.InvalidTransactionException;
+import org.fintech.wallet.AbstractIntegrationTest;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.KycLevel;
+import org.fintech.wallet.dto.request.TransferRequest;
+import org.fintech.wallet.dto.response.CursorPageResponse;
+import org.fintech.wallet.dto.response.TransactionResponse;
+import org.fintech.wallet.service.AdminService;
+import org.fintech.wallet.service.TransactionService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements behind the transaction lists with Hibernate statistics: a page
+ * costs the same few statements however many rows it holds, with no per-row wallet or user load.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionListStatementCountTest extends AbstractIntegrationTest {
+
+    private static final int TRANSFERS = 30;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    AdminService adminService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Wallet source;
+
+    @BeforeEach
+    void setUp() throws InvalidTransactionException {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        source = createWallet(KycLevel.TIER_3, new BigDecimal("100000"));
+        Wallet destination = createWallet(KycLevel.TIER_3, BigDecimal.ZERO);
+        for (int i = 0; i < TRANSFERS; i++) {
+            transactionService.transfer(TransferRequest.builder()
+                    .sourceWalletId(source.getId())
+                    .destinationWalletNumber(destination.getWalletNumber())
+                    .amount(new BigDecimal("10"))
+                    .description("Transfer " + i)
+                    .build(), userId());
+        }
+    }
+
+    @Test
+    void userTransactionPageIsWalletIdsPlusPagePlusCount() {
+        long small = statements(() -> transactionService.getUserTransactions(userId(), PageRequest.of(0, 5)));
+        Page<TransactionResponse> page = transactionService.getUserTransactions(userId(), PageRequest.of(0, 25));
+        long large = statements(() -> transactionService.getUserTransactions(userId(), PageRequest.of(0, 25)));
+
+        assertThat(page.getContent()).hasSize(25)
+                .allSatisfy(tx -> assertThat(tx.getSourceWalletNumber()).isEqualTo(source.getWalletNumber()));
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void historySliceIsWalletIdsPlusKeysetPlusResponses() {
+        CursorPageResponse<TransactionResponse> first = transactionService.getUserTransactionHistory(userId(), null, 20);
+        long small = statements(() -> transactionService.getUserTransactionHistory(userId(), null, 5));
+        long large = statements(() -> transactionService.getUserTransactionHistory(userId(), first.getNextCursor(), 20));
+
+        assertThat(first.getContent()).hasSize(20);
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void adminSearchByUserIsPagePlusCount() {
+        long small = statements(() -> adminService.searchTransactions(
+                null, userId(), null, null, null, null, PageRequest.of(0, 5)));
+        long large = statements(() -> adminService.searchTransactions(
+                null, userId(), null, null, null, null, PageRequest.of(0, 25)));
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(2);
+    }
+
+    private long statements(Supplier<?> action) {
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private UUID userId() {
+        return source.getUser().getId();
+    }
+}
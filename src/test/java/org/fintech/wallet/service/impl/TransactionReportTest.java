@@ -0,0 +1,108 @@
+package org.fintech.wallet.service.impl;
+
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.fintech.wallet.AbstractIntegrationTest;
+import org.fintech.wallet.domain.enums.Currency;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.domain.enums.TransactionType;
+import org.fintech.wallet.dto.response.TransactionReportResponse;
+import org.fintech.wallet.service.AdminService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The transaction report over a range of generated rows, checked against totals computed
+ * from the same generator. Logs the time the aggregate took and the heap it allocated, which
+ * stays flat however many rows there are. -Dreport.rows=10000000 runs it at production scale.
+ */
+@Slf4j
+class TransactionReportTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = Integer.getInteger("report.rows", 100_000);
+    // The report only ever holds one row per type, status and currency
+    private static final long MAX_ALLOCATED_BYTES = 32L * 1024 * 1024;
+    private static final TransactionType[] TYPES = {
+            TransactionType.TRANSFER, TransactionType.DEPOSIT, TransactionType.WITHDRAWAL};
+    // A range no other test writes to
+    private static final LocalDateTime START = LocalDateTime.of(2001, 1, 1, 0, 0);
+
+    @Autowired
+    AdminService adminService;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void reportAggregatesTheRangeInTheDatabase() {
+        // Row i: type i % 3, FAILED when i % 4 == 0, USD when i is even, amount i % 100 + 1, one second apart
+        new JdbcTemplate(dataSource).update("""
+                INSERT INTO transactions (id, reference, type, amount, fee, currency, status, created_at, version)
+                SELECT gen_random_uuid(), 'RPT' || i,
+                       (ARRAY['TRANSFER', 'DEPOSIT', 'WITHDRAWAL'])[i % 3 + 1],
+                       i % 100 + 1, 0,
+                       CASE WHEN i % 2 = 0 THEN 'USD' ELSE 'NGN' END,
+                       CASE WHEN i % 4 = 0 THEN 'FAILED' ELSE 'SUCCESS' END,
+                       ?::timestamp + make_interval(secs => i), 0
+                FROM generate_series(1, ?) AS i
+                """, START, ROWS);
+
+        Map<TransactionType, Long> countByType = new EnumMap<>(TransactionType.class);
+        Map<TransactionStatus, Long> countByStatus = new EnumMap<>(TransactionStatus.class);
+        Map<Currency, BigDecimal> volumeByCurrency = new EnumMap<>(Currency.class);
+        BigDecimal totalVolume = BigDecimal.ZERO;
+        for (int i = 1; i <= ROWS; i++) {
+            countByType.merge(TYPES[i % 3], 1L, Long::sum);
+            TransactionStatus status = i % 4 == 0 ? TransactionStatus.FAILED : TransactionStatus.SUCCESS;
+            countByStatus.merge(status, 1L, Long::sum);
+            if (status == TransactionStatus.SUCCESS) {
+                BigDecimal amount = BigDecimal.valueOf(i % 100 + 1);
+                totalVolume = totalVolume.add(amount);
+                volumeByCurrency.merge(i % 2 == 0 ? Currency.USD : Currency.NGN, amount, BigDecimal::add);
+            }
+        }
+
+        LocalDateTime end = START.plusSeconds(ROWS + 1L);
+        // Warm up so class loading and query plans are not counted
+        adminService.generateTransactionReport(START.minusDays(1), START);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        TransactionReportResponse report = adminService.generateTransactionReport(START, end);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info("Transaction report over {} rows in {} ms, {} KB allocated", ROWS, elapsedMillis, allocatedBytes / 1024);
+
+        assertThat(allocatedBytes).isLessThan(MAX_ALLOCATED_BYTES);
+
+        assertThat(report.getTotalCount()).isEqualTo(ROWS);
+        assertThat(report.getCountByType()).isEqualTo(countByType);
+        assertThat(report.getCountByStatus()).isEqualTo(countByStatus);
+        assertThat(report.getTotalVolume()).isEqualByComparingTo(totalVolume);
+        assertThat(report.getVolumeByCurrency()).hasSameSizeAs(volumeByCurrency);
+        volumeByCurrency.forEach((currency, volume) ->
+                assertThat(report.getVolumeByCurrency().get(currency)).isEqualByComparingTo(volume));
+    }
+
+    @Test
+    void rowsOutsideTheRangeAreLeftOut() {
+        LocalDateTime empty = LocalDateTime.of(2000, 6, 1, 0, 0);
+
+        TransactionReportResponse report = adminService.generateTransactionReport(empty, empty.plusDays(1));
+
+        assertThat(report.getTotalCount()).isZero();
+        assertThat(report.getTotalVolume()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(report.getCountByType()).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package org.fintech.wallet.service.impl;
+
+import org.fintech.wallet.AbstractIntegrationTest;
+import org.fintech.wallet.domain.entity.Transaction;
+import org.fintech.wallet.domain.entity.Wallet;
+import org.fintech.wallet.domain.enums.HoldStatus;
+import org.fintech.wallet.domain.enums.KycLevel;
+import org.fintech.wallet.domain.enums.PayoutStatus;
+import org.fintech.wallet.domain.enums.TransactionStatus;
+import org.fintech.wallet.dto.response.TransactionResponse;
+import org.fintech.wallet.repository.FundHoldRepository;
+import org.fintech.wallet.repository.TransactionRepository;
+import org.fintech.wallet.service.PaymentService;
+import org.fintech.wallet.service.TransactionService;
+import org.fintech.wallet.service.payment.PayoutResult;
+import org.fintech.wallet.service.payment.PaystackService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WithdrawalPayoutTest extends AbstractIntegrationTest {
+
+    @MockitoBean
+    PaystackService paystackService;
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    PaymentService paymentService;
+
+    @Autowired
+    TransactionRepository transactionRepository;
+
+    @Autowired
+    FundHoldRepository holdRepository;
+
+    @Test
+    void withdrawalIsPaidOutAndCapturedWhenTheTransferSucceeds() {
+        Wallet wallet = createWallet(KycLevel.TIER_2, new BigDecimal("10000"));
+        when(paystackService.initiateTransfer(anyString(), any(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(new PayoutResult(PayoutStatus.PENDING, "TRF_1", "Transfer has been queued"));
+
+        TransactionResponse response = transactionService.withdraw(
+                wallet.getId(), new BigDecimal("2500"), "0123456789", "058");
+
+        // The hold is placed and the transfer requested once it committed
+        String reference = response.getReference();
+        verify(paystackService).initiateTransfer(eq(reference), argThat(amount -> amount.compareTo(new BigDecimal("2500")) == 0),
+                eq("NGN"), eq("0123456789"), eq("058"), anyString());
+        assertThat(holdRepository.findByTransactionReference(reference).orElseThrow().getStatus())
+                .isEqualTo(HoldStatus.ACTIVE);
+        assertThat(transactionRepository.findByReference(reference).orElseThrow().getExternalReference())
+                .isEqualTo("TRF_1");
+        Wallet held = walletRepository.findById(wallet.getId()).orElseThrow();
+        assertThat(held.getBalance()).isEqualByComparingTo("10000");
+        assertThat(held.getAvailableBalance()).isEqualByComparingTo("7500");
+
+        // A webhook claiming failure changes nothing while the transfer API reports success
+        when(paystackService.getTransferStatus(reference))
+                .thenReturn(new PayoutResult(PayoutStatus.SUCCESS, "TRF_1", "success"));
+        paymentService.handlePaymentWebhook("PAYSTACK", reference, "failed");
+
+        assertThat(holdRepository.findByTransactionReference(reference).orElseThrow().getStatus())
+                .isEqualTo(HoldStatus.CAPTURED);
+        Transaction transaction = transactionRepository.findByReference(reference).orElseThrow();
+        assertThat(transaction.getStatus()).isEqualTo(TransactionStatus.SUCCESS);
+        Wallet captured = walletRepository.findById(wallet.getId()).orElseThrow();
+        assertThat(captured.getBalance()).isEqualByComparingTo("7500");
+        assertThat(captured.getAvailableBalance()).isEqualByComparingTo("7500");
+    }
+
+    @Test
+    void rejectedTransferReleasesTheHold() {
+        Wallet wallet = createWallet(KycLevel.TIER_2, new BigDecimal("10000"));
+        when(paystackService.initiateTransfer(anyString(), any(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(PayoutResult.of(PayoutStatus.FAILED, "Transfer rejected: 400 BAD_REQUEST"));
+
+        TransactionResponse response = transactionService.withdraw(
+                wallet.getId(), new BigDecimal("2500"), "0123456789", "058");
+
+        assertThat(holdRepository.findByTransactionReference(response.getReference()).orElseThrow().getStatus())
+                .isEqualTo(HoldStatus.RELEASED);
+        assertThat(walletRepository.findById(wallet.getId()).orElseThrow().getAvailableBalance())
+                .isEqualByComparingTo("10000");
+    }
+}
@@ -0,0 +1,49 @@
+package org.fintech.wallet.service.payment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaystackServiceTest {
+
+    private static final String SECRET = "sk_test_secret";
+    private static final String BODY = "{\"event\":\"transfer.success\",\"data\":{\"reference\":\"wth123\"}}";
+
+    private final PaystackService paystackService = new PaystackService(new RestTemplate());
+
+    @Test
+    void acceptsTheHmacOfTheRawBody() throws Exception {
+        ReflectionTestUtils.setField(paystackService, "paystackSecretKey", SECRET);
+
+        assertThat(paystackService.isValidSignature(BODY, sign(BODY))).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedBodiesAndMissingSignatures() throws Exception {
+        ReflectionTestUtils.setField(paystackService, "paystackSecretKey", SECRET);
+
+        assertThat(paystackService.isValidSignature(BODY.replace("wth123", "wth999"), sign(BODY))).isFalse();
+        assertThat(paystackService.isValidSignature(BODY, null)).isFalse();
+        assertThat(paystackService.isValidSignature(BODY, "not-hex")).isFalse();
+    }
+
+    @Test
+    void rejectsEverythingWithoutASecretKey() throws Exception {
+        ReflectionTestUtils.setField(paystackService, "paystackSecretKey", "");
+
+        assertThat(paystackService.isValidSignature(BODY, sign(BODY))).isFalse();
+    }
+
+    private static String sign(String body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
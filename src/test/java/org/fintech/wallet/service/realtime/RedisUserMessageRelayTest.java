@@ -0,0 +1,244 @@
+package org.fintech.wallet.service.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.fintech.wallet.config.AppProperties;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two relay nodes, "node-a" and "node-b", sharing one Redis: the session registry counts,
+ * the routing of a flush and the cleanup of a node nobody listens for.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisUserMessageRelayTest {
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static RedisMessageListenerContainer listenerContainer;
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @AfterAll
+    static void disconnect() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("node-a");
+        nodeB = new Node("node-b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerContainer.removeMessageListener(nodeA.relay);
+        listenerContainer.removeMessageListener(nodeB.relay);
+    }
+
+    @Test
+    void connectAndDisconnectCountSessionsPerNode() {
+        String user = UUID.randomUUID().toString();
+
+        nodeA.connect("a-1", user);
+        nodeA.connect("a-2", user);
+        nodeA.connect("a-2", user); // repeated event, counted once
+        nodeB.connect("b-1", user);
+
+        assertThat(sessions(user)).containsOnly(Map.entry("node-a", "2"), Map.entry("node-b", "1"));
+
+        nodeA.disconnect("a-1", user);
+        nodeA.disconnect("a-1", user); // repeated event, released once
+        assertThat(sessions(user)).containsOnly(Map.entry("node-a", "1"), Map.entry("node-b", "1"));
+
+        nodeA.disconnect("a-2", user);
+        assertThat(nodeA.registry.nodesByUser(List.of(user))).containsOnly(Map.entry(user, Set.of("node-b")));
+
+        nodeB.disconnect("b-1", user);
+        assertThat(nodeA.registry.nodesByUser(List.of(user))).isEmpty();
+    }
+
+    @Test
+    void flushDeliversLocallyAndPublishesOnceToEachOtherNode() {
+        String onA = UUID.randomUUID().toString();
+        String onB = UUID.randomUUID().toString();
+        String onBoth = UUID.randomUUID().toString();
+        String offline = UUID.randomUUID().toString();
+        nodeA.connect("a-1", onA);
+        nodeB.connect("b-1", onB);
+        nodeA.connect("a-2", onBoth);
+        nodeB.connect("b-2", onBoth);
+        awaitSubscribed(nodeB);
+
+        for (String user : List.of(onA, onB, onBoth, offline)) {
+            nodeA.relay.sendToUser(UUID.fromString(user), "/queue/notifications", Map.of("for", user));
+        }
+        nodeA.relay.flush();
+
+        assertThat(nodeA.destinations()).containsExactlyInAnyOrder(
+                "/user/" + onA + "/queue/notifications", "/user/" + onBoth + "/queue/notifications");
+        await(() -> nodeB.delivered.size() == 2);
+        assertThat(nodeB.destinations()).containsExactlyInAnyOrder(
+                "/user/" + onB + "/queue/notifications", "/user/" + onBoth + "/queue/notifications");
+        assertThat(nodeB.payloads()).contains("{\"for\":\"" + onB + "\"}");
+        assertThat(nodeA.relayed("local")).isEqualTo(2);
+        assertThat(nodeA.relayed("remote")).isEqualTo(2);
+        assertThat(nodeA.relayed("offline")).isEqualTo(1);
+    }
+
+    @Test
+    void nodeWithoutReceiversIsForgotten() {
+        String user = UUID.randomUUID().toString();
+        // node-c registers a session, then dies without cleaning up: nobody subscribes to its channel
+        new WebSocketSessionRegistry(redisTemplate, properties("node-c")).onConnected(connected("c-1", user));
+        nodeA.connect("a-1", user);
+
+        nodeA.relay.sendToUser(UUID.fromString(user), "/queue/notifications", Map.of("n", 1));
+        nodeA.relay.flush();
+
+        assertThat(nodeA.delivered).hasSize(1);
+        assertThat(nodeA.relayed("offline")).isEqualTo(1);
+        assertThat(nodeA.relayed("remote")).isZero();
+        assertThat(nodeA.registry.nodesByUser(List.of(user))).containsOnly(Map.entry(user, Set.of("node-a")));
+    }
+
+    private static Map<Object, Object> sessions(String user) {
+        return redisTemplate.opsForHash().entries("ws:user:" + user);
+    }
+
+    // Subscriptions are set up asynchronously; a publish before that would find no receivers
+    private static void awaitSubscribed(Node node) {
+        byte[] channel = ("ws:relay:" + node.registry.getNodeId()).getBytes(StandardCharsets.UTF_8);
+        await(() -> {
+            List<?> reply = redisTemplate.execute((RedisCallback<List<?>>) connection ->
+                    (List<?>) connection.execute("PUBSUB", "NUMSUB".getBytes(StandardCharsets.UTF_8), channel));
+            return reply != null && ((Number) reply.get(1)).longValue() > 0;
+        });
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static AppProperties properties(String nodeId) {
+        AppProperties appProperties = new AppProperties();
+        appProperties.getWebsocket().setRelay("redis");
+        appProperties.getWebsocket().setNodeId(nodeId);
+        return appProperties;
+    }
+
+    private static SessionConnectedEvent connected(String sessionId, String user) {
+        return new SessionConnectedEvent(RedisUserMessageRelayTest.class,
+                stompMessage(SimpMessageType.CONNECT_ACK, sessionId), principal(user));
+    }
+
+    private static Message<byte[]> stompMessage(SimpMessageType type, String sessionId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(type);
+        headers.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private static Principal principal(String user) {
+        return () -> user;
+    }
+
+    // One application node: its registry, its relay, and what reached its local sessions
+    private static class Node {
+
+        final WebSocketSessionRegistry registry;
+        final RedisUserMessageRelay relay;
+        final Queue<Message<?>> delivered = new ConcurrentLinkedQueue<>();
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        Node(String nodeId) {
+            AppProperties appProperties = properties(nodeId);
+            registry = new WebSocketSessionRegistry(redisTemplate, appProperties);
+            SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> delivered.add(message));
+            relay = new RedisUserMessageRelay(messagingTemplate, mock(SimpUserRegistry.class), registry,
+                    redisTemplate, listenerContainer, new ObjectMapper(), appProperties, meterRegistry);
+        }
+
+        void connect(String sessionId, String user) {
+            registry.onConnected(connected(sessionId, user));
+        }
+
+        void disconnect(String sessionId, String user) {
+            registry.onDisconnected(new SessionDisconnectEvent(RedisUserMessageRelayTest.class,
+                    stompMessage(SimpMessageType.DISCONNECT, sessionId), sessionId, CloseStatus.NORMAL, principal(user)));
+        }
+
+        List<String> destinations() {
+            return delivered.stream().map(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders())).toList();
+        }
+
+        List<String> payloads() {
+            return delivered.stream().map(m -> new String((byte[]) m.getPayload(), StandardCharsets.UTF_8)).toList();
+        }
+
+        double relayed(String outcome) {
+            return meterRegistry.counter("wallet.websocket.relay.messages", "outcome", outcome).count();
+        }
+    }
+}